@@ -36,6 +36,8 @@ public enum Feature {
   WEAK_VALUES,
   SOFT_VALUES,
 
+  INTRUSIVE_TABLE,
+  COMPACT_TIME,
   EXPIRE_ACCESS,
   EXPIRE_WRITE,
   REFRESH_WRITE,
@@ -50,6 +52,20 @@ public enum Feature {
       Feature.EXPIRE_ACCESS, Feature.WEAK_KEYS, Feature.INFIRM_VALUES,
       Feature.WEAK_VALUES, Feature.SOFT_VALUES);
 
+  /** Returns the bit flag that uniquely identifies this feature within a set of features. */
+  public int flag() {
+    return 1 << ordinal();
+  }
+
+  /** Returns the bit flags that uniquely identify the set of features. */
+  public static int makeFlags(Iterable<Feature> features) {
+    int flags = 0;
+    for (Feature feature : features) {
+      flags |= feature.flag();
+    }
+    return flags;
+  }
+
   public static String makeEnumName(Iterable<Feature> features) {
     return Streams.stream(features)
         .map(Feature::name)
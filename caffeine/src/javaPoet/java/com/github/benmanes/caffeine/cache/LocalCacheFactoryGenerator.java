@@ -16,9 +16,7 @@
 package com.github.benmanes.caffeine.cache;
 
 import static com.github.benmanes.caffeine.cache.Specifications.BOUNDED_LOCAL_CACHE;
-import static com.github.benmanes.caffeine.cache.Specifications.BUILDER;
 import static com.github.benmanes.caffeine.cache.Specifications.BUILDER_PARAM;
-import static com.github.benmanes.caffeine.cache.Specifications.CACHE_LOADER;
 import static com.github.benmanes.caffeine.cache.Specifications.CACHE_LOADER_PARAM;
 import static com.github.benmanes.caffeine.cache.Specifications.kTypeVar;
 import static com.github.benmanes.caffeine.cache.Specifications.vTypeVar;
@@ -27,8 +25,6 @@ import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -84,16 +80,6 @@ import com.squareup.javapoet.TypeSpec;
  * @author ben.manes@gmail.com (Ben Manes)
  */
 public final class LocalCacheFactoryGenerator {
-  static final FieldSpec LOOKUP = FieldSpec.builder(MethodHandles.Lookup.class, "LOOKUP")
-      .initializer("$T.lookup()", MethodHandles.class)
-      .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-      .build();
-  static final FieldSpec FACTORY = FieldSpec.builder(MethodType.class, "FACTORY")
-      .initializer("$T.methodType($T.class, $T.class, $T.class, $T.class)",
-          MethodType.class, void.class, BUILDER, CACHE_LOADER.rawType, TypeName.BOOLEAN)
-      .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-      .build();
-
   final Feature[] featureByIndex = { null, null, Feature.LISTENING, Feature.STATS,
       Feature.MAXIMUM_SIZE, Feature.MAXIMUM_WEIGHT, Feature.EXPIRE_ACCESS,
       Feature.EXPIRE_WRITE, Feature.REFRESH_WRITE};
@@ -105,6 +91,7 @@ public final class LocalCacheFactoryGenerator {
   final ZoneId timeZone = ZoneId.of("America/Los_Angeles");
   final Path directory;
 
+  NavigableMap<String, Set<Feature>> classNameToFeatures;
   TypeSpec.Builder factory;
 
   private final List<TypeSpec> factoryTypes;
@@ -116,9 +103,7 @@ public final class LocalCacheFactoryGenerator {
   }
 
   void generate() throws IOException {
-    factory = TypeSpec.classBuilder("LocalCacheFactory")
-        .addModifiers(Modifier.FINAL)
-        .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+    factory = TypeSpec.interfaceBuilder("LocalCacheFactory");
     addClassJavaDoc();
     addConstants();
 
@@ -129,12 +114,22 @@ public final class LocalCacheFactoryGenerator {
   }
 
   private void addFactoryMethods() {
+    factory.addMethod(MethodSpec.methodBuilder("newInstance")
+        .addTypeVariable(kTypeVar)
+        .addTypeVariable(vTypeVar)
+        .returns(BOUNDED_LOCAL_CACHE)
+        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+        .addParameter(BUILDER_PARAM)
+        .addParameter(CACHE_LOADER_PARAM.toBuilder().addAnnotation(Nullable.class).build())
+        .addParameter(boolean.class, "async")
+        .addJavadoc("Returns a cache of this factory's type.\n")
+        .build());
     factory.addMethod(MethodSpec.methodBuilder("newBoundedLocalCache")
         .addTypeVariable(kTypeVar)
         .addTypeVariable(vTypeVar)
         .returns(BOUNDED_LOCAL_CACHE)
-        .addModifiers(Modifier.STATIC)
-        .addCode(LocalCacheSelectorCode.get())
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addCode(LocalCacheSelectorCode.get(classNameToFeatures))
         .addParameter(BUILDER_PARAM)
         .addParameter(CACHE_LOADER_PARAM.toBuilder().addAnnotation(Nullable.class).build())
         .addParameter(boolean.class, "async")
@@ -194,13 +189,10 @@ public final class LocalCacheFactoryGenerator {
               .initializer("$S", constant)
               .build());
     }
-
-    factory.addField(FACTORY);
-    factory.addField(LOOKUP);
   }
 
   private void generateLocalCaches() {
-    NavigableMap<String, Set<Feature>> classNameToFeatures = getClassNameToFeatures();
+    classNameToFeatures = getClassNameToFeatures();
     classNameToFeatures.forEach((className, features) -> {
       String higherKey = classNameToFeatures.higherKey(className);
       boolean isLeaf = (higherKey == null) || !higherKey.startsWith(className);
@@ -264,7 +256,9 @@ public final class LocalCacheFactoryGenerator {
 
   private void addClassJavaDoc() {
     factory.addJavadoc("<em>WARNING: GENERATED CODE</em>\n\n")
-        .addJavadoc("A factory for caches optimized for a particular configuration.\n")
+        .addJavadoc("A factory for caches optimized for a particular configuration. Each\n")
+        .addJavadoc("generated cache type holds its factory as a constant so that selecting it\n")
+        .addJavadoc("loads only that type.\n")
         .addJavadoc("\n@author ben.manes@gmail.com (Ben Manes)\n");
   }
 
@@ -15,16 +15,21 @@
  */
 package com.github.benmanes.caffeine.cache;
 
-import static com.github.benmanes.caffeine.cache.LocalCacheFactoryGenerator.FACTORY;
-import static com.github.benmanes.caffeine.cache.LocalCacheFactoryGenerator.LOOKUP;
-import static com.github.benmanes.caffeine.cache.Specifications.BOUNDED_LOCAL_CACHE;
-import static com.github.benmanes.caffeine.cache.Specifications.LOCAL_CACHE_FACTORY;
+import static com.github.benmanes.caffeine.cache.Specifications.PACKAGE_NAME;
 
-import java.lang.invoke.MethodHandle;
+import java.util.Map;
+import java.util.Set;
 
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 
 /**
+ * Generates the selector that maps the builder's configuration to the feature flags of a cache
+ * type and constructs it through that type's factory, so that no reflection is needed when
+ * creating a cache. The factories are typed by the {@code LocalCacheFactory} interface so that
+ * verifying the selector does not load every cache type, as returning each directly constructed
+ * type as a {@code BoundedLocalCache} would.
+ *
  * @author ben.manes@gmail.com (Ben Manes)
  */
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
@@ -33,49 +38,47 @@ public final class LocalCacheSelectorCode {
 
   private LocalCacheSelectorCode() {
     block = CodeBlock.builder()
-        .addStatement("$1T sb = new $1T(\"$2N.\")",
-            StringBuilder.class, LOCAL_CACHE_FACTORY.packageName());
+        .addStatement("int features = 0");
   }
 
   private LocalCacheSelectorCode keys() {
     block.beginControlFlow("if (builder.isStrongKeys())")
-            .addStatement("sb.append('S')")
+            .addStatement("features |= $L", Feature.STRONG_KEYS.flag())
         .nextControlFlow("else")
-            .addStatement("sb.append('W')")
+            .addStatement("features |= $L", Feature.WEAK_KEYS.flag())
         .endControlFlow();
     return this;
   }
 
   private LocalCacheSelectorCode values() {
     block.beginControlFlow("if (builder.isStrongValues())")
-            .addStatement("sb.append('S')")
+            .addStatement("features |= $L", Feature.STRONG_VALUES.flag())
         .nextControlFlow("else")
-            .addStatement("sb.append('I')")
+            .addStatement("features |= $L", Feature.INFIRM_VALUES.flag())
         .endControlFlow();
     return this;
   }
 
   private LocalCacheSelectorCode removalListener() {
     block.beginControlFlow("if (builder.removalListener != null)")
-            .addStatement("sb.append('L')")
+            .addStatement("features |= $L", Feature.LISTENING.flag())
         .endControlFlow();
     return this;
   }
 
   private LocalCacheSelectorCode stats() {
     block.beginControlFlow("if (builder.isRecordingStats())")
-            .addStatement("sb.append('S')")
+            .addStatement("features |= $L", Feature.STATS.flag())
         .endControlFlow();
     return this;
   }
 
   private LocalCacheSelectorCode maximum() {
     block.beginControlFlow("if (builder.evicts())")
-            .addStatement("sb.append('M')")
             .beginControlFlow("if (builder.isWeighted())")
-                .addStatement("sb.append('W')")
+                .addStatement("features |= $L", Feature.MAXIMUM_WEIGHT.flag())
             .nextControlFlow("else")
-                .addStatement("sb.append('S')")
+                .addStatement("features |= $L", Feature.MAXIMUM_SIZE.flag())
             .endControlFlow()
         .endControlFlow();
     return this;
@@ -83,29 +86,29 @@ public final class LocalCacheSelectorCode {
 
   private LocalCacheSelectorCode expires() {
     block.beginControlFlow("if (builder.expiresAfterAccess() || builder.expiresVariable())")
-            .addStatement("sb.append('A')")
+            .addStatement("features |= $L", Feature.EXPIRE_ACCESS.flag())
         .endControlFlow()
         .beginControlFlow("if (builder.expiresAfterWrite())")
-            .addStatement("sb.append('W')")
+            .addStatement("features |= $L", Feature.EXPIRE_WRITE.flag())
         .endControlFlow()
         .beginControlFlow("if (builder.refreshAfterWrite())")
-            .addStatement("sb.append('R')")
+            .addStatement("features |= $L", Feature.REFRESH_WRITE.flag())
         .endControlFlow();
     return this;
   }
 
-  private LocalCacheSelectorCode selector() {
-    block
-        .beginControlFlow("try")
-            .addStatement("Class<?> clazz = Class.forName(sb.toString())")
-            .addStatement("$T handle = $N.findConstructor(clazz, $N)",
-                MethodHandle.class, LOOKUP, FACTORY)
-            .addStatement("return ($T) handle.invoke(builder, cacheLoader, async)",
-                BOUNDED_LOCAL_CACHE)
-        .nextControlFlow("catch ($T | $T e)", RuntimeException.class, Error.class)
-            .addStatement("throw e")
-        .nextControlFlow("catch ($T t)", Throwable.class)
-            .addStatement("throw new $T(sb.toString(), t)", IllegalStateException.class)
+  private LocalCacheSelectorCode selector(Map<String, Set<Feature>> classNameToFeatures) {
+    block.beginControlFlow("switch (features)");
+    classNameToFeatures.forEach((className, features) -> {
+      block.add("case $L:\n", Feature.makeFlags(features)).indent()
+          .addStatement("return $T.FACTORY.newInstance(builder, cacheLoader, async)",
+              ClassName.get(PACKAGE_NAME, className))
+          .unindent();
+    });
+    block.add("default:\n").indent()
+            .addStatement("throw new $T($S + $T.toBinaryString(features))",
+                IllegalStateException.class, "Unsupported features: ", Integer.class)
+        .unindent()
         .endControlFlow();
     return this;
   }
@@ -114,7 +117,14 @@ public final class LocalCacheSelectorCode {
     return block.build();
   }
 
-  public static CodeBlock get() {
+  /**
+   * Returns the selector's code, which constructs the cache type that is associated with the
+   * builder's configuration using its factory.
+   *
+   * @param classNameToFeatures the generated cache types and their features
+   * @return the selector's code
+   */
+  public static CodeBlock get(Map<String, Set<Feature>> classNameToFeatures) {
     return new LocalCacheSelectorCode()
         .keys()
         .values()
@@ -122,7 +132,7 @@ public final class LocalCacheSelectorCode {
         .stats()
         .maximum()
         .expires()
-        .selector()
+        .selector(classNameToFeatures)
         .build();
   }
 }
@@ -39,8 +39,6 @@ import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -60,6 +58,7 @@ import com.github.benmanes.caffeine.cache.node.AddConstructors;
 import com.github.benmanes.caffeine.cache.node.AddDeques;
 import com.github.benmanes.caffeine.cache.node.AddExpiration;
 import com.github.benmanes.caffeine.cache.node.AddFactoryMethods;
+import com.github.benmanes.caffeine.cache.node.AddHashTable;
 import com.github.benmanes.caffeine.cache.node.AddHealth;
 import com.github.benmanes.caffeine.cache.node.AddKey;
 import com.github.benmanes.caffeine.cache.node.AddMaximum;
@@ -93,6 +92,8 @@ import com.squareup.javapoet.TypeSpec;
  *   <li>strong, weak, or soft values
  *   <li>access timestamp
  *   <li>write timestamp
+ *   <li>intrusive hash table links, so that the node is the hash table's entry
+ *   <li>compact timestamps, stored as 32-bit values with a coarse resolution
  *   <li>weight
  * </ul>
  * <p>
@@ -104,23 +105,16 @@ import com.squareup.javapoet.TypeSpec;
  */
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class NodeFactoryGenerator {
-  static final FieldSpec LOOKUP = FieldSpec.builder(MethodHandles.Lookup.class, "LOOKUP")
-      .initializer("$T.lookup()", MethodHandles.class)
-      .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-      .build();
-  static final FieldSpec FACTORY = FieldSpec.builder(MethodType.class, "FACTORY")
-      .initializer("$T.methodType($T.class)", MethodType.class, void.class)
-      .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-      .build();
-
   final List<NodeRule> rules = List.of(new AddSubtype(), new AddConstructors(),
-      new AddKey(), new AddValue(), new AddMaximum(), new AddExpiration(), new AddDeques(),
-      new AddFactoryMethods(),  new AddHealth(), new Finalize());
-  final Feature[] featureByIndex = { null, null, Feature.EXPIRE_ACCESS, Feature.EXPIRE_WRITE,
-      Feature.REFRESH_WRITE, Feature.MAXIMUM_SIZE, Feature.MAXIMUM_WEIGHT };
+      new AddKey(), new AddValue(), new AddHashTable(), new AddMaximum(), new AddExpiration(),
+      new AddDeques(), new AddFactoryMethods(),  new AddHealth(), new Finalize());
+  final Feature[] featureByIndex = { null, null, Feature.INTRUSIVE_TABLE, Feature.COMPACT_TIME,
+      Feature.EXPIRE_ACCESS, Feature.EXPIRE_WRITE, Feature.REFRESH_WRITE, Feature.MAXIMUM_SIZE,
+      Feature.MAXIMUM_WEIGHT };
   final ZoneId timeZone = ZoneId.of("America/Los_Angeles");
   final Path directory;
 
+  NavigableMap<String, Set<Feature>> classNameToFeatures;
   TypeSpec.Builder nodeFactory;
 
   private final List<TypeSpec> nodeTypes;
@@ -206,9 +200,6 @@ public final class NodeFactoryGenerator {
     nodeFactory.addField(FieldSpec.builder(rawReferenceKeyType, DEAD_WEAK_KEY, modifiers)
         .initializer("new $T(null, null)", rawReferenceKeyType)
         .build());
-
-    nodeFactory.addField(FACTORY);
-    nodeFactory.addField(LOOKUP);
   }
 
   private void addKeyMethods() {
@@ -265,7 +256,7 @@ public final class NodeFactoryGenerator {
         .addTypeVariable(vTypeVar)
         .addParameter(BUILDER_PARAM)
         .addParameter(boolean.class, "isAsync")
-        .addCode(NodeSelectorCode.get())
+        .addCode(NodeSelectorCode.get(classNameToFeatures))
         .returns(NODE_FACTORY)
         .build());
     nodeFactory.addMethod(MethodSpec.methodBuilder("weakValues")
@@ -280,10 +271,22 @@ public final class NodeFactoryGenerator {
         .addStatement("return false")
         .returns(boolean.class)
         .build());
+    nodeFactory.addMethod(MethodSpec.methodBuilder("intrusiveHashTable")
+        .addJavadoc("Returns whether this factory's nodes may be linked into an intrusive table.\n")
+        .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+        .addStatement("return false")
+        .returns(boolean.class)
+        .build());
+    nodeFactory.addMethod(MethodSpec.methodBuilder("compactTimestamps")
+        .addJavadoc("Returns whether this factory stores the timestamps in a compact form.\n")
+        .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+        .addStatement("return false")
+        .returns(boolean.class)
+        .build());
   }
 
   private void generatedNodes() {
-    NavigableMap<String, Set<Feature>> classNameToFeatures = getClassNameToFeatures();
+    classNameToFeatures = getClassNameToFeatures();
     classNameToFeatures.forEach((className, features) -> {
       String higherKey = classNameToFeatures.higherKey(className);
       boolean isLeaf = (higherKey == null) || !higherKey.startsWith(className);
@@ -298,6 +301,13 @@ public final class NodeFactoryGenerator {
       Set<Feature> features = getFeatures(combination);
       String className = Feature.makeClassName(features);
       classNameToFeatures.put(encode(className), ImmutableSet.copyOf(features));
+
+      // Ensure that the parent types are generated for features that may be omitted from a leaf
+      for (int i = 2; i < features.size(); i++) {
+        var parentFeatures = ImmutableSet.copyOf(Iterables.limit(features, i));
+        classNameToFeatures.putIfAbsent(
+            encode(Feature.makeClassName(parentFeatures)), parentFeatures);
+      }
     }
     return classNameToFeatures;
   }
@@ -314,6 +324,14 @@ public final class NodeFactoryGenerator {
     if (features.contains(Feature.MAXIMUM_WEIGHT)) {
       features.remove(Feature.MAXIMUM_SIZE);
     }
+    if (!features.contains(Feature.STRONG_KEYS) || !features.contains(Feature.STRONG_VALUES)
+        || features.contains(Feature.COMPACT_TIME)) {
+      // Limit the number of generated types by supporting only the most common configuration
+      features.remove(Feature.INTRUSIVE_TABLE);
+    }
+    if (!Feature.usesExpirationTicker(features)) {
+      features.remove(Feature.COMPACT_TIME);
+    }
     return features;
   }
 
@@ -342,13 +360,15 @@ public final class NodeFactoryGenerator {
   private Set<List<Object>> combinations() {
     var keyStrengths = Set.of(Feature.STRONG_KEYS, Feature.WEAK_KEYS);
     var valueStrengths = Set.of(Feature.STRONG_VALUES, Feature.WEAK_VALUES, Feature.SOFT_VALUES);
+    var intrusiveTable = Set.of(false, true);
+    var compactTime = Set.of(false, true);
     var expireAfterAccess = Set.of(false, true);
     var expireAfterWrite = Set.of(false, true);
     var refreshAfterWrite = Set.of(false, true);
     var maximumSize = Set.of(false, true);
     var weighed = Set.of(false, true);
 
-    return Sets.cartesianProduct(keyStrengths, valueStrengths,
+    return Sets.cartesianProduct(keyStrengths, valueStrengths, intrusiveTable, compactTime,
         expireAfterAccess, expireAfterWrite, refreshAfterWrite, maximumSize, weighed);
   }
 
@@ -360,6 +380,8 @@ public final class NodeFactoryGenerator {
         .replaceFirst("_STRONG_VALUES", "S")
         .replaceFirst("_WEAK_VALUES", "W")
         .replaceFirst("_SOFT_VALUES", "D") // doux
+        .replaceFirst("_INTRUSIVE_TABLE", "T")
+        .replaceFirst("_COMPACT_TIME", "C")
         .replaceFirst("_EXPIRE_ACCESS", "A")
         .replaceFirst("_EXPIRE_WRITE", "W")
         .replaceFirst("_REFRESH_WRITE", "R")
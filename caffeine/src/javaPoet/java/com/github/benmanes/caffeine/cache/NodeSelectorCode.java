@@ -15,15 +15,19 @@
  */
 package com.github.benmanes.caffeine.cache;
 
-import static com.github.benmanes.caffeine.cache.NodeFactoryGenerator.FACTORY;
-import static com.github.benmanes.caffeine.cache.NodeFactoryGenerator.LOOKUP;
-import static com.github.benmanes.caffeine.cache.Specifications.NODE_FACTORY;
+import static com.github.benmanes.caffeine.cache.Specifications.PACKAGE_NAME;
 
-import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 
 /**
+ * Generates the selector that maps the builder's configuration to the feature flags of a node
+ * type and constructs its factory directly, so that no reflection is needed when creating a cache.
+ *
  * @author ben.manes@gmail.com (Ben Manes)
  */
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
@@ -32,26 +36,35 @@ public final class NodeSelectorCode {
 
   private NodeSelectorCode() {
     block = CodeBlock.builder()
-        .addStatement("$1T sb = new $1T(\"$2N.\")",
-            StringBuilder.class, NODE_FACTORY.rawType.packageName());
+        .beginControlFlow("if (builder.interner)")
+            .addStatement("return new $T<>()", ClassName.get(PACKAGE_NAME, "Interned"))
+        .endControlFlow()
+        .addStatement("int features = 0");
   }
 
   private NodeSelectorCode keys() {
     block.beginControlFlow("if (builder.isStrongKeys())")
-            .addStatement("sb.append('P')")
+            .addStatement("features |= $L", Feature.STRONG_KEYS.flag())
         .nextControlFlow("else")
-            .addStatement("sb.append('F')")
+            .addStatement("features |= $L", Feature.WEAK_KEYS.flag())
         .endControlFlow();
     return this;
   }
 
   private NodeSelectorCode values() {
     block.beginControlFlow("if (builder.isStrongValues())")
-            .addStatement("sb.append('S')")
+            .addStatement("features |= $L", Feature.STRONG_VALUES.flag())
         .nextControlFlow("else if (builder.isWeakValues())")
-            .addStatement("sb.append('W')")
+            .addStatement("features |= $L", Feature.WEAK_VALUES.flag())
         .nextControlFlow("else")
-            .addStatement("sb.append('D')")
+            .addStatement("features |= $L", Feature.SOFT_VALUES.flag())
+        .endControlFlow();
+    return this;
+  }
+
+  private NodeSelectorCode hashTable() {
+    block.beginControlFlow("if (builder.hasIntrusiveHashTable())")
+            .addStatement("features |= $L", Feature.INTRUSIVE_TABLE.flag())
         .endControlFlow();
     return this;
   }
@@ -60,23 +73,28 @@ public final class NodeSelectorCode {
     block
         .beginControlFlow("if (builder.expiresVariable())")
             .beginControlFlow("if (builder.refreshAfterWrite())")
-                .addStatement("sb.append('A')")
+                .addStatement("features |= $L", Feature.EXPIRE_ACCESS.flag())
                 .beginControlFlow("if (builder.evicts())")
-                    .addStatement("sb.append('W')")
+                    .addStatement("features |= $L", Feature.EXPIRE_WRITE.flag())
                 .endControlFlow()
             .nextControlFlow("else")
-                .addStatement("sb.append('W')")
+                .addStatement("features |= $L", Feature.EXPIRE_WRITE.flag())
             .endControlFlow()
         .nextControlFlow("else")
             .beginControlFlow("if (builder.expiresAfterAccess())")
-                .addStatement("sb.append('A')")
+                .addStatement("features |= $L", Feature.EXPIRE_ACCESS.flag())
             .endControlFlow()
             .beginControlFlow("if (builder.expiresAfterWrite())")
-                .addStatement("sb.append('W')")
+                .addStatement("features |= $L", Feature.EXPIRE_WRITE.flag())
             .endControlFlow()
         .endControlFlow()
         .beginControlFlow("if (builder.refreshAfterWrite())")
-            .addStatement("sb.append('R')")
+            .addStatement("features |= $L", Feature.REFRESH_WRITE.flag())
+        .endControlFlow()
+        .beginControlFlow("if (builder.hasCompactTimestamps() && ((features & $L) != 0))",
+            Feature.makeFlags(List.of(
+                Feature.EXPIRE_ACCESS, Feature.EXPIRE_WRITE, Feature.REFRESH_WRITE)))
+            .addStatement("features |= $L", Feature.COMPACT_TIME.flag())
         .endControlFlow();
     return this;
   }
@@ -84,28 +102,27 @@ public final class NodeSelectorCode {
   private NodeSelectorCode maximum() {
     block
         .beginControlFlow("if (builder.evicts())")
-            .addStatement("sb.append('M')")
             .beginControlFlow("if (isAsync "
                 + "|| (builder.isWeighted() && (builder.weigher != Weigher.singletonWeigher())))")
-                .addStatement("sb.append('W')")
+                .addStatement("features |= $L", Feature.MAXIMUM_WEIGHT.flag())
             .nextControlFlow("else")
-                .addStatement("sb.append('S')")
+                .addStatement("features |= $L", Feature.MAXIMUM_SIZE.flag())
             .endControlFlow()
         .endControlFlow();
     return this;
   }
 
-  private NodeSelectorCode selector() {
-    block
-        .beginControlFlow("try")
-            .addStatement("Class<?> clazz = Class.forName(sb.toString())")
-            .addStatement("$T handle = $N.findConstructor(clazz, $N)",
-                MethodHandle.class, LOOKUP, FACTORY)
-            .addStatement("return ($T) handle.invoke()", NODE_FACTORY)
-        .nextControlFlow("catch ($T | $T e)", RuntimeException.class, Error.class)
-            .addStatement("throw e")
-        .nextControlFlow("catch ($T t)", Throwable.class)
-            .addStatement("throw new $T(sb.toString(), t)", IllegalStateException.class)
+  private NodeSelectorCode selector(Map<String, Set<Feature>> classNameToFeatures) {
+    block.beginControlFlow("switch (features)");
+    classNameToFeatures.forEach((className, features) -> {
+      block.add("case $L:\n", Feature.makeFlags(features)).indent()
+          .addStatement("return new $T<>()", ClassName.get(PACKAGE_NAME, className))
+          .unindent();
+    });
+    block.add("default:\n").indent()
+            .addStatement("throw new $T($S + $T.toBinaryString(features))",
+                IllegalStateException.class, "Unsupported features: ", Integer.class)
+        .unindent()
         .endControlFlow();
     return this;
   }
@@ -114,13 +131,21 @@ public final class NodeSelectorCode {
     return block.build();
   }
 
-  public static CodeBlock get() {
+  /**
+   * Returns the selector's code, which constructs the node factory that is associated with the
+   * builder's configuration.
+   *
+   * @param classNameToFeatures the generated node types and their features
+   * @return the selector's code
+   */
+  public static CodeBlock get(Map<String, Set<Feature>> classNameToFeatures) {
     return new NodeSelectorCode()
         .keys()
         .values()
+        .hashTable()
         .expires()
         .maximum()
-        .selector()
+        .selector(classNameToFeatures)
         .build();
   }
 }
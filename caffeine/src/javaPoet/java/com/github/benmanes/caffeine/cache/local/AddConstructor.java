@@ -18,9 +18,15 @@ package com.github.benmanes.caffeine.cache.local;
 import static com.github.benmanes.caffeine.cache.Specifications.BOUNDED_LOCAL_CACHE;
 import static com.github.benmanes.caffeine.cache.Specifications.BUILDER_PARAM;
 import static com.github.benmanes.caffeine.cache.Specifications.CACHE_LOADER_PARAM;
+import static com.github.benmanes.caffeine.cache.Specifications.LOCAL_CACHE_FACTORY;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.FieldSpec;
 
 /**
- * Adds the constructor to the cache.
+ * Adds the constructor to the cache and a factory that invokes it. The selector reads the factory
+ * of the chosen type through the {@code LocalCacheFactory} interface, so only that type is loaded.
  *
  * @author ben.manes@gmail.com (Ben Manes)
  */
@@ -45,5 +51,7 @@ public final class AddConstructor extends LocalCacheRule {
         .addParameter(CACHE_LOADER_PARAM)
         .addParameter(boolean.class, "async")
         .addStatement("super(builder, $L, async)", cacheLoader);
+    context.cache.addField(FieldSpec.builder(LOCAL_CACHE_FACTORY, "FACTORY",
+        Modifier.STATIC, Modifier.FINAL).initializer("$L::new", context.className).build());
   }
 }
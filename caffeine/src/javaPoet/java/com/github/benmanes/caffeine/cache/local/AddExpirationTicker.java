@@ -36,7 +36,7 @@ public final class AddExpirationTicker extends LocalCacheRule {
 
   @Override
   protected void execute() {
-    context.constructor.addStatement("this.ticker = builder.getTicker()");
+    context.constructor.addStatement("this.ticker = builder.getExpirationTicker()");
     context.cache.addField(FieldSpec.builder(TICKER, "ticker", Modifier.FINAL).build());
     context.cache.addMethod(MethodSpec.methodBuilder("expirationTicker")
         .addModifiers(context.publicFinalModifiers())
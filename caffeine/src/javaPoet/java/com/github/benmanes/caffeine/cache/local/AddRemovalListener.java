@@ -38,7 +38,8 @@ public final class AddRemovalListener extends LocalCacheRule {
     context.suppressedWarnings.add("NullAway");
     context.cache.addField(
         FieldSpec.builder(REMOVAL_LISTENER, "removalListener", Modifier.FINAL).build());
-    context.constructor.addStatement("this.removalListener = builder.getRemovalListener(async)");
+    context.constructor.addStatement("this.removalListener = (removalBatcher == null)\n"
+        + "? builder.getRemovalListener(async)\n: removalBatcher");
     context.cache.addMethod(MethodSpec.methodBuilder("removalListener")
         .addModifiers(context.publicFinalModifiers())
         .addStatement("return removalListener")
@@ -61,9 +61,11 @@ public final class AddStats extends LocalCacheRule {
   }
 
   private void addStatsTicker() {
+    context.constructor.addStatement("this.statsTicker = builder.getStatsTicker()");
+    context.cache.addField(FieldSpec.builder(TICKER, "statsTicker", Modifier.FINAL).build());
     context.cache.addMethod(MethodSpec.methodBuilder("statsTicker")
         .addModifiers(context.publicFinalModifiers())
-        .addStatement("return $T.systemTicker()", TICKER)
+        .addStatement("return statsTicker")
         .returns(TICKER)
         .build());
   }
@@ -32,6 +32,7 @@ import com.squareup.javapoet.TypeSpec;
 public final class LocalCacheContext {
   public final boolean isFinal;
   public final TypeName superClass;
+  public final String className;
   public final TypeSpec.Builder cache;
   public final Set<Feature> parentFeatures;
   public final Set<Feature> generateFeatures;
@@ -42,6 +43,7 @@ public final class LocalCacheContext {
       Set<Feature> parentFeatures, Set<Feature> generateFeatures) {
     this.isFinal = isFinal;
     this.superClass = superClass;
+    this.className = className;
     this.suppressedWarnings = new TreeSet<>();
     this.cache = TypeSpec.classBuilder(className);
     this.constructor = MethodSpec.constructorBuilder();
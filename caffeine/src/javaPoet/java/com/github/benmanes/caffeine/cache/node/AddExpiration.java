@@ -83,21 +83,21 @@ public final class AddExpiration extends NodeRule {
   private void addVariableTime(String varName) {
     var getter = MethodSpec.methodBuilder("getVariableTime")
         .addModifiers(Modifier.PUBLIC)
-        .addStatement("return (long) $L.getOpaque(this)", varHandleName(varName))
+        .addStatement("return $L", readTime(varName, "getOpaque"))
         .returns(long.class)
         .build();
     var setter = MethodSpec.methodBuilder("setVariableTime")
         .addModifiers(Modifier.PUBLIC)
         .addParameter(long.class, varName)
-        .addStatement("$L.setOpaque(this, $N)", varHandleName(varName), varName)
+        .addStatement("$L.setOpaque(this, $L)", varHandleName(varName), writeTime(varName))
         .build();
     var cas = MethodSpec.methodBuilder("casVariableTime")
         .addModifiers(Modifier.PUBLIC)
         .addParameter(long.class, "expect")
         .addParameter(long.class, "update")
         .returns(boolean.class)
-        .addStatement("return ($N == $N)\n&& $L.compareAndSet(this, $N, $N)",
-            varName, "expect", varHandleName(varName), "expect", "update")
+        .addStatement("return ($N == $L)\n&& $L.compareAndSet(this, $L, $L)", varName,
+            writeTime("expect"), varHandleName(varName), writeTime("expect"), writeTime("update"))
         .build();
     context.nodeSubtype
         .addMethod(getter)
@@ -110,11 +110,9 @@ public final class AddExpiration extends NodeRule {
       return;
     }
 
-    context.nodeSubtype
-        .addField(long.class, "accessTime", Modifier.VOLATILE)
-        .addMethod(newGetter(Strength.STRONG, TypeName.LONG, "accessTime", Visibility.OPAQUE))
-        .addMethod(newSetter(TypeName.LONG, "accessTime", Visibility.OPAQUE));
-    addVarHandle("accessTime", TypeName.get(long.class));
+    context.nodeSubtype.addField(timeType(), "accessTime", Modifier.VOLATILE);
+    addTimeAccessors("accessTime", Visibility.OPAQUE);
+    addVarHandle("accessTime", timeType());
     addTimeConstructorAssignment(context.constructorByKey, "accessTime", "now");
     addTimeConstructorAssignment(context.constructorByKeyRef, "accessTime", "now");
   }
@@ -122,11 +120,9 @@ public final class AddExpiration extends NodeRule {
   private void addWriteExpiration() {
     if (!Feature.useWriteTime(context.parentFeatures)
         && Feature.useWriteTime(context.generateFeatures)) {
-      context.nodeSubtype
-          .addField(long.class, "writeTime", Modifier.VOLATILE)
-          .addMethod(newGetter(Strength.STRONG, TypeName.LONG, "writeTime", Visibility.OPAQUE))
-          .addMethod(newSetter(TypeName.LONG, "writeTime", Visibility.PLAIN));
-      addVarHandle("writeTime", TypeName.get(long.class));
+      context.nodeSubtype.addField(timeType(), "writeTime", Modifier.VOLATILE);
+      addTimeAccessors("writeTime", Visibility.PLAIN);
+      addVarHandle("writeTime", timeType());
       addTimeConstructorAssignment(context.constructorByKey, "writeTime", "now & ~1L");
       addTimeConstructorAssignment(context.constructorByKeyRef, "writeTime", "now & ~1L");
     }
@@ -141,14 +137,56 @@ public final class AddExpiration extends NodeRule {
         .addParameter(long.class, "expect")
         .addParameter(long.class, "update")
         .returns(boolean.class)
-        .addStatement("return ($N == $N)\n&& $L.compareAndSet(this, $N, $N)",
-            "writeTime", "expect", varHandleName("writeTime"), "expect", "update")
+        .addStatement("return ($N == $L)\n&& $L.compareAndSet(this, $L, $L)", "writeTime",
+            writeTime("expect"), varHandleName("writeTime"), writeTime("expect"),
+            writeTime("update"))
         .build());
   }
 
+  /** Adds the accessors for a timestamp, which are read with opaque visibility. */
+  private void addTimeAccessors(String varName, Visibility setterVisibility) {
+    if (!isCompactTime()) {
+      context.nodeSubtype
+          .addMethod(newGetter(Strength.STRONG, TypeName.LONG, varName, Visibility.OPAQUE))
+          .addMethod(newSetter(TypeName.LONG, varName, setterVisibility));
+      return;
+    }
+
+    String method = capitalize(varName);
+    String setterMode = (setterVisibility == Visibility.PLAIN) ? "set" : "setOpaque";
+    context.nodeSubtype
+        .addMethod(MethodSpec.methodBuilder("get" + method)
+            .addModifiers(context.publicFinalModifiers())
+            .addStatement("return $L", readTime(varName, "getOpaque"))
+            .returns(long.class)
+            .build())
+        .addMethod(MethodSpec.methodBuilder("set" + method)
+            .addModifiers(context.publicFinalModifiers())
+            .addParameter(long.class, varName)
+            .addStatement("$L.$L(this, $L)", varHandleName(varName), setterMode, writeTime(varName))
+            .build());
+  }
+
+  /** Returns the field's type for storing a timestamp. */
+  private TypeName timeType() {
+    return isCompactTime() ? TypeName.INT : TypeName.LONG;
+  }
+
+  /** Returns the expression that reads the timestamp, in nanoseconds, using the access mode. */
+  private String readTime(String varName, String accessMode) {
+    return isCompactTime()
+        ? String.format("expandTime((int) %s.%s(this))", varHandleName(varName), accessMode)
+        : String.format("(long) %s.%s(this)", varHandleName(varName), accessMode);
+  }
+
+  /** Returns the expression that converts the timestamp, in nanoseconds, for storage. */
+  private String writeTime(String value) {
+    return isCompactTime() ? String.format("compactTime(%s)", value) : value;
+  }
+
   /** Adds a long constructor assignment. */
   private void addTimeConstructorAssignment(
       MethodSpec.Builder constructor, String field, String value) {
-    constructor.addStatement("$L.set(this, $N)", varHandleName(field), value);
+    constructor.addStatement("$L.set(this, $L)", varHandleName(field), writeTime(value));
   }
 }
@@ -53,6 +53,12 @@ public final class AddFactoryMethods extends NodeRule {
     } else if (context.generateFeatures.contains(Feature.SOFT_VALUES)) {
       addSoftValues();
     }
+    if (context.generateFeatures.contains(Feature.INTRUSIVE_TABLE)) {
+      addIntrusiveHashTable();
+    }
+    if (context.generateFeatures.contains(Feature.COMPACT_TIME)) {
+      addCompactTimestamps();
+    }
   }
 
   private void addFactories() {
@@ -100,6 +106,22 @@ public final class AddFactoryMethods extends NodeRule {
         .build());
   }
 
+  private void addIntrusiveHashTable() {
+    context.nodeSubtype.addMethod(MethodSpec.methodBuilder("intrusiveHashTable")
+        .addModifiers(Modifier.PUBLIC)
+        .addStatement("return true")
+        .returns(boolean.class)
+        .build());
+  }
+
+  private void addCompactTimestamps() {
+    context.nodeSubtype.addMethod(MethodSpec.methodBuilder("compactTimestamps")
+        .addModifiers(Modifier.PUBLIC)
+        .addStatement("return true")
+        .returns(boolean.class)
+        .build());
+  }
+
   private MethodSpec.Builder newNode(ParameterSpec... keyParams) {
     return MethodSpec.methodBuilder("newNode")
         .addModifiers(Modifier.PUBLIC)
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache.node;
+
+import static com.github.benmanes.caffeine.cache.Specifications.NODE;
+
+import javax.lang.model.element.Modifier;
+
+import com.github.benmanes.caffeine.cache.Feature;
+import com.squareup.javapoet.TypeName;
+
+/**
+ * Adds the hash code and bucket link, if needed, so that the node is the entry of an intrusive
+ * hash table.
+ */
+public final class AddHashTable extends NodeRule {
+
+  @Override
+  protected boolean applies() {
+    return context.generateFeatures.contains(Feature.INTRUSIVE_TABLE);
+  }
+
+  @Override
+  protected void execute() {
+    context.nodeSubtype
+        .addField(int.class, "tableHash")
+        .addMethod(newGetter(Strength.STRONG, TypeName.INT, "tableHash", Visibility.VOLATILE))
+        .addMethod(newSetter(TypeName.INT, "tableHash", Visibility.VOLATILE));
+    context.nodeSubtype
+        .addField(NODE, "nextInTable", Modifier.VOLATILE)
+        .addMethod(newGetter(Strength.STRONG, NODE, "nextInTable", Visibility.VOLATILE))
+        .addMethod(newSetter(NODE, "nextInTable", Visibility.VOLATILE));
+  }
+}
@@ -85,6 +85,12 @@ public abstract class NodeRule implements Consumer<NodeContext> {
         || context.generateFeatures.contains(Feature.STRONG_VALUES);
   }
 
+  /** Returns if the timestamps are stored in the compact 32-bit representation. */
+  protected boolean isCompactTime() {
+    return context.parentFeatures.contains(Feature.COMPACT_TIME)
+        || context.generateFeatures.contains(Feature.COMPACT_TIME);
+  }
+
   protected ParameterizedTypeName keyReferenceType() {
     checkState(context.generateFeatures.contains(Feature.WEAK_KEYS));
     return ParameterizedTypeName.get(
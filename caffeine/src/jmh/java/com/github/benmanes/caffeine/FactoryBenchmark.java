@@ -42,6 +42,11 @@ public class FactoryBenchmark {
     return new Alpha(state.i++);
   }
 
+  @Benchmark
+  public Alpha staticFactory(ThreadState state) {
+    return Alpha.FACTORY.newInstance(state.i++);
+  }
+
   @Benchmark
   public Alpha methodHandle_invoke(ThreadState state) {
     return methodHandleFactory.invoke(state.i++);
@@ -108,7 +113,13 @@ public class FactoryBenchmark {
     }
   }
 
+  interface AlphaFactory {
+    Alpha newInstance(int x);
+  }
+
   static final class Alpha {
+    static final AlphaFactory FACTORY = Alpha::new;
+
     @SuppressWarnings("unused")
     private final int x;
 
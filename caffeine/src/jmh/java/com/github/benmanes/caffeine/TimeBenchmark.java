@@ -15,13 +15,18 @@
  */
 package com.github.benmanes.caffeine;
 
+import java.time.Duration;
+
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Threads;
 
+import com.github.benmanes.caffeine.cache.Ticker;
+
 /**
  * @author ben.manes@gmail.com (Ben Manes)
  */
 public class TimeBenchmark {
+  static final Ticker coarseTicker = Ticker.coarseTicker(Duration.ofMillis(1));
 
   @Benchmark @Threads(1)
   public long nanos_noContention() {
@@ -42,4 +47,14 @@ public class TimeBenchmark {
   public long millis_contention() {
     return System.currentTimeMillis();
   }
+
+  @Benchmark @Threads(1)
+  public long coarse_noContention() {
+    return coarseTicker.read();
+  }
+
+  @Benchmark @Threads(8)
+  public long coarse_contention() {
+    return coarseTicker.read();
+  }
 }
@@ -75,6 +75,18 @@ public enum CacheType {
       return new CaffeineCache<>(maximumSize);
     }
   },
+  Caffeine_IntrusiveHashTable {
+    @Override public <K, V> BasicCache<K, V> create(int maximumSize) {
+      return new CaffeineCache<>(maximumSize, com.github.benmanes.caffeine.cache.Caffeine
+          .newBuilder().intrusiveHashTable());
+    }
+  },
+  Caffeine_StripedWriteBuffer {
+    @Override public <K, V> BasicCache<K, V> create(int maximumSize) {
+      return new CaffeineCache<>(maximumSize, com.github.benmanes.caffeine.cache.Caffeine
+          .newBuilder().stripedWriteBuffer());
+    }
+  },
   ConcurrentLinkedHashMap {
     @Override public <K, V> BasicCache<K, V> create(int maximumSize) {
       return new ConcurrentMapCache<>(
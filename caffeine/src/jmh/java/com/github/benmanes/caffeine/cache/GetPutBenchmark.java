@@ -49,6 +49,7 @@ public class GetPutBenchmark {
   @Param({
     "LinkedHashMap_Lru",
     "Caffeine",
+    "Caffeine_IntrusiveHashTable",
     "ConcurrentLinkedHashMap",
     "Guava",
     "ElasticSearch",
@@ -66,6 +66,7 @@ public final class MemoryBenchmark {
     out.println();
     unbounded();
     maximumSize();
+    maximumSize_intrusiveHashTable();
     maximumSize_expireAfterAccess();
     maximumSize_expireAfterWrite();
     maximumSize_refreshAfterWrite();
@@ -73,6 +74,7 @@ public final class MemoryBenchmark {
     expireAfterAccess();
     expireAfterWrite();
     expireAfterAccess_expireAfterWrite();
+    expireAfterAccess_expireAfterWrite_compactTimestamps();
     weakKeys();
     weakValues();
     weakKeys_weakValues();
@@ -98,6 +100,14 @@ public final class MemoryBenchmark {
     compare("Maximum Size", caffeine, guava);
   }
 
+  private void maximumSize_intrusiveHashTable() {
+    Cache<Integer, Integer> caffeine = builder()
+        .maximumSize(MAXIMUM_SIZE).intrusiveHashTable().build();
+    com.google.common.cache.Cache<Integer, Integer> guava = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE).build();
+    compare("Maximum Size (Intrusive Table)", caffeine, guava);
+  }
+
   private void maximumWeight() {
     Cache<Integer, Integer> caffeine = builder()
         .maximumWeight(MAXIMUM_SIZE).weigher((k, v) -> 1).build();
@@ -170,6 +180,19 @@ public final class MemoryBenchmark {
     compare("Expire after Access & after Write", caffeine, guava);
   }
 
+  private void expireAfterAccess_expireAfterWrite_compactTimestamps() {
+    Cache<Integer, Integer> caffeine = builder()
+        .expireAfterAccess(1, TimeUnit.MINUTES)
+        .expireAfterWrite(1, TimeUnit.MINUTES)
+        .compactTimestamps()
+        .build();
+    com.google.common.cache.Cache<Integer, Integer> guava = CacheBuilder.newBuilder()
+        .expireAfterAccess(1, TimeUnit.MINUTES)
+        .expireAfterWrite(1, TimeUnit.MINUTES)
+        .build();
+    compare("Expire after Access & after Write (Compact)", caffeine, guava);
+  }
+
   private void weakKeys() {
     Cache<Integer, Integer> caffeine = builder().weakKeys().build();
     com.google.common.cache.Cache<Integer, Integer> guava = CacheBuilder.newBuilder()
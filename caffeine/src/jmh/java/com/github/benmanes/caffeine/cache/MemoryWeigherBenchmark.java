@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark that compares the memory weigher's traversal of an application's value, whose
+ * fields are read by the cached method handles, against a weigher that is written by hand for
+ * that type.
+ * <p>
+ * <pre>{@code
+ *   ./gradlew jmh -PincludePattern=MemoryWeigherBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+public class MemoryWeigherBenchmark {
+  final Weigher<Object, Object> memoryWeigher = MemoryWeigher.INSTANCE;
+  final Weigher<Integer, Account> handWritten = (key, account) -> 16 + 24
+      + (40 + 2 * account.name.length()) + (40 + 2 * account.email.length())
+      + (24 + 8 * account.balances.length);
+  final Integer key = 1;
+  final Account value = new Account("Jane Doe", "jane@example.com", new long[] { 1, 2, 3 });
+
+  @Benchmark
+  public int memoryWeigher() {
+    return memoryWeigher.weigh(key, value);
+  }
+
+  @Benchmark
+  public int handWritten() {
+    return handWritten.weigh(key, value);
+  }
+
+  static final class Account {
+    final String name;
+    final String email;
+    final long[] balances;
+
+    Account(String name, String email, long[] balances) {
+      this.name = name;
+      this.email = email;
+      this.balances = balances;
+    }
+  }
+}
@@ -54,6 +54,7 @@ public class PutRemoveBenchmark {
 
   @Param({
     "Caffeine",
+    "Caffeine_StripedWriteBuffer",
     "LinkedHashMap_Lru",
     "ConcurrentHashMap",
     "ConcurrentLinkedHashMap",
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark that measures the maintenance pause after the garbage collector clears all of the
+ * cache's soft values at once, such as by a full collection under memory pressure. The collection
+ * is simulated by enqueuing every value reference before each invocation. The {@code pause}
+ * benchmark measures a single maintenance cycle, which is how long the eviction lock is held and a
+ * writer that falls back to a synchronous cleanup may be blocked. The {@code reclaim} benchmark
+ * measures the total time of the maintenance cycles needed to discard all of the entries.
+ * <p>
+ * <pre>{@code
+ *   ./gradlew jmh -PincludePattern=ReferenceDrainBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReferenceDrainBenchmark {
+
+  @Param({"100000", "1000000"})
+  int size;
+
+  BoundedLocalCache<Integer, Integer> cache;
+
+  @Setup(Level.Invocation)
+  public void setup() {
+    Cache<Integer, Integer> softCache = Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .softValues()
+        .build();
+    cache = (BoundedLocalCache<Integer, Integer>) softCache.asMap();
+    for (int i = 0; i < size; i++) {
+      cache.put(i, i);
+    }
+    cache.cleanUp();
+    for (var node : cache.data.values()) {
+      ((Reference<?>) node.getValueReference()).enqueue();
+    }
+  }
+
+  @Benchmark
+  public void pause() {
+    cache.cleanUp();
+  }
+
+  @Benchmark
+  public int reclaim() {
+    int cycles = 0;
+    while (!cache.data.isEmpty()) {
+      cache.cleanUp();
+      cycles++;
+    }
+    return cycles;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+
+/**
+ * A concurrent benchmark of the cost to record a load into the stats counter, comparing the
+ * {@code LongAdder} counters alone to when the latency histograms are also recorded.
+ * <pre>{@code
+ *   ./gradlew jmh -PincludePattern=StatsCounterBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+public class StatsCounterBenchmark {
+  private static final int SIZE = (2 << 14);
+  private static final int MASK = SIZE - 1;
+
+  @Param({"false", "true"})
+  boolean recordLatencies;
+
+  ConcurrentStatsCounter counter;
+  long[] loadTimes;
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    int index = ThreadLocalRandom.current().nextInt();
+  }
+
+  @Setup
+  public void setup() {
+    counter = new ConcurrentStatsCounter(recordLatencies);
+    loadTimes = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      // A bimodal distribution of fast (~50us) and slow (~50ms) loads
+      loadTimes[i] = ThreadLocalRandom.current().nextBoolean()
+          ? ThreadLocalRandom.current().nextLong(25_000, 75_000)
+          : ThreadLocalRandom.current().nextLong(25_000_000, 75_000_000);
+    }
+  }
+
+  @Benchmark @Threads(8)
+  public void recordLoadSuccess(ThreadState threadState) {
+    counter.recordLoadSuccess(loadTimes[threadState.index++ & MASK]);
+  }
+
+  @Benchmark @Threads(1)
+  public void recordLoadSuccess_uncontended(ThreadState threadState) {
+    counter.recordLoadSuccess(loadTimes[threadState.index++ & MASK]);
+  }
+
+  @Benchmark
+  public CacheStats snapshot() {
+    return counter.snapshot();
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark that compares discarding a group of entries by a tag's secondary index against
+ * scanning all of the keys with {@code removeIf}. Each operation discards a tenant's entries and
+ * then reinserts them, so that the cache's population remains stable and both approaches perform
+ * the same amount of work to restore it.
+ * <p>
+ * <pre>{@code
+ *   ./gradlew jmh -PincludePattern=TagInvalidationBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+public class TagInvalidationBenchmark {
+  static final int TENANTS = 1_000;
+
+  @Param({"100000", "1000000"})
+  int size;
+
+  Cache<Integer, Integer> cache;
+  Policy.Tags<Integer> tags;
+  int tenant;
+
+  @Setup
+  public void setup() {
+    cache = Caffeine.newBuilder()
+        .maximumSize(2L * size)
+        .<Integer, Integer>tagger((key, value) -> Set.of(value))
+        .executor(Runnable::run)
+        .build();
+    tags = cache.policy().tags().orElseThrow();
+    for (int i = 0; i < size; i++) {
+      cache.put(i, i % TENANTS);
+    }
+    cache.cleanUp();
+  }
+
+  @Benchmark
+  public void invalidate_tag() {
+    int group = nextTenant();
+    tags.invalidate(group);
+    reinsert(group);
+  }
+
+  @Benchmark
+  public void invalidate_removeIf() {
+    int group = nextTenant();
+    cache.asMap().keySet().removeIf(key -> (key % TENANTS) == group);
+    reinsert(group);
+  }
+
+  private int nextTenant() {
+    tenant = (tenant + 1) % TENANTS;
+    return tenant;
+  }
+
+  private void reinsert(int group) {
+    for (int i = group; i < size; i += TENANTS) {
+      cache.put(i, group);
+    }
+  }
+}
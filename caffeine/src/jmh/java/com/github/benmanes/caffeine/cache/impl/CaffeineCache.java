@@ -29,7 +29,11 @@ public final class CaffeineCache<K, V> implements BasicCache<K, V> {
   private final Map<K, V> map;
 
   public CaffeineCache(int maximumSize) {
-    cache = Caffeine.newBuilder()
+    this(maximumSize, Caffeine.newBuilder());
+  }
+
+  public CaffeineCache(int maximumSize, Caffeine<Object, Object> builder) {
+    cache = builder
         .initialCapacity(maximumSize)
         .maximumSize(maximumSize)
         .build();
@@ -18,6 +18,7 @@ package com.github.benmanes.caffeine.cache;
 import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -360,6 +361,110 @@ abstract class AbstractLinkedDeque<E> extends AbstractCollection<E> implements L
     };
   }
 
+  /**
+   * Returns an iterator that may be resumed after the deque was modified, such as by a traversal
+   * that releases the lock between batches. The position is validated whenever the iterator is
+   * used, and if the next element was removed, moved to a different deque, or reordered to the
+   * end then the traversal is re-anchored at the next element that is still in place.
+   *
+   * @param ascending if the traversal is from the first to the last element
+   * @param member if the element is present in this deque and has not been removed
+   * @return an iterator that tolerates modifications between its uses
+   */
+  PeekingIterator<E> resumableIterator(boolean ascending, Predicate<? super E> member) {
+    return new ResumableIterator(ascending, member);
+  }
+
+  /**
+   * An iterator that tracks its neighbors so that it may be resumed after a modification. The
+   * cursor is considered to be in place if it is still in this deque and is adjacent to either the
+   * last returned element or the element that followed it when the cursor was established. An
+   * element that is reordered behind the cursor is not returned again, while one that is
+   * reordered ahead of it may be returned again at its new position.
+   */
+  final class ResumableIterator implements PeekingIterator<E> {
+    final Predicate<? super E> member;
+    final boolean ascending;
+
+    @Nullable E following;
+    @Nullable E previous;
+    @Nullable E cursor;
+    boolean started;
+
+    ResumableIterator(boolean ascending, Predicate<? super E> member) {
+      this.ascending = ascending;
+      this.member = member;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return (peek() != null);
+    }
+
+    @Override
+    public @Nullable E peek() {
+      if (!started) {
+        started = true;
+        setCursor(ascending ? first : last);
+      } else if ((cursor != null) && !isInPlace(cursor)) {
+        reanchor();
+      }
+      return cursor;
+    }
+
+    @Override
+    public E next() {
+      E e = peek();
+      if (e == null) {
+        throw new NoSuchElementException();
+      }
+      previous = e;
+      setCursor(advance(e));
+      return e;
+    }
+
+    /** Sets the next element to return and remembers its successor. */
+    void setCursor(@Nullable E e) {
+      cursor = e;
+      following = (e == null) ? null : advance(e);
+    }
+
+    /** Returns if the cursor was not removed or moved since it was established. */
+    boolean isInPlace(E e) {
+      if (!isMember(e)) {
+        return false;
+      } else if ((retreat(e) == previous) || (advance(e) == following)) {
+        return true;
+      }
+      // Neither neighbor is adjacent, so it was moved unless the neighbors were modified instead
+      return ((previous != null) && !isMember(previous))
+          || ((following != null) && !isMember(following));
+    }
+
+    /** Resumes after the cursor was removed or moved, or ends if no position can be found. */
+    void reanchor() {
+      if ((following != null) && isMember(following)) {
+        setCursor(following);
+      } else if ((previous != null) && isMember(previous)) {
+        setCursor(advance(previous));
+      } else {
+        setCursor(null);
+      }
+    }
+
+    boolean isMember(E e) {
+      return member.test(e) && contains(e);
+    }
+
+    @Nullable E advance(E e) {
+      return ascending ? getNext(e) : getPrevious(e);
+    }
+
+    @Nullable E retreat(E e) {
+      return ascending ? getPrevious(e) : getNext(e);
+    }
+  }
+
   abstract class AbstractLinkedIterator implements PeekingIterator<E> {
     @Nullable E previous;
     @Nullable E cursor;
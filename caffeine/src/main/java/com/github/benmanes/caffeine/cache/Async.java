@@ -195,6 +195,11 @@ final class Async {
       return ASYNC_EXPIRY;
     }
 
+    @Override
+    public boolean isReadSensitive() {
+      return delegate.isReadSensitive();
+    }
+
     Object writeReplace() {
       return delegate;
     }
@@ -17,6 +17,7 @@ package com.github.benmanes.caffeine.cache;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -178,4 +179,66 @@ public interface AsyncCacheLoader<K extends Object, V extends Object> {
       }
     };
   }
+
+  /**
+   * Returns an asynchronous cache loader that hedges against a slow load by issuing a second,
+   * redundant call to {@code loader} if the first has not completed within the given delay. The
+   * first attempt to complete successfully provides the value and the other attempt is cancelled.
+   * The load is performed within the future held by the cache for the key, so concurrent calls for
+   * the same key continue to share a single hedged load. Bulk loads are not hedged.
+   * <p>
+   * Usage example:
+   * <pre>{@code
+   *   AsyncCacheLoader<Key, Graph> loader = AsyncCacheLoader.hedged(
+   *       (key, executor) -> createExpensiveGraphAsync(key, executor), Duration.ofMillis(50));
+   *   AsyncLoadingCache<Key, Graph> cache = Caffeine.newBuilder().buildAsync(loader);
+   * }</pre>
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @param loader the loader to delegate to, which must be safe to invoke redundantly
+   * @param delay the duration to wait for the first attempt before issuing the second
+   * @return an asynchronous cache loader that hedges the calls to the {@code loader}
+   * @throws NullPointerException if the loader or delay is null
+   * @throws IllegalArgumentException if {@code delay} is negative
+   */
+  @CheckReturnValue
+  static <K extends Object, V extends Object> AsyncCacheLoader<K, V> hedged(
+      AsyncCacheLoader<K, V> loader, Duration delay) {
+    return new HedgedAsyncCacheLoader<>(loader, Caffeine.saturatedToNanos(delay),
+        Scheduler.systemScheduler(), Ticker.systemTicker());
+  }
+
+  /**
+   * Returns an asynchronous cache loader that hedges against a slow load by issuing a second,
+   * redundant call to {@code loader} if the first has not completed within the given percentile of
+   * the recently observed load latencies. The first attempt to complete successfully provides the
+   * value and the other attempt is cancelled. No load is hedged until enough samples have been
+   * observed, and afterwards the delay is never shorter than {@code minimumDelay}. Bulk loads are
+   * not hedged.
+   * <p>
+   * Usage example:
+   * <pre>{@code
+   *   AsyncCacheLoader<Key, Graph> loader = AsyncCacheLoader.hedged(
+   *       (key, executor) -> createExpensiveGraphAsync(key, executor), 0.95, Duration.ofMillis(5));
+   *   AsyncLoadingCache<Key, Graph> cache = Caffeine.newBuilder().buildAsync(loader);
+   * }</pre>
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @param loader the loader to delegate to, which must be safe to invoke redundantly
+   * @param percentile the latency percentile, between 0 and 1 exclusive, to wait for the first
+   *        attempt before issuing the second
+   * @param minimumDelay the shortest duration to wait for the first attempt
+   * @return an asynchronous cache loader that hedges the calls to the {@code loader}
+   * @throws NullPointerException if the loader or minimumDelay is null
+   * @throws IllegalArgumentException if {@code percentile} is not between 0 and 1 or if
+   *         {@code minimumDelay} is negative
+   */
+  @CheckReturnValue
+  static <K extends Object, V extends Object> AsyncCacheLoader<K, V> hedged(
+      AsyncCacheLoader<K, V> loader, double percentile, Duration minimumDelay) {
+    return new HedgedAsyncCacheLoader<>(loader, percentile,
+        Caffeine.saturatedToNanos(minimumDelay), Scheduler.systemScheduler(), Ticker.systemTicker());
+  }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An object that can receive notifications in bulk when entries are removed from a cache. The
+ * removals are accumulated while the cache performs its work, such as during a maintenance cycle
+ * that evicts many entries, and are delivered together by a single task on the cache's executor.
+ * <p>
+ * The batches are delivered sequentially, so an instance is not called concurrently by multiple
+ * threads, and the removals are in the order that they were recorded by the cache. The exception
+ * is an {@link AsyncCache} whose removed future has not completed yet, as its removal is recorded
+ * when the future completes successfully, so it may be delivered after the removals that were
+ * recorded later. Implementations should avoid performing blocking calls, as this delays the
+ * delivery of the subsequent batches.
+ * @param <K> the most general type of keys this listener can listen for; for example {@code Object}
+ *        if any key is acceptable
+ * @param <V> the most general type of values this listener can listen for; for example
+ *        {@code Object} if any value is acceptable
+ */
+@FunctionalInterface
+public interface BatchRemovalListener<K extends Object, V extends Object> {
+
+  /**
+   * Notifies the listener that the removals occurred at some point in the past.
+   * <p>
+   * This does not always signify that the keys are now absent from the cache, as they may have
+   * already been re-added.
+   *
+   * @param removals the non-empty, unmodifiable list of removals in the order they were recorded
+   */
+  void onRemoval(List<Removal<K, V>> removals);
+
+  /** An entry that was removed from the cache and the reason for its removal. */
+  final class Removal<K extends Object, V extends Object> {
+    private final @Nullable K key;
+    private final @Nullable V value;
+    private final RemovalCause cause;
+
+    Removal(@Nullable K key, @Nullable V value, RemovalCause cause) {
+      this.cause = requireNonNull(cause);
+      this.value = value;
+      this.key = key;
+    }
+
+    /** Returns the key represented by this entry, or {@code null} if collected. */
+    public @Nullable K getKey() {
+      return key;
+    }
+
+    /** Returns the value represented by this entry, or {@code null} if collected. */
+    public @Nullable V getValue() {
+      return value;
+    }
+
+    /** Returns the reason for which the entry was removed. */
+    public RemovalCause getCause() {
+      return cause;
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value + " [" + cause + "]";
+    }
+  }
+}
@@ -35,6 +35,7 @@ import java.lang.invoke.VarHandle;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.AbstractCollection;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
@@ -42,12 +43,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Set;
@@ -62,17 +67,23 @@ import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.github.benmanes.caffeine.cache.Async.AsyncExpiry;
+import com.github.benmanes.caffeine.cache.CacheEvents.MaintenanceEvent;
 import com.github.benmanes.caffeine.cache.LinkedDeque.PeekingIterator;
+import com.github.benmanes.caffeine.cache.Policy.CacheEntry;
 import com.github.benmanes.caffeine.cache.References.InternalReference;
 import com.github.benmanes.caffeine.cache.stats.StatsCounter;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
@@ -188,6 +199,11 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
   static final int WRITE_BUFFER_MIN = 4;
   /** The maximum capacity of the write buffer. */
   static final int WRITE_BUFFER_MAX = 128 * ceilingPowerOfTwo(NCPU);
+  /** The number of write buffers when the writes are striped by their key. */
+  static final int WRITE_BUFFER_STRIPES = ceilingPowerOfTwo(NCPU);
+  /** The maximum capacity of a write buffer when the writes are striped by their key. */
+  static final int WRITE_BUFFER_STRIPE_MAX = Math.max(2 * WRITE_BUFFER_MIN,
+      WRITE_BUFFER_MAX / WRITE_BUFFER_STRIPES);
   /** The number of attempts to insert into the write buffer before yielding. */
   static final int WRITE_BUFFER_RETRIES = 100;
   /** The maximum weighted capacity of the map. */
@@ -204,6 +220,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
   static final double HILL_CLIMBER_STEP_DECAY_RATE = 0.98d;
   /** The maximum number of entries that can be transferred between queues. */
   static final int QUEUE_TRANSFER_THRESHOLD = 1_000;
+  /** The maximum number of collected references that are drained per maintenance cycle. */
+  static final int REFERENCE_DRAIN_MAX = 1_000;
+  /** The maximum number of entries that an incremental clear removes per hold of the lock. */
+  static final int CLEAR_BATCH_SIZE = 1_000;
+  /** The maximum number of entries that a streaming snapshot gathers per hold of the lock. */
+  static final int SNAPSHOT_BATCH_SIZE = 100;
   /** The maximum time window between entry updates before the expiration must be reordered. */
   static final long EXPIRE_WRITE_TOLERANCE = TimeUnit.SECONDS.toNanos(1);
   /** The maximum duration before an entry expires. */
@@ -212,16 +234,31 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
   static final VarHandle REFRESHES;
 
   final @Nullable RemovalListener<K, V> evictionListener;
+  final @Nullable RemovalBatcher<K, V> removalBatcher;
   final @Nullable CacheLoader<K, V> cacheLoader;
 
+  final @Nullable MpscGrowableArrayQueue<Runnable>[] writeBuffers;
   final MpscGrowableArrayQueue<Runnable> writeBuffer;
-  final ConcurrentHashMap<Object, Node<K, V>> data;
+  final LongAdder writeBufferRetries;
+  final LongAdder synchronousDrains;
+  final LongAdder readBufferDrops;
+  final @Nullable IntrusiveHashTable<K, V> intrusiveTable;
+  final ConcurrentMap<Object, Node<K, V>> data;
   final PerformCleanupTask drainBuffersTask;
   final Consumer<Node<K, V>> accessPolicy;
   final Buffer<Node<K, V>> readBuffer;
   final NodeFactory<K, V> nodeFactory;
+  final @Nullable SpaceSaving heavyHitters;
+  final @Nullable RefreshScheduler<K, V> refreshScheduler;
+  final @Nullable RefreshAhead<K, V> refreshAhead;
+  final @Nullable NegativeCache<K> negativeCache;
+  final @Nullable NearCache<K, V> nearCache;
+  final @Nullable TagIndex<K, V> tagIndex;
   final ReentrantLock evictionLock;
   final Weigher<K, V> weigher;
+  final boolean readInsensitiveExpiry;
+  final boolean incrementalClear;
+  final int readSampleRate;
   final Executor executor;
   final boolean isAsync;
 
@@ -229,6 +266,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
   @Nullable Collection<V> values;
   @Nullable Set<Entry<K, V>> entrySet;
   @Nullable volatile ConcurrentMap<Object, CompletableFuture<?>> refreshes;
+  @GuardedBy("evictionLock") @Nullable MaintenanceEvent maintenanceEvent;
+  volatile long maintenanceCount;
+  long maintenanceTime;
 
   /** Creates an instance based on the builder's configuration. */
   protected BoundedLocalCache(Caffeine<K, V> builder,
@@ -236,17 +276,53 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     this.isAsync = isAsync;
     this.cacheLoader = cacheLoader;
     executor = builder.getExecutor();
+    incrementalClear = builder.hasIncrementalClear();
+    readSampleRate = builder.getReadSampleRate();
+    readInsensitiveExpiry = builder.expiresVariable()
+        && !builder.getExpiry(isAsync).isReadSensitive();
     evictionLock = new ReentrantLock();
     weigher = builder.getWeigher(isAsync);
     drainBuffersTask = new PerformCleanupTask(this);
     nodeFactory = NodeFactory.newFactory(builder, isAsync);
     evictionListener = builder.getEvictionListener(isAsync);
-    data = new ConcurrentHashMap<>(builder.getInitialCapacity());
+    removalBatcher = builder.getRemovalBatcher(isAsync);
+    intrusiveTable = nodeFactory.intrusiveHashTable()
+        ? new IntrusiveHashTable<>(builder.getInitialCapacity())
+        : null;
+    data = (intrusiveTable == null)
+        ? new ConcurrentHashMap<>(builder.getInitialCapacity())
+        : intrusiveTable;
     readBuffer = evicts() || collectKeys() || collectValues() || expiresAfterAccess()
         ? new BoundedBuffer<>()
         : Buffer.disabled();
     accessPolicy = (evicts() || expiresAfterAccess()) ? this::onAccess : e -> {};
-    writeBuffer = new MpscGrowableArrayQueue<>(WRITE_BUFFER_MIN, WRITE_BUFFER_MAX);
+    writeBuffers = builder.hasStripedWriteBuffer() ? newWriteBuffers() : null;
+    writeBuffer = (writeBuffers == null)
+        ? new MpscGrowableArrayQueue<>(WRITE_BUFFER_MIN, WRITE_BUFFER_MAX)
+        : writeBuffers[0];
+    writeBufferRetries = new LongAdder();
+    synchronousDrains = new LongAdder();
+    readBufferDrops = new LongAdder();
+
+    heavyHitters = (evicts() && builder.isRecordingHeavyHitters())
+        ? new SpaceSaving(builder.heavyHitters)
+        : null;
+    tagIndex = builder.hasTagger()
+        ? new TagIndex<>(builder.getTagger(), isAsync)
+        : null;
+    refreshScheduler = builder.hasRefresher()
+        ? new RefreshScheduler<>(this, builder, isAsync)
+        : null;
+    nearCache = (evicts() && builder.hasNearCache())
+        ? new NearCache<>(this, builder.nearCache)
+        : null;
+    negativeCache = builder.hasNegativeResults()
+        ? new NegativeCache<>(builder)
+        : null;
+    refreshAhead = builder.hasRefreshAhead()
+        ? new RefreshAhead<>(this, builder.refreshAheadNanos,
+            builder.refreshAheadFrequency, builder.refreshAheadRate)
+        : null;
 
     if (evicts()) {
       setMaximumSize(builder.getMaximum());
@@ -262,6 +338,16 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     }
   }
 
+  /** Returns the write buffers that the pending writes are striped across by their key. */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static MpscGrowableArrayQueue<Runnable>[] newWriteBuffers() {
+    MpscGrowableArrayQueue<Runnable>[] buffers = new MpscGrowableArrayQueue[WRITE_BUFFER_STRIPES];
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = new MpscGrowableArrayQueue<>(WRITE_BUFFER_MIN, WRITE_BUFFER_STRIPE_MAX);
+    }
+    return buffers;
+  }
+
   /* --------------- Shared --------------- */
 
   @Override
@@ -353,10 +439,21 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     return false;
   }
 
+  /**
+   * Notifies the removal listener. A batch removal listener accumulates the notifications that are
+   * recorded while the eviction lock is held, which are delivered together when it is released by
+   * {@link #afterLockRelease()}.
+   */
   @Override
   public void notifyRemoval(@Nullable K key, @Nullable V value, RemovalCause cause) {
     if (!hasRemovalListener()) {
       return;
+    } else if (removalBatcher != null) {
+      removalBatcher.onRemoval(key, value, cause);
+      if (!evictionLock.isHeldByCurrentThread()) {
+        removalBatcher.schedule();
+      }
+      return;
     }
     Runnable task = () -> {
       try {
@@ -642,7 +739,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
 
     if ((frequencySketch() != null) && !isWeighted() && (weightedSize() >= (max >>> 1))) {
       // Lazily initialize when close to the maximum size
-      frequencySketch().ensureCapacity(max);
+      frequencySketch().ensureCapacity(max, readSampleRate);
     }
   }
 
@@ -834,6 +931,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     expireAfterAccessEntries(now);
     expireAfterWriteEntries(now);
     expireVariableEntries(now);
+    if (refreshScheduler != null) {
+      refreshScheduler.advance();
+    }
+    if (refreshAhead != null) {
+      refreshAhead.scan(now);
+    }
 
     Pacer pacer = pacer();
     if (pacer != null) {
@@ -923,6 +1026,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         delay = Math.min(delay, expiresAfterWriteNanos() - (now - node.getWriteTime()));
       }
     }
+    if (refreshAhead != null) {
+      delay = Math.min(delay, refreshAhead.getDelay(now));
+    }
     if (expiresVariable()) {
       delay = Math.min(delay, timerWheel().getExpirationDelay());
     }
@@ -1032,6 +1138,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
 
     if (removed[0]) {
       statsCounter().recordEviction(node.getWeight(), actualCause[0]);
+      if (maintenanceEvent != null) {
+        maintenanceEvent.recordRemoval(actualCause[0]);
+      }
 
       // Notify the listener only if the entry was evicted. This must be performed as the last
       // step during eviction to safe guard against the executor rejecting the notification task.
@@ -1062,6 +1171,8 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     } else {
       decreaseWindow();
     }
+    CacheEvents.climberAdjusted(amount, stepSize(), previousSampleHitRate(),
+        windowMaximum(), mainProtectedMaximum());
   }
 
   /** Calculates the amount to adapt the window by and sets {@link #adjustment()} accordingly. */
@@ -1074,12 +1185,15 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       return;
     }
 
-    int requestCount = hitsInSample() + missesInSample();
-    if (requestCount < frequencySketch().sampleSize) {
+    // When reads are sampled only the recorded hits are counted, so they are scaled by the rate to
+    // estimate the hit rate against the misses, which are always counted
+    long hitCount = (long) readSampleRate * hitsInSample();
+    long requestCount = hitCount + missesInSample();
+    if (requestCount < (long) readSampleRate * frequencySketch().sampleSize) {
       return;
     }
 
-    double hitRate = (double) hitsInSample() / requestCount;
+    double hitRate = (double) hitCount / requestCount;
     double hitRateChange = hitRate - previousSampleHitRate();
     double amount = (hitRateChange >= 0) ? stepSize() : -stepSize();
     double nextStepSize = (Math.abs(hitRateChange) >= HILL_CLIMBER_RESTART_THRESHOLD)
@@ -1214,13 +1328,50 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       statsCounter().recordHits(1);
     }
 
-    boolean delayable = skipReadBuffer() || (readBuffer.offer(node) != Buffer.FULL);
+    boolean delayable = skipReadBuffer() || !isSampled()
+        || (offerToReadBuffer(node) != Buffer.FULL);
     if (shouldDrainBuffers(delayable)) {
       scheduleDrainBuffers();
     }
     refreshIfNeeded(node, now);
   }
 
+  /**
+   * Performs the post-processing work required after the entry's expiration time was changed
+   * without a change to its weight. A read does not reorder the timer wheel when the expiry is
+   * insensitive to reads, so the change is published as an update instead.
+   *
+   * @param key the key of the entry
+   * @param node the entry in the page replacement policy
+   * @param now the current time, in nanoseconds
+   */
+  void afterExpirationChange(Object key, Node<K, V> node, long now) {
+    if (readInsensitiveExpiry) {
+      afterWrite(key, new UpdateTask(node, /* weightDifference */ 0));
+    } else {
+      afterRead(node, now, /* recordHit */ false);
+    }
+  }
+
+  /** Adds the access event to the read buffer, returning the buffer's offer result. */
+  int offerToReadBuffer(Node<K, V> node) {
+    int result = readBuffer.offer(node);
+    if (result != Buffer.SUCCESS) {
+      readBufferDrops.increment();
+      CacheEvents.readBufferDropped(result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns if the read or write should be recorded by the eviction policy. Both kinds of events
+   * are sampled at the same rate so that the frequency sketch estimates their relative popularity
+   * consistently and ages over the intended number of underlying events.
+   */
+  boolean isSampled() {
+    return (readSampleRate == 1) || (ThreadLocalRandom.current().nextInt(readSampleRate) == 0);
+  }
+
   /** Returns if the cache should bypass the read buffer. */
   boolean skipReadBuffer() {
     return fastpath() && frequencySketch().isNotInitialized();
@@ -1232,7 +1383,6 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
    * @param node the entry in the cache to refresh
    * @param now the current time, in nanoseconds
    */
-  @SuppressWarnings("FutureReturnValueIgnored")
   void refreshIfNeeded(Node<K, V> node, long now) {
     if (!refreshAfterWrite()) {
       return;
@@ -1247,93 +1397,133 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         && ((key = node.getKey()) != null) && ((oldValue = node.getValue()) != null)
         && ((writeTime & 1L) == 0L) && !refreshes().containsKey(keyReference)
         && node.casWriteTime(writeTime, refreshWriteTime)) {
-      long[] startTime = new long[1];
-      @SuppressWarnings({"unchecked", "rawtypes"})
-      CompletableFuture<? extends V>[] refreshFuture = new CompletableFuture[1];
-      try {
-        refreshes().computeIfAbsent(keyReference, k -> {
-          try {
-            startTime[0] = statsTicker().read();
-            if (isAsync) {
-              @SuppressWarnings("unchecked")
-              CompletableFuture<V> future = (CompletableFuture<V>) oldValue;
-              if (Async.isReady(future)) {
-                @SuppressWarnings("NullAway")
-                var refresh = cacheLoader.asyncReload(key, future.join(), executor);
-                refreshFuture[0] = refresh;
-              } else {
-                // no-op if load is pending
-                return future;
-              }
-            } else {
+      refresh(node, key, oldValue, keyReference, writeTime, refreshWriteTime);
+    }
+  }
+
+  /**
+   * Asynchronously refreshes the entry whose refresh time, as calculated by the {@link Refresher},
+   * has elapsed or that is being refreshed ahead of its expiration.
+   *
+   * @param node the entry in the cache to refresh
+   */
+  void refresh(Node<K, V> node) {
+    K key;
+    V oldValue;
+    Object keyReference = node.getKeyReference();
+    if ((keyReference != null) && ((key = node.getKey()) != null)
+        && ((oldValue = node.getValue()) != null) && node.isAlive()
+        && !refreshes().containsKey(keyReference)) {
+      long writeTime = node.getWriteTime();
+      refresh(node, key, oldValue, keyReference, writeTime, writeTime);
+    }
+  }
+
+  /**
+   * Asynchronously reloads the entry and replaces its value if it was not modified while in-flight.
+   * If the refresh write time differs from the write time, then the node was marked as refreshing
+   * and its write time is restored once the reload is submitted.
+   */
+  @SuppressWarnings("FutureReturnValueIgnored")
+  void refresh(Node<K, V> node, K key, V oldValue, Object keyReference,
+      long writeTime, long refreshWriteTime) {
+    long[] startTime = new long[1];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    CompletableFuture<? extends V>[] refreshFuture = new CompletableFuture[1];
+    var event = CacheEvents.beginLoad(CacheEvents.RELOAD, /* keys */ 1);
+    try {
+      refreshes().computeIfAbsent(keyReference, k -> {
+        try {
+          startTime[0] = statsTicker().read();
+          if (isAsync) {
+            @SuppressWarnings("unchecked")
+            CompletableFuture<V> future = (CompletableFuture<V>) oldValue;
+            if (Async.isReady(future)) {
               @SuppressWarnings("NullAway")
-              var refresh = cacheLoader.asyncReload(key, oldValue, executor);
+              var refresh = cacheLoader.asyncReload(key, future.join(), executor);
               refreshFuture[0] = refresh;
+            } else {
+              // no-op if load is pending
+              return future;
             }
-            return refreshFuture[0];
-          } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.log(Level.WARNING, "Exception thrown when submitting refresh task", e);
-            return null;
-          } catch (Throwable e) {
-            logger.log(Level.WARNING, "Exception thrown when submitting refresh task", e);
-            return null;
+          } else {
+            @SuppressWarnings("NullAway")
+            var refresh = cacheLoader.asyncReload(key, oldValue, executor);
+            refreshFuture[0] = refresh;
           }
-        });
-      } finally {
+          return refreshFuture[0];
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          logger.log(Level.WARNING, "Exception thrown when submitting refresh task", e);
+          return null;
+        } catch (Throwable e) {
+          logger.log(Level.WARNING, "Exception thrown when submitting refresh task", e);
+          return null;
+        }
+      });
+    } finally {
+      if (refreshWriteTime != writeTime) {
         node.casWriteTime(refreshWriteTime, writeTime);
       }
+    }
+    CacheEvents.endLoadOnCompletion(event, refreshFuture[0]);
 
-      if (refreshFuture[0] != null) {
-        refreshFuture[0].whenComplete((newValue, error) -> {
-          long loadTime = statsTicker().read() - startTime[0];
-          if (error != null) {
-            if (!(error instanceof CancellationException) && !(error instanceof TimeoutException)) {
-              logger.log(Level.WARNING, "Exception thrown during refresh", error);
-            }
-            refreshes().remove(keyReference, refreshFuture[0]);
-            statsCounter().recordLoadFailure(loadTime);
-            return;
+    if (refreshFuture[0] != null) {
+      refreshFuture[0].whenComplete((newValue, error) -> {
+        long loadTime = statsTicker().read() - startTime[0];
+        if (error != null) {
+          if (!(error instanceof CancellationException) && !(error instanceof TimeoutException)) {
+            logger.log(Level.WARNING, "Exception thrown during refresh", error);
           }
+          refreshes().remove(keyReference, refreshFuture[0]);
+          statsCounter().recordRefreshFailure(loadTime);
+          return;
+        }
 
-          @SuppressWarnings("unchecked")
-          V value = (isAsync && (newValue != null)) ? (V) refreshFuture[0] : newValue;
-
-          boolean[] discard = new boolean[1];
-          compute(key, (k, currentValue) -> {
-            if (currentValue == null) {
-              // If the entry is absent then discard the refresh and maybe notifying the listener
-              discard[0] = (value != null);
-              return null;
-            } else if (currentValue == value) {
-              // If the reloaded value is the same instance then no-op
-              return currentValue;
-            } else if (isAsync &&
-                (newValue == Async.getIfReady((CompletableFuture<?>) currentValue))) {
-              // If the completed futures hold the same value instance then no-op
-              return currentValue;
-            } else if ((currentValue == oldValue) && (node.getWriteTime() == writeTime)) {
-              // If the entry was not modified while in-flight (no ABA) then replace
-              return value;
-            }
-            // Otherwise, a write invalidated the refresh so discard it and notify the listener
-            discard[0] = true;
-            return currentValue;
-          }, expiry(), /* recordMiss */ false,
-              /* recordLoad */ false, /* recordLoadFailure */ true);
+        @SuppressWarnings("unchecked")
+        V value = (isAsync && (newValue != null)) ? (V) refreshFuture[0] : newValue;
 
-          if (discard[0]) {
-            notifyRemoval(key, value, RemovalCause.REPLACED);
-          }
-          if (newValue == null) {
-            statsCounter().recordLoadFailure(loadTime);
-          } else {
-            statsCounter().recordLoadSuccess(loadTime);
+        boolean[] discard = new boolean[1];
+        compute(key, (k, currentValue) -> {
+          if (currentValue == null) {
+            // If the entry is absent then discard the refresh and maybe notifying the listener
+            discard[0] = (value != null);
+            return null;
+          } else if (currentValue == value) {
+            // If the reloaded value is the same instance then no-op
+            return currentValue;
+          } else if (isAsync &&
+              (newValue == Async.getIfReady((CompletableFuture<?>) currentValue))) {
+            // If the completed futures hold the same value instance then no-op
+            return currentValue;
+          } else if ((currentValue == oldValue) && (node.getWriteTime() == writeTime)
+              && (!nodeFactory.compactTimestamps()
+                  || (refreshes().get(keyReference) == refreshFuture[0]))) {
+            // If the entry was not modified while in-flight (no ABA) then replace. A compact write
+            // time cannot distinguish the writes within its resolution, but those writes discard
+            // the in-flight refresh, so it must still be the pending one
+            if (refreshScheduler != null) {
+              refreshScheduler.reloaded(node);
+            }
+            return value;
           }
+          // Otherwise, a write invalidated the refresh so discard it and notify the listener
+          discard[0] = true;
+          return currentValue;
+        }, expiry(), /* recordMiss */ false,
+            /* recordLoad */ false, /* recordLoadFailure */ true);
 
-          refreshes().remove(keyReference, refreshFuture[0]);
-        });
-      }
+        if (discard[0]) {
+          notifyRemoval(key, value, RemovalCause.REPLACED);
+        }
+        if (newValue == null) {
+          statsCounter().recordRefreshFailure(loadTime);
+        } else {
+          statsCounter().recordRefreshSuccess(loadTime);
+        }
+
+        refreshes().remove(keyReference, refreshFuture[0]);
+      });
     }
   }
 
@@ -1386,7 +1576,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
    */
   long expireAfterRead(Node<K, V> node, @Nullable K key,
       @Nullable V value, Expiry<K, V> expiry, long now) {
-    if (expiresVariable() && (key != null) && (value != null)) {
+    if (readInsensitiveExpiry) {
+      return node.getVariableTime();
+    } else if (expiresVariable() && (key != null) && (value != null)) {
       long currentDuration = Math.max(1, node.getVariableTime() - now);
       long duration = expiry.expireAfterRead(key, value, now, currentDuration);
       return isAsync ? (now + duration) : (now + Math.min(duration, MAXIMUM_EXPIRY));
@@ -1405,7 +1597,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
    */
   void tryExpireAfterRead(Node<K, V> node, @Nullable K key,
       @Nullable V value, Expiry<K, V> expiry, long now) {
-    if (!expiresVariable() || (key == null) || (value == null)) {
+    if (!expiresVariable() || readInsensitiveExpiry || (key == null) || (value == null)) {
       return;
     }
 
@@ -1441,17 +1633,44 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     }
   }
 
+  /**
+   * Performs the post-processing work required after a write to the key's mapping.
+   *
+   * @param key the key whose mapping was written, which selects the write buffer's stripe
+   * @param task the pending operation to be applied
+   */
+  void afterWrite(Object key, Runnable task) {
+    if (writeBuffers == null) {
+      afterWrite(writeBuffer, task);
+    } else {
+      int hash = key.hashCode();
+      int index = (hash ^ (hash >>> 16)) & (writeBuffers.length - 1);
+      afterWrite(writeBuffers[index], task);
+    }
+  }
+
   /**
    * Performs the post-processing work required after a write.
    *
    * @param task the pending operation to be applied
    */
   void afterWrite(Runnable task) {
+    afterWrite(writeBuffer, task);
+  }
+
+  /**
+   * Performs the post-processing work required after a write.
+   *
+   * @param buffer the write buffer to add the task to
+   * @param task the pending operation to be applied
+   */
+  void afterWrite(MpscGrowableArrayQueue<Runnable> buffer, Runnable task) {
     for (int i = 0; i < WRITE_BUFFER_RETRIES; i++) {
-      if (writeBuffer.offer(task)) {
+      if (buffer.offer(task)) {
         scheduleAfterWrite();
         return;
       }
+      writeBufferRetries.increment();
       scheduleDrainBuffers();
     }
 
@@ -1460,10 +1679,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     // exceeds the consuming rate, priority inversion, or if the executor silently discarded the
     // maintenance task. In these scenarios then the writing threads cannot make progress and
     // instead writers provide assistance by performing this work directly.
+    synchronousDrains.increment();
+    var event = CacheEvents.beginWriteBufferBackpressure();
     try {
       performCleanUp(task);
     } catch (RuntimeException e) {
       logger.log(Level.ERROR, "Exception thrown when performing the maintenance task", e);
+    } finally {
+      CacheEvents.endWriteBufferBackpressure(event);
     }
   }
 
@@ -1518,6 +1741,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       } finally {
         evictionLock.unlock();
       }
+      afterLockRelease();
     }
   }
 
@@ -1542,6 +1766,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     } finally {
       evictionLock.unlock();
     }
+    afterLockRelease();
     if ((drainStatus() == REQUIRED) && (executor == ForkJoinPool.commonPool())) {
       scheduleDrainBuffers();
     }
@@ -1555,13 +1780,20 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
    * @param task an additional pending task to run, or {@code null} if not present
    */
   @GuardedBy("evictionLock")
+  @SuppressWarnings("NonAtomicVolatileUpdate")
   void maintenance(@Nullable Runnable task) {
     setDrainStatusRelease(PROCESSING_TO_IDLE);
+    long startTime = System.nanoTime();
+
+    var event = CacheEvents.beginMaintenance();
+    long reads = (event == null) ? 0L : readBuffer.reads();
+    int writes = 0;
+    maintenanceEvent = event;
 
     try {
       drainReadBuffer();
 
-      drainWriteBuffer();
+      writes = drainWriteBuffer();
       if (task != null) {
         task.run();
       }
@@ -1573,36 +1805,88 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       evictEntries();
 
       climb();
+
+      if (heavyHitters != null) {
+        heavyHitters.publish();
+      }
+      if (nearCache != null) {
+        nearCache.publish();
+      }
     } finally {
       if ((drainStatus() != PROCESSING_TO_IDLE) || !casDrainStatus(PROCESSING_TO_IDLE, IDLE)) {
         setDrainStatusOpaque(REQUIRED);
       }
+      // The time is a plain field that is published by the count's volatile write
+      maintenanceTime += Math.max(0L, System.nanoTime() - startTime);
+      maintenanceCount++;
+      if (event != null) {
+        maintenanceEvent = null;
+        CacheEvents.endMaintenance(event, readBuffer.reads() - reads,
+            writes, evicts() ? weightedSize() : data.size());
+      }
+    }
+  }
+
+  /**
+   * Performs the work that was deferred while the eviction lock was held and must not be run by the
+   * thread holding it, such as delivering the batched removal notifications and reloading the
+   * entries that are due to be refreshed. This must be called after every release of the lock that
+   * may have performed the maintenance work or removed entries, and is deferred to the outermost
+   * release if the lock is held reentrantly.
+   */
+  void afterLockRelease() {
+    if (evictionLock.isHeldByCurrentThread()) {
+      return;
+    }
+    if (removalBatcher != null) {
+      removalBatcher.schedule();
+    }
+    if (refreshScheduler != null) {
+      refreshScheduler.refreshDue();
+    }
+    if (refreshAhead != null) {
+      refreshAhead.refreshDue();
     }
   }
 
-  /** Drains the weak key references queue. */
+  /**
+   * Drains the weak key references queue, up to a limit in order to not hold the lock for an
+   * excessive duration when the garbage collector clears a large number of references at once.
+   * If the limit is reached then the maintenance work is rescheduled to drain the remainder.
+   */
   @GuardedBy("evictionLock")
   void drainKeyReferences() {
     if (!collectKeys()) {
       return;
     }
-    Reference<? extends K> keyRef;
-    while ((keyRef = keyReferenceQueue().poll()) != null) {
+    for (int i = 0; i < REFERENCE_DRAIN_MAX; i++) {
+      Reference<? extends K> keyRef = keyReferenceQueue().poll();
+      if (keyRef == null) {
+        return;
+      }
       Node<K, V> node = data.get(keyRef);
       if (node != null) {
         evictEntry(node, RemovalCause.COLLECTED, 0L);
       }
     }
+    setDrainStatusOpaque(PROCESSING_TO_REQUIRED);
   }
 
-  /** Drains the weak / soft value references queue. */
+  /**
+   * Drains the weak / soft value references queue, up to a limit in order to not hold the lock for
+   * an excessive duration when the garbage collector clears a large number of references at once.
+   * If the limit is reached then the maintenance work is rescheduled to drain the remainder.
+   */
   @GuardedBy("evictionLock")
   void drainValueReferences() {
     if (!collectValues()) {
       return;
     }
-    Reference<? extends V> valueRef;
-    while ((valueRef = valueReferenceQueue().poll()) != null) {
+    for (int i = 0; i < REFERENCE_DRAIN_MAX; i++) {
+      Reference<? extends V> valueRef = valueReferenceQueue().poll();
+      if (valueRef == null) {
+        return;
+      }
       @SuppressWarnings("unchecked")
       InternalReference<V> ref = (InternalReference<V>) valueRef;
       Node<K, V> node = data.get(ref.getKeyReference());
@@ -1610,6 +1894,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         evictEntry(node, RemovalCause.COLLECTED, 0L);
       }
     }
+    setDrainStatusOpaque(PROCESSING_TO_REQUIRED);
   }
 
   /** Drains the read buffer. */
@@ -1629,6 +1914,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         return;
       }
       frequencySketch().increment(key);
+      if (nearCache != null) {
+        nearCache.record(node, frequencySketch().frequency(key), frequencySketch().resets);
+      }
+      if (heavyHitters != null) {
+        heavyHitters.record(node.getKeyReference(), frequencySketch().resets);
+      }
       if (node.inWindow()) {
         reorder(accessOrderWindowDeque(), node);
       } else if (node.inMainProbation()) {
@@ -1640,7 +1931,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     } else if (expiresAfterAccess()) {
       reorder(accessOrderWindowDeque(), node);
     }
-    if (expiresVariable()) {
+    if (expiresVariable() && !readInsensitiveExpiry) {
       timerWheel().reschedule(node);
     }
   }
@@ -1674,17 +1965,53 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     }
   }
 
-  /** Drains the write buffer. */
+  /**
+   * Drains the write buffer.
+   *
+   * @return the number of tasks that were run
+   */
   @GuardedBy("evictionLock")
-  void drainWriteBuffer() {
-    for (int i = 0; i <= WRITE_BUFFER_MAX; i++) {
-      Runnable task = writeBuffer.poll();
+  int drainWriteBuffer() {
+    if (writeBuffers == null) {
+      return drainWriteBuffer(writeBuffer, WRITE_BUFFER_MAX);
+    }
+    int writes = 0;
+    for (var buffer : writeBuffers) {
+      writes += drainWriteBuffer(buffer, WRITE_BUFFER_STRIPE_MAX);
+    }
+    return writes;
+  }
+
+  /**
+   * Drains the write buffer, up to a limit in order to not starve the other maintenance work.
+   *
+   * @param buffer the write buffer to drain
+   * @param maximum the buffer's capacity
+   * @return the number of tasks that were run
+   */
+  @GuardedBy("evictionLock")
+  int drainWriteBuffer(MpscGrowableArrayQueue<Runnable> buffer, int maximum) {
+    for (int i = 0; i <= maximum; i++) {
+      Runnable task = buffer.poll();
       if (task == null) {
-        return;
+        return i;
       }
       task.run();
     }
     setDrainStatusOpaque(PROCESSING_TO_REQUIRED);
+    return maximum + 1;
+  }
+
+  /** Returns the number of pending writes that have not yet been applied to the policy. */
+  int writeBufferSize() {
+    if (writeBuffers == null) {
+      return writeBuffer.size();
+    }
+    int size = 0;
+    for (var buffer : writeBuffers) {
+      size += buffer.size();
+    }
+    return size;
   }
 
   /**
@@ -1710,6 +2037,15 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         }
         setWeightedSize(weightedSize() - node.getWeight());
       }
+      if (tagIndex != null) {
+        tagIndex.remove(node);
+      }
+      if (refreshScheduler != null) {
+        refreshScheduler.remove(node);
+      }
+      if (nearCache != null) {
+        nearCache.remove(node);
+      }
       node.die();
     }
   }
@@ -1737,12 +2073,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         long maximum = maximum();
         if (weightedSize >= (maximum >>> 1)) {
           // Lazily initialize when close to the maximum
-          long capacity = isWeighted() ? data.mappingCount() : maximum;
-          frequencySketch().ensureCapacity(capacity);
+          long capacity = isWeighted() ? estimatedSize() : maximum;
+          frequencySketch().ensureCapacity(capacity, readSampleRate);
         }
 
         K key = node.getKey();
-        if (key != null) {
+        if ((key != null) && isSampled()) {
           frequencySketch().increment(key);
         }
 
@@ -1766,6 +2102,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         if (expiresVariable()) {
           timerWheel().schedule(node);
         }
+        if (tagIndex != null) {
+          tagIndex.update(node);
+        }
+        if (refreshScheduler != null) {
+          refreshScheduler.update(node);
+        }
       }
 
       // Ensure that in-flight async computation cannot expire (reset on a completion callback)
@@ -1863,6 +2205,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       } else if (expiresVariable()) {
         timerWheel().reschedule(node);
       }
+      if ((tagIndex != null) && node.isAlive()) {
+        tagIndex.update(node);
+      }
+      if ((refreshScheduler != null) && node.isAlive()) {
+        refreshScheduler.update(node);
+      }
     }
   }
 
@@ -1880,38 +2228,95 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
 
   @Override
   public long estimatedSize() {
-    return data.mappingCount();
+    return (intrusiveTable == null)
+        ? ((ConcurrentHashMap<?, ?>) data).mappingCount()
+        : intrusiveTable.mappingCount();
   }
 
   @Override
-  @SuppressWarnings("FutureReturnValueIgnored")
   public void clear() {
+    if (incrementalClear) {
+      clearIncrementally();
+      return;
+    }
+
     evictionLock.lock();
     try {
       long now = expirationTicker().read();
-
-      // Apply all pending writes
-      Runnable task;
-      while ((task = writeBuffer.poll()) != null) {
-        task.run();
-      }
+      runPendingWrites();
 
       // Discard all entries
       for (var entry : data.entrySet()) {
         removeNode(entry.getValue(), now);
       }
 
-      // Cancel the scheduled cleanup
-      Pacer pacer = pacer();
-      if (pacer != null) {
-        pacer.cancel();
+      discardPendingMaintenance();
+    } finally {
+      evictionLock.unlock();
+    }
+    afterLockRelease();
+  }
+
+  /**
+   * Discards all entries in batches, releasing the eviction lock between each batch so that the
+   * writers which are forced to perform the maintenance work are not stalled until a large cache
+   * is emptied. An entry that is added concurrently may or may not be removed.
+   */
+  void clearIncrementally() {
+    evictionLock.lock();
+    try {
+      runPendingWrites();
+    } finally {
+      evictionLock.unlock();
+    }
+
+    var iterator = data.values().iterator();
+    while (iterator.hasNext()) {
+      evictionLock.lock();
+      try {
+        long now = expirationTicker().read();
+        for (int i = 0; (i < CLEAR_BATCH_SIZE) && iterator.hasNext(); i++) {
+          removeNode(iterator.next(), now);
+        }
+      } finally {
+        evictionLock.unlock();
       }
+      afterLockRelease();
+    }
 
-      // Discard all pending reads
-      readBuffer.drainTo(e -> {});
+    evictionLock.lock();
+    try {
+      discardPendingMaintenance();
     } finally {
       evictionLock.unlock();
     }
+    afterLockRelease();
+  }
+
+  /** Applies all of the pending writes to the policy. */
+  @GuardedBy("evictionLock")
+  void runPendingWrites() {
+    Runnable task;
+    while ((task = writeBuffer.poll()) != null) {
+      task.run();
+    }
+    if (writeBuffers != null) {
+      for (var buffer : writeBuffers) {
+        while ((task = buffer.poll()) != null) {
+          task.run();
+        }
+      }
+    }
+  }
+
+  /** Cancels the scheduled cleanup and discards all of the pending reads. */
+  @GuardedBy("evictionLock")
+  void discardPendingMaintenance() {
+    Pacer pacer = pacer();
+    if (pacer != null) {
+      pacer.cancel();
+    }
+    readBuffer.drainTo(e -> {});
   }
 
   @GuardedBy("evictionLock")
@@ -1994,6 +2399,13 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
 
   @Override
   public @Nullable V getIfPresent(Object key, boolean recordStats) {
+    if (nearCache != null) {
+      V value = nearCache.getIfPresent(key, expirationTicker().read(), recordStats);
+      if (value != null) {
+        return value;
+      }
+    }
+
     Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
     if (node == null) {
       if (recordStats) {
@@ -2022,6 +2434,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       tryExpireAfterRead(node, castedKey, value, expiry(), now);
     }
     afterRead(node, now, recordStats);
+    if (nearCache != null) {
+      nearCache.promote(key, node);
+    }
     return value;
   }
 
@@ -2037,6 +2452,25 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     return value;
   }
 
+  /**
+   * Returns the canonical instance of the key if present, or null otherwise. This is used by the
+   * weak interner, whose cache has no eviction or expiration policy, so the lookup is not recorded
+   * and only schedules the maintenance work if it is already required.
+   *
+   * @param key the key to look up
+   * @return the key instance held by the cache, or null if absent
+   */
+  @Nullable K getKey(K key) {
+    Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
+    if (node == null) {
+      if (drainStatus() == REQUIRED) {
+        scheduleDrainBuffers();
+      }
+      return null;
+    }
+    return node.getKey();
+  }
+
   @Override
   public Map<K, V> getAllPresent(Iterable<? extends K> keys) {
     var result = new LinkedHashMap<Object, Object>();
@@ -2109,7 +2543,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         }
         prior = data.putIfAbsent(node.getKeyReference(), node);
         if (prior == null) {
-          afterWrite(new AddTask(node, newWeight));
+          afterWrite(key, new AddTask(node, newWeight));
           return null;
         } else if (onlyIfAbsent) {
           // An optimistic fast path to avoid unnecessary locking
@@ -2188,10 +2622,11 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       }
 
       int weightedDifference = mayUpdate ? (newWeight - oldWeight) : 0;
-      if ((oldValue == null) || (weightedDifference != 0) || expired) {
-        afterWrite(new UpdateTask(prior, weightedDifference));
+      if ((oldValue == null) || (weightedDifference != 0) || expired
+          || (mayUpdate && ((tagIndex != null) || (refreshScheduler != null)))) {
+        afterWrite(key, new UpdateTask(prior, weightedDifference));
       } else if (!onlyIfAbsent && exceedsTolerance) {
-        afterWrite(new UpdateTask(prior, weightedDifference));
+        afterWrite(key, new UpdateTask(prior, weightedDifference));
       } else {
         if (mayUpdate) {
           setWriteTime(prior, now);
@@ -2235,7 +2670,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     });
 
     if (cause[0] != null) {
-      afterWrite(new RemovalTask(node[0]));
+      afterWrite(key, new RemovalTask(node[0]));
       notifyRemoval(castKey, oldValue[0], cause[0]);
     }
     return (cause[0] == RemovalCause.EXPLICIT) ? oldValue[0] : null;
@@ -2283,7 +2718,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     if (removed[0] == null) {
       return false;
     }
-    afterWrite(new RemovalTask(removed[0]));
+    afterWrite(key, new RemovalTask(removed[0]));
     notifyRemoval(oldKey[0], oldValue[0], cause[0]);
 
     return (cause[0] == RemovalCause.EXPLICIT);
@@ -2329,10 +2764,11 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     }
 
     int weightedDifference = (weight - oldWeight[0]);
-    if (expiresAfterWrite() || (weightedDifference != 0)) {
-      afterWrite(new UpdateTask(node, weightedDifference));
+    if (expiresAfterWrite() || (weightedDifference != 0) || (tagIndex != null)
+        || (refreshScheduler != null)) {
+      afterWrite(key, new UpdateTask(node, weightedDifference));
     } else {
-      afterRead(node, now[0], /* recordHit */ false);
+      afterExpirationChange(key, node, now[0]);
     }
 
     notifyOnReplace(nodeKey[0], oldValue[0], value);
@@ -2381,10 +2817,11 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     }
 
     int weightedDifference = (weight - oldWeight[0]);
-    if (expiresAfterWrite() || (weightedDifference != 0)) {
-      afterWrite(new UpdateTask(node, weightedDifference));
+    if (expiresAfterWrite() || (weightedDifference != 0) || (tagIndex != null)
+        || (refreshScheduler != null)) {
+      afterWrite(key, new UpdateTask(node, weightedDifference));
     } else {
-      afterRead(node, now[0], /* recordHit */ false);
+      afterExpirationChange(key, node, now[0]);
     }
 
     notifyOnReplace(nodeKey[0], prevValue[0], newValue);
@@ -2410,6 +2847,12 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     requireNonNull(key);
     requireNonNull(mappingFunction);
     long now = expirationTicker().read();
+    if (nearCache != null) {
+      V value = nearCache.getIfPresent(key, now, recordStats);
+      if (value != null) {
+        return value;
+      }
+    }
 
     // An optimistic fast path to avoid unnecessary locking
     Node<K, V> node = data.get(nodeFactory.newLookupKey(key));
@@ -2422,6 +2865,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         }
 
         afterRead(node, now, /* recordHit */ recordStats);
+        if (nearCache != null) {
+          nearCache.promote(key, node);
+        }
         return value;
       }
     }
@@ -2432,6 +2878,17 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     return doComputeIfAbsent(key, keyRef, mappingFunction, new long[] { now }, recordStats);
   }
 
+  /**
+   * Computes the mapping with a function that may be long-running, such as a cache loader. The
+   * intrusive hash table evaluates it without holding the lock of the key's segment.
+   */
+  @Nullable Node<K, V> computeReserved(Object keyRef, BiFunction<? super Object,
+      ? super Node<K, V>, ? extends Node<K, V>> remappingFunction) {
+    return (intrusiveTable == null)
+        ? data.compute(keyRef, remappingFunction)
+        : intrusiveTable.computeReserved(keyRef, remappingFunction);
+  }
+
   /** Returns the current value from a computeIfAbsent invocation. */
   @Nullable V doComputeIfAbsent(K key, Object keyRef,
       Function<? super K, ? extends V> mappingFunction, long[/* 1 */] now, boolean recordStats) {
@@ -2446,7 +2903,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
 
     int[] weight = new int[2]; // old, new
     RemovalCause[] cause = new RemovalCause[1];
-    Node<K, V> node = data.compute(keyRef, (k, n) -> {
+    Node<K, V> node = computeReserved(keyRef, (k, n) -> {
       if (n == null) {
         newValue[0] = mappingFunction.apply(key);
         if (newValue[0] == null) {
@@ -2496,7 +2953,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
 
     if (node == null) {
       if (removed[0] != null) {
-        afterWrite(new RemovalTask(removed[0]));
+        afterWrite(key, new RemovalTask(removed[0]));
       }
       return null;
     }
@@ -2520,10 +2977,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       return oldValue[0];
     }
     if ((oldValue[0] == null) && (cause[0] == null)) {
-      afterWrite(new AddTask(node, weight[1]));
+      afterWrite(key, new AddTask(node, weight[1]));
     } else {
       int weightedDifference = (weight[1] - weight[0]);
-      afterWrite(new UpdateTask(node, weightedDifference));
+      afterWrite(key, new UpdateTask(node, weightedDifference));
     }
 
     return newValue[0];
@@ -2615,7 +3072,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     int[] weight = new int[2]; // old, new
     RemovalCause[] cause = new RemovalCause[1];
 
-    Node<K, V> node = data.compute(keyRef, (kr, n) -> {
+    Node<K, V> node = computeReserved(keyRef, (kr, n) -> {
       if (n == null) {
         if (!computeIfAbsent) {
           return null;
@@ -2693,21 +3150,22 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     }
 
     if (removed[0] != null) {
-      afterWrite(new RemovalTask(removed[0]));
+      afterWrite(key, new RemovalTask(removed[0]));
     } else if (node == null) {
       // absent and not computable
     } else if ((oldValue[0] == null) && (cause[0] == null)) {
-      afterWrite(new AddTask(node, weight[1]));
+      afterWrite(key, new AddTask(node, weight[1]));
     } else {
       int weightedDifference = weight[1] - weight[0];
-      if (expiresAfterWrite() || (weightedDifference != 0)) {
-        afterWrite(new UpdateTask(node, weightedDifference));
+      if (expiresAfterWrite() || (weightedDifference != 0) || (tagIndex != null)
+          || (refreshScheduler != null)) {
+        afterWrite(key, new UpdateTask(node, weightedDifference));
       } else {
         if ((cause[0] == null) && !isComputingAsync(node)) {
           tryExpireAfterRead(node, key, newValue[0], expiry, now[0]);
           setAccessTime(node, now[0]);
         }
-        afterRead(node, now[0], /* recordHit */ false);
+        afterExpirationChange(key, node, now[0]);
         if ((cause[0] != null) && cause[0].wasEvicted()) {
           scheduleDrainBuffers();
         }
@@ -2745,30 +3203,43 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
    * @param weighted using unit or weight-based measurement
    * @return an unmodifiable snapshot in a specified order
    */
-  @SuppressWarnings("GuardedByChecker")
   Map<K, V> evictionOrder(long limit, Function<V, V> transformer,
       boolean hottest, boolean weighted) {
-    Iterable<Node<K, V>> iterable = () -> {
+    int initialCapacity = (int) Math.min(Math.min(limit, size()), Integer.SIZE);
+    ToLongFunction<Node<K, V>> measurer = weighted ? Node::getPolicyWeight : node -> 1L;
+    return fixedSnapshot(initialCapacity, limit, measurer, evictionOrder(hottest), transformer);
+  }
+
+  /**
+   * Returns the entries in eviction order, either ascending or descending. The iterator must be
+   * used while holding the eviction lock, but it may be resumed after the lock was released.
+   *
+   * @param hottest the coldest or hottest iteration order
+   * @return the ordered iteration of entries
+   */
+  @SuppressWarnings("GuardedByChecker")
+  Iterable<Node<K, V>> evictionOrder(boolean hottest) {
+    return () -> {
       Comparator<Node<K, V>> comparator = Comparator.comparingInt(node -> {
           K key = node.getKey();
           return (key == null) ? 0 : frequencySketch().frequency(key);
       });
+      PeekingIterator<Node<K, V>> window = accessOrderWindowDeque()
+          .resumableIterator(!hottest, Node::inWindow);
+      PeekingIterator<Node<K, V>> probation = accessOrderProbationDeque()
+          .resumableIterator(!hottest, Node::inMainProbation);
+      PeekingIterator<Node<K, V>> protect = accessOrderProtectedDeque()
+          .resumableIterator(!hottest, Node::inMainProtected);
       if (hottest) {
-        PeekingIterator<Node<K, V>> secondary = PeekingIterator.comparing(
-            accessOrderProbationDeque().descendingIterator(),
-            accessOrderWindowDeque().descendingIterator(), comparator);
-        return PeekingIterator.concat(accessOrderProtectedDeque().descendingIterator(), secondary);
+        PeekingIterator<Node<K, V>> secondary =
+            PeekingIterator.comparing(probation, window, comparator);
+        return PeekingIterator.concat(protect, secondary);
       } else {
-        PeekingIterator<Node<K, V>> primary = PeekingIterator.comparing(
-            accessOrderWindowDeque().iterator(), accessOrderProbationDeque().iterator(),
-            comparator.reversed());
-        return PeekingIterator.concat(primary, accessOrderProtectedDeque().iterator());
+        PeekingIterator<Node<K, V>> primary =
+            PeekingIterator.comparing(window, probation, comparator.reversed());
+        return PeekingIterator.concat(primary, protect);
       }
     };
-
-    int initialCapacity = (int) Math.min(Math.min(limit, size()), Integer.SIZE);
-    ToLongFunction<Node<K, V>> measurer = weighted ? Node::getPolicyWeight : node -> 1L;
-    return fixedSnapshot(initialCapacity, limit, measurer, iterable, transformer);
   }
 
   /**
@@ -2780,33 +3251,38 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
    * @param oldest the youngest or oldest iteration order
    * @return an unmodifiable snapshot in a specified order
    */
-  @SuppressWarnings("GuardedByChecker")
   Map<K, V> expireAfterAccessOrder(int limit, Function<V, V> transformer, boolean oldest) {
     int initialCapacity = Math.min(limit, size());
-    Iterable<Node<K, V>> iterable;
-    if (evicts()) {
-      iterable = () -> {
-        Comparator<Node<K, V>> comparator = Comparator.comparingLong(Node::getAccessTime);
-        PeekingIterator<Node<K, V>> first, second, third;
-        if (oldest) {
-          first = accessOrderWindowDeque().iterator();
-          second = accessOrderProbationDeque().iterator();
-          third = accessOrderProtectedDeque().iterator();
-        } else {
-          comparator = comparator.reversed();
-          first = accessOrderWindowDeque().descendingIterator();
-          second = accessOrderProbationDeque().descendingIterator();
-          third = accessOrderProtectedDeque().descendingIterator();
-        }
-        return PeekingIterator.comparing(
-            PeekingIterator.comparing(first, second, comparator), third, comparator);
-      };
-    } else {
-      iterable = () -> oldest
-          ? accessOrderWindowDeque().iterator()
-          : accessOrderWindowDeque().descendingIterator();
-    }
-    return fixedSnapshot(initialCapacity, limit, node -> 1L, iterable, transformer);
+    return fixedSnapshot(initialCapacity, limit, node -> 1L,
+        expireAfterAccessOrder(oldest), transformer);
+  }
+
+  /**
+   * Returns the entries in access expiration order, either ascending or descending. The iterator
+   * must be used while holding the eviction lock, but may be resumed after it was released.
+   *
+   * @param oldest the youngest or oldest iteration order
+   * @return the ordered iteration of entries
+   */
+  @SuppressWarnings("GuardedByChecker")
+  Iterable<Node<K, V>> expireAfterAccessOrder(boolean oldest) {
+    if (!evicts()) {
+      return () -> accessOrderWindowDeque().resumableIterator(oldest, Node::inWindow);
+    }
+    return () -> {
+      Comparator<Node<K, V>> comparator = Comparator.comparingLong(Node::getAccessTime);
+      if (!oldest) {
+        comparator = comparator.reversed();
+      }
+      PeekingIterator<Node<K, V>> first = accessOrderWindowDeque()
+          .resumableIterator(oldest, Node::inWindow);
+      PeekingIterator<Node<K, V>> second = accessOrderProbationDeque()
+          .resumableIterator(oldest, Node::inMainProbation);
+      PeekingIterator<Node<K, V>> third = accessOrderProtectedDeque()
+          .resumableIterator(oldest, Node::inMainProtected);
+      return PeekingIterator.comparing(
+          PeekingIterator.comparing(first, second, comparator), third, comparator);
+    };
   }
 
   /**
@@ -2818,13 +3294,22 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
    * @param oldest the youngest or oldest iteration order
    * @return an unmodifiable snapshot in a specified order
    */
-  @SuppressWarnings("GuardedByChecker")
   Map<K, V> expireAfterWriteOrder(int limit, Function<V, V> transformer, boolean oldest) {
     int initialCapacity = Math.min(limit, size());
-    Iterable<Node<K, V>> iterable = () -> oldest
-        ? writeOrderDeque().iterator()
-        : writeOrderDeque().descendingIterator();
-    return fixedSnapshot(initialCapacity, limit, node -> 1L, iterable, transformer);
+    return fixedSnapshot(initialCapacity, limit, node -> 1L,
+        expireAfterWriteOrder(oldest), transformer);
+  }
+
+  /**
+   * Returns the entries in write expiration order, either ascending or descending. The iterator
+   * must be used while holding the eviction lock, but may be resumed after it was released.
+   *
+   * @param oldest the youngest or oldest iteration order
+   * @return the ordered iteration of entries
+   */
+  @SuppressWarnings("GuardedByChecker")
+  Iterable<Node<K, V>> expireAfterWriteOrder(boolean oldest) {
+    return () -> writeOrderDeque().resumableIterator(oldest, node -> true);
   }
 
   /**
@@ -2862,6 +3347,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       return Collections.unmodifiableMap(map);
     } finally {
       evictionLock.unlock();
+      afterLockRelease();
     }
   }
 
@@ -2882,6 +3368,246 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       return timerWheel().snapshot(ascending, limit, transformer);
     } finally {
       evictionLock.unlock();
+      afterLockRelease();
+    }
+  }
+
+  /**
+   * Performs the action for each live entry, in parallel if the cache is at least as large as the
+   * threshold. The reads are not recorded and the entries that have expired are skipped.
+   *
+   * @param parallelismThreshold the estimated number of entries needed to run in parallel
+   * @param transformer a function that unwraps the value
+   * @param action the action
+   */
+  void bulkForEach(long parallelismThreshold, Function<V, V> transformer,
+      BiConsumer<? super K, ? super V> action) {
+    requireNonNull(action);
+    Function<Node<K, V>, @Nullable Object> function = bulkFunction(transformer, (key, value) -> {
+      action.accept(key, value);
+      return null;
+    });
+    if (data instanceof ConcurrentHashMap<?, ?>) {
+      var map = (ConcurrentHashMap<Object, Node<K, V>>) data;
+      map.forEachValue(parallelismThreshold, function::apply);
+    } else {
+      bulkStream(parallelismThreshold).forEach(function::apply);
+    }
+  }
+
+  /**
+   * Returns the first non-null result of the search function on a live entry, searching in
+   * parallel if the cache is at least as large as the threshold.
+   *
+   * @param parallelismThreshold the estimated number of entries needed to run in parallel
+   * @param transformer a function that unwraps the value
+   * @param searchFunction a function returning a non-null result on success, else null
+   * @return a non-null result from the search function, or null if none
+   */
+  <U> @Nullable U bulkSearch(long parallelismThreshold, Function<V, V> transformer,
+      BiFunction<? super K, ? super V, ? extends @Nullable U> searchFunction) {
+    requireNonNull(searchFunction);
+    Function<Node<K, V>, @Nullable U> function = bulkFunction(transformer, searchFunction);
+    if (data instanceof ConcurrentHashMap<?, ?>) {
+      var map = (ConcurrentHashMap<Object, Node<K, V>>) data;
+      return map.searchValues(parallelismThreshold, function);
+    }
+    return bulkStream(parallelismThreshold)
+        .map(function).filter(Objects::nonNull).findAny().orElse(null);
+  }
+
+  /**
+   * Returns the combined transformation of the live entries, reducing in parallel if the cache is
+   * at least as large as the threshold.
+   *
+   * @param parallelismThreshold the estimated number of entries needed to run in parallel
+   * @param transformer a function that unwraps the value
+   * @param mappingFunction a function returning the transformation for an entry, or null if none
+   * @param reducer a commutative associative combining function
+   * @return the result of accumulating the transformations, or null if none
+   */
+  <U> @Nullable U bulkReduce(long parallelismThreshold, Function<V, V> transformer,
+      BiFunction<? super K, ? super V, ? extends @Nullable U> mappingFunction,
+      BiFunction<? super U, ? super U, ? extends U> reducer) {
+    requireNonNull(mappingFunction);
+    requireNonNull(reducer);
+    Function<Node<K, V>, @Nullable U> function = bulkFunction(transformer, mappingFunction);
+    if (data instanceof ConcurrentHashMap<?, ?>) {
+      var map = (ConcurrentHashMap<Object, Node<K, V>>) data;
+      return map.reduceValues(parallelismThreshold, function, reducer);
+    }
+    return bulkStream(parallelismThreshold).map(function).filter(Objects::nonNull)
+        .reduce((result, other) -> reducer.apply(result, other)).orElse(null);
+  }
+
+  /**
+   * Returns a function that applies the bulk operation to a node if it is alive and has not
+   * expired. The time is read once, when the traversal begins, rather than for each node.
+   */
+  <U> Function<Node<K, V>, @Nullable U> bulkFunction(Function<V, V> transformer,
+      BiFunction<? super K, ? super V, ? extends @Nullable U> function) {
+    long now = expirationTicker().read();
+    return node -> {
+      K key = node.getKey();
+      V value = transformer.apply(node.getValue());
+      if ((key == null) || (value == null) || !node.isAlive() || hasExpired(node, now)) {
+        return null;
+      }
+      return function.apply(key, value);
+    };
+  }
+
+  /** Returns a stream over the nodes for a hash table that does not have native bulk operations. */
+  Stream<Node<K, V>> bulkStream(long parallelismThreshold) {
+    boolean parallel = (data.size() > 1) && (data.size() >= parallelismThreshold);
+    return StreamSupport.stream(data.values().spliterator(), parallel);
+  }
+
+  /**
+   * Returns the computed result from a lazy stream over the entries in the order of the provided
+   * iterable. The eviction lock is acquired only while gathering each batch of entries, so that
+   * the maintenance work is not blocked for the duration of the traversal.
+   *
+   * @param iterable the ordered iteration of entries
+   * @param transformer a function that unwraps the value
+   * @param mappingFunction the mapping function to compute a value
+   * @return the computed result
+   */
+  <T> T streamSnapshot(Iterable<Node<K, V>> iterable, Function<V, V> transformer,
+      Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+    requireNonNull(mappingFunction);
+    var spliterator = new SnapshotSpliterator<>(this, iterable, transformer);
+    return mappingFunction.apply(StreamSupport.stream(spliterator, /* parallel */ false));
+  }
+
+  /**
+   * A spliterator that traverses the entries in batches, acquiring the eviction lock only while
+   * advancing the underlying iterator and materializing the entries after the lock is released.
+   * The iterator is resumed at the start of each batch and re-anchors itself if its position was
+   * removed or reordered in the meantime. The traversal is weakly consistent, as an entry that is
+   * reordered concurrently is not emitted again if it moved behind the traversal's position, and
+   * may be emitted again if it moved ahead of it.
+   */
+  static final class SnapshotSpliterator<K, V> implements Spliterator<CacheEntry<K, V>> {
+    final Iterable<Node<K, V>> iterable;
+    final BoundedLocalCache<K, V> cache;
+    final Function<V, V> transformer;
+    final Node<K, V>[] batch;
+
+    @Nullable Iterator<Node<K, V>> iterator;
+    boolean exhausted;
+    int index;
+    int size;
+    long now;
+
+    @SuppressWarnings("unchecked")
+    SnapshotSpliterator(BoundedLocalCache<K, V> cache,
+        Iterable<Node<K, V>> iterable, Function<V, V> transformer) {
+      this.batch = new Node[SNAPSHOT_BATCH_SIZE];
+      this.transformer = transformer;
+      this.iterable = iterable;
+      this.cache = cache;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super CacheEntry<K, V>> action) {
+      requireNonNull(action);
+      for (;;) {
+        while (index < size) {
+          Node<K, V> node = batch[index];
+          batch[index++] = null;
+
+          CacheEntry<K, V> entry = toEntry(node);
+          if (entry != null) {
+            action.accept(entry);
+            return true;
+          }
+        }
+        if (exhausted) {
+          return false;
+        }
+        nextBatch();
+      }
+    }
+
+    /** Gathers the next batch of nodes while holding the eviction lock. */
+    void nextBatch() {
+      index = 0;
+      size = 0;
+      cache.evictionLock.lock();
+      try {
+        if (iterator == null) {
+          cache.maintenance(/* ignored */ null);
+          iterator = iterable.iterator();
+        }
+        while ((size < batch.length) && iterator.hasNext()) {
+          batch[size++] = iterator.next();
+        }
+        exhausted = (size < batch.length);
+      } finally {
+        cache.evictionLock.unlock();
+      }
+      cache.afterLockRelease();
+      now = cache.expirationTicker().read();
+    }
+
+    /** Returns a snapshot of the entry, or null if it is no longer present. */
+    @Nullable CacheEntry<K, V> toEntry(Node<K, V> node) {
+      K key = node.getKey();
+      V value = transformer.apply(node.getValue());
+      if ((key == null) || (value == null) || !node.isAlive() || cache.hasExpired(node, now)) {
+        return null;
+      }
+      long epoch = (cache.expirationTicker() instanceof EpochTicker)
+          ? ((EpochTicker) cache.expirationTicker()).epoch
+          : 0L;
+      return new SnapshotEntry<>(key, value, now + epoch, node.getWeight(),
+          expiresAt(node) + epoch, refreshableAt(node) + epoch);
+    }
+
+    /** Returns the ticker reading for when the entry expires. */
+    long expiresAt(Node<K, V> node) {
+      long expiresAt = Long.MAX_VALUE;
+      if (cache.expiresAfterAccess()) {
+        expiresAt = Math.min(expiresAt, deadline(node.getAccessTime(),
+            cache.expiresAfterAccessNanos()));
+      }
+      if (cache.expiresAfterWrite()) {
+        expiresAt = Math.min(expiresAt, deadline(node.getWriteTime(),
+            cache.expiresAfterWriteNanos()));
+      }
+      if (cache.expiresVariable()) {
+        expiresAt = Math.min(expiresAt, node.getVariableTime());
+      }
+      return (expiresAt == Long.MAX_VALUE) ? (now + MAXIMUM_EXPIRY) : expiresAt;
+    }
+
+    /** Returns the ticker reading for when the entry may be refreshed. */
+    long refreshableAt(Node<K, V> node) {
+      return cache.refreshAfterWrite()
+          ? deadline(node.getWriteTime(), cache.refreshAfterWriteNanos())
+          : (now + MAXIMUM_EXPIRY);
+    }
+
+    /** Returns the time plus the duration, capped to avoid overflowing for a long duration. */
+    long deadline(long time, long duration) {
+      long remaining = duration - (now - time);
+      return now + Math.min(remaining, MAXIMUM_EXPIRY);
+    }
+
+    @Override
+    public @Nullable Spliterator<CacheEntry<K, V>> trySplit() {
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.NONNULL | Spliterator.ORDERED;
     }
   }
 
@@ -2983,10 +3709,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     @Override
     public void forEachRemaining(Consumer<? super K> action) {
       requireNonNull(action);
+      long now = cache.expirationTicker().read();
       Consumer<Node<K, V>> consumer = node -> {
         K key = node.getKey();
         V value = node.getValue();
-        long now = cache.expirationTicker().read();
         if ((key != null) && (value != null) && node.isAlive() && !cache.hasExpired(node, now)) {
           action.accept(key);
         }
@@ -3122,10 +3848,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     @Override
     public void forEachRemaining(Consumer<? super V> action) {
       requireNonNull(action);
+      long now = cache.expirationTicker().read();
       Consumer<Node<K, V>> consumer = node -> {
         K key = node.getKey();
         V value = node.getValue();
-        long now = cache.expirationTicker().read();
         if ((key != null) && (value != null) && node.isAlive() && !cache.hasExpired(node, now)) {
           action.accept(value);
         }
@@ -3349,10 +4075,10 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     @Override
     public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
       requireNonNull(action);
+      long now = cache.expirationTicker().read();
       Consumer<Node<K, V>> consumer = node -> {
         K key = node.getKey();
         V value = node.getValue();
-        long now = cache.expirationTicker().read();
         if ((key != null) && (value != null) && node.isAlive() && !cache.hasExpired(node, now)) {
           action.accept(new WriteThroughEntry<>(cache, key, value));
         }
@@ -3452,10 +4178,34 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     proxy.weakKeys = cache.collectKeys();
     proxy.weakValues = cache.nodeFactory.weakValues();
     proxy.softValues = cache.nodeFactory.softValues();
+    proxy.compactTimestamps = cache.nodeFactory.compactTimestamps();
+    proxy.intrusiveHashTable = cache.nodeFactory.intrusiveHashTable();
+    proxy.stripedWriteBuffer = (cache.writeBuffers != null);
+    proxy.incrementalClear = cache.incrementalClear;
+    proxy.tagger = (cache.tagIndex == null) ? null : cache.tagIndex.tagger;
+    proxy.refresher = (cache.refreshScheduler == null) ? null : cache.refreshScheduler.refresher;
+    if (cache.nearCache != null) {
+      proxy.nearCache = cache.nearCache.capacity;
+    }
+    if (cache.readSampleRate != 1) {
+      proxy.readSampleRate = cache.readSampleRate;
+    }
+    if (cache.negativeCache != null) {
+      proxy.negativeExpiresAfterNanos = cache.negativeCache.expiresAfterNanos;
+      proxy.negativeMaximumSize = cache.negativeCache.maximumSize;
+    }
+    if (cache.refreshAhead != null) {
+      proxy.refreshAheadNanos = cache.refreshAhead.windowNanos;
+      proxy.refreshAheadFrequency = cache.refreshAhead.minimumFrequency;
+      proxy.refreshAheadRate = cache.refreshAhead.maximumRefreshesPerSecond;
+    }
     proxy.isRecordingStats = cache.isRecordingStats();
     proxy.evictionListener = cache.evictionListener;
     proxy.removalListener = cache.removalListener();
-    proxy.ticker = cache.expirationTicker();
+    proxy.ticker = (cache.expirationTicker() instanceof EpochTicker)
+        ? ((EpochTicker) cache.expirationTicker()).delegate
+        : cache.expirationTicker();
+    proxy.statsTicker = cache.statsTicker();
     if (cache.expiresAfterAccess()) {
       proxy.expiresAfterAccessNanos = cache.expiresAfterAccessNanos();
     }
@@ -3473,6 +4223,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         proxy.maximumSize = cache.maximum();
       }
     }
+    if (cache.heavyHitters != null) {
+      proxy.heavyHitters = cache.heavyHitters.capacity();
+    }
     return proxy;
   }
 
@@ -3527,6 +4280,9 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
     @Nullable Optional<FixedExpiration<K, V>> afterWrite;
     @Nullable Optional<FixedExpiration<K, V>> afterAccess;
     @Nullable Optional<VarExpiration<K, V>> variable;
+    @Nullable Optional<Diagnostics> diagnostics;
+    @Nullable Optional<HeavyHitters<K>> heavyHitters;
+    @Nullable Optional<Tags<K>> tags;
 
     BoundedPolicy(BoundedLocalCache<K, V> cache, Function<V, V> transformer, boolean isWeighted) {
       this.transformer = transformer;
@@ -3544,6 +4300,19 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       }
       return transformer.apply(node.getValue());
     }
+    @Override public void forEach(long parallelismThreshold,
+        BiConsumer<? super K, ? super V> action) {
+      cache.bulkForEach(parallelismThreshold, transformer, action);
+    }
+    @Override public <U> @Nullable U search(long parallelismThreshold,
+        BiFunction<? super K, ? super V, ? extends @Nullable U> searchFunction) {
+      return cache.bulkSearch(parallelismThreshold, transformer, searchFunction);
+    }
+    @Override public <U> @Nullable U reduce(long parallelismThreshold,
+        BiFunction<? super K, ? super V, ? extends @Nullable U> mappingFunction,
+        BiFunction<? super U, ? super U, ? extends U> reducer) {
+      return cache.bulkReduce(parallelismThreshold, transformer, mappingFunction, reducer);
+    }
     @Override public Map<K, CompletableFuture<V>> refreshes() {
       var refreshes = cache.refreshes;
       if ((refreshes == null) || refreshes.isEmpty()) {
@@ -3602,6 +4371,30 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
           ? (refreshes = Optional.of(new BoundedRefreshAfterWrite()))
           : refreshes;
     }
+    @Override public Optional<HeavyHitters<K>> heavyHitters() {
+      if (cache.heavyHitters == null) {
+        return Optional.empty();
+      }
+      return (heavyHitters == null)
+          ? (heavyHitters = Optional.of(new BoundedHeavyHitters(cache.heavyHitters)))
+          : heavyHitters;
+    }
+    @Override public Optional<Tags<K>> tags() {
+      if (cache.tagIndex == null) {
+        return Optional.empty();
+      }
+      return (tags == null)
+          ? (tags = Optional.of(new BoundedTags(cache.tagIndex)))
+          : tags;
+    }
+    @Override public Optional<NegativeResults<K>> negativeResults() {
+      return Optional.ofNullable(cache.negativeCache);
+    }
+    @Override public Optional<Diagnostics> diagnostics() {
+      return (diagnostics == null)
+          ? (diagnostics = Optional.of(new BoundedDiagnostics()))
+          : diagnostics;
+    }
 
     final class BoundedEviction implements Eviction<K, V> {
       @Override public boolean isWeighted() {
@@ -3647,6 +4440,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         } finally {
           cache.evictionLock.unlock();
         }
+        cache.afterLockRelease();
       }
       @Override public Map<K, V> coldest(int limit) {
         return cache.evictionOrder(limit, transformer, /* hottest */ false, /* weighted */ false);
@@ -3662,6 +4456,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         return cache.evictionOrder(weightLimit, transformer,
             /* hottest */ true, /* weighted */ true);
       }
+      @Override public <T> T coldest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(cache.evictionOrder(/* hottest */ false),
+            transformer, mappingFunction);
+      }
+      @Override public <T> T hottest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(cache.evictionOrder(/* hottest */ true),
+            transformer, mappingFunction);
+      }
     }
 
     @SuppressWarnings("PreferJavaTimeOverload")
@@ -3693,6 +4495,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       @Override public Map<K, V> youngest(int limit) {
         return cache.expireAfterAccessOrder(limit, transformer, /* oldest */ false);
       }
+      @Override public <T> T oldest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(cache.expireAfterAccessOrder(/* oldest */ true),
+            transformer, mappingFunction);
+      }
+      @Override public <T> T youngest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(cache.expireAfterAccessOrder(/* oldest */ false),
+            transformer, mappingFunction);
+      }
     }
 
     @SuppressWarnings("PreferJavaTimeOverload")
@@ -3724,6 +4534,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       @Override public Map<K, V> youngest(int limit) {
         return cache.expireAfterWriteOrder(limit, transformer, /* oldest */ false);
       }
+      @Override public <T> T oldest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(cache.expireAfterWriteOrder(/* oldest */ true),
+            transformer, mappingFunction);
+      }
+      @Override public <T> T youngest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(cache.expireAfterWriteOrder(/* oldest */ false),
+            transformer, mappingFunction);
+      }
     }
 
     @SuppressWarnings("PreferJavaTimeOverload")
@@ -3757,7 +4575,7 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
             }
             node.setVariableTime(now + Math.min(durationNanos, MAXIMUM_EXPIRY));
           }
-          cache.afterRead(node, now, /* recordHit */ false);
+          cache.afterExpirationChange(key, node, now);
         }
       }
       @Override public @Nullable V put(K key, V value, long duration, TimeUnit unit) {
@@ -3829,6 +4647,14 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       @Override public Map<K, V> youngest(int limit) {
         return cache.variableSnapshot(/* ascending */ false, limit, transformer);
       }
+      @Override public <T> T oldest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(() -> cache.timerWheel().iterator(/* ascending */ true),
+            transformer, mappingFunction);
+      }
+      @Override public <T> T youngest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+        return cache.streamSnapshot(() -> cache.timerWheel().iterator(/* ascending */ false),
+            transformer, mappingFunction);
+      }
     }
 
     static final class FixedExpiry<K, V> implements Expiry<K, V> {
@@ -3876,6 +4702,121 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
         cache.scheduleAfterWrite();
       }
     }
+
+    final class BoundedHeavyHitters implements HeavyHitters<K> {
+      final SpaceSaving tracker;
+
+      BoundedHeavyHitters(SpaceSaving tracker) {
+        this.tracker = tracker;
+      }
+
+      @Override public int capacity() {
+        return tracker.capacity();
+      }
+      @Override public Map<K, Long> hottest(int limit) {
+        requireArgument(limit >= 0);
+        var snapshot = tracker.snapshot;
+        int size = Math.min(limit, snapshot.elements.length);
+        var hottest = new LinkedHashMap<K, Long>(2 * size);
+        for (int i = 0; (i < snapshot.elements.length) && (hottest.size() < size); i++) {
+          @SuppressWarnings("unchecked")
+          K key = cache.collectKeys()
+              ? ((InternalReference<K>) snapshot.elements[i]).get()
+              : (K) snapshot.elements[i];
+          if (key != null) {
+            hottest.put(key, snapshot.counts[i]);
+          }
+        }
+        return Collections.unmodifiableMap(hottest);
+      }
+    }
+
+    final class BoundedTags implements Tags<K> {
+      final TagIndex<K, V> index;
+
+      BoundedTags(TagIndex<K, V> index) {
+        this.index = index;
+      }
+
+      @Override public Set<K> keys(Object tag) {
+        requireNonNull(tag);
+        cache.cleanUp();
+
+        long now = cache.expirationTicker().read();
+        var keys = new HashSet<K>();
+        for (Node<K, V> node : index.members(tag)) {
+          K key = node.getKey();
+          if ((key != null) && node.isAlive() && !cache.hasExpired(node, now)
+              && index.isTagged(key, node.getValue(), tag)) {
+            keys.add(key);
+          }
+        }
+        return Collections.unmodifiableSet(keys);
+      }
+      @Override public void invalidate(Object tag) {
+        requireNonNull(tag);
+        cache.cleanUp();
+
+        for (Node<K, V> node : index.members(tag)) {
+          K key = node.getKey();
+          V value = node.getValue();
+          if ((key != null) && (value != null) && index.isTagged(key, value, tag)) {
+            cache.remove(key, value);
+          }
+        }
+      }
+    }
+
+    final class BoundedDiagnostics implements Diagnostics {
+      @Override public long readBufferOffers() {
+        return cache.readBuffer.writes() + readBufferDrops();
+      }
+      @Override public long readBufferDrops() {
+        return cache.readBufferDrops.sum();
+      }
+      @Override public long writeBufferRetries() {
+        return cache.writeBufferRetries.sum();
+      }
+      @Override public long synchronousDrains() {
+        return cache.synchronousDrains.sum();
+      }
+      @Override public long maintenanceCount() {
+        return cache.maintenanceCount;
+      }
+      @Override public Duration maintenanceTime() {
+        // The count's volatile read acquires the time that was written before it
+        return (cache.maintenanceCount == 0L)
+            ? Duration.ZERO
+            : Duration.ofNanos(cache.maintenanceTime);
+      }
+      @Override public OptionalLong windowWeightedSize() {
+        return cache.evicts()
+            ? OptionalLong.of(Math.max(0L, cache.windowWeightedSize()))
+            : OptionalLong.empty();
+      }
+      @Override public OptionalLong protectedWeightedSize() {
+        return cache.evicts()
+            ? OptionalLong.of(Math.max(0L, cache.mainProtectedWeightedSize()))
+            : OptionalLong.empty();
+      }
+      @Override public OptionalLong probationWeightedSize() {
+        if (!cache.evicts()) {
+          return OptionalLong.empty();
+        }
+        long probation = cache.weightedSize()
+            - cache.windowWeightedSize() - cache.mainProtectedWeightedSize();
+        return OptionalLong.of(Math.max(0L, probation));
+      }
+      @Override public OptionalDouble climberStepSize() {
+        return cache.evicts() ? OptionalDouble.of(cache.stepSize()) : OptionalDouble.empty();
+      }
+      @Override public OptionalLong climberAdjustment() {
+        return cache.evicts() ? OptionalLong.of(cache.adjustment()) : OptionalLong.empty();
+      }
+      @Override public long sketchResetCount() {
+        return cache.evicts() ? cache.frequencySketch().resets : 0L;
+      }
+    }
   }
 
   /* --------------- Loading Cache --------------- */
@@ -3910,6 +4851,83 @@ abstract class BoundedLocalCache<K, V> extends BLCHeader.DrainStatusRef<K, V>
       return bulkMappingFunction;
     }
 
+    @Override
+    @SuppressWarnings("NullAway")
+    public V get(K key) {
+      NegativeCache<K> negativeCache = cache.negativeCache;
+      if (negativeCache == null) {
+        return LocalLoadingCache.super.get(key);
+      } else if (isAbsent(negativeCache, key)) {
+        return null;
+      }
+      V value = cache.computeIfAbsent(key, mappingFunction);
+      if (value == null) {
+        negativeCache.store(key);
+      }
+      return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Iterable<? extends K> keys) {
+      NegativeCache<K> negativeCache = cache.negativeCache;
+      if ((negativeCache == null) || (bulkMappingFunction == null)) {
+        return LocalLoadingCache.super.getAll(keys);
+      }
+      var keysToLookup = new LinkedHashSet<K>();
+      for (K key : keys) {
+        if (!isAbsent(negativeCache, key)) {
+          keysToLookup.add(key);
+        }
+      }
+      Map<K, V> result = LocalLoadingCache.super.getAll(keysToLookup);
+      for (K key : keysToLookup) {
+        if (!result.containsKey(key)) {
+          negativeCache.store(key);
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Returns if the key has a cached absent result. The absent result is discarded if the key was
+     * since added to the cache, such as by an explicit write.
+     */
+    boolean isAbsent(NegativeCache<K> negativeCache, K key) {
+      if (!negativeCache.isAbsent(key)) {
+        return false;
+      } else if (cache.containsKey(key)) {
+        negativeCache.invalidate(key);
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public void invalidate(K key) {
+      super.invalidate(key);
+      if (cache.negativeCache != null) {
+        cache.negativeCache.invalidate(key);
+      }
+    }
+
+    @Override
+    public void invalidateAll(Iterable<? extends K> keys) {
+      super.invalidateAll(keys);
+      if (cache.negativeCache != null) {
+        for (K key : keys) {
+          cache.negativeCache.invalidate(key);
+        }
+      }
+    }
+
+    @Override
+    public void invalidateAll() {
+      super.invalidateAll();
+      if (cache.negativeCache != null) {
+        cache.negativeCache.invalidateAll();
+      }
+    }
+
     @SuppressWarnings("UnusedVariable")
     private void readObject(ObjectInputStream stream) throws InvalidObjectException {
       throw new InvalidObjectException("Proxy required");
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events that describe the cache's internal behavior. The events are disabled
+ * by default and must be explicitly enabled in the recording's settings, e.g. by
+ * {@code -XX:StartFlightRecording:com.github.benmanes.caffeine.Maintenance#enabled=true}.
+ * <p>
+ * The {@code jdk.jfr} module is an optional dependency, so the event types are only loaded if the
+ * module is present. Otherwise each factory returns {@code null} and the cost of instrumentation
+ * is a constant-folded branch.
+ */
+final class CacheEvents {
+  static final boolean ENABLED = isAvailable();
+
+  static final String LOAD = "load";
+  static final String LOAD_ALL = "loadAll";
+  static final String RELOAD = "reload";
+
+  private CacheEvents() {}
+
+  /** Returns if the flight recorder's module is present and readable. */
+  static boolean isAvailable() {
+    return ModuleLayer.boot().findModule("jdk.jfr")
+        .map(CacheEvents.class.getModule()::canRead)
+        .orElse(false);
+  }
+
+  /** Returns a started maintenance event, or null if not enabled. */
+  static @Nullable MaintenanceEvent beginMaintenance() {
+    if (!ENABLED) {
+      return null;
+    }
+    var event = new MaintenanceEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  /** Returns a started write buffer backpressure event, or null if not enabled. */
+  static @Nullable WriteBufferBackpressureEvent beginWriteBufferBackpressure() {
+    if (!ENABLED) {
+      return null;
+    }
+    var event = new WriteBufferBackpressureEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  /** Completes the maintenance event, if present. */
+  static void endMaintenance(@Nullable MaintenanceEvent event,
+      long readsDrained, int writesDrained, long weightedSize) {
+    if (event != null) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.readsDrained = readsDrained;
+        event.writesDrained = writesDrained;
+        event.weightedSize = weightedSize;
+        event.commit();
+      }
+    }
+  }
+
+  /** Completes the write buffer backpressure event, if present. */
+  static void endWriteBufferBackpressure(@Nullable WriteBufferBackpressureEvent event) {
+    if (event != null) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.commit();
+      }
+    }
+  }
+
+  /** Records that the read buffer rejected an access event. */
+  static void readBufferDropped(int result) {
+    if (!ENABLED) {
+      return;
+    }
+    var event = new ReadBufferDropEvent();
+    if (event.shouldCommit()) {
+      event.contended = (result == Buffer.FAILED);
+      event.commit();
+    }
+  }
+
+  /** Records that the hill climber resized the admission window. */
+  static void climberAdjusted(long adjustment, double stepSize, double hitRate,
+      long windowMaximum, long mainProtectedMaximum) {
+    if (!ENABLED) {
+      return;
+    }
+    var event = new ClimberAdjustmentEvent();
+    if (event.shouldCommit()) {
+      event.adjustment = adjustment;
+      event.stepSize = stepSize;
+      event.hitRate = hitRate;
+      event.windowMaximum = windowMaximum;
+      event.mainProtectedMaximum = mainProtectedMaximum;
+      event.commit();
+    }
+  }
+
+  /** Returns a started loader event, or null if not enabled. */
+  static @Nullable LoadEvent beginLoad(String operation, int keys) {
+    if (!ENABLED) {
+      return null;
+    }
+    var event = new LoadEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.operation = operation;
+    event.keys = keys;
+    event.begin();
+    return event;
+  }
+
+  /** Completes the loader event, if present. */
+  static void endLoad(@Nullable LoadEvent event, boolean successful) {
+    if (event != null) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.successful = successful;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Completes the loader event, if present, when the future completes. If the future is null then
+   * a load was not performed and the event is discarded.
+   */
+  static void endLoadOnCompletion(@Nullable LoadEvent event,
+      @Nullable CompletableFuture<?> future) {
+    if ((event != null) && (future != null)) {
+      future.whenComplete((result, error) ->
+          endLoad(event, (error == null) && (result != null)));
+    }
+  }
+
+  @Name("com.github.benmanes.caffeine.Maintenance")
+  @Label("Cache Maintenance")
+  @Description("A maintenance cycle that replays the buffered operations on the policy")
+  @Category("Caffeine")
+  @Enabled(false)
+  @StackTrace(false)
+  static final class MaintenanceEvent extends Event {
+    @Label("Reads Drained")
+    @Description("The number of access events replayed from the read buffer")
+    long readsDrained;
+
+    @Label("Writes Drained")
+    @Description("The number of write tasks replayed from the write buffer")
+    int writesDrained;
+
+    @Label("Expired")
+    int expired;
+
+    @Label("Evicted")
+    @Description("The number of entries evicted due to the size or weight bound")
+    int evicted;
+
+    @Label("Collected")
+    @Description("The number of entries removed due to garbage collection")
+    int collected;
+
+    @Label("Weighted Size")
+    long weightedSize;
+
+    /** Increments the removal count for the eviction's cause. */
+    void recordRemoval(RemovalCause cause) {
+      if (cause == RemovalCause.EXPIRED) {
+        expired++;
+      } else if (cause == RemovalCause.COLLECTED) {
+        collected++;
+      } else {
+        evicted++;
+      }
+    }
+  }
+
+  @Name("com.github.benmanes.caffeine.WriteBufferBackpressure")
+  @Label("Write Buffer Backpressure")
+  @Description("A writer that performed the maintenance work because the write buffer was full")
+  @Category("Caffeine")
+  @Enabled(false)
+  static final class WriteBufferBackpressureEvent extends Event {}
+
+  @Name("com.github.benmanes.caffeine.ReadBufferDrop")
+  @Label("Read Buffer Drop")
+  @Description("An access event that was not recorded because the read buffer rejected it")
+  @Category("Caffeine")
+  @Enabled(false)
+  @StackTrace(false)
+  static final class ReadBufferDropEvent extends Event {
+    @Label("Contended")
+    @Description("Whether the buffer was contended rather than full")
+    boolean contended;
+  }
+
+  @Name("com.github.benmanes.caffeine.ClimberAdjustment")
+  @Label("Hill Climber Adjustment")
+  @Description("A resizing of the admission window by the adaptive policy")
+  @Category("Caffeine")
+  @Enabled(false)
+  @StackTrace(false)
+  static final class ClimberAdjustmentEvent extends Event {
+    @Label("Adjustment")
+    long adjustment;
+
+    @Label("Step Size")
+    double stepSize;
+
+    @Label("Sample Hit Rate")
+    double hitRate;
+
+    @Label("Window Maximum")
+    long windowMaximum;
+
+    @Label("Main Protected Maximum")
+    long mainProtectedMaximum;
+  }
+
+  @Name("com.github.benmanes.caffeine.Load")
+  @Label("Cache Load")
+  @Description("A call to the cache loader, measured until its result is available")
+  @Category("Caffeine")
+  @Enabled(false)
+  static final class LoadEvent extends Event {
+    @Label("Operation")
+    String operation = "";
+
+    @Label("Keys")
+    int keys;
+
+    @Label("Successful")
+    boolean successful;
+  }
+}
@@ -145,21 +145,39 @@ public final class Caffeine<K extends Object, V extends Object> {
   static final int DEFAULT_INITIAL_CAPACITY = 16;
   static final int DEFAULT_EXPIRATION_NANOS = 0;
   static final int DEFAULT_REFRESH_NANOS = 0;
+  static final long MINIMUM_COMPACT_DURATION_NANOS = 4L << Node.COMPACT_TIME_SHIFT;
 
   boolean strictParsing = true;
+  boolean compactTimestamps;
+  boolean intrusiveHashTable;
+  boolean stripedWriteBuffer;
+  boolean incrementalClear;
+  boolean interner;
 
   long maximumSize = UNSET_INT;
   long maximumWeight = UNSET_INT;
   int initialCapacity = UNSET_INT;
+  int heavyHitters = UNSET_INT;
+  int nearCache = UNSET_INT;
+  int readSampleRate = UNSET_INT;
 
   long expireAfterWriteNanos = UNSET_INT;
   long expireAfterAccessNanos = UNSET_INT;
   long refreshAfterWriteNanos = UNSET_INT;
+  long coarseExpirationTickerNanos = UNSET_INT;
+  long coarseStatsTickerNanos = UNSET_INT;
+  long refreshAheadNanos = UNSET_INT;
+  int refreshAheadFrequency = UNSET_INT;
+  int refreshAheadRate = UNSET_INT;
+  long negativeExpiresAfterNanos = UNSET_INT;
+  long negativeMaximumSize = UNSET_INT;
 
   @Nullable RemovalListener<? super K, ? super V> evictionListener;
   @Nullable RemovalListener<? super K, ? super V> removalListener;
   @Nullable Supplier<StatsCounter> statsCounterSupplier;
   @Nullable Weigher<? super K, ? super V> weigher;
+  @Nullable Tagger<? super K, ? super V> tagger;
+  @Nullable Refresher<? super K, ? super V> refresher;
   @Nullable Expiry<? super K, ? super V> expiry;
   @Nullable Scheduler scheduler;
   @Nullable Executor executor;
@@ -710,6 +728,7 @@ public final class Caffeine<K extends Object, V extends Object> {
         "Expiry may not be used with expiresAfterAccess");
     requireState(this.expireAfterWriteNanos == UNSET_INT,
         "Expiry may not be used with expiresAfterWrite");
+    requireState(!compactTimestamps, "Expiry may not be used with compact timestamps");
 
     @SuppressWarnings("unchecked")
     Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
@@ -777,6 +796,7 @@ public final class Caffeine<K extends Object, V extends Object> {
     requireNonNull(unit);
     requireState(refreshAfterWriteNanos == UNSET_INT,
         "refreshAfterWriteNanos was already set to %s ns", refreshAfterWriteNanos);
+    requireState(refresher == null, "refresher was already set to %s", refresher);
     requireArgument(duration > 0, "duration must be positive: %s %s", duration, unit);
     this.refreshAfterWriteNanos = unit.toNanos(duration);
     return this;
@@ -790,6 +810,147 @@ public final class Caffeine<K extends Object, V extends Object> {
     return refreshAfterWriteNanos != UNSET_INT;
   }
 
+  /**
+   * Specifies that each entry should be automatically refreshed once a duration has elapsed, where
+   * the duration is calculated by the {@link Refresher} when the entry is created, updated, or
+   * reloaded. The semantics of refreshes are specified in {@link LoadingCache#refresh}, and are
+   * performed by calling {@link CacheLoader#reload}.
+   * <p>
+   * Unlike {@link #refreshAfterWrite}, the refreshes are performed proactively as part of the
+   * cache's maintenance work rather than when the first stale request for an entry occurs, so that
+   * the reads of a hot entry do not observe a stale value or pay for a staleness check. For a
+   * prompt refresh of entries that are not otherwise being accessed, a
+   * {@link #scheduler(Scheduler)} should be configured so that the maintenance work runs when the
+   * next refresh is due.
+   * <p>
+   * <b>Note:</b> <i>all exceptions thrown during refresh will be logged and then swallowed</i>.
+   * <p>
+   * <b>Important note:</b> Instead of returning <em>this</em> as a {@code Caffeine} instance, this
+   * method returns {@code Caffeine<K1, V1>}. From this point on, either the original reference or
+   * the returned reference may be used to complete configuration and build the cache, but only the
+   * "generic" one is type-safe. That is, it will properly prevent you from building caches whose
+   * key or value types are incompatible with the types accepted by the refresher already provided;
+   * the {@code Caffeine} type cannot do this. For best results, simply use the standard
+   * method-chaining idiom, as illustrated in the documentation at top, configuring a
+   * {@code Caffeine} and building your {@link Cache} all in a single statement.
+   *
+   * @param refresher the refresher to use in calculating the refresh time of cache entries
+   * @param <K1> key type of the refresher
+   * @param <V1> value type of the refresher
+   * @return the cache builder reference that should be used instead of {@code this} for any
+   *         remaining configuration and cache building
+   * @throws IllegalStateException if a refresher or refresh interval was already set
+   * @throws NullPointerException if the specified refresher is null
+   */
+  public <K1 extends K, V1 extends V> Caffeine<K1, V1> refreshAfter(
+      Refresher<? super K1, ? super V1> refresher) {
+    requireNonNull(refresher);
+    requireState(this.refresher == null, "refresher was already set to %s", this.refresher);
+    requireState(refreshAfterWriteNanos == UNSET_INT,
+        "refreshAfterWrite was already set to %s ns", refreshAfterWriteNanos);
+
+    @SuppressWarnings("unchecked")
+    Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
+    self.refresher = refresher;
+    return self;
+  }
+
+  boolean hasRefresher() {
+    return (refresher != null);
+  }
+
+  @SuppressWarnings("unchecked")
+  <K1 extends K, V1 extends V> @Nullable Refresher<K1, V1> getRefresher() {
+    return (Refresher<K1, V1>) refresher;
+  }
+
+  /**
+   * Specifies that the popular entries should be automatically refreshed when they are within the
+   * given window of expiring, so that their readers do not observe a miss when the entry's
+   * {@linkplain #expireAfterWrite(Duration) time-to-live} elapses. An entry is considered popular
+   * if its estimated frequency by the eviction policy is at least the minimum frequency, and the
+   * entries that are not popular are left to expire. The refreshes are performed by calling
+   * {@link CacheLoader#reload} and are limited to the given rate, so that a burst of entries that
+   * were written together does not overwhelm the backing resource.
+   * <p>
+   * The entries are selected as part of the cache's maintenance work. For a prompt refresh of
+   * entries that are not otherwise being accessed, a {@link #scheduler(Scheduler)} should be
+   * configured so that the maintenance work runs when the next entry enters the window.
+   * <p>
+   * This feature requires a {@linkplain #maximumSize(long) maximum size} or
+   * {@linkplain #maximumWeight(long) weight}, whose frequency sketch estimates the popularity, and
+   * a fixed {@link #expireAfterWrite(Duration)} duration.
+   * <p>
+   * <b>Note:</b> <i>all exceptions thrown during refresh will be logged and then swallowed</i>.
+   *
+   * @param window the length of time before an entry expires that it may be refreshed
+   * @param minimumFrequency the minimum estimated frequency, between 1 and 15, of a popular entry
+   * @param maximumRefreshesPerSecond the maximum rate at which entries are refreshed ahead
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if the window is zero or negative, the frequency is out of
+   *         range, or the rate is zero or negative
+   * @throws IllegalStateException if refresh-ahead was already set
+   * @throws NullPointerException if the window is null
+   */
+  public Caffeine<K, V> refreshAhead(Duration window,
+      @NonNegative int minimumFrequency, @NonNegative int maximumRefreshesPerSecond) {
+    requireState(refreshAheadNanos == UNSET_INT,
+        "refreshAhead was already set to %s ns", refreshAheadNanos);
+    long nanos = saturatedToNanos(window);
+    requireArgument(nanos > 0, "window must be positive");
+    requireArgument((minimumFrequency >= 1) && (minimumFrequency <= 15),
+        "minimumFrequency must be between 1 and 15: %s", minimumFrequency);
+    requireArgument(maximumRefreshesPerSecond > 0,
+        "maximumRefreshesPerSecond must be positive: %s", maximumRefreshesPerSecond);
+    this.refreshAheadRate = maximumRefreshesPerSecond;
+    this.refreshAheadFrequency = minimumFrequency;
+    this.refreshAheadNanos = nanos;
+    return this;
+  }
+
+  boolean hasRefreshAhead() {
+    return (refreshAheadNanos != UNSET_INT);
+  }
+
+  /**
+   * Specifies that when the {@link CacheLoader} returns no value for a key, the absent result
+   * should be cached so that subsequent lookups of that key do not call the loader until the
+   * duration has elapsed. This avoids repeatedly querying the backing resource for keys that do
+   * not exist, such as the identifiers in a stream of invalid requests.
+   * <p>
+   * The absent results are held apart from the cache's entries as a key mapped to a shared
+   * sentinel. They do not count towards the {@linkplain #maximumSize(long) maximum size} or
+   * {@linkplain #maximumWeight(long) weight}, are instead bounded by the given maximum number of
+   * absent results, and are not recorded as hits or misses in the cache's statistics. Their
+   * counts are available by {@link Policy#negativeResults()}.
+   * <p>
+   * An absent result is used by {@link LoadingCache#get} and {@link LoadingCache#getAll}, is
+   * discarded when the key is present in the cache, and may be discarded explicitly by
+   * {@link Cache#invalidate}, {@link Cache#invalidateAll}, or the policy.
+   *
+   * @param duration the length of time after an absent result is cached that it is discarded
+   * @param maximumSize the maximum number of absent results that may be cached
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if the duration is zero or negative, or the maximum size is
+   *         negative
+   * @throws IllegalStateException if negative result caching was already set
+   * @throws NullPointerException if the duration is null
+   */
+  public Caffeine<K, V> cacheNegativeResults(Duration duration, @NonNegative long maximumSize) {
+    requireState(negativeExpiresAfterNanos == UNSET_INT,
+        "cacheNegativeResults was already set to %s ns", negativeExpiresAfterNanos);
+    long nanos = saturatedToNanos(duration);
+    requireArgument(nanos > 0, "duration must be positive");
+    requireArgument(maximumSize >= 0, "maximum size must not be negative");
+    this.negativeExpiresAfterNanos = nanos;
+    this.negativeMaximumSize = maximumSize;
+    return this;
+  }
+
+  boolean hasNegativeResults() {
+    return (negativeExpiresAfterNanos != UNSET_INT);
+  }
+
   /**
    * Specifies a nanosecond-precision time source for use in determining when entries should be
    * expired or refreshed. By default, {@link System#nanoTime} is used.
@@ -804,16 +965,125 @@ public final class Caffeine<K extends Object, V extends Object> {
    */
   public Caffeine<K, V> ticker(Ticker ticker) {
     requireState(this.ticker == null, "Ticker was already set to %s", this.ticker);
+    requireState(coarseExpirationTickerNanos == UNSET_INT,
+        "Ticker may not be used with a coarse expiration ticker");
     this.ticker = requireNonNull(ticker);
     return this;
   }
 
+  /**
+   * Specifies that the timestamps used for expiration and refresh should be stored in a compact
+   * 32-bit form, rather than at nanosecond precision, to reduce the per-entry memory overhead. The
+   * timestamps have a resolution of 2<sup>30</sup> nanoseconds (about 1.07 seconds) and are rounded
+   * up, so an entry never expires or becomes eligible for refresh early but may do so up to that
+   * much later than its configured duration. This option is only useful when the durations are
+   * relatively long, such as minutes or hours. The timestamps are stored as offsets from the time
+   * that the cache was built, so the cache may be used for up to approximately 36 years
+   * regardless of the {@linkplain #ticker(Ticker) time source}'s origin.
+   * <p>
+   * This option has no effect unless {@link #expireAfterAccess}, {@link #expireAfterWrite}, or
+   * {@link #refreshAfterWrite} is set, and may not be combined with
+   * {@linkplain #expireAfter(Expiry) variable expiration}, which requires full precision. When the
+   * cache is built, each of these durations must be at least four units of the resolution (about
+   * 4.3 seconds).
+   *
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalStateException if compact timestamps were already set or if a variable
+   *         expiration policy is used
+   */
+  public Caffeine<K, V> compactTimestamps() {
+    requireState(!compactTimestamps, "compact timestamps was already set");
+    requireState(expiry == null, "compact timestamps may not be used with variable expiration");
+    compactTimestamps = true;
+    return this;
+  }
+
+  boolean hasCompactTimestamps() {
+    return compactTimestamps;
+  }
+
+  /**
+   * Specifies that the time used for determining when entries should be expired or refreshed is
+   * read from a {@linkplain Ticker#coarseTicker(Duration) coarse ticker}, which is updated by a
+   * background thread at the given resolution, rather than by calling {@link System#nanoTime} on
+   * every cache operation. This reduces the cost of reads at the expense of accuracy, as an entry
+   * may expire or become eligible for refresh up to the resolution later than its configured
+   * duration. The expiration and refresh policies share a time source because the refresh policy
+   * is driven by the entry's write timestamp.
+   *
+   * @param resolution the maximum interval at which the cached time is refreshed, which is
+   *        rounded down to one of 1 ms, 10 ms, 100 ms, or 1 s
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if the resolution is less than one millisecond
+   * @throws IllegalStateException if a coarse expiration ticker or a ticker was already set
+   * @throws NullPointerException if the resolution is null
+   */
+  public Caffeine<K, V> coarseExpirationTicker(Duration resolution) {
+    requireState(coarseExpirationTickerNanos == UNSET_INT,
+        "coarse expiration ticker was already set to %s ns", coarseExpirationTickerNanos);
+    requireState(ticker == null, "coarse expiration ticker may not be used with a ticker");
+    long nanos = saturatedToNanos(resolution);
+    CoarseTicker.requireResolution(nanos);
+    coarseExpirationTickerNanos = nanos;
+    return this;
+  }
+
+  /**
+   * Specifies that the time used for measuring the duration of loads when
+   * {@linkplain #recordStats() recording statistics} is read from a
+   * {@linkplain Ticker#coarseTicker(Duration) coarse ticker}, which is updated by a background
+   * thread at the given resolution, rather than by calling {@link System#nanoTime} for each load.
+   * The recorded load times are then only accurate to within the resolution.
+   *
+   * @param resolution the maximum interval at which the cached time is refreshed, which is
+   *        rounded down to one of 1 ms, 10 ms, 100 ms, or 1 s
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if the resolution is less than one millisecond
+   * @throws IllegalStateException if a coarse statistics ticker was already set
+   * @throws NullPointerException if the resolution is null
+   */
+  public Caffeine<K, V> coarseStatsTicker(Duration resolution) {
+    requireState(coarseStatsTickerNanos == UNSET_INT,
+        "coarse stats ticker was already set to %s ns", coarseStatsTickerNanos);
+    long nanos = saturatedToNanos(resolution);
+    CoarseTicker.requireResolution(nanos);
+    coarseStatsTickerNanos = nanos;
+    return this;
+  }
+
   Ticker getTicker() {
-    boolean useTicker = expiresVariable() || expiresAfterAccess()
-        || expiresAfterWrite() || refreshAfterWrite() || isRecordingStats();
-    return useTicker
-        ? (ticker == null) ? Ticker.systemTicker() : ticker
-        : Ticker.disabledTicker();
+    boolean expires = expiresVariable() || expiresAfterAccess()
+        || expiresAfterWrite() || refreshAfterWrite() || hasRefresher() || hasNegativeResults();
+    if (!expires && !isRecordingStats()) {
+      return Ticker.disabledTicker();
+    } else if (ticker != null) {
+      return ticker;
+    }
+    return (expires && (coarseExpirationTickerNanos != UNSET_INT))
+        ? CoarseTicker.forResolution(coarseExpirationTickerNanos)
+        : Ticker.systemTicker();
+  }
+
+  /**
+   * Returns the ticker that a bounded cache uses for its expiration and refresh timestamps. When
+   * the timestamps are stored compactly, the readings are made relative to when the cache is built
+   * so that the encoding's limited range starts at that time rather than at the ticker's origin.
+   */
+  Ticker getExpirationTicker() {
+    Ticker ticker = getTicker();
+    return (compactTimestamps && (ticker != Ticker.disabledTicker()))
+        ? new EpochTicker(ticker)
+        : ticker;
+  }
+
+  Ticker getStatsTicker() {
+    return (coarseStatsTickerNanos == UNSET_INT)
+        ? Ticker.systemTicker()
+        : CoarseTicker.forResolution(coarseStatsTickerNanos);
+  }
+
+  boolean hasCoarseStatsTicker() {
+    return (coarseStatsTickerNanos != UNSET_INT);
   }
 
   /**
@@ -912,14 +1182,65 @@ public final class Caffeine<K extends Object, V extends Object> {
     return self;
   }
 
+  /**
+   * Specifies a listener instance that caches should notify in bulk when entries are removed for
+   * any {@linkplain RemovalCause reason}. The removals are accumulated while the cache performs its
+   * work and are delivered together by a single task on the configured
+   * {@link #executor(Executor)}, rather than submitting a task for each removal. This reduces the
+   * overhead when many entries are removed at once, such as by eviction or expiration during a
+   * maintenance cycle or by {@link Cache#invalidateAll()}. The batches are delivered sequentially
+   * and in the order that the removals were recorded. This listener is an alternative to a
+   * {@link #removalListener(RemovalListener)} and the two may not be combined.
+   * <p>
+   * <b>Important note:</b> after invoking this method, do not continue to use <i>this</i> cache
+   * builder reference; instead use the reference this method <i>returns</i>. At runtime, these
+   * point to the same instance, but only the returned reference has the correct generic type
+   * information so as to ensure type safety.
+   * <p>
+   * <b>Warning:</b> any exception thrown by {@code listener} will <i>not</i> be propagated to the
+   * {@code Cache} user, only logged via a {@link Logger}.
+   *
+   * @param batchRemovalListener a listener instance that caches should notify when entries are
+   *        removed
+   * @param <K1> the key type of the listener
+   * @param <V1> the value type of the listener
+   * @return the cache builder reference that should be used instead of {@code this} for any
+   *         remaining configuration and cache building
+   * @throws IllegalStateException if a removal listener was already set
+   * @throws NullPointerException if the specified removal listener is null
+   */
+  @SuppressWarnings("unchecked")
+  public <K1 extends K, V1 extends V> Caffeine<K1, V1> batchRemovalListener(
+      BatchRemovalListener<? super K1, ? super V1> batchRemovalListener) {
+    requireState(this.removalListener == null,
+        "removal listener was already set to %s", this.removalListener);
+
+    Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
+    self.removalListener = new RemovalBatcher<>(
+        (BatchRemovalListener<K1, V1>) requireNonNull(batchRemovalListener));
+    return self;
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes"})
   @Nullable <K1 extends K, V1 extends V> RemovalListener<K1, V1> getRemovalListener(boolean async) {
+    RemovalBatcher<K1, V1> batcher = getRemovalBatcher(async);
+    if (batcher != null) {
+      return batcher;
+    }
     RemovalListener<K1, V1> castedListener = (RemovalListener<K1, V1>) removalListener;
     return async && (castedListener != null)
         ? new AsyncRemovalListener(castedListener, getExecutor())
         : castedListener;
   }
 
+  /** Returns a batcher that is bound to the cache's executor, if a batch listener was set. */
+  @SuppressWarnings("unchecked")
+  @Nullable <K1 extends K, V1 extends V> RemovalBatcher<K1, V1> getRemovalBatcher(boolean async) {
+    return (removalListener instanceof RemovalBatcher<?, ?>)
+        ? ((RemovalBatcher<K1, V1>) removalListener).bind(getExecutor(), async)
+        : null;
+  }
+
   /**
    * Enables the accumulation of {@link CacheStats} during the operation of the cache. Without this
    * {@link Cache#stats} will return zero for all statistics. Note that recording statistics
@@ -955,18 +1276,247 @@ public final class Caffeine<K extends Object, V extends Object> {
     return (statsCounterSupplier != null);
   }
 
+  /**
+   * Enables tracking the approximate set of the most frequently accessed keys, which are made
+   * available by {@link Policy#heavyHitters()}. The popularity is observed by the eviction policy,
+   * so this option requires that the cache is bounded by {@link #maximumSize(long)} or
+   * {@link #maximumWeight(long)}. Note that tracking imposes a small additional cost to the
+   * cache's maintenance work and retains a strong reference to up to {@code count} keys (or the
+   * weak references to the keys, if {@link #weakKeys()} is set).
+   *
+   * @param count the maximum number of keys to track
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code count} is not positive
+   * @throws IllegalStateException if heavy hitter tracking was already set
+   */
+  public Caffeine<K, V> recordHeavyHitters(@NonNegative int count) {
+    requireState(this.heavyHitters == UNSET_INT,
+        "heavy hitters was already set to %s", this.heavyHitters);
+    requireArgument(count > 0, "count must be positive: %s", count);
+    this.heavyHitters = count;
+    return this;
+  }
+
+  boolean isRecordingHeavyHitters() {
+    return (heavyHitters != UNSET_INT);
+  }
+
+  /**
+   * Enables a small striped front cache of the entries whose keys are the most frequently
+   * accessed, so that the reads of these keys avoid the contention of the shared hash table and
+   * read buffer. A key is eligible once the eviction policy's estimate of its popularity saturates,
+   * so this option requires that the cache is bounded by {@link #maximumSize(long)} or
+   * {@link #maximumWeight(long)}. A sample of the reads of an eligible key are recorded by the
+   * eviction policy, so that its popularity continues to be observed.
+   * <p>
+   * A read from the front cache observes the entry's current value and does not return an entry
+   * that was removed or has expired. However, as most of these reads are not recorded, the
+   * statistics and access times are updated less eagerly, and the front cache may not be combined
+   * with a custom {@link #expireAfter(Expiry) expiry} policy that calculates a duration on every
+   * read. As the entries are matched by their key's {@link Object#equals(Object) equals} method,
+   * this option may not be combined with {@link #weakKeys()}. The cache owns a fixed number of
+   * stripes, based on the number of processors, that the reading threads are hashed to and that
+   * each retain up to {@code capacity} entries. A removed entry is released from the stripes by the
+   * cache's maintenance work, so the front cache does not grow with the number of threads.
+   *
+   * @param capacity the maximum number of entries that each stripe retains
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code capacity} is not positive
+   * @throws IllegalStateException if the near cache was already set
+   */
+  public Caffeine<K, V> nearCache(@NonNegative int capacity) {
+    requireState(this.nearCache == UNSET_INT,
+        "near cache was already set to %s", this.nearCache);
+    requireArgument(capacity > 0, "capacity must be positive: %s", capacity);
+    this.nearCache = capacity;
+    return this;
+  }
+
+  boolean hasNearCache() {
+    return (nearCache != UNSET_INT);
+  }
+
+  /**
+   * Specifies that the eviction policy should record a sample of the reads, one in every
+   * {@code rate} on average, rather than every read. At a very high hit rate, most of the cost of a
+   * read is in publishing the access into the read buffer and replaying it on the eviction policy,
+   * so recording a fraction of the reads reduces this overhead proportionally. The writes are
+   * sampled at the same rate when estimating the entries' popularity. A recorded event increments
+   * the entry's estimated popularity by one and the popularity estimates are aged over a sample
+   * period that is shortened by the rate, so that the relative frequencies are approximately
+   * preserved. A recorded read also updates the entry's position in the recency order.
+   * <p>
+   * This option requires that the cache is bounded by {@link #maximumSize(long)} or
+   * {@link #maximumWeight(long)}. As most reads are not recorded, the eviction and the
+   * {@link #expireAfterAccess(Duration) expire after access} ordering are updated less eagerly,
+   * which may lower the hit rate for workloads whose popular entries are accessed infrequently.
+   * The statistics and the access times are recorded for every read.
+   *
+   * @param rate the average number of reads for each read that is recorded
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalArgumentException if {@code rate} is not positive
+   * @throws IllegalStateException if the read sample rate was already set
+   */
+  public Caffeine<K, V> sampleReads(@NonNegative int rate) {
+    requireState(this.readSampleRate == UNSET_INT,
+        "read sample rate was already set to %s", this.readSampleRate);
+    requireArgument(rate > 0, "rate must be positive: %s", rate);
+    this.readSampleRate = rate;
+    return this;
+  }
+
+  boolean isSamplingReads() {
+    return (readSampleRate != UNSET_INT);
+  }
+
+  int getReadSampleRate() {
+    return isSamplingReads() ? readSampleRate : 1;
+  }
+
   Supplier<StatsCounter> getStatsCounterSupplier() {
     return (statsCounterSupplier == null)
         ? StatsCounter::disabledStatsCounter
         : statsCounterSupplier;
   }
 
+  /**
+   * Specifies that the cache should store its entries in a hash table that links them directly,
+   * rather than in a {@link java.util.concurrent.ConcurrentHashMap} that wraps each entry in a
+   * mapping of its own. This reduces the per-entry memory overhead and removes an indirection from
+   * every lookup. This option has no effect on an unbounded cache, which does not have
+   * per-entry metadata to embed the links into, and may only be used with strong keys and values
+   * and without {@link #compactTimestamps()}.
+   * <p>
+   * The table is partitioned into a fixed number of segments, based on the number of processors,
+   * whose structural changes are serialized by a lock per segment. The cache's internal updates
+   * are performed while holding the segment's lock, but a computation, such as a load, holds a
+   * lock on its key instead, so it only blocks the other writes to that key. A read does not
+   * block, except briefly while the bucket that it searches is relinked by a resize, so an
+   * adequate {@link #initialCapacity(int)} avoids this.
+   * As with {@link java.util.concurrent.ConcurrentHashMap}, a computation may update the mappings
+   * of other keys, but two computations that each update the key that the other is computing will
+   * deadlock.
+   *
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalStateException if the intrusive hash table was already set
+   */
+  public Caffeine<K, V> intrusiveHashTable() {
+    requireState(!intrusiveHashTable, "intrusive hash table was already set");
+    intrusiveHashTable = true;
+    return this;
+  }
+
+  boolean hasIntrusiveHashTable() {
+    return intrusiveHashTable;
+  }
+
+  /**
+   * Configures the cache to hold the canonical instances of a weak {@link Interner}, where each
+   * entry is a minimal node that holds only the weakly referenced key.
+   *
+   * @return this {@code Caffeine} instance (for chaining)
+   */
+  Caffeine<K, V> interner() {
+    interner = true;
+    return this;
+  }
+
+  /**
+   * Specifies that the cache should spread its pending writes across multiple buffers, rather than
+   * funneling them through a single one, to reduce contention when many threads write into the
+   * cache concurrently. A key's writes are always added to the same buffer so that they are
+   * applied to the eviction and expiration policies in the order that they occurred. This option
+   * is beneficial for write-heavy workloads and has no effect on an unbounded cache, which does
+   * not buffer its writes.
+   *
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalStateException if the striped write buffer was already set
+   */
+  public Caffeine<K, V> stripedWriteBuffer() {
+    requireState(!stripedWriteBuffer, "striped write buffer was already set");
+    stripedWriteBuffer = true;
+    return this;
+  }
+
+  boolean hasStripedWriteBuffer() {
+    return stripedWriteBuffer;
+  }
+
+  /**
+   * Specifies that {@link Cache#invalidateAll()} and {@link Map#clear()} should discard the
+   * entries in small batches, rather than while holding the cache's eviction lock for the entire
+   * operation. This avoids stalling concurrent writers for a long pause when a very large cache is
+   * emptied, at the cost of the operation no longer being exclusive with the cache's maintenance
+   * work, so an entry that is added while the cache is being cleared may or may not be removed.
+   * This option has no effect on an unbounded cache, which does not use an eviction lock.
+   *
+   * @return this {@code Caffeine} instance (for chaining)
+   * @throws IllegalStateException if the incremental clear was already set
+   */
+  public Caffeine<K, V> incrementalClear() {
+    requireState(!incrementalClear, "incremental clear was already set");
+    incrementalClear = true;
+    return this;
+  }
+
+  boolean hasIncrementalClear() {
+    return incrementalClear;
+  }
+
+  /**
+   * Specifies the tagger to use in determining the groups that an entry belongs to. The tags are
+   * calculated when an entry is inserted into or updated in the cache and are maintained in a
+   * secondary index, so that a group can be discarded by {@link Policy.Tags#invalidate(Object)} in
+   * time proportional to its number of members rather than by scanning the entire cache. The index
+   * is kept up to date as part of the cache's maintenance work, including when an entry is evicted
+   * or expires.
+   * <p>
+   * <b>Important note:</b> Instead of returning <em>this</em> as a {@code Caffeine} instance, this
+   * method returns {@code Caffeine<K1, V1>}. From this point on, either the original reference or
+   * the returned reference may be used to complete configuration and build the cache, but only the
+   * "generic" one is type-safe. That is, it will properly prevent you from building caches whose
+   * key or value types are incompatible with the types accepted by the tagger already provided;
+   * the {@code Caffeine} type cannot do this. For best results, simply use the standard
+   * method-chaining idiom, as illustrated in the documentation at top, configuring a
+   * {@code Caffeine} and building your {@link Cache} all in a single statement.
+   *
+   * @param tagger the tagger to use in calculating the tags of cache entries
+   * @param <K1> key type of the tagger
+   * @param <V1> value type of the tagger
+   * @return the cache builder reference that should be used instead of {@code this} for any
+   *         remaining configuration and cache building
+   * @throws IllegalStateException if a tagger was already set
+   * @throws NullPointerException if the specified tagger is null
+   */
+  public <K1 extends K, V1 extends V> Caffeine<K1, V1> tagger(
+      Tagger<? super K1, ? super V1> tagger) {
+    requireNonNull(tagger);
+    requireState(this.tagger == null, "tagger was already set to %s", this.tagger);
+
+    @SuppressWarnings("unchecked")
+    Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
+    self.tagger = tagger;
+    return self;
+  }
+
+  boolean hasTagger() {
+    return (tagger != null);
+  }
+
+  @SuppressWarnings("unchecked")
+  <K1 extends K, V1 extends V> Tagger<K1, V1> getTagger() {
+    return (Tagger<K1, V1>) tagger;
+  }
+
   boolean isBounded() {
     return (maximumSize != UNSET_INT)
         || (maximumWeight != UNSET_INT)
         || (expireAfterAccessNanos != UNSET_INT)
         || (expireAfterWriteNanos != UNSET_INT)
         || (expiry != null)
+        || (tagger != null)
+        || (refresher != null)
+        || (negativeExpiresAfterNanos != UNSET_INT)
         || (keyStrength != null)
         || (valueStrength != null);
   }
@@ -989,6 +1539,12 @@ public final class Caffeine<K extends Object, V extends Object> {
   @CheckReturnValue
   public <K1 extends K, V1 extends V> Cache<K1, V1> build() {
     requireWeightWithWeigher();
+    requireMaximumWithHeavyHitters();
+    requireMaximumAndExpireAfterWriteWithRefreshAhead();
+    requireMaximumAndStrongKeysWithNearCache();
+    requireMaximumWithReadSampling();
+    requireStrongReferencesWithIntrusiveHashTable();
+    requireCoarseDurationsWithCompactTimestamps();
     requireNonLoadingCache();
 
     @SuppressWarnings("unchecked")
@@ -1016,6 +1572,12 @@ public final class Caffeine<K extends Object, V extends Object> {
   public <K1 extends K, V1 extends V> LoadingCache<K1, V1> build(
       CacheLoader<? super K1, V1> loader) {
     requireWeightWithWeigher();
+    requireMaximumWithHeavyHitters();
+    requireMaximumAndExpireAfterWriteWithRefreshAhead();
+    requireMaximumAndStrongKeysWithNearCache();
+    requireMaximumWithReadSampling();
+    requireStrongReferencesWithIntrusiveHashTable();
+    requireCoarseDurationsWithCompactTimestamps();
 
     @SuppressWarnings("unchecked")
     Caffeine<K1, V1> self = (Caffeine<K1, V1>) this;
@@ -1050,6 +1612,12 @@ public final class Caffeine<K extends Object, V extends Object> {
     requireState(isStrongKeys() || (evictionListener == null),
         "Weak keys cannot be combined eviction listener and with AsyncLoadingCache");
     requireWeightWithWeigher();
+    requireMaximumWithHeavyHitters();
+    requireMaximumAndExpireAfterWriteWithRefreshAhead();
+    requireMaximumAndStrongKeysWithNearCache();
+    requireMaximumWithReadSampling();
+    requireStrongReferencesWithIntrusiveHashTable();
+    requireCoarseDurationsWithCompactTimestamps();
     requireNonLoadingCache();
 
     @SuppressWarnings("unchecked")
@@ -1109,6 +1677,13 @@ public final class Caffeine<K extends Object, V extends Object> {
     requireState(isStrongKeys() || (evictionListener == null),
         "Weak keys cannot be combined eviction listener and with AsyncLoadingCache");
     requireWeightWithWeigher();
+    requireMaximumWithHeavyHitters();
+    requireMaximumAndExpireAfterWriteWithRefreshAhead();
+    requireMaximumAndStrongKeysWithNearCache();
+    requireMaximumWithReadSampling();
+    requireStrongReferencesWithIntrusiveHashTable();
+    requireCoarseDurationsWithCompactTimestamps();
+    requireSynchronousWithNegativeResults();
     requireNonNull(loader);
 
     @SuppressWarnings("unchecked")
@@ -1120,6 +1695,57 @@ public final class Caffeine<K extends Object, V extends Object> {
 
   void requireNonLoadingCache() {
     requireState(refreshAfterWriteNanos == UNSET_INT, "refreshAfterWrite requires a LoadingCache");
+    requireState(refresher == null, "refreshAfter requires a LoadingCache");
+    requireState(refreshAheadNanos == UNSET_INT, "refreshAhead requires a LoadingCache");
+    requireSynchronousWithNegativeResults();
+  }
+
+  void requireSynchronousWithNegativeResults() {
+    requireState(negativeExpiresAfterNanos == UNSET_INT,
+        "cacheNegativeResults requires a synchronous LoadingCache");
+  }
+
+  void requireMaximumWithHeavyHitters() {
+    requireState(!isRecordingHeavyHitters() || evicts(),
+        "recordHeavyHitters requires maximumSize or maximumWeight");
+  }
+
+  void requireMaximumAndStrongKeysWithNearCache() {
+    requireState(!hasNearCache() || (evicts() && isStrongKeys() && !expiresVariable()),
+        "nearCache requires maximumSize or maximumWeight, strong keys, and no custom expiry");
+  }
+
+  void requireMaximumWithReadSampling() {
+    requireState(!isSamplingReads() || evicts(),
+        "sampleReads requires maximumSize or maximumWeight");
+  }
+
+  void requireMaximumAndExpireAfterWriteWithRefreshAhead() {
+    requireState(!hasRefreshAhead() || (evicts() && expiresAfterWrite()),
+        "refreshAhead requires maximumSize or maximumWeight and expireAfterWrite");
+  }
+
+  void requireStrongReferencesWithIntrusiveHashTable() {
+    requireState(!intrusiveHashTable || (isStrongKeys() && isStrongValues() && !compactTimestamps),
+        "intrusiveHashTable requires strong keys and values and may not use compactTimestamps");
+  }
+
+  void requireCoarseDurationsWithCompactTimestamps() {
+    if (!compactTimestamps) {
+      return;
+    }
+    requireState((expireAfterAccessNanos == UNSET_INT)
+        || (expireAfterAccessNanos >= MINIMUM_COMPACT_DURATION_NANOS),
+        "compactTimestamps requires an expireAfterAccess of at least %s ns (was %s ns)",
+        MINIMUM_COMPACT_DURATION_NANOS, expireAfterAccessNanos);
+    requireState((expireAfterWriteNanos == UNSET_INT)
+        || (expireAfterWriteNanos >= MINIMUM_COMPACT_DURATION_NANOS),
+        "compactTimestamps requires an expireAfterWrite of at least %s ns (was %s ns)",
+        MINIMUM_COMPACT_DURATION_NANOS, expireAfterWriteNanos);
+    requireState((refreshAfterWriteNanos == UNSET_INT)
+        || (refreshAfterWriteNanos >= MINIMUM_COMPACT_DURATION_NANOS),
+        "compactTimestamps requires a refreshAfterWrite of at least %s ns (was %s ns)",
+        MINIMUM_COMPACT_DURATION_NANOS, refreshAfterWriteNanos);
   }
 
   void requireWeightWithWeigher() {
@@ -1139,7 +1765,7 @@ public final class Caffeine<K extends Object, V extends Object> {
    * {@link Long#MAX_VALUE} or {@link Long#MIN_VALUE}. This behavior can be useful when decomposing
    * a duration in order to call a legacy API which requires a {@code long, TimeUnit} pair.
    */
-  private static long saturatedToNanos(Duration duration) {
+  static long saturatedToNanos(Duration duration) {
     // Using a try/catch seems lazy, but the catch block will rarely get invoked (except for
     // durations longer than approximately +/- 292 years).
     try {
@@ -1167,6 +1793,39 @@ public final class Caffeine<K extends Object, V extends Object> {
     if (maximumWeight != UNSET_INT) {
       s.append("maximumWeight=").append(maximumWeight).append(", ");
     }
+    if (heavyHitters != UNSET_INT) {
+      s.append("heavyHitters=").append(heavyHitters).append(", ");
+    }
+    if (nearCache != UNSET_INT) {
+      s.append("nearCache=").append(nearCache).append(", ");
+    }
+    if (readSampleRate != UNSET_INT) {
+      s.append("readSampleRate=").append(readSampleRate).append(", ");
+    }
+    if (compactTimestamps) {
+      s.append("compactTimestamps, ");
+    }
+    if (intrusiveHashTable) {
+      s.append("intrusiveHashTable, ");
+    }
+    if (stripedWriteBuffer) {
+      s.append("stripedWriteBuffer, ");
+    }
+    if (incrementalClear) {
+      s.append("incrementalClear, ");
+    }
+    if (tagger != null) {
+      s.append("tagger, ");
+    }
+    if (refresher != null) {
+      s.append("refresher, ");
+    }
+    if (refreshAheadNanos != UNSET_INT) {
+      s.append("refreshAhead=").append(refreshAheadNanos).append("ns, ");
+    }
+    if (negativeExpiresAfterNanos != UNSET_INT) {
+      s.append("negativeResults=").append(negativeExpiresAfterNanos).append("ns, ");
+    }
     if (expireAfterWriteNanos != UNSET_INT) {
       s.append("expireAfterWrite=").append(expireAfterWriteNanos).append("ns, ");
     }
@@ -1179,6 +1838,12 @@ public final class Caffeine<K extends Object, V extends Object> {
     if (refreshAfterWriteNanos != UNSET_INT) {
       s.append("refreshAfterWriteNanos=").append(refreshAfterWriteNanos).append("ns, ");
     }
+    if (coarseExpirationTickerNanos != UNSET_INT) {
+      s.append("coarseExpirationTicker=").append(coarseExpirationTickerNanos).append("ns, ");
+    }
+    if (coarseStatsTickerNanos != UNSET_INT) {
+      s.append("coarseStatsTicker=").append(coarseStatsTickerNanos).append("ns, ");
+    }
     if (keyStrength != null) {
       s.append("keyStrength=").append(keyStrength.toString().toLowerCase(US)).append(", ");
     }
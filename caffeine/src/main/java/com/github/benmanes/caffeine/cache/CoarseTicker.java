@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A ticker that caches the value of {@link System#nanoTime} and refreshes it periodically from a
+ * background thread. A read is a single volatile load, which is cheaper than querying the clock
+ * when the time is read on every cache operation, at the cost of the readings lagging behind the
+ * current time by up to the resolution.
+ * <p>
+ * A requested resolution is rounded down to one of a small, fixed set of resolutions so that the
+ * readings never lag by more than was asked for. The tickers are shared by all caches, so there is
+ * at most one daemon thread for each of those resolutions, which runs for the lifetime of the
+ * application. A resolution finer than a millisecond is rejected, as the updater thread would then
+ * spend more time running than the clock reads that it saves.
+ */
+final class CoarseTicker implements Ticker, Runnable, Serializable {
+  static final long MINIMUM_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  static final long[] RESOLUTIONS_NANOS = { MINIMUM_RESOLUTION_NANOS,
+      TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(100),
+      TimeUnit.SECONDS.toNanos(1) };
+
+  static final ConcurrentMap<Long, CoarseTicker> tickers = new ConcurrentHashMap<>();
+  private static final long serialVersionUID = 1;
+
+  final long resolutionNanos;
+
+  volatile long now;
+
+  private CoarseTicker(long resolutionNanos) {
+    this.resolutionNanos = resolutionNanos;
+    this.now = System.nanoTime();
+  }
+
+  /**
+   * Returns the shared ticker that is updated at the coarsest supported resolution that does not
+   * exceed the given one, starting its updater thread if this is the first use.
+   *
+   * @param resolutionNanos the maximum interval between updates, in nanoseconds
+   * @return the shared ticker for that resolution
+   * @throws IllegalArgumentException if the resolution is less than one millisecond
+   */
+  static CoarseTicker forResolution(long resolutionNanos) {
+    requireResolution(resolutionNanos);
+    long normalized = normalize(resolutionNanos);
+    var ticker = tickers.get(normalized);
+    if (ticker == null) {
+      // The thread is started by the winner of the race, rather than within the map's lock
+      var created = new CoarseTicker(normalized);
+      ticker = tickers.putIfAbsent(normalized, created);
+      if (ticker == null) {
+        created.start();
+        ticker = created;
+      }
+    }
+    return ticker;
+  }
+
+  /** Ensures that the resolution is not finer than the minimum supported resolution. */
+  static void requireResolution(long resolutionNanos) {
+    requireArgument(resolutionNanos >= MINIMUM_RESOLUTION_NANOS,
+        "resolution must be at least %s ns: %s ns", MINIMUM_RESOLUTION_NANOS, resolutionNanos);
+  }
+
+  /** Returns the coarsest supported resolution that does not exceed the given resolution. */
+  static long normalize(long resolutionNanos) {
+    long normalized = RESOLUTIONS_NANOS[0];
+    for (long resolution : RESOLUTIONS_NANOS) {
+      if (resolution <= resolutionNanos) {
+        normalized = resolution;
+      }
+    }
+    return normalized;
+  }
+
+  /**
+   * Starts the updater thread. As it runs for the lifetime of the application, it does not retain
+   * the calling thread's context class loader or inheritable thread locals, which would otherwise
+   * prevent them from being unloaded, such as when a web application is redeployed.
+   */
+  private void start() {
+    var thread = new Thread(/* group */ null, this, "Caffeine-CoarseTicker-" + resolutionNanos
+        + "ns", /* stackSize */ 0, /* inheritThreadLocals */ false);
+    thread.setContextClassLoader(null);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public long read() {
+    return now;
+  }
+
+  @Override
+  public void run() {
+    for (;;) {
+      LockSupport.parkNanos(this, resolutionNanos);
+      now = System.nanoTime();
+    }
+  }
+
+  Object readResolve() {
+    return forResolution(resolutionNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "CoarseTicker{resolution=" + resolutionNanos + "ns}";
+  }
+}
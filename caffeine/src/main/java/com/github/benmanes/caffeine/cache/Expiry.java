@@ -15,6 +15,12 @@
  */
 package com.github.benmanes.caffeine.cache;
 
+import static java.util.Objects.requireNonNull;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.function.BiFunction;
+
 import org.checkerframework.checker.index.qual.NonNegative;
 
 /**
@@ -76,4 +82,106 @@ public interface Expiry<K extends Object, V extends Object> {
    * @return the length of time before the entry expires, in nanoseconds
    */
   long expireAfterRead(K key, V value, long currentTime, @NonNegative long currentDuration);
+
+  /**
+   * Returns whether {@link #expireAfterRead} may modify the expiration time. If not, then the cache
+   * does not call {@link #expireAfterRead} when an entry is read and does not reorder the entry in
+   * its expiration schedule, which removes the dominant cost of a variable expiration policy from
+   * the read path. An implementation that returns {@code false} must always return the
+   * {@code currentDuration} from {@link #expireAfterRead}.
+   *
+   * @return if a read may change the entry's expiration time
+   */
+  default boolean isReadSensitive() {
+    // This method was added & implemented in version 3.0.6
+    return true;
+  }
+
+  /**
+   * Returns an {@code Expiry} that specifies that the entry should be automatically removed from
+   * the cache once the duration has elapsed after the entry's creation. The expiration time is not
+   * modified when the entry is updated or read.
+   *
+   * @param function the function that computes how long the entry may live after its creation
+   * @param <K> the type of keys
+   * @param <V> the type of values
+   * @return an {@code Expiry} instance with the specified expiry function
+   */
+  static <K, V> Expiry<K, V> creating(BiFunction<K, V, Duration> function) {
+    return new ExpiryAfterCreate<>(function);
+  }
+
+  /**
+   * Returns an {@code Expiry} that specifies that the entry should be automatically removed from
+   * the cache once the duration has elapsed after the entry's creation or the most recent
+   * replacement of its value. The expiration time is not modified when the entry is read.
+   *
+   * @param function the function that computes how long the entry may live after it was written
+   * @param <K> the type of keys
+   * @param <V> the type of values
+   * @return an {@code Expiry} instance with the specified expiry function
+   */
+  static <K, V> Expiry<K, V> writing(BiFunction<K, V, Duration> function) {
+    return new ExpiryAfterWrite<>(function);
+  }
+}
+
+final class ExpiryAfterCreate<K, V> implements Expiry<K, V>, Serializable {
+  private static final long serialVersionUID = 1L;
+
+  final BiFunction<K, V, Duration> function;
+
+  ExpiryAfterCreate(BiFunction<K, V, Duration> function) {
+    this.function = requireNonNull(function);
+  }
+
+  @Override
+  public long expireAfterCreate(K key, V value, long currentTime) {
+    return Caffeine.saturatedToNanos(function.apply(key, value));
+  }
+
+  @Override
+  public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+
+  @Override
+  public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+
+  @Override
+  public boolean isReadSensitive() {
+    return false;
+  }
+}
+
+final class ExpiryAfterWrite<K, V> implements Expiry<K, V>, Serializable {
+  private static final long serialVersionUID = 1L;
+
+  final BiFunction<K, V, Duration> function;
+
+  ExpiryAfterWrite(BiFunction<K, V, Duration> function) {
+    this.function = requireNonNull(function);
+  }
+
+  @Override
+  public long expireAfterCreate(K key, V value, long currentTime) {
+    return Caffeine.saturatedToNanos(function.apply(key, value));
+  }
+
+  @Override
+  public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+    return Caffeine.saturatedToNanos(function.apply(key, value));
+  }
+
+  @Override
+  public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+
+  @Override
+  public boolean isReadSensitive() {
+    return false;
+  }
 }
@@ -59,6 +59,7 @@ final class FrequencySketch<E> {
   int sampleSize;
   int tableMask;
   long[] table;
+  int resets;
   int size;
 
   /**
@@ -76,7 +77,22 @@ final class FrequencySketch<E> {
    * @param maximumSize the maximum size of the cache
    */
   public void ensureCapacity(@NonNegative long maximumSize) {
+    ensureCapacity(maximumSize, 1);
+  }
+
+  /**
+   * Initializes and increases the capacity of this <tt>FrequencySketch</tt> instance, if necessary,
+   * where only one in every {@code sampleRate} events is recorded on average. Every kind of event
+   * must be sampled at this rate. The sample period between resets is shortened by the rate so that
+   * the counters age over the same number of underlying events, rather than each recorded event
+   * being weighted by the rate.
+   *
+   * @param maximumSize the maximum size of the cache
+   * @param sampleRate the average number of events represented by a recorded event
+   */
+  public void ensureCapacity(@NonNegative long maximumSize, int sampleRate) {
     requireArgument(maximumSize >= 0);
+    requireArgument(sampleRate > 0);
     int maximum = (int) Math.min(maximumSize, Integer.MAX_VALUE >>> 1);
     if ((table != null) && (table.length >= maximum)) {
       return;
@@ -88,6 +104,7 @@ final class FrequencySketch<E> {
     if (sampleSize <= 0) {
       sampleSize = Integer.MAX_VALUE;
     }
+    sampleSize = Math.max(10, sampleSize / sampleRate);
     size = 0;
   }
 
@@ -178,6 +195,7 @@ final class FrequencySketch<E> {
       table[i] = (table[i] >>> 1) & RESET_MASK;
     }
     size = (size >>> 1) - (count >>> 2);
+    resets++;
   }
 
   /**
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link AsyncCacheLoader} that reduces the tail latency of a slow load by issuing a second,
+ * redundant load if the first has not completed within a delay. The first attempt to succeed
+ * completes the load and the other attempt is cancelled. The delay is either fixed or derived from
+ * a percentile of the recently observed load latencies.
+ * <p>
+ * The hedged load is performed within the single future that the cache holds for the key, so
+ * concurrent callers continue to be deduplicated and only the winning value is ever cached.
+ */
+final class HedgedAsyncCacheLoader<K, V> implements AsyncCacheLoader<K, V> {
+  /** The number of recent latency samples used to estimate the percentile. */
+  static final int SAMPLES = 128;
+  /** The number of samples recorded between recomputing the percentile delay. */
+  static final int RECOMPUTE_INTERVAL = 32;
+  /** The delay that indicates hedging is disabled until enough samples are observed. */
+  static final long UNKNOWN_DELAY = Long.MAX_VALUE;
+
+  final AsyncCacheLoader<K, V> delegate;
+  final Scheduler scheduler;
+  final Ticker ticker;
+
+  final double percentile;
+  final long minimumDelay;
+
+  final @Nullable AtomicLongArray samples;
+  final @Nullable AtomicLong sampleCount;
+
+  volatile long delay;
+
+  /** Creates a loader that hedges after a fixed delay. */
+  HedgedAsyncCacheLoader(AsyncCacheLoader<K, V> delegate, long delay,
+      Scheduler scheduler, Ticker ticker) {
+    requireArgument(delay >= 0, "delay cannot be negative: %s", delay);
+    this.delegate = requireNonNull(delegate);
+    this.scheduler = requireNonNull(scheduler);
+    this.ticker = requireNonNull(ticker);
+    this.percentile = Double.NaN;
+    this.minimumDelay = delay;
+    this.sampleCount = null;
+    this.samples = null;
+    this.delay = delay;
+  }
+
+  /** Creates a loader that hedges after the percentile of the observed latencies. */
+  HedgedAsyncCacheLoader(AsyncCacheLoader<K, V> delegate, double percentile,
+      long minimumDelay, Scheduler scheduler, Ticker ticker) {
+    requireArgument((percentile > 0.0) && (percentile < 1.0),
+        "percentile must be between 0 and 1 (exclusive): %s", percentile);
+    requireArgument(minimumDelay >= 0, "minimum delay cannot be negative: %s", minimumDelay);
+    this.delegate = requireNonNull(delegate);
+    this.scheduler = requireNonNull(scheduler);
+    this.ticker = requireNonNull(ticker);
+    this.samples = new AtomicLongArray(SAMPLES);
+    this.sampleCount = new AtomicLong();
+    this.minimumDelay = minimumDelay;
+    this.percentile = percentile;
+    this.delay = UNKNOWN_DELAY;
+  }
+
+  @Override
+  public CompletableFuture<V> asyncLoad(K key, Executor executor) throws Exception {
+    return hedge(() -> delegate.asyncLoad(key, executor), executor);
+  }
+
+  @Override
+  public CompletableFuture<V> asyncReload(K key, V oldValue, Executor executor) throws Exception {
+    return hedge(() -> delegate.asyncReload(key, oldValue, executor), executor);
+  }
+
+  @Override
+  public CompletableFuture<? extends Map<? extends K, ? extends V>> asyncLoadAll(
+      Set<? extends K> keys, Executor executor) throws Exception {
+    return delegate.asyncLoadAll(keys, executor);
+  }
+
+  /**
+   * Returns a future that is completed by the first successful attempt, where the second attempt
+   * is only started if the first is still in-flight after the hedging delay.
+   */
+  @SuppressWarnings("unchecked")
+  CompletableFuture<V> hedge(Callable<CompletableFuture<? extends V>> attempt,
+      Executor executor) throws Exception {
+    long startTime = ticker.read();
+    var primary = (CompletableFuture<V>) attempt.call();
+    if (primary == null) {
+      return null;
+    } else if (primary.isDone()) {
+      record(primary, startTime);
+      return primary;
+    }
+
+    long hedgeDelay = delay;
+    if (hedgeDelay == UNKNOWN_DELAY) {
+      primary.whenComplete((value, error) -> record(primary, startTime));
+      return primary;
+    }
+
+    var result = new HedgedLoad<V>();
+    result.race(primary, startTime);
+    result.timer = scheduler.schedule(executor, () -> {
+      if (result.isDone()) {
+        return;
+      }
+      try {
+        var secondary = (CompletableFuture<V>) attempt.call();
+        if (secondary != null) {
+          result.race(secondary, ticker.read());
+        }
+      } catch (Throwable t) {
+        // The primary attempt remains in-flight and determines the outcome
+      }
+    }, hedgeDelay, TimeUnit.NANOSECONDS);
+    return result;
+  }
+
+  /** Records the latency of the successfully completed attempt. */
+  void record(CompletableFuture<?> attempt, long startTime) {
+    if ((samples == null) || (sampleCount == null) || !Async.isReady(attempt)) {
+      return;
+    }
+    long count = sampleCount.getAndIncrement();
+    samples.set((int) (count % SAMPLES), Math.max(0, ticker.read() - startTime));
+    if ((++count >= SAMPLES) && ((count % RECOMPUTE_INTERVAL) == 0)) {
+      delay = computeDelay(samples);
+    }
+  }
+
+  /** Returns the hedging delay based on the percentile of the sampled latencies. */
+  long computeDelay(AtomicLongArray samples) {
+    long[] latencies = new long[samples.length()];
+    for (int i = 0; i < latencies.length; i++) {
+      latencies[i] = samples.get(i);
+    }
+    Arrays.sort(latencies);
+    int index = (int) Math.min(latencies.length - 1, (long) (percentile * latencies.length));
+    return Math.max(minimumDelay, latencies[index]);
+  }
+
+  /** A future that is completed by the first successful attempt of a race. */
+  final class HedgedLoad<T> extends CompletableFuture<T> {
+    final CopyOnWriteArrayList<CompletableFuture<? extends T>> attempts;
+    final AtomicInteger outstanding;
+
+    volatile @Nullable Future<?> timer;
+
+    HedgedLoad() {
+      attempts = new CopyOnWriteArrayList<>();
+      outstanding = new AtomicInteger();
+      whenComplete((value, error) -> cancelAttempts());
+    }
+
+    /** Adds the attempt to the race, completing this future if it is the first to succeed. */
+    void race(CompletableFuture<? extends T> attempt, long startTime) {
+      outstanding.incrementAndGet();
+      attempts.add(attempt);
+      attempt.whenComplete((value, error) -> {
+        if (error == null) {
+          record(attempt, startTime);
+          complete(value);
+        } else if (outstanding.decrementAndGet() == 0) {
+          completeExceptionally(error);
+        }
+      });
+      if (isDone()) {
+        attempt.cancel(/* mayInterruptIfRunning */ false);
+      }
+    }
+
+    /** Cancels the pending hedge and the attempts that lost the race. */
+    void cancelAttempts() {
+      var pending = timer;
+      if (pending != null) {
+        pending.cancel(/* mayInterruptIfRunning */ false);
+      }
+      for (var attempt : attempts) {
+        attempt.cancel(/* mayInterruptIfRunning */ false);
+      }
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.NodeFactory.DEAD_WEAK_KEY;
+import static com.github.benmanes.caffeine.cache.NodeFactory.RETIRED_WEAK_KEY;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.benmanes.caffeine.cache.References.LookupKeyEqualsReference;
+import com.github.benmanes.caffeine.cache.References.WeakKeyEqualsReference;
+
+/**
+ * Provides a similar behavior to {@link String#intern} for any immutable type. Common
+ * implementations are available from the {@link #newStrongInterner()} and
+ * {@link #newWeakInterner()} methods.
+ * <p>
+ * Note that {@code String.intern()} has some well-known performance limitations, and should
+ * generally be avoided. Prefer {@link Interner#newWeakInterner} or another {@code Interner}
+ * implementation even for {@code String} interning.
+ *
+ * @param <E> the type of elements
+ */
+public interface Interner<E> {
+
+  /**
+   * Chooses and returns the representative instance for any of a collection of instances that are
+   * equal to each other. If two {@linkplain Object#equals equal} inputs are given to this method,
+   * both calls will return the same instance. That is, {@code intern(a).equals(a)} always holds,
+   * and {@code intern(a) == intern(b)} if and only if {@code a.equals(b)}. Note that {@code
+   * intern(a)} is permitted to return one instance now and a different instance later if the
+   * original interned instance was garbage-collected.
+   * <p>
+   * <b>Warning:</b> do not use with mutable objects.
+   *
+   * @param sample the element to add if absent
+   * @return the representative instance, possibly the {@code sample} if absent
+   * @throws NullPointerException if {@code sample} is null
+   */
+  E intern(E sample);
+
+  /**
+   * Returns a new thread-safe interner which retains a strong reference to each instance it has
+   * interned, thus preventing these instances from being garbage-collected.
+   *
+   * @param <E> the type of elements
+   * @return an interner for retrieving the canonical instance
+   */
+  static <E> Interner<E> newStrongInterner() {
+    return new StrongInterner<>();
+  }
+
+  /**
+   * Returns a new thread-safe interner which retains a weak reference to each instance it has
+   * interned, and so does not prevent these instances from being garbage-collected. The canonical
+   * instance is held by a minimal entry that does not carry the value, timestamp, or policy
+   * metadata of a cache's entry, and a lookup of an interned instance does not record an access.
+   *
+   * @param <E> the type of elements
+   * @return an interner for retrieving the canonical instance
+   */
+  static <E> Interner<E> newWeakInterner() {
+    return new WeakInterner<>();
+  }
+}
+
+/** An interner that holds its canonical instances strongly. */
+final class StrongInterner<E> implements Interner<E> {
+  final ConcurrentHashMap<E, E> map;
+
+  StrongInterner() {
+    map = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public E intern(E sample) {
+    E canonical = map.get(sample);
+    if (canonical != null) {
+      return canonical;
+    }
+
+    var value = map.putIfAbsent(sample, sample);
+    return (value == null) ? sample : value;
+  }
+}
+
+/** An interner that holds its canonical instances weakly in a cache of {@link Interned} nodes. */
+final class WeakInterner<E> implements Interner<E> {
+  final BoundedLocalCache<E, Boolean> cache;
+
+  @SuppressWarnings("unchecked")
+  WeakInterner() {
+    var builder = (Caffeine<E, Boolean>) (Object) Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .weakKeys()
+        .interner();
+    cache = (BoundedLocalCache<E, Boolean>) builder.build().asMap();
+  }
+
+  @Override
+  public E intern(E sample) {
+    for (;;) {
+      E canonical = cache.getKey(sample);
+      if (canonical != null) {
+        return canonical;
+      }
+
+      var value = cache.putIfAbsent(sample, Boolean.TRUE);
+      if (value == null) {
+        return sample;
+      }
+    }
+  }
+}
+
+/**
+ * The entry in a weak interner, which holds only the weakly referenced key. The key is compared by
+ * equality rather than by identity, and the value is always {@link Boolean#TRUE}. The node type is
+ * its own factory, as it is selected for the interner regardless of the other features.
+ */
+@SuppressWarnings("unchecked")
+final class Interned<K, V> extends Node<K, V> implements NodeFactory<K, V> {
+  volatile Reference<?> keyReference;
+
+  Interned() {}
+
+  Interned(Reference<K> keyReference) {
+    this.keyReference = keyReference;
+  }
+
+  @Override
+  public K getKey() {
+    return (K) keyReference.get();
+  }
+
+  @Override
+  public Object getKeyReference() {
+    return keyReference;
+  }
+
+  @Override
+  public V getValue() {
+    return (V) Boolean.TRUE;
+  }
+
+  @Override
+  public V getValueReference() {
+    return (V) Boolean.TRUE;
+  }
+
+  @Override
+  public void setValue(V value, ReferenceQueue<V> referenceQueue) {}
+
+  @Override
+  public boolean containsValue(Object value) {
+    return Objects.equals(value, getValue());
+  }
+
+  @Override
+  public Node<K, V> newNode(K key, ReferenceQueue<K> keyReferenceQueue,
+      V value, ReferenceQueue<V> valueReferenceQueue, int weight, long now) {
+    return new Interned<>(new WeakKeyEqualsReference<>(key, keyReferenceQueue));
+  }
+
+  @Override
+  public Node<K, V> newNode(Object keyReference, V value,
+      ReferenceQueue<V> valueReferenceQueue, int weight, long now) {
+    return new Interned<>((Reference<K>) keyReference);
+  }
+
+  @Override
+  public Object newLookupKey(Object key) {
+    return new LookupKeyEqualsReference<>(key);
+  }
+
+  @Override
+  public Object newReferenceKey(K key, ReferenceQueue<K> referenceQueue) {
+    return new WeakKeyEqualsReference<>(key, referenceQueue);
+  }
+
+  @Override
+  public boolean isAlive() {
+    Object keyRef = keyReference;
+    return (keyRef != RETIRED_WEAK_KEY) && (keyRef != DEAD_WEAK_KEY);
+  }
+
+  @Override
+  public boolean isRetired() {
+    return (keyReference == RETIRED_WEAK_KEY);
+  }
+
+  @Override
+  public void retire() {
+    keyReference = RETIRED_WEAK_KEY;
+  }
+
+  @Override
+  public boolean isDead() {
+    return (keyReference == DEAD_WEAK_KEY);
+  }
+
+  @Override
+  public void die() {
+    keyReference = DEAD_WEAK_KEY;
+  }
+}
@@ -0,0 +1,941 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.ceilingPowerOfTwo;
+import static com.github.benmanes.caffeine.cache.Caffeine.requireState;
+import static java.util.Objects.requireNonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * A concurrent hash table whose entries are the cache's nodes. Unlike a {@link ConcurrentHashMap},
+ * which wraps every mapping in an entry of its own, each node holds its key's hash code and the
+ * link to the next node in its bucket. This saves an object per mapping and a pointer chase on
+ * every lookup, but requires that the nodes were generated with these fields.
+ * <p>
+ * A node must be mapped under a key that is equal to its key reference and may be added to the
+ * table at most once. The collection views and their iterators are weakly consistent.
+ */
+final class IntrusiveHashTable<K, V> extends AbstractMap<Object, Node<K, V>>
+    implements ConcurrentMap<Object, Node<K, V>> {
+
+  /*
+   * The table is partitioned into segments, each of which is an independently resizable hash
+   * table that guards its structural changes with a lock. The segment is selected by the high bits
+   * of the spread hash code and the bucket by its low bits.
+   *
+   * A read does not acquire the lock. A node is published to a bucket by a release store after its
+   * fields are set, and an unlinked node retains its next pointer, so a concurrent traversal
+   * observes every node that is present throughout. The exception is a resize, which relinks the
+   * nodes in place rather than copying them, as a node's identity is shared with the eviction
+   * policy. A traversal may then follow a link into a different bucket and miss its key, so the
+   * segment's resize count is used as a sequence lock: it is odd while the nodes are being
+   * relinked and an unsuccessful read is retried if the count changed during the traversal. While
+   * the count is odd the buckets are moved in order, so a read uses the new table for a bucket that
+   * was already moved and the old table for one that was not yet reached, and only waits for the
+   * single bucket that is being relinked.
+   *
+   * A remapping function is evaluated while holding the segment's lock, as a ConcurrentHashMap
+   * does with the lock of the key's bin, so that the mapping is found, computed, and updated by a
+   * single acquisition. The lock is reentrant and a function may update the mapping of a different
+   * key, but an attempt to update its own mapping fails. A function that may be long-running, such
+   * as a cache loader, is instead evaluated by computeReserved without holding the segment's lock.
+   * The key is reserved by a lock of its own, which the other updates to that key wait for, so that
+   * a slow function only delays the callers of the same key. The reservations are tracked by a map
+   * that is only allocated once a key is reserved. As with a ConcurrentHashMap, two functions that
+   * each update the key that the other is computing will deadlock.
+   */
+
+  static final int MAXIMUM_SEGMENTS = 1 << 16;
+  static final int MAXIMUM_TABLE_SIZE = 1 << 30;
+  static final int MINIMUM_TABLE_SIZE = 2;
+  static final int NCPU = Runtime.getRuntime().availableProcessors();
+  static final VarHandle BUCKET = MethodHandles.arrayElementVarHandle(Node[].class);
+
+  final Segment<K, V>[] segments;
+  final int segmentShift;
+
+  @Nullable Collection<Node<K, V>> values;
+  @Nullable Set<Entry<Object, Node<K, V>>> entrySet;
+
+  /**
+   * Creates a hash table that is sized to hold the given number of mappings without resizing.
+   *
+   * @param initialCapacity the expected number of mappings
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  IntrusiveHashTable(int initialCapacity) {
+    int segmentCount = Math.min(ceilingPowerOfTwo(4 * NCPU), MAXIMUM_SEGMENTS);
+    segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+    segments = new Segment[segmentCount];
+
+    long perSegment = (Math.max(initialCapacity, 0) + segmentCount - 1L) / segmentCount;
+    int tableSize = (int) Math.min(MAXIMUM_TABLE_SIZE,
+        ceilingPowerOfTwo(Math.max(MINIMUM_TABLE_SIZE, 1 + (4 * perSegment) / 3)));
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = new Segment<>(tableSize);
+    }
+  }
+
+  /** Returns the spread hash code so that both its high and low bits are well distributed. */
+  static int spread(int hashCode) {
+    int x = hashCode * 0x9E3779B9;
+    return x ^ (x >>> 16);
+  }
+
+  /** Returns the segment that the hash code maps to. */
+  Segment<K, V> segmentFor(int hash) {
+    return segments[hash >>> segmentShift];
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (var segment : segments) {
+      if (segment.count != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.min(mappingCount(), Integer.MAX_VALUE);
+  }
+
+  /** Returns the number of mappings, which may exceed the maximum value of an {@code int}. */
+  public long mappingCount() {
+    long count = 0L;
+    for (var segment : segments) {
+      count += segment.count;
+    }
+    return count;
+  }
+
+  @Override
+  public void clear() {
+    for (var segment : segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return (get(key) != null);
+  }
+
+  @Override
+  public @Nullable Node<K, V> get(Object key) {
+    int hash = spread(key.hashCode());
+    return segmentFor(hash).get(key, hash);
+  }
+
+  @Override
+  public @Nullable Node<K, V> put(Object key, Node<K, V> node) {
+    requireNonNull(node);
+    int hash = spread(key.hashCode());
+    return segmentFor(hash).put(key, hash, node, /* onlyIfAbsent */ false);
+  }
+
+  @Override
+  public @Nullable Node<K, V> putIfAbsent(Object key, Node<K, V> node) {
+    requireNonNull(node);
+    int hash = spread(key.hashCode());
+    var segment = segmentFor(hash);
+    Node<K, V> prior = segment.get(key, hash);
+    return (prior == null)
+        ? segment.put(key, hash, node, /* onlyIfAbsent */ true)
+        : prior;
+  }
+
+  @Override
+  public @Nullable Node<K, V> remove(Object key) {
+    int hash = spread(key.hashCode());
+    return segmentFor(hash).remove(key, hash, /* expected */ null);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    requireNonNull(key);
+    if (value == null) {
+      return false;
+    }
+    int hash = spread(key.hashCode());
+    return (segmentFor(hash).remove(key, hash, value) != null);
+  }
+
+  @Override
+  public @Nullable Node<K, V> replace(Object key, Node<K, V> node) {
+    requireNonNull(node);
+    int hash = spread(key.hashCode());
+    return segmentFor(hash).replace(key, hash, /* expected */ null, node);
+  }
+
+  @Override
+  public boolean replace(Object key, Node<K, V> oldNode, Node<K, V> newNode) {
+    requireNonNull(oldNode);
+    requireNonNull(newNode);
+    int hash = spread(key.hashCode());
+    return (segmentFor(hash).replace(key, hash, oldNode, newNode) != null);
+  }
+
+  @Override
+  public @Nullable Node<K, V> computeIfAbsent(Object key,
+      Function<? super Object, ? extends Node<K, V>> mappingFunction) {
+    requireNonNull(mappingFunction);
+    int hash = spread(key.hashCode());
+    var segment = segmentFor(hash);
+    Node<K, V> node = segment.get(key, hash);
+    return (node == null)
+        ? segment.compute(key, hash, (k, n) -> mappingFunction.apply(k), Segment.IF_ABSENT)
+        : node;
+  }
+
+  @Override
+  public @Nullable Node<K, V> computeIfPresent(Object key, BiFunction<? super Object,
+      ? super Node<K, V>, ? extends Node<K, V>> remappingFunction) {
+    requireNonNull(remappingFunction);
+    int hash = spread(key.hashCode());
+    var segment = segmentFor(hash);
+    return (segment.get(key, hash) == null)
+        ? null
+        : segment.compute(key, hash, remappingFunction, Segment.IF_PRESENT);
+  }
+
+  @Override
+  public @Nullable Node<K, V> compute(Object key, BiFunction<? super Object,
+      ? super Node<K, V>, ? extends Node<K, V>> remappingFunction) {
+    requireNonNull(remappingFunction);
+    int hash = spread(key.hashCode());
+    return segmentFor(hash).compute(key, hash, remappingFunction, Segment.ALWAYS);
+  }
+
+  /**
+   * Attempts to compute a mapping for the key and its current mapping, if any. Unlike
+   * {@link #compute}, the function is evaluated without holding the segment's lock, so that a
+   * long-running function only delays the other updates to the same key.
+   *
+   * @param key the key with which the specified value is to be associated
+   * @param remappingFunction the function to compute a node
+   * @return the new node associated with the specified key, or null if none
+   */
+  public @Nullable Node<K, V> computeReserved(Object key, BiFunction<? super Object,
+      ? super Node<K, V>, ? extends Node<K, V>> remappingFunction) {
+    requireNonNull(remappingFunction);
+    int hash = spread(key.hashCode());
+    return segmentFor(hash).computeReserved(key, hash, remappingFunction);
+  }
+
+  @Override
+  public Collection<Node<K, V>> values() {
+    var vs = values;
+    return (vs == null) ? (values = new Values()) : vs;
+  }
+
+  @Override
+  public Set<Entry<Object, Node<K, V>>> entrySet() {
+    var es = entrySet;
+    return (es == null) ? (entrySet = new EntrySet()) : es;
+  }
+
+  /** An independently resizable hash table that guards its structural changes with a lock. */
+  @SuppressWarnings("serial")
+  static final class Segment<K, V> extends ReentrantLock {
+    static final int ALWAYS = 0;
+    static final int IF_ABSENT = 1;
+    static final int IF_PRESENT = 2;
+
+    volatile Node<K, V> @Nullable [] nextTable;
+    volatile int transferIndex;
+    volatile Node<K, V>[] table;
+    volatile int resizes;
+    volatile int count;
+
+    @Nullable HashMap<Object, Reservation> reservations;
+    @Nullable ArrayList<Object> computing;
+    int threshold;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    Segment(int tableSize) {
+      table = new Node[tableSize];
+      threshold = thresholdFor(tableSize);
+    }
+
+    /** Returns the number of mappings that triggers a resize of the table. */
+    static int thresholdFor(int tableSize) {
+      return (tableSize == MAXIMUM_TABLE_SIZE)
+          ? Integer.MAX_VALUE
+          : tableSize - (tableSize >>> 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> @Nullable Node<K, V> bucketAt(Node<K, V>[] table, int index) {
+      return (Node<K, V>) BUCKET.getAcquire(table, index);
+    }
+
+    static <K, V> void setBucketAt(Node<K, V>[] table, int index, @Nullable Node<K, V> node) {
+      BUCKET.setRelease(table, index, node);
+    }
+
+    /** Returns the node mapped to the key by traversing its bucket. */
+    static <K, V> @Nullable Node<K, V> find(Node<K, V>[] table, Object key, int hash) {
+      int index = hash & (table.length - 1);
+      for (var node = bucketAt(table, index); node != null; node = node.getNextInTable()) {
+        if (node.getTableHash() == hash) {
+          Object keyRef = node.getKeyReference();
+          if ((keyRef == key) || key.equals(keyRef)) {
+            return node;
+          }
+        }
+      }
+      return null;
+    }
+
+    /** Returns the node mapped to the key without acquiring the lock. */
+    @Nullable Node<K, V> get(Object key, int hash) {
+      for (;;) {
+        int stamp = resizes;
+        Node<K, V>[] tab = table;
+        Node<K, V>[] next = nextTable;
+        if ((stamp & 1) == 0) {
+          Node<K, V> node = find(tab, key, hash);
+          if (node != null) {
+            return node;
+          }
+          VarHandle.acquireFence();
+          if (resizes == stamp) {
+            return null;
+          }
+        } else if (next != null) {
+          // The buckets are relinked in order, so only the one being moved cannot be traversed
+          int index = hash & (tab.length - 1);
+          int moved = transferIndex;
+          if (index != moved) {
+            Node<K, V> node = find((index < moved) ? next : tab, key, hash);
+            if (node != null) {
+              return node;
+            }
+            VarHandle.acquireFence();
+            if ((resizes == stamp) && ((index < moved) || (transferIndex < index))) {
+              return null;
+            }
+          }
+        }
+        Thread.onSpinWait();
+      }
+    }
+
+    /** Returns the nodes in the segment, as of a point in time without a concurrent resize. */
+    List<Node<K, V>> snapshot() {
+      int stamp = resizes;
+      if ((stamp & 1) == 0) {
+        List<Node<K, V>> nodes = collect(table);
+        VarHandle.acquireFence();
+        if (resizes == stamp) {
+          return nodes;
+        }
+      }
+      lock();
+      try {
+        return collect(table);
+      } finally {
+        unlock();
+      }
+    }
+
+    /** Returns the nodes in the table. */
+    List<Node<K, V>> collect(Node<K, V>[] tab) {
+      var nodes = new ArrayList<Node<K, V>>(count);
+      for (int i = 0; i < tab.length; i++) {
+        for (var node = bucketAt(tab, i); node != null; node = node.getNextInTable()) {
+          nodes.add(node);
+        }
+      }
+      return nodes;
+    }
+
+    /** Adds or replaces the mapping and returns the prior node, if present. */
+    @Nullable Node<K, V> put(Object key, int hash, Node<K, V> node, boolean onlyIfAbsent) {
+      Reservation reservation = null;
+      lock();
+      try {
+        reservation = awaitReservation(key);
+        Node<K, V> prior = find(table, key, hash);
+        if (prior == null) {
+          link(node, hash);
+        } else if (!onlyIfAbsent) {
+          substitute(prior, node, hash);
+        }
+        return prior;
+      } finally {
+        release(key, reservation);
+        unlock();
+      }
+    }
+
+    /** Removes the mapping if the node is equal to the expected value, if specified. */
+    @Nullable Node<K, V> remove(Object key, int hash, @Nullable Object expected) {
+      Reservation reservation = null;
+      lock();
+      try {
+        reservation = awaitReservation(key);
+        Node<K, V> prior = find(table, key, hash);
+        if ((prior == null) || ((expected != null) && !expected.equals(prior))) {
+          return null;
+        }
+        unlink(prior, hash);
+        return prior;
+      } finally {
+        release(key, reservation);
+        unlock();
+      }
+    }
+
+    /** Replaces the mapping if the node is equal to the expected value, if specified. */
+    @Nullable Node<K, V> replace(Object key, int hash,
+        @Nullable Object expected, Node<K, V> node) {
+      Reservation reservation = null;
+      lock();
+      try {
+        reservation = awaitReservation(key);
+        Node<K, V> prior = find(table, key, hash);
+        if ((prior == null) || ((expected != null) && !expected.equals(prior))) {
+          return null;
+        }
+        substitute(prior, node, hash);
+        return prior;
+      } finally {
+        release(key, reservation);
+        unlock();
+      }
+    }
+
+    /**
+     * Atomically updates the mapping with the results of the function, if the mode allows. The
+     * function is evaluated while holding the segment's lock.
+     */
+    @Nullable Node<K, V> compute(Object key, int hash, BiFunction<? super Object,
+        ? super Node<K, V>, ? extends Node<K, V>> remappingFunction, int mode) {
+      Reservation reservation = null;
+      lock();
+      try {
+        reservation = awaitReservation(key);
+        Node<K, V> prior = find(table, key, hash);
+        if ((mode == IF_ABSENT) && (prior != null)) {
+          return prior;
+        } else if ((mode == IF_PRESENT) && (prior == null)) {
+          return null;
+        }
+
+        var keys = computing;
+        if (keys == null) {
+          computing = keys = new ArrayList<>();
+        }
+        Node<K, V> node;
+        keys.add(key);
+        try {
+          node = remappingFunction.apply(key, prior);
+        } finally {
+          keys.remove(keys.size() - 1);
+        }
+        if (node != prior) {
+          update(key, hash, node);
+        }
+        return node;
+      } finally {
+        release(key, reservation);
+        unlock();
+      }
+    }
+
+    /**
+     * Atomically updates the mapping with the results of the function. The function is evaluated
+     * while holding the key's reservation rather than the segment's lock.
+     */
+    @Nullable Node<K, V> computeReserved(Object key, int hash, BiFunction<? super Object,
+        ? super Node<K, V>, ? extends Node<K, V>> remappingFunction) {
+      Reservation reservation = reserve(key);
+      Node<K, V> node = null;
+      boolean update = false;
+      try {
+        Node<K, V> prior = get(key, hash);
+        node = remappingFunction.apply(key, prior);
+        update = (node != prior);
+        return node;
+      } finally {
+        lock();
+        try {
+          if (update) {
+            update(key, hash, node);
+          }
+        } finally {
+          release(key, reservation);
+          unlock();
+        }
+      }
+    }
+
+    /**
+     * Sets the key's mapping to the computed node, or removes it if null. The current mapping is
+     * found again because a nested update or a clear may have changed the table.
+     */
+    @GuardedBy("this")
+    void update(Object key, int hash, @Nullable Node<K, V> node) {
+      Node<K, V> current = find(table, key, hash);
+      if (current == null) {
+        if (node != null) {
+          link(node, hash);
+        }
+      } else if (node == null) {
+        unlink(current, hash);
+      } else {
+        substitute(current, node, hash);
+      }
+    }
+
+    /**
+     * Throws if the current thread is evaluating a function for the key's mapping while holding
+     * the lock. Only the lock's owner may be computing, so another thread always passes.
+     */
+    @GuardedBy("this")
+    void checkNotComputing(Object key) {
+      if ((computing != null) && computing.contains(key)) {
+        throw new IllegalStateException("Recursive update");
+      }
+    }
+
+    /** Returns if a thread is updating the key's mapping without holding the lock. */
+    @GuardedBy("this")
+    boolean isReserved(Object key) {
+      return (reservations != null) && reservations.containsKey(key);
+    }
+
+    /**
+     * Reserves the key if another thread is updating its mapping without holding the lock, which
+     * is released while waiting for that update to complete.
+     *
+     * @throws IllegalStateException if the current thread is already updating the key's mapping
+     */
+    @GuardedBy("this")
+    @Nullable Reservation awaitReservation(Object key) {
+      checkNotComputing(key);
+      if (!isReserved(key)) {
+        return null;
+      }
+      unlock();
+      try {
+        return reserve(key);
+      } finally {
+        lock();
+      }
+    }
+
+    /**
+     * Acquires the key's reservation, waiting for any update in progress by another thread. This
+     * method should be called without holding the lock, as otherwise that update cannot complete.
+     *
+     * @throws IllegalStateException if the current thread is already updating the key's mapping
+     */
+    Reservation reserve(Object key) {
+      Reservation reservation;
+      lock();
+      try {
+        checkNotComputing(key);
+        if (reservations == null) {
+          reservations = new HashMap<>();
+        }
+        reservation = reservations.computeIfAbsent(key, k -> new Reservation());
+        if (reservation.isHeldByCurrentThread()) {
+          throw new IllegalStateException("Recursive update");
+        }
+        reservation.holders++;
+      } finally {
+        unlock();
+      }
+      reservation.lock();
+      return reservation;
+    }
+
+    /** Releases the key's reservation, if acquired, and discards it if there are no waiters. */
+    @GuardedBy("this")
+    void release(Object key, @Nullable Reservation reservation) {
+      if (reservation != null) {
+        reservation.unlock();
+        if (--reservation.holders == 0) {
+          requireNonNull(reservations).remove(key);
+        }
+      }
+    }
+
+    /** Removes all of the mappings. */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void clear() {
+      lock();
+      try {
+        if (count != 0) {
+          table = new Node[table.length];
+          count = 0;
+        }
+      } finally {
+        unlock();
+      }
+    }
+
+    /** Adds the node to the head of its bucket, resizing the table if it is too crowded. */
+    @GuardedBy("this")
+    void link(Node<K, V> node, int hash) {
+      int newCount = count + 1;
+      Node<K, V>[] tab = (newCount > threshold) ? resize() : table;
+      int index = hash & (tab.length - 1);
+      node.setTableHash(hash);
+      node.setNextInTable(bucketAt(tab, index));
+      setBucketAt(tab, index, node);
+      count = newCount;
+    }
+
+    /** Removes the node from its bucket, retaining its link for any concurrent traversals. */
+    @GuardedBy("this")
+    void unlink(Node<K, V> node, int hash) {
+      Node<K, V>[] tab = table;
+      int index = hash & (tab.length - 1);
+      Node<K, V> next = node.getNextInTable();
+      Node<K, V> pred = predecessor(tab, index, node);
+      if (pred == null) {
+        setBucketAt(tab, index, next);
+      } else {
+        pred.setNextInTable(next);
+      }
+      count = count - 1;
+    }
+
+    /** Replaces the node in its bucket with the new node for the same key. */
+    @GuardedBy("this")
+    void substitute(Node<K, V> prior, Node<K, V> node, int hash) {
+      if (prior == node) {
+        return;
+      }
+      Node<K, V>[] tab = table;
+      int index = hash & (tab.length - 1);
+      node.setTableHash(hash);
+      node.setNextInTable(prior.getNextInTable());
+      Node<K, V> pred = predecessor(tab, index, prior);
+      if (pred == null) {
+        setBucketAt(tab, index, node);
+      } else {
+        pred.setNextInTable(node);
+      }
+    }
+
+    /** Returns the node that links to the given one in the bucket, or null if it is the head. */
+    static <K, V> @Nullable Node<K, V> predecessor(
+        Node<K, V>[] table, int index, Node<K, V> node) {
+      Node<K, V> pred = null;
+      for (var current = bucketAt(table, index); current != node;
+          current = current.getNextInTable()) {
+        pred = current;
+      }
+      return pred;
+    }
+
+    /**
+     * Doubles the size of the table by relinking the nodes into their new buckets. The buckets are
+     * moved in order and each is published to the new table before the transfer index advances
+     * past it, so a reader may use the new table for the moved buckets and the old table for the
+     * buckets that were not yet reached.
+     */
+    @GuardedBy("this")
+    @SuppressWarnings({"rawtypes", "unchecked", "NonAtomicVolatileUpdate"})
+    Node<K, V>[] resize() {
+      Node<K, V>[] oldTable = table;
+      if (oldTable.length == MAXIMUM_TABLE_SIZE) {
+        return oldTable;
+      }
+
+      int oldLength = oldTable.length;
+      Node<K, V>[] newTable = new Node[oldLength << 1];
+      nextTable = newTable;
+      transferIndex = 0;
+      resizes++;
+      VarHandle.storeStoreFence();
+      for (int i = 0; i < oldLength; i++) {
+        Node<K, V> low = null;
+        Node<K, V> high = null;
+        Node<K, V> node = bucketAt(oldTable, i);
+        while (node != null) {
+          Node<K, V> next = node.getNextInTable();
+          if ((node.getTableHash() & oldLength) == 0) {
+            node.setNextInTable(low);
+            low = node;
+          } else {
+            node.setNextInTable(high);
+            high = node;
+          }
+          node = next;
+        }
+        setBucketAt(newTable, i, low);
+        setBucketAt(newTable, i + oldLength, high);
+        transferIndex = i + 1;
+        VarHandle.storeStoreFence();
+      }
+      table = newTable;
+      threshold = thresholdFor(newTable.length);
+      resizes++;
+      nextTable = null;
+      return newTable;
+    }
+  }
+
+  /** A lock that serializes the updates to a key's mapping that are made outside of its segment. */
+  @SuppressWarnings("serial")
+  static final class Reservation extends ReentrantLock {
+    /** The number of threads that hold or wait for the reservation, guarded by the segment. */
+    int holders;
+  }
+
+  /** An iterator over the nodes, which takes a snapshot of one segment at a time. */
+  final class NodeIterator implements Iterator<Node<K, V>> {
+    @Nullable Node<K, V> current;
+    List<Node<K, V>> nodes;
+    int segmentIndex;
+    int index;
+
+    NodeIterator() {
+      nodes = List.of();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (index == nodes.size()) {
+        if (segmentIndex == segments.length) {
+          return false;
+        }
+        nodes = segments[segmentIndex++].snapshot();
+        index = 0;
+      }
+      return true;
+    }
+
+    @Override
+    public Node<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      current = nodes.get(index++);
+      return current;
+    }
+
+    @Override
+    public void remove() {
+      requireState(current != null);
+      IntrusiveHashTable.this.remove(current.getKeyReference(), current);
+      current = null;
+    }
+  }
+
+  /** A weakly consistent view of the nodes. */
+  final class Values extends AbstractCollection<Node<K, V>> {
+
+    @Override
+    public int size() {
+      return IntrusiveHashTable.this.size();
+    }
+
+    @Override
+    public void clear() {
+      IntrusiveHashTable.this.clear();
+    }
+
+    @Override
+    public Iterator<Node<K, V>> iterator() {
+      return new NodeIterator();
+    }
+
+    @Override
+    public Spliterator<Node<K, V>> spliterator() {
+      return new TableSpliterator<>(Function.identity());
+    }
+  }
+
+  /** A weakly consistent view of the mappings, whose entries do not support updates. */
+  final class EntrySet extends AbstractSet<Entry<Object, Node<K, V>>> {
+
+    @Override
+    public int size() {
+      return IntrusiveHashTable.this.size();
+    }
+
+    @Override
+    public void clear() {
+      IntrusiveHashTable.this.clear();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Entry<?, ?>)) {
+        return false;
+      }
+      var entry = (Entry<?, ?>) o;
+      Object key = entry.getKey();
+      Node<K, V> node = (key == null) ? null : get(key);
+      return (node != null) && node.equals(entry.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Entry<?, ?>)) {
+        return false;
+      }
+      var entry = (Entry<?, ?>) o;
+      Object key = entry.getKey();
+      return (key != null) && IntrusiveHashTable.this.remove(key, entry.getValue());
+    }
+
+    @Override
+    public Iterator<Entry<Object, Node<K, V>>> iterator() {
+      var iterator = new NodeIterator();
+      return new Iterator<Entry<Object, Node<K, V>>>() {
+        @Override public boolean hasNext() {
+          return iterator.hasNext();
+        }
+        @Override public Entry<Object, Node<K, V>> next() {
+          Node<K, V> node = iterator.next();
+          return new SimpleImmutableEntry<>(node.getKeyReference(), node);
+        }
+        @Override public void remove() {
+          iterator.remove();
+        }
+      };
+    }
+
+    @Override
+    public Spliterator<Entry<Object, Node<K, V>>> spliterator() {
+      return new TableSpliterator<>(node ->
+          new SimpleImmutableEntry<>(node.getKeyReference(), node));
+    }
+  }
+
+  /**
+   * A spliterator over the nodes that splits by ranges of segments and, once a single segment
+   * remains, by halves of that segment's snapshot, so that a parallel traversal is balanced across
+   * the segments. Like the iterator, it takes a snapshot of one segment at a time.
+   */
+  final class TableSpliterator<T> implements Spliterator<T> {
+    final Function<Node<K, V>, T> mapper;
+
+    List<Node<K, V>> nodes;
+    int segmentIndex;
+    int fence;
+    int index;
+    int limit;
+
+    TableSpliterator(Function<Node<K, V>, T> mapper) {
+      this(mapper, List.of(), 0, 0, 0, segments.length);
+    }
+
+    TableSpliterator(Function<Node<K, V>, T> mapper, List<Node<K, V>> nodes,
+        int index, int limit, int segmentIndex, int fence) {
+      this.segmentIndex = segmentIndex;
+      this.mapper = mapper;
+      this.nodes = nodes;
+      this.index = index;
+      this.limit = limit;
+      this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      requireNonNull(action);
+      while (index == limit) {
+        if (segmentIndex == fence) {
+          return false;
+        }
+        nodes = segments[segmentIndex++].snapshot();
+        limit = nodes.size();
+        index = 0;
+      }
+      action.accept(mapper.apply(nodes.get(index++)));
+      return true;
+    }
+
+    @Override
+    public @Nullable Spliterator<T> trySplit() {
+      int remaining = fence - segmentIndex;
+      if (remaining > 1) {
+        int mid = segmentIndex + (remaining >>> 1);
+        var prefix = new TableSpliterator<>(mapper, nodes, index, limit, segmentIndex, mid);
+        nodes = List.of();
+        segmentIndex = mid;
+        index = limit = 0;
+        return prefix;
+      } else if ((remaining == 1) && (index != limit)) {
+        var prefix = new TableSpliterator<>(mapper, nodes, index, limit, fence, fence);
+        nodes = List.of();
+        index = limit = 0;
+        return prefix;
+      } else if (remaining == 1) {
+        nodes = segments[segmentIndex++].snapshot();
+        limit = nodes.size();
+        index = 0;
+      }
+
+      int size = limit - index;
+      if (size < 2) {
+        return null;
+      }
+      int mid = index + (size >>> 1);
+      var prefix = new TableSpliterator<>(mapper, nodes, index, mid, fence, fence);
+      index = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      long size = limit - index;
+      for (int i = segmentIndex; i < fence; i++) {
+        size += segments[i].count;
+      }
+      return size;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT;
+    }
+  }
+}
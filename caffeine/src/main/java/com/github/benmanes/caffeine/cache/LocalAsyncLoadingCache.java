@@ -63,8 +63,11 @@ abstract class LocalAsyncLoadingCache<K, V>
   BiFunction<? super K, ? super Executor, ? extends CompletableFuture<? extends V>> newMappingFunction(
       AsyncCacheLoader<? super K, V> cacheLoader) {
     return (key, executor) -> {
+      var event = CacheEvents.beginLoad(CacheEvents.LOAD, /* keys */ 1);
       try {
-        return cacheLoader.asyncLoad(key, executor);
+        var future = cacheLoader.asyncLoad(key, executor);
+        CacheEvents.endLoadOnCompletion(event, future);
+        return future;
       } catch (RuntimeException e) {
         throw e;
       } catch (InterruptedException e) {
@@ -87,10 +90,12 @@ abstract class LocalAsyncLoadingCache<K, V>
       return null;
     }
     return (keysToLoad, executor) -> {
+      var event = CacheEvents.beginLoad(CacheEvents.LOAD_ALL, keysToLoad.size());
       try {
         @SuppressWarnings("unchecked")
         var loaded = (CompletableFuture<Map<K, V>>) (Object) cacheLoader
             .asyncLoadAll(keysToLoad, executor);
+        CacheEvents.endLoadOnCompletion(event, loaded);
         return loaded;
       } catch (RuntimeException e) {
         throw e;
@@ -105,6 +110,9 @@ abstract class LocalAsyncLoadingCache<K, V>
 
   /** Returns whether the supplied cache loader has bulk load functionality. */
   boolean canBulkLoad(AsyncCacheLoader<?, ?> loader) {
+    if (loader instanceof HedgedAsyncCacheLoader<?, ?>) {
+      return canBulkLoad(((HedgedAsyncCacheLoader<?, ?>) loader).delegate);
+    }
     try {
       Class<?> defaultLoaderClass = AsyncCacheLoader.class;
       if (loader instanceof CacheLoader<?, ?>) {
@@ -250,6 +258,7 @@ abstract class LocalAsyncLoadingCache<K, V>
       boolean[] refreshed = new boolean[1];
       @SuppressWarnings({"unchecked", "rawtypes"})
       CompletableFuture<V>[] oldValueFuture = new CompletableFuture[1];
+      var event = CacheEvents.beginLoad(CacheEvents.RELOAD, /* keys */ 1);
       var future = asyncCache.cache().refreshes().computeIfAbsent(keyReference, k -> {
         oldValueFuture[0] = asyncCache.cache().getIfPresentQuietly(key, writeTime);
         V oldValue = Async.getIfReady(oldValueFuture[0]);
@@ -279,6 +288,7 @@ abstract class LocalAsyncLoadingCache<K, V>
       @SuppressWarnings("unchecked")
       var castedFuture = (CompletableFuture<V>) future;
       if (refreshed[0]) {
+        CacheEvents.endLoadOnCompletion(event, castedFuture);
         castedFuture.whenComplete((newValue, error) -> {
           asyncCache.cache().refreshes().remove(keyReference, castedFuture);
           long loadTime = asyncCache.cache().statsTicker().read() - startTime[0];
@@ -286,7 +296,7 @@ abstract class LocalAsyncLoadingCache<K, V>
             if (!(error instanceof CancellationException) && !(error instanceof TimeoutException)) {
               logger.log(Level.WARNING, "Exception thrown during refresh", error);
             }
-            asyncCache.cache().statsCounter().recordLoadFailure(loadTime);
+            asyncCache.cache().statsCounter().recordRefreshFailure(loadTime);
             return;
           }
 
@@ -325,9 +335,9 @@ abstract class LocalAsyncLoadingCache<K, V>
             asyncCache.cache().notifyRemoval(key, castedFuture, cause);
           }
           if (newValue == null) {
-            asyncCache.cache().statsCounter().recordLoadFailure(loadTime);
+            asyncCache.cache().statsCounter().recordRefreshFailure(loadTime);
           } else {
-            asyncCache.cache().statsCounter().recordLoadSuccess(loadTime);
+            asyncCache.cache().statsCounter().recordRefreshSuccess(loadTime);
           }
         });
       }
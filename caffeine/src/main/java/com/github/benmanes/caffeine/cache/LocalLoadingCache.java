@@ -105,6 +105,7 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
     CompletableFuture<? extends V>[] reloading = new CompletableFuture[1];
     Object keyReference = cache().referenceKey(key);
 
+    var event = CacheEvents.beginLoad(CacheEvents.RELOAD, /* keys */ 1);
     var future = cache().refreshes().compute(keyReference, (k, existing) -> {
       if ((existing != null) && !Async.isReady(existing)) {
         return existing;
@@ -128,6 +129,7 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
       }
     });
 
+    CacheEvents.endLoadOnCompletion(event, reloading[0]);
     if (reloading[0] != null) {
       reloading[0].whenComplete((newValue, error) -> {
         boolean removed = cache().refreshes().remove(keyReference, reloading[0]);
@@ -136,7 +138,7 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
           if (!(error instanceof CancellationException) && !(error instanceof TimeoutException)) {
             logger.log(Level.WARNING, "Exception thrown during refresh", error);
           }
-          cache().statsCounter().recordLoadFailure(loadTime);
+          cache().statsCounter().recordRefreshFailure(loadTime);
           return;
         }
 
@@ -169,9 +171,9 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
           cache().notifyRemoval(key, newValue, cause);
         }
         if (newValue == null) {
-          cache().statsCounter().recordLoadFailure(loadTime);
+          cache().statsCounter().recordRefreshFailure(loadTime);
         } else {
-          cache().statsCounter().recordLoadSuccess(loadTime);
+          cache().statsCounter().recordRefreshSuccess(loadTime);
         }
       });
     }
@@ -193,8 +195,12 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
   /** Returns a mapping function that adapts to {@link CacheLoader#load}. */
   static <K, V> Function<K, V> newMappingFunction(CacheLoader<? super K, V> cacheLoader) {
     return key -> {
+      boolean successful = false;
+      var event = CacheEvents.beginLoad(CacheEvents.LOAD, /* keys */ 1);
       try {
-        return cacheLoader.load(key);
+        V value = cacheLoader.load(key);
+        successful = (value != null);
+        return value;
       } catch (RuntimeException e) {
         throw e;
       } catch (InterruptedException e) {
@@ -202,6 +208,8 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
         throw new CompletionException(e);
       } catch (Exception e) {
         throw new CompletionException(e);
+      } finally {
+        CacheEvents.endLoad(event, successful);
       }
     };
   }
@@ -213,9 +221,12 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
       return null;
     }
     return keysToLoad -> {
+      boolean successful = false;
+      var event = CacheEvents.beginLoad(CacheEvents.LOAD_ALL, keysToLoad.size());
       try {
         @SuppressWarnings("unchecked")
         Map<K, V> loaded = (Map<K, V>) cacheLoader.loadAll(keysToLoad);
+        successful = (loaded != null);
         return loaded;
       } catch (RuntimeException e) {
         throw e;
@@ -224,6 +235,8 @@ interface LocalLoadingCache<K, V> extends LocalManualCache<K, V>, LoadingCache<K
         throw new CompletionException(e);
       } catch (Exception e) {
         throw new CompletionException(e);
+      } finally {
+        CacheEvents.endLoad(event, successful);
       }
     };
   }
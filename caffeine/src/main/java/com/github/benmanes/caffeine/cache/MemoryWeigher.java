@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A weigher that estimates the heap size, in bytes, retained by an entry's key and value. The
+ * object graph reachable from the key and value is traversed once, so that an object shared
+ * between them is counted once, and the size of each object is estimated from the HotSpot object
+ * layout of its class.
+ * <p>
+ * The layout of each class is introspected once and cached with a method handle per reference
+ * field, so that the cost per entry is the traversal itself rather than a reflective access check
+ * per field. Common types have a fast path that does not use reflection: strings, arrays,
+ * boxed primitives, and the collections and maps of the Java platform, whose internal fields are
+ * not accessible. An object of another class whose fields may not be read, such as a class in a
+ * module that is not open to this library, is counted by its shallow size. Constants that are
+ * shared by the application, such as enums and classes, are not counted.
+ */
+enum MemoryWeigher implements Weigher<Object, Object> {
+  INSTANCE;
+
+  /** The maximum number of objects that are counted when weighing an entry. */
+  static final int MAXIMUM_OBJECTS = 100_000;
+  /** The alignment of objects in the heap. */
+  static final int OBJECT_ALIGNMENT = 8;
+  /** The size of an object reference. */
+  static final int REFERENCE_SIZE;
+  /** The size of an object's header. */
+  static final int OBJECT_HEADER_SIZE;
+  /** The size of an array's header, including its length. */
+  static final int ARRAY_HEADER_SIZE;
+
+  static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+    @Override protected Layout computeValue(Class<?> type) {
+      return new Layout(type);
+    }
+  };
+
+  static {
+    boolean is32Bit = "32".equals(System.getProperty("sun.arch.data.model"));
+    boolean compressedOops = !is32Bit && (Runtime.getRuntime().maxMemory() < (32L << 30));
+    REFERENCE_SIZE = (is32Bit || compressedOops) ? 4 : 8;
+    OBJECT_HEADER_SIZE = is32Bit ? 8 : (compressedOops ? 12 : 16);
+    ARRAY_HEADER_SIZE = align(OBJECT_HEADER_SIZE + 4);
+  }
+
+  @Override
+  public int weigh(Object key, Object value) {
+    var traversal = new Traversal();
+    traversal.push(key);
+    traversal.push(value);
+    return (int) Math.min(traversal.run(), Integer.MAX_VALUE);
+  }
+
+  /** Returns the size rounded up to the object alignment. */
+  static long align(long size) {
+    return (size + (OBJECT_ALIGNMENT - 1)) & ~(OBJECT_ALIGNMENT - 1L);
+  }
+
+  static int align(int size) {
+    return (int) align((long) size);
+  }
+
+  /** Returns the size of an array of the component type and length. */
+  static long arraySize(Class<?> componentType, int length) {
+    return align(ARRAY_HEADER_SIZE + ((long) length * sizeOf(componentType)));
+  }
+
+  /** Returns the size of a field or array element of the type. */
+  static int sizeOf(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return REFERENCE_SIZE;
+    } else if ((type == long.class) || (type == double.class)) {
+      return 8;
+    } else if ((type == int.class) || (type == float.class)) {
+      return 4;
+    } else if ((type == short.class) || (type == char.class)) {
+      return 2;
+    }
+    return 1;
+  }
+
+  /** A depth-first traversal of the object graph that counts each object once. */
+  static final class Traversal {
+    final Set<Object> visited;
+    final ArrayDeque<Object> stack;
+
+    long size;
+
+    Traversal() {
+      visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      stack = new ArrayDeque<>();
+    }
+
+    void push(Object o) {
+      if ((o != null) && (visited.size() < MAXIMUM_OBJECTS) && !isShared(o) && visited.add(o)) {
+        stack.push(o);
+      }
+    }
+
+    long run() {
+      Object o;
+      while ((o = stack.poll()) != null) {
+        visit(o);
+      }
+      return size;
+    }
+
+    void visit(Object o) {
+      Class<?> type = o.getClass();
+      if (type.isArray()) {
+        visitArray(o, type.getComponentType());
+      } else if (o instanceof String) {
+        size += stringSize((String) o);
+      } else if (isPlatform(type) && (o instanceof Collection<?>)) {
+        visitCollection((Collection<?>) o);
+      } else if (isPlatform(type) && (o instanceof Map<?, ?>)) {
+        visitMap((Map<?, ?>) o);
+      } else {
+        Layout layout = LAYOUTS.get(type);
+        size += layout.shallowSize;
+        for (MethodHandle getter : layout.getters) {
+          push(Layout.get(getter, o));
+        }
+      }
+    }
+
+    void visitArray(Object array, Class<?> componentType) {
+      if (componentType.isPrimitive()) {
+        size += arraySize(componentType, Array.getLength(array));
+      } else {
+        Object[] elements = (Object[]) array;
+        size += arraySize(componentType, elements.length);
+        for (Object element : elements) {
+          push(element);
+        }
+      }
+    }
+
+    /** Estimates a platform collection as its shallow size and a backing array of references. */
+    void visitCollection(Collection<?> collection) {
+      size += LAYOUTS.get(collection.getClass()).shallowSize;
+      size += arraySize(Object.class, collection.size());
+      for (Object element : collection) {
+        push(element);
+      }
+    }
+
+    /** Estimates a platform map as its shallow size, a hash table, and a node per mapping. */
+    void visitMap(Map<?, ?> map) {
+      int entries = map.size();
+      size += LAYOUTS.get(map.getClass()).shallowSize;
+      size += arraySize(Object.class, Caffeine.ceilingPowerOfTwo((int) (entries / 0.75f) + 1));
+      size += entries * align((long) OBJECT_HEADER_SIZE + 4 + (3L * REFERENCE_SIZE));
+      for (var entry : map.entrySet()) {
+        push(entry.getKey());
+        push(entry.getValue());
+      }
+    }
+
+    /** Estimates a string as its shallow size and its compact or two-byte character array. */
+    static long stringSize(String s) {
+      int bytesPerChar = 1;
+      for (int i = 0; i < s.length(); i++) {
+        if (s.charAt(i) > 0xFF) {
+          bytesPerChar = 2;
+          break;
+        }
+      }
+      return LAYOUTS.get(String.class).shallowSize
+          + align(ARRAY_HEADER_SIZE + ((long) bytesPerChar * s.length()));
+    }
+
+    /** Returns if the object is shared by the application, rather than retained by an entry. */
+    static boolean isShared(Object o) {
+      return (o instanceof Enum<?>) || (o instanceof Class<?>) || (o instanceof ClassLoader)
+          || (o instanceof Thread);
+    }
+
+    /** Returns if the class belongs to the Java platform, whose fields are inaccessible. */
+    static boolean isPlatform(Class<?> type) {
+      return type.getName().startsWith("java.");
+    }
+  }
+
+  /** The estimated size and the readable reference fields of the instances of a class. */
+  static final class Layout {
+    static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    final MethodHandle[] getters;
+    final long shallowSize;
+
+    Layout(Class<?> type) {
+      long fieldSize = 0;
+      var lookup = MethodHandles.lookup();
+      var readable = new ArrayList<MethodHandle>();
+      for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+        boolean accessible = c.getModule().isOpen(c.getPackageName(), Layout.class.getModule());
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())) {
+            continue;
+          }
+          fieldSize += sizeOf(field.getType());
+          if (accessible && !field.getType().isPrimitive() && field.trySetAccessible()) {
+            try {
+              readable.add(lookup.unreflectGetter(field).asType(GETTER_TYPE));
+            } catch (IllegalAccessException e) {
+              // The field is counted by the shallow size only
+            }
+          }
+        }
+      }
+      shallowSize = align(OBJECT_HEADER_SIZE + fieldSize);
+      getters = readable.toArray(new MethodHandle[0]);
+    }
+
+    /** Returns the value of the field that the getter reads from the object. */
+    static Object get(MethodHandle getter, Object o) {
+      try {
+        return (Object) getter.invokeExact(o);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new AssertionError(t);
+      }
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * A small front cache of the entries whose keys are the most popular, so that their reads avoid
+ * the shared hash table lookup and the writes to the entry and the read buffer. A key is eligible
+ * once the admission policy's {@link FrequencySketch} estimate saturates, which is observed by the
+ * thread performing the cache's maintenance work and published as an immutable set of hot keys. A
+ * reading thread then copies the entry into its front cache after a lookup by the shared hash
+ * table.
+ * <p>
+ * The front caches are stripes that are owned by the cache and selected by a hash of the reading
+ * thread's id, as the {@link StripedBuffer} does, so their number is bounded regardless of how many
+ * threads read from the cache. A stripe holds the entry itself, so a hit reads the current value
+ * and discards an entry that was removed, replaced by a new mapping, or has expired. When a hot
+ * entry is removed, such as by eviction or a clear, the maintenance work clears its slot in every
+ * stripe, and when the sketch is aged it clears every stripe, so that the removed entries are not
+ * retained. A sample of the hits are performed by the shared lookup instead, which records the
+ * access in the read buffer so that the eviction policy continues to observe the popularity of
+ * these entries.
+ */
+final class NearCache<K, V> {
+  /** The mask of the hits that are performed by the shared lookup, 1 in 16. */
+  static final int SAMPLE_MASK = 15;
+  /** The maximum frequency estimated by the sketch. */
+  static final int SATURATED = 15;
+  /** The number of stripes, which matches the bound of a striped buffer's table. */
+  static final int STRIPES = StripedBuffer.MAXIMUM_TABLE_SIZE;
+  static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Node[].class);
+
+  final BoundedLocalCache<K, V> cache;
+  final Stripe<K, V>[] stripes;
+  final int capacity;
+
+  @GuardedBy("evictionLock")
+  final HashSet<Object> hot;
+  @GuardedBy("evictionLock")
+  boolean modified;
+  @GuardedBy("evictionLock")
+  int resets;
+
+  volatile Set<Object> hotKeys;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  NearCache(BoundedLocalCache<K, V> cache, int capacity) {
+    this.cache = requireNonNull(cache);
+    this.capacity = Caffeine.ceilingPowerOfTwo(capacity);
+    this.stripes = new Stripe[STRIPES];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe<>(this.capacity);
+    }
+    this.hot = new HashSet<>();
+    this.hotKeys = Set.of();
+  }
+
+  /** Returns the stripe that the current thread reads from. */
+  Stripe<K, V> stripe() {
+    int hash = (int) StripedBuffer.mix64(Thread.currentThread().getId());
+    return stripes[hash & (stripes.length - 1)];
+  }
+
+  /** Returns the index of the key's slot, which is the same in every stripe. */
+  int indexOf(Object key) {
+    int hash = key.hashCode();
+    return (hash ^ (hash >>> 16)) & (capacity - 1);
+  }
+
+  /**
+   * Returns the value from the thread's front cache, or null if absent or the lookup should be
+   * performed by the shared hash table.
+   */
+  @Nullable V getIfPresent(Object key, long now, boolean recordStats) {
+    Stripe<K, V> stripe = stripe();
+    int index = indexOf(key);
+    Node<K, V> node = stripe.get(index);
+    if ((node == null) || !key.equals(node.getKey())) {
+      return null;
+    }
+    V value = node.getValue();
+    if (!node.isAlive() || (value == null) || cache.hasExpired(node, now)) {
+      stripe.discard(index, node);
+      return null;
+    } else if (cache.isComputingAsync(node) || ((++stripe.samples & SAMPLE_MASK) == 0)) {
+      return null;
+    }
+    if (recordStats) {
+      cache.statsCounter().recordHits(1);
+    }
+    return value;
+  }
+
+  /** Adds the entry to the thread's front cache if its key is popular. */
+  void promote(Object key, Node<K, V> node) {
+    if (hotKeys.contains(node.getKeyReference())) {
+      stripe().set(indexOf(key), node);
+    }
+  }
+
+  /**
+   * Records the popularity of the accessed entry, resetting the hot keys when the sketch is aged.
+   *
+   * @param node the accessed entry
+   * @param frequency the entry's estimated frequency
+   * @param sketchResets the number of times that the frequency sketch has been aged
+   */
+  @GuardedBy("evictionLock")
+  void record(Node<K, V> node, int frequency, int sketchResets) {
+    if (resets != sketchResets) {
+      resets = sketchResets;
+      if (!hot.isEmpty()) {
+        hot.clear();
+        modified = true;
+        for (var stripe : stripes) {
+          stripe.clear();
+        }
+      }
+    }
+    if ((frequency >= SATURATED) && (hot.size() < capacity) && hot.add(node.getKeyReference())) {
+      modified = true;
+    }
+  }
+
+  /**
+   * Discards the removed entry from the hot keys and, if it was hot, clears its slot in every
+   * stripe so that the reference to the entry is released.
+   */
+  @GuardedBy("evictionLock")
+  void remove(Node<K, V> node) {
+    Object keyRef = node.getKeyReference();
+    if (hot.remove(keyRef)) {
+      modified = true;
+      int index = indexOf(keyRef);
+      for (var stripe : stripes) {
+        stripe.discard(index, node);
+      }
+    }
+  }
+
+  /** Publishes the hot keys for readers, if they were modified since the last publication. */
+  @GuardedBy("evictionLock")
+  void publish() {
+    if (modified) {
+      modified = false;
+      hotKeys = Set.copyOf(hot);
+    }
+  }
+
+  /** The entries of the most popular keys that were read by the threads that hash to it. */
+  static final class Stripe<K, V> {
+    final Node<K, V>[] nodes;
+
+    /** The number of hits, which is racy if multiple threads share the stripe. */
+    int samples;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Stripe(int capacity) {
+      nodes = new Node[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable Node<K, V> get(int index) {
+      return (Node<K, V>) SLOT.getAcquire(nodes, index);
+    }
+
+    void set(int index, Node<K, V> node) {
+      SLOT.setRelease(nodes, index, node);
+    }
+
+    /** Clears the slot if it still holds the node. */
+    void discard(int index, Node<K, V> node) {
+      SLOT.compareAndSet(nodes, index, node, null);
+    }
+
+    void clear() {
+      for (int i = 0; i < nodes.length; i++) {
+        SLOT.setRelease(nodes, i, null);
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Policy.NegativeResults;
+
+/**
+ * The keys for which the loader returned no value, held apart from the cache's entries. Each key
+ * is mapped to a shared sentinel in a small cache that is bounded by its own maximum size and
+ * expires its entries after their own, typically shorter, duration. This avoids the cost of a full
+ * entry in the primary cache and keeps the lookups of absent keys out of its hit and miss counts.
+ */
+final class NegativeCache<K> implements NegativeResults<K> {
+  /** The value shared by all of the absent results. */
+  static final Boolean ABSENT = Boolean.TRUE;
+
+  final Cache<K, Boolean> absent;
+  final long expiresAfterNanos;
+  final long maximumSize;
+  final LongAdder stores;
+  final LongAdder hits;
+
+  NegativeCache(Caffeine<?, ?> builder) {
+    this.maximumSize = builder.negativeMaximumSize;
+    this.expiresAfterNanos = builder.negativeExpiresAfterNanos;
+    Caffeine<Object, Object> absentBuilder = Caffeine.newBuilder()
+        .expireAfterWrite(expiresAfterNanos, TimeUnit.NANOSECONDS)
+        .executor(builder.getExecutor())
+        .ticker(builder.getTicker())
+        .maximumSize(maximumSize);
+    if (!builder.isStrongKeys()) {
+      absentBuilder.weakKeys();
+    }
+    this.absent = absentBuilder.build();
+    this.stores = new LongAdder();
+    this.hits = new LongAdder();
+  }
+
+  /** Returns if the key has a cached absent result, recording the lookup if so. */
+  boolean isAbsent(K key) {
+    if (absent.getIfPresent(key) == null) {
+      return false;
+    }
+    hits.increment();
+    return true;
+  }
+
+  /** Caches that the loader returned no value for the key. */
+  void store(K key) {
+    absent.put(key, ABSENT);
+    stores.increment();
+  }
+
+  @Override
+  public long estimatedSize() {
+    return absent.estimatedSize();
+  }
+
+  @Override
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  @Override
+  public long storeCount() {
+    return stores.sum();
+  }
+
+  @Override
+  public void invalidate(K key) {
+    absent.invalidate(requireNonNull(key));
+  }
+
+  @Override
+  public void invalidateAll() {
+    absent.invalidateAll();
+  }
+}
@@ -112,6 +112,28 @@ abstract class Node<K, V> implements AccessOrder<Node<K, V>>, WriteOrder<Node<K,
   @GuardedBy("this")
   public abstract void die();
 
+  /* --------------- Hash table --------------- */
+
+  /** Returns the spread hash code of the key, if the node is an intrusive hash table's entry. */
+  public int getTableHash() {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Sets the spread hash code of the key, prior to linking the node into the hash table. */
+  public void setTableHash(int hash) {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Returns the next node in the hash table's bucket, or null if this is the last one. */
+  public @Nullable Node<K, V> getNextInTable() {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Sets the next node in the hash table's bucket. */
+  public void setNextInTable(@Nullable Node<K, V> next) {
+    throw new UnsupportedOperationException();
+  }
+
   /* --------------- Variable order --------------- */
 
   /** Returns the variable expiration time, in nanoseconds. */
@@ -279,6 +301,34 @@ abstract class Node<K, V> implements AccessOrder<Node<K, V>>, WriteOrder<Node<K,
     throw new UnsupportedOperationException();
   }
 
+  /* --------------- Compact timestamps --------------- */
+
+  /** The number of low-order bits of a timestamp that are discarded by the compact encoding. */
+  static final int COMPACT_TIME_SHIFT = 30;
+  static final long COMPACT_TIME_MAX = (1L << 30) - 1;
+  static final long COMPACT_TIME_MIN = -(1L << 30);
+
+  /**
+   * Returns the timestamp, in nanoseconds, encoded as a 32-bit value with a resolution of 2^30 ns
+   * (about a second). The time is rounded up so that an entry's age is never overestimated, which
+   * would otherwise cause it to expire early. The lowest bit is retained so that the write time's
+   * refresh flag is preserved, and timestamps beyond a range of roughly 36 years are saturated.
+   * The cache reads the time {@linkplain EpochTicker relative to when it was built}, so this range
+   * is independent of the ticker's origin.
+   */
+  static int compactTime(long time) {
+    long nanos = time & ~1L;
+    long units = (nanos >> COMPACT_TIME_SHIFT)
+        + (((nanos & ((1L << COMPACT_TIME_SHIFT) - 1)) == 0L) ? 0L : 1L);
+    units = Math.max(COMPACT_TIME_MIN, Math.min(COMPACT_TIME_MAX, units));
+    return (int) ((units << 1) | (time & 1L));
+  }
+
+  /** Returns the timestamp, in nanoseconds, that was encoded by {@link #compactTime(long)}. */
+  static long expandTime(int time) {
+    return ((long) (time >> 1) << COMPACT_TIME_SHIFT) | (time & 1L);
+  }
+
   @Override
   public final String toString() {
     return String.format("%s=[key=%s, value=%s, weight=%d, queueType=%,d, accessTimeNS=%,d, "
@@ -18,10 +18,16 @@ package com.github.benmanes.caffeine.cache;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -56,6 +62,69 @@ public interface Policy<K extends Object, V extends Object> {
   @Nullable
   V getIfPresentQuietly(K key);
 
+  /**
+   * Performs the given action for each entry in this cache. The traversal is performed in parallel
+   * by the {@link java.util.concurrent.ForkJoinPool#commonPool()} if the estimated number of
+   * entries is at least the {@code parallelismThreshold}, so the action must tolerate being called
+   * concurrently. Like {@link #getIfPresentQuietly(Object)}, this method does not produce any side
+   * effects such as updating statistics, the eviction policy, resetting the expiration time, or
+   * triggering a refresh.
+   * <p>
+   * The time is read once when the traversal begins and the entries that have expired by then are
+   * skipped. The traversal is weakly consistent, so an entry that is concurrently added, removed,
+   * or updated may or may not be observed.
+   *
+   * @param parallelismThreshold the estimated number of entries needed for this operation to be
+   *        executed in parallel (use {@link Long#MAX_VALUE} to always run sequentially)
+   * @param action the action
+   * @throws NullPointerException if the action is null
+   */
+  default void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+    // This method was added & implemented in version 3.0.6
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Returns a non-null result from applying the given search function on each entry, or null if
+   * none. Upon success, further element processing is suppressed and the results of any other
+   * parallel invocations of the search function are ignored. The traversal is performed in the
+   * same manner and with the same guarantees as {@link #forEach(long, BiConsumer)}.
+   *
+   * @param parallelismThreshold the estimated number of entries needed for this operation to be
+   *        executed in parallel (use {@link Long#MAX_VALUE} to always run sequentially)
+   * @param searchFunction a function returning a non-null result on success, else null
+   * @param <U> the return type of the search function
+   * @return a non-null result from applying the given search function on each entry, or null if
+   *         none
+   * @throws NullPointerException if the search function is null
+   */
+  default <U> @Nullable U search(long parallelismThreshold,
+      BiFunction<? super K, ? super V, ? extends @Nullable U> searchFunction) {
+    // This method was added & implemented in version 3.0.6
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Returns the result of accumulating the given transformation of all entries using the given
+   * reducer to combine values, or null if none. The traversal is performed in the same manner and
+   * with the same guarantees as {@link #forEach(long, BiConsumer)}.
+   *
+   * @param parallelismThreshold the estimated number of entries needed for this operation to be
+   *        executed in parallel (use {@link Long#MAX_VALUE} to always run sequentially)
+   * @param transformer a function returning the transformation for an entry, or null if there is
+   *        no transformation (in which case it is not combined)
+   * @param reducer a commutative associative combining function
+   * @param <U> the return type of the transformer
+   * @return the result of accumulating the given transformation of all entries
+   * @throws NullPointerException if the transformer or reducer is null
+   */
+  default <U> @Nullable U reduce(long parallelismThreshold,
+      BiFunction<? super K, ? super V, ? extends @Nullable U> transformer,
+      BiFunction<? super U, ? super U, ? extends U> reducer) {
+    // This method was added & implemented in version 3.0.6
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Returns an unmodifiable snapshot {@link Map} view of the in-flight refresh operations.
    *
@@ -125,6 +194,261 @@ public interface Policy<K extends Object, V extends Object> {
    */
   Optional<FixedRefresh<K, V>> refreshAfterWrite();
 
+  /**
+   * Returns access to the metrics that describe the health of the cache's internal buffers and
+   * maintenance work. If the implementation does not support these metrics, an empty
+   * {@link Optional} is returned.
+   *
+   * @return access to the internal health metrics of this cache, if supported
+   */
+  default Optional<Diagnostics> diagnostics() {
+    // This method was added & implemented in version 3.0.6
+    return Optional.empty();
+  }
+
+  /**
+   * Returns access to the approximate set of the most frequently accessed keys. The tracking is
+   * enabled by {@link Caffeine#recordHeavyHitters(int)}, otherwise an empty {@link Optional} is
+   * returned.
+   *
+   * @return access to the most frequently accessed keys, if tracked
+   */
+  default Optional<HeavyHitters<K>> heavyHitters() {
+    // This method was added & implemented in version 3.0.6
+    return Optional.empty();
+  }
+
+  /**
+   * Returns access to the groups of entries that share a tag. The tagging is enabled by
+   * {@link Caffeine#tagger(Tagger)}, otherwise an empty {@link Optional} is returned.
+   *
+   * @return access to the tagged groups of entries, if tagged
+   */
+  default Optional<Tags<K>> tags() {
+    // This method was added & implemented in version 3.0.6
+    return Optional.empty();
+  }
+
+  /**
+   * Returns access to the cached absent results of a loading cache. The caching is enabled by
+   * {@link Caffeine#cacheNegativeResults(Duration, long)}, otherwise an empty {@link Optional} is
+   * returned.
+   *
+   * @return access to the cached absent results, if enabled
+   */
+  default Optional<NegativeResults<K>> negativeResults() {
+    // This method was added & implemented in version 3.0.6
+    return Optional.empty();
+  }
+
+  /**
+   * The approximate top-k most frequently accessed keys, as observed by the eviction policy. The
+   * popularity is estimated from the access history that is replayed during the cache's
+   * maintenance work and is aged alongside the admission policy's frequency sketch, so it reflects
+   * the recent workload. The view is read without acquiring a lock and may lag behind the most
+   * recent accesses.
+   */
+  interface HeavyHitters<K> {
+
+    /**
+     * Returns the maximum number of keys that are tracked.
+     *
+     * @return the number of keys that may be tracked
+     */
+    int capacity();
+
+    /**
+     * Returns an unmodifiable snapshot {@link Map} view of the most frequently accessed keys and
+     * their estimated access counts. The map's iteration order is from the most to the least
+     * popular key. The estimate is an upper bound of the recent accesses and is most accurate for
+     * the keys that are accessed very frequently.
+     *
+     * @param limit the maximum number of keys in the returned map
+     * @return a snapshot view of the hottest keys with their estimated access counts
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    Map<K, Long> hottest(@NonNegative int limit);
+  }
+
+  /**
+   * The groups of entries that share a tag, as calculated by the cache's {@link Tagger}. The groups
+   * are maintained by a secondary index so that a group is visited in time proportional to its
+   * number of members, rather than by scanning the entire cache.
+   */
+  interface Tags<K> {
+
+    /**
+     * Returns an unmodifiable snapshot {@link Set} view of the keys whose entries carry the tag.
+     * The pending maintenance work is performed so that the recent writes are included.
+     *
+     * @param tag the tag of the group
+     * @return a snapshot view of the keys in the group
+     * @throws NullPointerException if the tag is null
+     */
+    Set<K> keys(Object tag);
+
+    /**
+     * Discards all of the entries that carry the tag. An entry is only removed if its current
+     * mapping carries the tag, so an entry that was concurrently updated to no longer be a member
+     * is retained. The pending maintenance work is performed so that the recent writes are
+     * included.
+     *
+     * @param tag the tag of the group
+     * @throws NullPointerException if the tag is null
+     */
+    void invalidate(Object tag);
+  }
+
+  /**
+   * The keys for which the loader recently returned no value. These absent results are held apart
+   * from the cache's entries, so they do not count towards the maximum size or weight and their
+   * lookups are not recorded as hits or misses in the cache's {@link Cache#stats() statistics}.
+   * The counts are cumulative since the cache was created.
+   */
+  interface NegativeResults<K> {
+
+    /**
+     * Returns the approximate number of absent results that are cached.
+     *
+     * @return the estimated number of cached absent results
+     */
+    @NonNegative
+    long estimatedSize();
+
+    /**
+     * Returns the number of lookups that were answered by a cached absent result, rather than by
+     * calling the loader.
+     *
+     * @return the number of lookups that were answered by an absent result
+     */
+    @NonNegative
+    long hitCount();
+
+    /**
+     * Returns the number of times that the loader returned no value and the absent result was
+     * cached.
+     *
+     * @return the number of absent results that were cached
+     */
+    @NonNegative
+    long storeCount();
+
+    /**
+     * Discards the cached absent result for the key, if present, so that the next lookup calls the
+     * loader.
+     *
+     * @param key the key whose absent result is to be discarded
+     * @throws NullPointerException if the key is null
+     */
+    void invalidate(K key);
+
+    /** Discards all of the cached absent results. */
+    void invalidateAll();
+  }
+
+  /**
+   * The metrics that describe the health of the cache's internal buffers and maintenance work.
+   * The values are read without acquiring a lock or triggering the pending maintenance work, so
+   * they may be momentarily stale and inconsistent with each other. The counts are cumulative
+   * since the cache was created.
+   */
+  interface Diagnostics {
+
+    /**
+     * Returns the number of times that a read was offered to the read buffer, including the offers
+     * that were dropped.
+     *
+     * @return the number of offers to the read buffer
+     */
+    long readBufferOffers();
+
+    /**
+     * Returns the number of times that a read was not recorded because the read buffer was full or
+     * contended. A high drop rate indicates that the maintenance work is not keeping up with the
+     * read rate, so the eviction policy has a less accurate view of the entries' popularity.
+     *
+     * @return the number of reads dropped by the read buffer
+     */
+    long readBufferDrops();
+
+    /**
+     * Returns the number of times that a writer failed to add its pending work to the full write
+     * buffer and retried after scheduling the maintenance work.
+     *
+     * @return the number of retries to add to the write buffer
+     */
+    long writeBufferRetries();
+
+    /**
+     * Returns the number of times that a writer was unable to add to the write buffer and instead
+     * performed the maintenance work on its own thread.
+     *
+     * @return the number of synchronous maintenance runs due to backpressure
+     */
+    long synchronousDrains();
+
+    /**
+     * Returns the number of times that the maintenance work was performed.
+     *
+     * @return the number of maintenance runs
+     */
+    long maintenanceCount();
+
+    /**
+     * Returns the total time spent performing the maintenance work.
+     *
+     * @return the cumulative duration of the maintenance runs
+     */
+    Duration maintenanceTime();
+
+    /**
+     * Returns the weighted size of the admission window, if the cache is bounded by a maximum
+     * size or weight.
+     *
+     * @return the window's weighted size, or empty if not bounded
+     */
+    OptionalLong windowWeightedSize();
+
+    /**
+     * Returns the weighted size of the main space's protected region, if the cache is bounded by a
+     * maximum size or weight.
+     *
+     * @return the protected region's weighted size, or empty if not bounded
+     */
+    OptionalLong protectedWeightedSize();
+
+    /**
+     * Returns the weighted size of the main space's probation region, if the cache is bounded by a
+     * maximum size or weight.
+     *
+     * @return the probation region's weighted size, or empty if not bounded
+     */
+    OptionalLong probationWeightedSize();
+
+    /**
+     * Returns the step size that the hill climber will next adjust the admission window by, if the
+     * cache is bounded by a maximum size or weight.
+     *
+     * @return the hill climber's step size, or empty if not bounded
+     */
+    OptionalDouble climberStepSize();
+
+    /**
+     * Returns the pending amount that the hill climber will resize the admission window by, if the
+     * cache is bounded by a maximum size or weight.
+     *
+     * @return the hill climber's adjustment, or empty if not bounded
+     */
+    OptionalLong climberAdjustment();
+
+    /**
+     * Returns the number of times that the frequency sketch was aged by halving its counters.
+     *
+     * @return the number of resets of the frequency sketch, or zero if not bounded
+     */
+    long sketchResetCount();
+  }
+
   /** The low-level operations for a cache with a size-based eviction policy. */
   interface Eviction<K extends Object, V extends Object> {
 
@@ -140,7 +464,7 @@ public interface Policy<K extends Object, V extends Object> {
      * support querying for the entry's weight, then the {@link OptionalInt} will be empty.
      *
      * @param key the key for the entry being queried
-     * @return the weight if the entry is present in the cache
+     * @return the weight of the entry is present in the cache
      */
     OptionalInt weightOf(K key);
 
@@ -247,6 +571,54 @@ public interface Policy<K extends Object, V extends Object> {
       // This method was added & implemented in version 3.0.4
       throw new UnsupportedOperationException();
     }
+
+    /**
+     * Returns the computed result from the ordered traversal of the cache entries. The order of
+     * iteration is from the entries least likely to be retained (coldest) to the entries most
+     * likely to be retained (hottest). This order is determined by the eviction policy's best guess
+     * at the time of visiting each entry.
+     * <p>
+     * The stream is traversed lazily in small batches, so the lock that guards the policy is held
+     * only while a batch of entries is gathered and is never held while the mapping function
+     * consumes them. A short-circuiting operation, such as {@link Stream#limit} or
+     * {@link Stream#findFirst}, stops the traversal without visiting the remaining entries. The
+     * traversal is weakly consistent: an entry that is concurrently added, removed, or reordered
+     * may or may not be observed, and an entry that is reordered ahead of the traversal's position
+     * may be observed again. The stream must not be used after the mapping function returns.
+     *
+     * @param mappingFunction the mapping function to compute a value
+     * @param <T> the type of the computed result
+     * @return the computed result
+     * @throws NullPointerException if the mapping function is null
+     */
+    default <T> T coldest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+      // This method was added & implemented in version 3.0.6
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the computed result from the ordered traversal of the cache entries. The order of
+     * iteration is from the entries most likely to be retained (hottest) to the entries least
+     * likely to be retained (coldest). This order is determined by the eviction policy's best guess
+     * at the time of visiting each entry.
+     * <p>
+     * The stream is traversed lazily in small batches, so the lock that guards the policy is held
+     * only while a batch of entries is gathered and is never held while the mapping function
+     * consumes them. A short-circuiting operation, such as {@link Stream#limit} or
+     * {@link Stream#findFirst}, stops the traversal without visiting the remaining entries. The
+     * traversal is weakly consistent: an entry that is concurrently added, removed, or reordered
+     * may or may not be observed, and an entry that is reordered ahead of the traversal's position
+     * may be observed again. The stream must not be used after the mapping function returns.
+     *
+     * @param mappingFunction the mapping function to compute a value
+     * @param <T> the type of the computed result
+     * @return the computed result
+     * @throws NullPointerException if the mapping function is null
+     */
+    default <T> T hottest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+      // This method was added & implemented in version 3.0.6
+      throw new UnsupportedOperationException();
+    }
   }
 
   /** The low-level operations for a cache with a fixed expiration policy. */
@@ -360,6 +732,54 @@ public interface Policy<K extends Object, V extends Object> {
      * @return a snapshot view of the cache from youngest entry to the oldest
      */
     Map<K, V> youngest(@NonNegative int limit);
+
+    /**
+     * Returns the computed result from the ordered traversal of the cache entries. The order of
+     * iteration is from the entries most likely to expire (oldest) to the entries least likely to
+     * expire (youngest). This order is determined by the expiration policy's best guess at the time
+     * of visiting each entry.
+     * <p>
+     * The stream is traversed lazily in small batches, so the lock that guards the policy is held
+     * only while a batch of entries is gathered and is never held while the mapping function
+     * consumes them. A short-circuiting operation, such as {@link Stream#limit} or
+     * {@link Stream#findFirst}, stops the traversal without visiting the remaining entries. The
+     * traversal is weakly consistent: an entry that is concurrently added, removed, or reordered
+     * may or may not be observed, and an entry that is reordered ahead of the traversal's position
+     * may be observed again. The stream must not be used after the mapping function returns.
+     *
+     * @param mappingFunction the mapping function to compute a value
+     * @param <T> the type of the computed result
+     * @return the computed result
+     * @throws NullPointerException if the mapping function is null
+     */
+    default <T> T oldest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+      // This method was added & implemented in version 3.0.6
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the computed result from the ordered traversal of the cache entries. The order of
+     * iteration is from the entries least likely to expire (youngest) to the entries most likely to
+     * expire (oldest). This order is determined by the expiration policy's best guess at the time
+     * of visiting each entry.
+     * <p>
+     * The stream is traversed lazily in small batches, so the lock that guards the policy is held
+     * only while a batch of entries is gathered and is never held while the mapping function
+     * consumes them. A short-circuiting operation, such as {@link Stream#limit} or
+     * {@link Stream#findFirst}, stops the traversal without visiting the remaining entries. The
+     * traversal is weakly consistent: an entry that is concurrently added, removed, or reordered
+     * may or may not be observed, and an entry that is reordered ahead of the traversal's position
+     * may be observed again. The stream must not be used after the mapping function returns.
+     *
+     * @param mappingFunction the mapping function to compute a value
+     * @param <T> the type of the computed result
+     * @return the computed result
+     * @throws NullPointerException if the mapping function is null
+     */
+    default <T> T youngest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+      // This method was added & implemented in version 3.0.6
+      throw new UnsupportedOperationException();
+    }
   }
 
   /** The low-level operations for a cache with a variable expiration policy. */
@@ -512,6 +932,54 @@ public interface Policy<K extends Object, V extends Object> {
      * @return a snapshot view of the cache from youngest entry to the oldest
      */
     Map<K, V> youngest(@NonNegative int limit);
+
+    /**
+     * Returns the computed result from the ordered traversal of the cache entries. The order of
+     * iteration is from the entries most likely to expire (oldest) to the entries least likely to
+     * expire (youngest). This order is determined by the expiration policy's best guess at the time
+     * of visiting each entry.
+     * <p>
+     * The stream is traversed lazily in small batches, so the lock that guards the policy is held
+     * only while a batch of entries is gathered and is never held while the mapping function
+     * consumes them. A short-circuiting operation, such as {@link Stream#limit} or
+     * {@link Stream#findFirst}, stops the traversal without visiting the remaining entries. The
+     * traversal is weakly consistent: an entry that is concurrently added, removed, or reordered
+     * may or may not be observed, and an entry that is reordered ahead of the traversal's position
+     * may be observed again. The stream must not be used after the mapping function returns.
+     *
+     * @param mappingFunction the mapping function to compute a value
+     * @param <T> the type of the computed result
+     * @return the computed result
+     * @throws NullPointerException if the mapping function is null
+     */
+    default <T> T oldest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+      // This method was added & implemented in version 3.0.6
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the computed result from the ordered traversal of the cache entries. The order of
+     * iteration is from the entries least likely to expire (youngest) to the entries most likely to
+     * expire (oldest). This order is determined by the expiration policy's best guess at the time
+     * of visiting each entry.
+     * <p>
+     * The stream is traversed lazily in small batches, so the lock that guards the policy is held
+     * only while a batch of entries is gathered and is never held while the mapping function
+     * consumes them. A short-circuiting operation, such as {@link Stream#limit} or
+     * {@link Stream#findFirst}, stops the traversal without visiting the remaining entries. The
+     * traversal is weakly consistent: an entry that is concurrently added, removed, or reordered
+     * may or may not be observed, and an entry that is reordered ahead of the traversal's position
+     * may be observed again. The stream must not be used after the mapping function returns.
+     *
+     * @param mappingFunction the mapping function to compute a value
+     * @param <T> the type of the computed result
+     * @return the computed result
+     * @throws NullPointerException if the mapping function is null
+     */
+    default <T> T youngest(Function<Stream<CacheEntry<K, V>>, T> mappingFunction) {
+      // This method was added & implemented in version 3.0.6
+      throw new UnsupportedOperationException();
+    }
   }
 
   /** The low-level operations for a cache with a fixed refresh policy. */
@@ -594,4 +1062,77 @@ public interface Policy<K extends Object, V extends Object> {
       setRefreshesAfter(duration.toNanos(), TimeUnit.NANOSECONDS);
     }
   }
+
+  /**
+   * A key-value pair that may include policy metadata for the cached entry. Unless otherwise
+   * specified, this is a value-based class, it can be assumed that the implementation is an
+   * immutable snapshot of the cached data at the time of this entry's creation, and it will not
+   * reflect changes afterwards.
+   */
+  interface CacheEntry<K, V> extends Map.Entry<K, V> {
+
+    /**
+     * Returns the entry's weight. If the cache was not configured with a maximum weight then this
+     * value is always {@code 1}.
+     *
+     * @return the weight of the entry
+     */
+    @NonNegative
+    int weight();
+
+    /**
+     * Returns the {@link Ticker#read()} ticks for when this entry expires. If the cache was not
+     * configured with an expiration policy then this value is roughly {@link Long#MAX_VALUE}
+     * ticks away from the {@link #snapshotAt()} reading.
+     *
+     * @return the ticker reading for when the entry expires
+     */
+    long expiresAt();
+
+    /**
+     * Returns the duration between {@link #expiresAt()} and {@link #snapshotAt()}, which is the
+     * remaining lifetime of the entry when it was observed.
+     *
+     * @return the length of time after which the entry will be automatically removed
+     */
+    default Duration expiresAfter() {
+      return Duration.ofNanos(expiresAt() - snapshotAt());
+    }
+
+    /**
+     * Returns the {@link Ticker#read()} ticks for when this entry becomes refreshable. If the cache
+     * was not configured with a refresh policy then this value is roughly {@link Long#MAX_VALUE}
+     * ticks away from the {@link #snapshotAt()} reading.
+     *
+     * @return the ticker reading for when the entry may be refreshed
+     */
+    long refreshableAt();
+
+    /**
+     * Returns the duration between {@link #refreshableAt()} and {@link #snapshotAt()}.
+     *
+     * @return the length of time after which the entry is eligible to be reloaded
+     */
+    default Duration refreshableAfter() {
+      return Duration.ofNanos(refreshableAt() - snapshotAt());
+    }
+
+    /**
+     * Returns the {@link Ticker#read()} ticks for when this snapshot of the entry was taken. This
+     * reading may be a constant if no time-based policy is configured.
+     *
+     * @return the ticker reading for when the entry's snapshot was taken
+     */
+    long snapshotAt();
+
+    /**
+     * Throws an {@link UnsupportedOperationException} as the entry is an immutable snapshot.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+  }
 }
@@ -71,6 +71,25 @@ final class References {
       }
       return false;
     }
+
+    /**
+     * Returns {@code true} if the arguments is an {@linkplain InternalReference} that holds an
+     * equivalent element. The elements are compared using {@link Object#equals(Object)}, and a
+     * reference whose element was reclaimed is only equal to itself.
+     *
+     * @param object the reference object with which to compare
+     * @return {@code true} if this object is equivalent to the argument; {@code false} otherwise
+     */
+    default boolean objectEquals(@Nullable Object object) {
+      if (object == this) {
+        return true;
+      } else if (object instanceof InternalReference<?>) {
+        InternalReference<?> referent = (InternalReference<?>) object;
+        Object element = get();
+        return (element != null) && element.equals(referent.get());
+      }
+      return false;
+    }
   }
 
   /**
@@ -147,6 +166,75 @@ final class References {
     }
   }
 
+  /**
+   * A short-lived adapter used for looking up an entry in an interner, where the keys are weakly
+   * held and compared by equality. This {@linkplain InternalReference} implementation is not
+   * suitable for storing in the cache as the key is strongly held.
+   */
+  static final class LookupKeyEqualsReference<E> implements InternalReference<E> {
+    private final int hashCode;
+    private final E e;
+
+    public LookupKeyEqualsReference(E e) {
+      this.hashCode = e.hashCode();
+      this.e = requireNonNull(e);
+    }
+
+    @Override
+    public E get() {
+      return e;
+    }
+
+    @Override
+    public Object getKeyReference() {
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return objectEquals(object);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s{e=%s, hashCode=%d}", getClass().getSimpleName(), e, hashCode);
+    }
+  }
+
+  /**
+   * The key in an interner, which holds keys weakly and compares them by equality. This class
+   * retains the key's hash code in the advent that the key is reclaimed so that the entry can be
+   * removed from the cache in constant time.
+   */
+  static final class WeakKeyEqualsReference<K> extends WeakKeyReference<K> {
+    private final int hashCode;
+
+    public WeakKeyEqualsReference(K key, @Nullable ReferenceQueue<K> queue) {
+      super(key, queue);
+      hashCode = key.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return objectEquals(object);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s{hashCode=%d}", getClass().getSimpleName(), hashCode);
+    }
+  }
+
   /**
    * The value in a cache that holds values weakly. This class retains a reference to the key in
    * the advent that the value is reclaimed so that the entry can be removed from the cache in
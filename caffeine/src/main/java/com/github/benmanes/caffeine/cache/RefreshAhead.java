@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Refreshes the popular entries shortly before they expire, so that their readers are not exposed
+ * to a miss when the entry's time-to-live elapses. The write-order queue is inspected from the
+ * entry closest to expiring, and an entry within the refresh-ahead window is reloaded if its
+ * frequency in the admission policy's {@link FrequencySketch} meets the threshold. A cold entry is
+ * left to expire as usual.
+ * <p>
+ * The number of reloads is limited by a token bucket that is replenished at the configured rate,
+ * to protect the backing resource from a burst of refreshes when many popular entries were written
+ * together. The entries are selected during the cache's maintenance work and are reloaded after the
+ * eviction lock is released.
+ */
+final class RefreshAhead<K, V> {
+  /** The maximum number of entries in the window that are inspected per maintenance cycle. */
+  static final int SCAN_LIMIT = 64;
+  /** The number of nanoseconds in a second. */
+  static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  final ConcurrentLinkedQueue<Node<K, V>> due;
+  final BoundedLocalCache<K, V> cache;
+  final int maximumRefreshesPerSecond;
+  final int minimumFrequency;
+  final long windowNanos;
+
+  @GuardedBy("evictionLock")
+  double permits;
+  @GuardedBy("evictionLock")
+  long lastRefillTime;
+  @GuardedBy("evictionLock")
+  boolean exhausted;
+  @GuardedBy("evictionLock")
+  boolean started;
+  @GuardedBy("evictionLock")
+  @Nullable Node<K, V> cursor;
+  @GuardedBy("evictionLock")
+  long cursorWriteTime;
+  @GuardedBy("evictionLock")
+  long nextWindowTime;
+
+  RefreshAhead(BoundedLocalCache<K, V> cache, long windowNanos,
+      int minimumFrequency, int maximumRefreshesPerSecond) {
+    this.maximumRefreshesPerSecond = maximumRefreshesPerSecond;
+    this.permits = maximumRefreshesPerSecond;
+    this.minimumFrequency = minimumFrequency;
+    this.due = new ConcurrentLinkedQueue<>();
+    this.nextWindowTime = Long.MAX_VALUE;
+    this.cache = requireNonNull(cache);
+    this.windowNanos = windowNanos;
+  }
+
+  /**
+   * Queues the popular entries that are within the window of expiring, as permits allow. If the
+   * scan limit is reached then the next scan resumes after the last inspected entry, so that the
+   * cold entries closest to expiring do not starve the popular entries that follow them.
+   */
+  @GuardedBy("evictionLock")
+  void scan(long now) {
+    refill(now);
+
+    int scanned = 0;
+    exhausted = false;
+    nextWindowTime = Long.MAX_VALUE;
+    for (Node<K, V> node = resume(); node != null; node = node.getNextInWriteOrder()) {
+      if (!isWithinWindow(node, now)) {
+        nextWindowTime = node.getWriteTime() + (cache.expiresAfterWriteNanos() - windowNanos);
+        cursor = null;
+        return;
+      } else if (scanned == SCAN_LIMIT) {
+        return;
+      } else if (permits < 1.0) {
+        exhausted = true;
+        return;
+      }
+      scanned++;
+
+      K key = node.getKey();
+      if ((key != null) && node.isAlive() && !isRefreshing(node)
+          && !cache.isComputingAsync(node)
+          && (cache.frequencySketch().frequency(key) >= minimumFrequency)) {
+        due.add(node);
+        permits--;
+      }
+      cursorWriteTime = node.getWriteTime();
+      cursor = node;
+    }
+    cursor = null;
+  }
+
+  /**
+   * Returns the entry to resume the scan from, which follows the last inspected entry if it is
+   * still in place, or else the entry closest to expiring.
+   */
+  @GuardedBy("evictionLock")
+  @Nullable Node<K, V> resume() {
+    WriteOrderDeque<Node<K, V>> deque = cache.writeOrderDeque();
+    if ((cursor != null) && cursor.isAlive() && deque.contains(cursor)
+        && (cursor.getWriteTime() == cursorWriteTime)) {
+      return cursor.getNextInWriteOrder();
+    }
+    cursor = null;
+    return deque.peekFirst();
+  }
+
+  /** Replenishes the permits for the time elapsed since the last refill. */
+  @GuardedBy("evictionLock")
+  void refill(long now) {
+    if (!started) {
+      started = true;
+    } else {
+      double elapsed = (double) Math.max(0L, now - lastRefillTime) / SECOND_NANOS;
+      permits = Math.min(maximumRefreshesPerSecond,
+          permits + (elapsed * maximumRefreshesPerSecond));
+    }
+    lastRefillTime = now;
+  }
+
+  /**
+   * Returns the duration until the last scan should be resumed, the next entry enters the window
+   * or, if the permits were exhausted while entries in the window remained, a permit is available.
+   * The entries that were inspected by the scans are left to expire if cold.
+   */
+  @GuardedBy("evictionLock")
+  long getDelay(long now) {
+    long delay = exhausted
+        ? (long) (((1.0 - permits) / maximumRefreshesPerSecond) * SECOND_NANOS)
+        : Long.MAX_VALUE;
+    if (!exhausted && (cursor != null)) {
+      return 0L;
+    } else if (nextWindowTime != Long.MAX_VALUE) {
+      delay = Math.min(delay, nextWindowTime - now);
+    }
+    return Math.max(0L, delay);
+  }
+
+  /** Reloads the queued entries, which must be called without holding the eviction lock. */
+  void refreshDue() {
+    Node<K, V> node;
+    while ((node = due.poll()) != null) {
+      cache.refresh(node);
+    }
+  }
+
+  /** Returns if the entry will expire within the refresh-ahead window. */
+  boolean isWithinWindow(Node<K, V> node, long now) {
+    return (cache.expiresAfterWriteNanos() - (now - node.getWriteTime())) <= windowNanos;
+  }
+
+  /** Returns if the entry has a reload in-flight. */
+  boolean isRefreshing(Node<K, V> node) {
+    ConcurrentMap<Object, CompletableFuture<?>> refreshes = cache.refreshes;
+    return (refreshes != null) && refreshes.containsKey(node.getKeyReference());
+  }
+}
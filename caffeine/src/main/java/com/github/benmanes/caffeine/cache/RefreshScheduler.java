@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.BoundedLocalCache.MAXIMUM_EXPIRY;
+import static java.util.Objects.requireNonNull;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.ref.ReferenceQueue;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Schedules the proactive refresh of entries at the per-entry times calculated by a
+ * {@link Refresher}. Each entry's refresh time is held by a timer event in a {@link TimerWheel}
+ * that is separate from the one used for variable expiration, and both are advanced by the thread
+ * performing the cache's maintenance work. The entries whose refresh time has elapsed are queued
+ * and reloaded after the eviction lock is released, so that the reloads and their completions do
+ * not run within the maintenance work.
+ * <p>
+ * A timer event remains scheduled after it fires so that the refresh is retried if the reload fails
+ * or is discarded. A successful reload replaces the entry's value, which evaluates the refresher to
+ * determine the next refresh time.
+ */
+final class RefreshScheduler<K, V> {
+  static final Logger logger = System.getLogger(RefreshScheduler.class.getName());
+
+  final Refresher<? super K, ? super V> refresher;
+  final HashMap<Node<K, V>, RefreshTimer> timers;
+  final ConcurrentLinkedQueue<Node<K, V>> due;
+  final BoundedLocalCache<K, V> cache;
+  final TimerWheel<K, V> timerWheel;
+  final Set<Node<K, V>> reloaded;
+  final @Nullable Pacer pacer;
+  final boolean isAsync;
+  final Ticker ticker;
+
+  RefreshScheduler(BoundedLocalCache<K, V> cache, Caffeine<K, V> builder, boolean isAsync) {
+    Scheduler scheduler = builder.getScheduler();
+    this.pacer = (scheduler == Scheduler.disabledScheduler()) ? null : new Pacer(scheduler);
+    this.refresher = requireNonNull(builder.getRefresher());
+    this.ticker = builder.getTicker();
+    this.reloaded = ConcurrentHashMap.newKeySet();
+    this.timerWheel = new RefreshWheel(cache);
+    this.due = new ConcurrentLinkedQueue<>();
+    this.timers = new HashMap<>();
+    this.isAsync = isAsync;
+    this.cache = cache;
+  }
+
+  /**
+   * Schedules the entry's next refresh after it was created, updated, or replaced by a reload. If
+   * the refresher fails then the entry's previous refresh time is retained.
+   */
+  @GuardedBy("evictionLock")
+  void update(Node<K, V> node) {
+    K key = node.getKey();
+    V value = valueOf(node);
+    boolean isReload = reloaded.remove(node);
+    if ((key == null) || (value == null) || !node.isAlive()) {
+      return;
+    }
+
+    long duration;
+    long now = ticker.read();
+    RefreshTimer timer = timers.get(node);
+    try {
+      @SuppressWarnings("unchecked")
+      var castedRefresher = (Refresher<K, V>) refresher;
+      if (timer == null) {
+        duration = castedRefresher.refreshAfterCreate(key, value, now);
+      } else {
+        long currentDuration = Math.max(0L, timer.getVariableTime() - now);
+        duration = isReload
+            ? castedRefresher.refreshAfterReload(key, value, now, currentDuration)
+            : castedRefresher.refreshAfterUpdate(key, value, now, currentDuration);
+      }
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Exception thrown by refresher", e);
+      return;
+    }
+
+    if (timer == null) {
+      timer = new RefreshTimer(node);
+      timers.put(node, timer);
+    } else {
+      timerWheel.deschedule(timer);
+    }
+    timer.duration = Math.max(0L, Math.min(duration, MAXIMUM_EXPIRY));
+    timer.setVariableTime(now + timer.duration);
+    timerWheel.schedule(timer);
+  }
+
+  /** Removes the entry's refresh timer, if present. */
+  @GuardedBy("evictionLock")
+  void remove(Node<K, V> node) {
+    RefreshTimer timer = timers.remove(node);
+    if (timer != null) {
+      timerWheel.deschedule(timer);
+    }
+    reloaded.remove(node);
+  }
+
+  /** Records that the entry's value is being replaced by a successful reload. */
+  void reloaded(Node<K, V> node) {
+    reloaded.add(node);
+  }
+
+  /**
+   * Advances the timer, queuing the entries whose refresh time has elapsed, and paces the
+   * maintenance work so that it runs when the next refresh is due.
+   */
+  @GuardedBy("evictionLock")
+  void advance() {
+    long now = ticker.read();
+    timerWheel.advance(now);
+
+    if (pacer != null) {
+      long delay = timerWheel.getExpirationDelay();
+      if (delay == Long.MAX_VALUE) {
+        pacer.cancel();
+      } else {
+        pacer.schedule(cache.executor, cache.drainBuffersTask, now, delay);
+      }
+    }
+  }
+
+  /** Reloads the queued entries, which must be called without holding the eviction lock. */
+  void refreshDue() {
+    Node<K, V> node;
+    while ((node = due.poll()) != null) {
+      cache.refresh(node);
+    }
+  }
+
+  /** Returns the entry's value, or null if it is an in-flight or failed future. */
+  @SuppressWarnings("unchecked")
+  @Nullable V valueOf(Node<K, V> node) {
+    V value = node.getValue();
+    if (isAsync && (value != null)) {
+      var future = (CompletableFuture<V>) value;
+      return Async.isReady(future) ? future.join() : null;
+    }
+    return value;
+  }
+
+  /** A timer wheel whose events are refresh timers, which queue a refresh when fired. */
+  final class RefreshWheel extends TimerWheel<K, V> {
+
+    RefreshWheel(BoundedLocalCache<K, V> cache) {
+      super(cache);
+    }
+
+    @Override
+    boolean fire(Node<K, V> node) {
+      return ((RefreshTimer) node).fire(nanos);
+    }
+  }
+
+  /** A timer event in the wheel for the refresh of an entry. */
+  final class RefreshTimer extends Node<K, V> {
+    final Node<K, V> node;
+
+    @Nullable Node<K, V> prev;
+    @Nullable Node<K, V> next;
+    long variableTime;
+    long duration;
+
+    RefreshTimer(Node<K, V> node) {
+      this.node = node;
+    }
+
+    /** Queues the entry to be refreshed and sets the time to retry if the reload is not applied. */
+    @GuardedBy("evictionLock")
+    boolean fire(long now) {
+      if (node.isAlive()) {
+        due.add(node);
+      }
+      variableTime = now + Math.max(duration, Pacer.TOLERANCE);
+      return false;
+    }
+
+    @Override public long getVariableTime() {
+      return variableTime;
+    }
+    @Override public void setVariableTime(long time) {
+      variableTime = time;
+    }
+    @SuppressWarnings("NullAway")
+    @Override public Node<K, V> getPreviousInVariableOrder() {
+      return prev;
+    }
+    @Override public void setPreviousInVariableOrder(@Nullable Node<K, V> prev) {
+      this.prev = prev;
+    }
+    @SuppressWarnings("NullAway")
+    @Override public Node<K, V> getNextInVariableOrder() {
+      return next;
+    }
+    @Override public void setNextInVariableOrder(@Nullable Node<K, V> next) {
+      this.next = next;
+    }
+
+    @Override public @Nullable K getKey() { return node.getKey(); }
+    @Override public Object getKeyReference() { return node.getKeyReference(); }
+    @Override public @Nullable V getValue() { return node.getValue(); }
+    @Override public Object getValueReference() { throw new UnsupportedOperationException(); }
+    @Override public void setValue(V value, @Nullable ReferenceQueue<V> referenceQueue) {}
+    @Override public boolean containsValue(Object value) { return false; }
+    @Override public boolean isAlive() { return node.isAlive(); }
+    @Override public boolean isRetired() { return node.isRetired(); }
+    @Override public boolean isDead() { return node.isDead(); }
+    @Override public void retire() {}
+    @Override public void die() {}
+  }
+}
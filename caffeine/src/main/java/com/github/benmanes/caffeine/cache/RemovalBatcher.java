@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Serializable;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.github.benmanes.caffeine.cache.BatchRemovalListener.Removal;
+
+/**
+ * A removal listener that accumulates the notifications and delivers them to a
+ * {@link BatchRemovalListener} in bulk. A single delivery task is scheduled on the executor at a
+ * time, which drains the pending removals in the order that they were recorded, so that the
+ * notifications for a key are observed in the order that the cache performed its removals. An
+ * asynchronous value that is still in-flight is recorded when it completes, rather than holding
+ * back the removals that follow it, so its notification may be delivered out of order.
+ * <p>
+ * The builder holds an unbound instance that is bound to the cache's executor when the cache is
+ * constructed. Only the user's listener is retained when serialized, which deserializes into an
+ * unbound instance that the recreated builder binds again.
+ */
+final class RemovalBatcher<K, V> implements RemovalListener<K, V>, Runnable, Serializable {
+  static final Logger logger = System.getLogger(RemovalBatcher.class.getName());
+  static final int MAX_BATCH_SIZE = 1_000;
+  private static final long serialVersionUID = 1L;
+
+  final BatchRemovalListener<K, V> listener;
+
+  final transient ConcurrentLinkedQueue<Removal<K, V>> pending;
+  final transient @Nullable Executor executor;
+  final transient AtomicBoolean scheduled;
+  final transient boolean async;
+
+  RemovalBatcher(BatchRemovalListener<K, V> listener) {
+    this(listener, /* executor */ null, /* async */ false);
+  }
+
+  private RemovalBatcher(BatchRemovalListener<K, V> listener,
+      @Nullable Executor executor, boolean async) {
+    this.listener = requireNonNull(listener);
+    this.pending = new ConcurrentLinkedQueue<>();
+    this.scheduled = new AtomicBoolean();
+    this.executor = executor;
+    this.async = async;
+  }
+
+  /** Returns a batcher for a cache that delivers the notifications using the executor. */
+  RemovalBatcher<K, V> bind(Executor executor, boolean async) {
+    return new RemovalBatcher<>(listener, requireNonNull(executor), async);
+  }
+
+  /**
+   * Records the removal for the next batch. An asynchronous cache's value is recorded once the
+   * future completes successfully, and a delivery is scheduled if it was not available in time for
+   * the caller to do so.
+   */
+  @Override
+  @SuppressWarnings({"FutureReturnValueIgnored", "unchecked"})
+  public void onRemoval(@Nullable K key, @Nullable V value, RemovalCause cause) {
+    if (!async || (value == null)) {
+      pending.add(new Removal<>(key, value, cause));
+      return;
+    }
+
+    var future = (CompletableFuture<V>) value;
+    if (Async.isReady(future)) {
+      pending.add(new Removal<>(key, future.join(), cause));
+    } else {
+      future.thenAccept(result -> {
+        if (result != null) {
+          pending.add(new Removal<>(key, (V) result, cause));
+          schedule();
+        }
+      });
+    }
+  }
+
+  /** Submits a task to deliver the pending removals if one is not already scheduled. */
+  void schedule() {
+    if (pending.isEmpty() || !scheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      requireNonNull(executor).execute(this);
+    } catch (Throwable t) {
+      logger.log(Level.ERROR, "Exception thrown when submitting removal listener", t);
+      run();
+    }
+  }
+
+  /** Delivers the pending removals, in bounded batches, until none remain. */
+  @Override
+  public void run() {
+    try {
+      for (;;) {
+        var batch = new ArrayList<Removal<K, V>>();
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+          var removal = pending.poll();
+          if (removal == null) {
+            break;
+          }
+          batch.add(removal);
+        }
+        if (batch.isEmpty()) {
+          return;
+        }
+        try {
+          listener.onRemoval(Collections.unmodifiableList(batch));
+        } catch (Throwable t) {
+          logger.log(Level.WARNING, "Exception thrown by removal listener", t);
+        }
+      }
+    } finally {
+      scheduled.set(false);
+      schedule();
+    }
+  }
+
+  Object readResolve() {
+    return new RemovalBatcher<>(listener);
+  }
+}
@@ -18,6 +18,7 @@ package com.github.benmanes.caffeine.cache;
 import static com.github.benmanes.caffeine.cache.Caffeine.UNSET_INT;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -37,15 +38,30 @@ final class SerializationProxy<K, V> implements Serializable {
   boolean weakValues;
   boolean softValues;
   boolean isRecordingStats;
+  boolean compactTimestamps;
+  boolean intrusiveHashTable;
+  boolean stripedWriteBuffer;
+  boolean incrementalClear;
   long refreshAfterWriteNanos;
   long expiresAfterWriteNanos;
   long expiresAfterAccessNanos;
   long maximumSize = UNSET_INT;
   long maximumWeight = UNSET_INT;
+  int heavyHitters = UNSET_INT;
+  int nearCache = UNSET_INT;
+  int readSampleRate = UNSET_INT;
+  long refreshAheadNanos = UNSET_INT;
+  int refreshAheadFrequency;
+  int refreshAheadRate;
+  long negativeExpiresAfterNanos = UNSET_INT;
+  long negativeMaximumSize;
 
   @Nullable Ticker ticker;
+  @Nullable Ticker statsTicker;
   @Nullable Expiry<?, ?> expiry;
   @Nullable Weigher<?, ?> weigher;
+  @Nullable Refresher<?, ?> refresher;
+  @Nullable Tagger<?, ?> tagger;
   @Nullable AsyncCacheLoader<?, ?> cacheLoader;
   @Nullable RemovalListener<?, ?> removalListener;
   @Nullable RemovalListener<?, ?> evictionListener;
@@ -59,9 +75,21 @@ final class SerializationProxy<K, V> implements Serializable {
     if (isRecordingStats) {
       builder.recordStats();
     }
+    if (statsTicker instanceof CoarseTicker) {
+      builder.coarseStatsTicker(Duration.ofNanos(((CoarseTicker) statsTicker).resolutionNanos));
+    }
     if (maximumSize != UNSET_INT) {
       builder.maximumSize(maximumSize);
     }
+    if (heavyHitters != UNSET_INT) {
+      builder.recordHeavyHitters(heavyHitters);
+    }
+    if (nearCache != UNSET_INT) {
+      builder.nearCache(nearCache);
+    }
+    if (readSampleRate != UNSET_INT) {
+      builder.sampleReads(readSampleRate);
+    }
     if (weigher != null) {
       @SuppressWarnings("unchecked")
       var castedWeigher = (Weigher<Object, Object>) weigher;
@@ -71,6 +99,36 @@ final class SerializationProxy<K, V> implements Serializable {
     if (expiry != null) {
       builder.expireAfter(expiry);
     }
+    if (tagger != null) {
+      @SuppressWarnings("unchecked")
+      var castedTagger = (Tagger<Object, Object>) tagger;
+      builder.tagger(castedTagger);
+    }
+    if (refresher != null) {
+      @SuppressWarnings("unchecked")
+      var castedRefresher = (Refresher<Object, Object>) refresher;
+      builder.refreshAfter(castedRefresher);
+    }
+    if (negativeExpiresAfterNanos != UNSET_INT) {
+      builder.cacheNegativeResults(Duration.ofNanos(negativeExpiresAfterNanos),
+          negativeMaximumSize);
+    }
+    if (refreshAheadNanos != UNSET_INT) {
+      builder.refreshAhead(Duration.ofNanos(refreshAheadNanos),
+          refreshAheadFrequency, refreshAheadRate);
+    }
+    if (compactTimestamps) {
+      builder.compactTimestamps();
+    }
+    if (intrusiveHashTable) {
+      builder.intrusiveHashTable();
+    }
+    if (stripedWriteBuffer) {
+      builder.stripedWriteBuffer();
+    }
+    if (incrementalClear) {
+      builder.incrementalClear();
+    }
     if (expiresAfterWriteNanos > 0) {
       builder.expireAfterWrite(expiresAfterWriteNanos, TimeUnit.NANOSECONDS);
     }
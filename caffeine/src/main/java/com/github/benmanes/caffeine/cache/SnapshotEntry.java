@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+
+import com.github.benmanes.caffeine.cache.Policy.CacheEntry;
+
+/**
+ * An immutable entry that includes a snapshot of the policy metadata at its time of creation.
+ */
+final class SnapshotEntry<K, V> extends SimpleImmutableEntry<K, V> implements CacheEntry<K, V> {
+  private static final long serialVersionUID = 1;
+
+  final long refreshableAt;
+  final long expiresAt;
+  final long snapshot;
+  final int weight;
+
+  SnapshotEntry(K key, V value, long snapshot, int weight, long expiresAt, long refreshableAt) {
+    super(key, value);
+    this.refreshableAt = refreshableAt;
+    this.expiresAt = expiresAt;
+    this.snapshot = snapshot;
+    this.weight = weight;
+  }
+
+  @Override
+  public V setValue(V value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int weight() {
+    return weight;
+  }
+
+  @Override
+  public long expiresAt() {
+    return expiresAt;
+  }
+
+  @Override
+  public long refreshableAt() {
+    return refreshableAt;
+  }
+
+  @Override
+  public long snapshotAt() {
+    return snapshot;
+  }
+}
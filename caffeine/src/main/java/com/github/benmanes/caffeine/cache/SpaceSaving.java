@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.ceilingPowerOfTwo;
+import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+
+import java.util.Arrays;
+
+/**
+ * An approximate top-k tracker of the most frequently accessed elements. The counts are aged in
+ * lockstep with the admission policy's {@link FrequencySketch} so that the heavy hitters reflect
+ * the current workload rather than the history since the cache was created.
+ * <p>
+ * The tracker is updated by a single writer, the thread performing the cache's maintenance work,
+ * and publishes an immutable snapshot for readers so that they do not acquire a lock.
+ */
+final class SpaceSaving {
+
+  /*
+   * This class implements the Space-Saving algorithm [1], which monitors a fixed number of
+   * elements. When an unmonitored element arrives and the table is full then it replaces the
+   * element having the smallest count, inheriting that count as its overestimation error. Any
+   * element whose true frequency exceeds the smallest count is guaranteed to be monitored, and each
+   * element's count is an upper bound on its true frequency with an error of at most the minimum.
+   *
+   * The monitored elements are maintained in an indexed min-heap so that the victim is found in
+   * constant time and an increment is restored in logarithmic time. The index is an open-addressed
+   * table from an element to its slot in the heap, so that a lookup or a move does not box the slot
+   * or allocate an entry. When the sketch is reset, the counts are halved, which preserves the
+   * heap's ordering. A snapshot is published by heapsorting a copy of the heap, which orders the
+   * elements from the most to least popular without boxing.
+   *
+   * [1] Efficient Computation of Frequent and Top-k Elements in Data Streams
+   * https://www.cs.ucsb.edu/sites/default/files/documents/2005-23.pdf
+   */
+
+  static final Snapshot EMPTY = new Snapshot(new Object[0], new long[0]);
+
+  final SlotIndex index;
+  final Object[] elements;
+  final long[] counts;
+
+  volatile Snapshot snapshot;
+  boolean modified;
+  int resets;
+  int size;
+
+  /**
+   * Creates a tracker that monitors up to the given number of elements.
+   *
+   * @param capacity the maximum number of elements to monitor
+   */
+  SpaceSaving(int capacity) {
+    requireArgument(capacity > 0);
+    index = new SlotIndex(capacity);
+    elements = new Object[capacity];
+    counts = new long[capacity];
+    snapshot = EMPTY;
+  }
+
+  /** Returns the maximum number of elements that are monitored. */
+  int capacity() {
+    return elements.length;
+  }
+
+  /**
+   * Increments the count of the element, replacing the least popular one if the table is full.
+   *
+   * @param e the element to add
+   * @param sketchResets the number of times that the frequency sketch has been aged
+   */
+  void record(Object e, int sketchResets) {
+    if (resets != sketchResets) {
+      resets = sketchResets;
+      age();
+    }
+
+    modified = true;
+    int slot = index.get(e);
+    if (slot >= 0) {
+      counts[slot]++;
+      siftDown(slot);
+    } else if (size < elements.length) {
+      int i = size++;
+      elements[i] = e;
+      counts[i] = 1;
+      index.put(e, i);
+      siftUp(i);
+    } else {
+      index.remove(elements[0]);
+      elements[0] = e;
+      counts[0]++;
+      index.put(e, 0);
+      siftDown(0);
+    }
+  }
+
+  /** Halves the counts of all of the monitored elements. */
+  void age() {
+    for (int i = 0; i < size; i++) {
+      counts[i] >>>= 1;
+    }
+    modified = true;
+  }
+
+  /** Publishes the current state for readers, if it was modified since the last publication. */
+  void publish() {
+    if (!modified) {
+      return;
+    }
+    modified = false;
+
+    // Repeatedly moving the minimum to the end of a min-heap leaves it in descending order
+    var sortedElements = Arrays.copyOf(elements, size);
+    var sortedCounts = Arrays.copyOf(counts, size);
+    for (int end = size - 1; end > 0; end--) {
+      swap(sortedElements, sortedCounts, 0, end);
+      siftDown(sortedElements, sortedCounts, 0, end);
+    }
+    snapshot = new Snapshot(sortedElements, sortedCounts);
+  }
+
+  /** Moves the element at the slot towards the root until the heap's order is restored. */
+  void siftUp(int slot) {
+    int i = slot;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (counts[parent] <= counts[i]) {
+        break;
+      }
+      swap(i, parent);
+      i = parent;
+    }
+  }
+
+  /** Moves the element at the slot towards the leaves until the heap's order is restored. */
+  void siftDown(int slot) {
+    int i = slot;
+    for (;;) {
+      int left = (2 * i) + 1;
+      if (left >= size) {
+        return;
+      }
+      int right = left + 1;
+      int smallest = ((right < size) && (counts[right] < counts[left])) ? right : left;
+      if (counts[i] <= counts[smallest]) {
+        return;
+      }
+      swap(i, smallest);
+      i = smallest;
+    }
+  }
+
+  void swap(int i, int j) {
+    swap(elements, counts, i, j);
+    index.put(elements[i], i);
+    index.put(elements[j], j);
+  }
+
+  /** Restores the order of a heap of the given size that is not indexed, as when heapsorting. */
+  static void siftDown(Object[] elements, long[] counts, int slot, int size) {
+    int i = slot;
+    for (;;) {
+      int left = (2 * i) + 1;
+      if (left >= size) {
+        return;
+      }
+      int right = left + 1;
+      int smallest = ((right < size) && (counts[right] < counts[left])) ? right : left;
+      if (counts[i] <= counts[smallest]) {
+        return;
+      }
+      swap(elements, counts, i, smallest);
+      i = smallest;
+    }
+  }
+
+  static void swap(Object[] elements, long[] counts, int i, int j) {
+    Object element = elements[i];
+    elements[i] = elements[j];
+    elements[j] = element;
+
+    long count = counts[i];
+    counts[i] = counts[j];
+    counts[j] = count;
+  }
+
+  /**
+   * A map from the monitored elements to their slots in the heap that uses linear probing. The
+   * table is at least twice the capacity, so it is never full, and a removal shifts the following
+   * entries of the probe sequence back rather than leaving a tombstone.
+   */
+  static final class SlotIndex {
+    final Object[] keys;
+    final int[] slots;
+    final int mask;
+
+    SlotIndex(int capacity) {
+      int length = ceilingPowerOfTwo(2 * capacity);
+      keys = new Object[length];
+      slots = new int[length];
+      mask = length - 1;
+    }
+
+    /** Returns the index that the element's probe sequence starts at. */
+    int home(Object e) {
+      int hash = e.hashCode() * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /** Returns the index of the element in the table, or of the empty entry that ends its probe. */
+    int find(Object e) {
+      int i = home(e);
+      Object key;
+      while (((key = keys[i]) != null) && (key != e) && !e.equals(key)) {
+        i = (i + 1) & mask;
+      }
+      return i;
+    }
+
+    /** Returns the slot of the element, or -1 if it is not monitored. */
+    int get(Object e) {
+      int i = find(e);
+      return (keys[i] == null) ? -1 : slots[i];
+    }
+
+    /** Associates the element with the slot. */
+    void put(Object e, int slot) {
+      int i = find(e);
+      keys[i] = e;
+      slots[i] = slot;
+    }
+
+    /** Removes the element, if present, and shifts back the entries that probed past it. */
+    void remove(Object e) {
+      int i = find(e);
+      if (keys[i] == null) {
+        return;
+      }
+      keys[i] = null;
+      for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+        if (((j - home(keys[j])) & mask) >= ((j - i) & mask)) {
+          keys[i] = keys[j];
+          slots[i] = slots[j];
+          keys[j] = null;
+          i = j;
+        }
+      }
+    }
+  }
+
+  /** An immutable view of the monitored elements, ordered from the most to least popular. */
+  static final class Snapshot {
+    final Object[] elements;
+    final long[] counts;
+
+    Snapshot(Object[] elements, long[] counts) {
+      this.elements = elements;
+      this.counts = counts;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A secondary index from each tag to the entries that carry it. The index is updated by the thread
+ * performing the cache's maintenance work as the pending writes are applied to the policy, so it
+ * may lag behind the data store until the pending work is performed. The members of a tag may be
+ * read concurrently without acquiring a lock.
+ */
+final class TagIndex<K, V> {
+  static final Logger logger = System.getLogger(TagIndex.class.getName());
+
+  final ConcurrentHashMap<Object, Set<Node<K, V>>> members;
+  final HashMap<Node<K, V>, Set<?>> tagsByNode;
+  final Tagger<? super K, ? super V> tagger;
+  final boolean isAsync;
+
+  TagIndex(Tagger<? super K, ? super V> tagger, boolean isAsync) {
+    this.tagger = requireNonNull(tagger);
+    this.members = new ConcurrentHashMap<>();
+    this.tagsByNode = new HashMap<>();
+    this.isAsync = isAsync;
+  }
+
+  /** Returns the entries that are indexed under the tag. */
+  Set<Node<K, V>> members(Object tag) {
+    Set<Node<K, V>> nodes = members.get(tag);
+    return (nodes == null) ? Set.of() : nodes;
+  }
+
+  /** Returns if the entry's current mapping carries the tag. */
+  boolean isTagged(@Nullable K key, @Nullable V value, Object tag) {
+    return tagsOf(key, value).contains(tag);
+  }
+
+  /** Indexes the entry under its current tags, unlinking it from the tags that it no longer has. */
+  void update(Node<K, V> node) {
+    Set<?> current = tagsOf(node.getKey(), node.getValue());
+    Set<?> previous = tagsByNode.getOrDefault(node, Set.of());
+    if (current.equals(previous)) {
+      return;
+    }
+
+    for (Object tag : previous) {
+      if (!current.contains(tag)) {
+        unlink(tag, node);
+      }
+    }
+    for (Object tag : current) {
+      if (!previous.contains(tag)) {
+        members.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(node);
+      }
+    }
+    if (current.isEmpty()) {
+      tagsByNode.remove(node);
+    } else {
+      tagsByNode.put(node, current);
+    }
+  }
+
+  /** Removes the entry from the index. */
+  void remove(Node<K, V> node) {
+    Set<?> previous = tagsByNode.remove(node);
+    if (previous != null) {
+      for (Object tag : previous) {
+        unlink(tag, node);
+      }
+    }
+  }
+
+  /** Removes the entry from the tag's members, discarding the tag if it has no other members. */
+  void unlink(Object tag, Node<K, V> node) {
+    members.computeIfPresent(tag, (t, nodes) -> {
+      nodes.remove(node);
+      return nodes.isEmpty() ? null : nodes;
+    });
+  }
+
+  /** Returns the tags of the mapping, or an empty set if it is absent or could not be tagged. */
+  @SuppressWarnings("unchecked")
+  Set<?> tagsOf(@Nullable K key, @Nullable V value) {
+    Object resolved = value;
+    if (isAsync && (value != null)) {
+      var future = (CompletableFuture<?>) value;
+      resolved = Async.isReady(future) ? future.join() : null;
+    }
+    if ((key == null) || (resolved == null)) {
+      return Set.of();
+    }
+    try {
+      return Set.copyOf(((Tagger<K, Object>) tagger).tags(key, resolved));
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Exception thrown by tagger", e);
+      return Set.of();
+    }
+  }
+}
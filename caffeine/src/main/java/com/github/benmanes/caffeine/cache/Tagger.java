@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import java.util.Set;
+
+/**
+ * Calculates the tags of cache entries. The entries that share a tag form a group that can be
+ * discarded together by {@link Policy.Tags#invalidate(Object)}, such as all of the entries that
+ * were derived from a tenant or an upstream object.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+@FunctionalInterface
+public interface Tagger<K extends Object, V extends Object> {
+
+  /**
+   * Returns the tags of a cache entry. The tags are calculated when the entry is inserted into or
+   * updated in the cache and should be a small set of objects with stable {@code equals} and
+   * {@code hashCode} implementations.
+   *
+   * @param key the key to tag
+   * @param value the value to tag
+   * @return the tags of the entry, or an empty set if it is not a member of any group
+   */
+  Set<?> tags(K key, V value);
+}
@@ -15,6 +15,8 @@
  */
 package com.github.benmanes.caffeine.cache;
 
+import java.time.Duration;
+
 /**
  * A time source that returns a time value representing the number of nanoseconds elapsed since some
  * fixed but arbitrary point in time.
@@ -47,6 +49,22 @@ public interface Ticker {
   static Ticker disabledTicker() {
     return DisabledTicker.INSTANCE;
   }
+
+  /**
+   * Returns a ticker that reads a cached value of {@link System#nanoTime} which is refreshed by a
+   * background thread at the given resolution. Reading this ticker is cheaper than querying the
+   * clock, but the time that it reports may lag behind the current time by up to the resolution.
+   * The resolution is rounded down to one of 1 ms, 10 ms, 100 ms, or 1 s, and the ticker and its
+   * daemon thread are shared by all callers whose resolutions round to the same value.
+   *
+   * @param resolution the maximum interval at which the cached time is refreshed
+   * @return a ticker that reads a periodically refreshed time
+   * @throws IllegalArgumentException if the resolution is less than one millisecond
+   * @throws NullPointerException if the resolution is null
+   */
+  static Ticker coarseTicker(Duration resolution) {
+    return CoarseTicker.forResolution(Caffeine.saturatedToNanos(resolution));
+  }
 }
 
 enum SystemTicker implements Ticker {
@@ -64,3 +82,22 @@ enum DisabledTicker implements Ticker {
     return 0L;
   }
 }
+
+/**
+ * A ticker whose readings are relative to an epoch, the reading of the underlying ticker when this
+ * ticker was created. This allows a cache to store its timestamps as compact offsets regardless of
+ * the underlying ticker's arbitrary origin.
+ */
+final class EpochTicker implements Ticker {
+  final Ticker delegate;
+  final long epoch;
+
+  EpochTicker(Ticker delegate) {
+    this.delegate = delegate;
+    this.epoch = delegate.read();
+  }
+
+  @Override public long read() {
+    return delegate.read() - epoch;
+  }
+}
@@ -22,9 +22,11 @@ import static java.util.Objects.requireNonNull;
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -39,7 +41,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * @author ben.manes@gmail.com (Ben Manes)
  */
 @SuppressWarnings("GuardedBy")
-final class TimerWheel<K, V> {
+class TimerWheel<K, V> {
 
   /*
    * A timer wheel [1] stores timer events in buckets on a circular buffer. A bucket represents a
@@ -146,8 +148,7 @@ final class TimerWheel<K, V> {
         node.setNextInVariableOrder(null);
 
         try {
-          if (((node.getVariableTime() - nanos) > 0)
-              || !cache.evictEntry(node, RemovalCause.EXPIRED, nanos)) {
+          if (((node.getVariableTime() - nanos) > 0) || !fire(node)) {
             schedule(node);
           }
           node = next;
@@ -162,6 +163,17 @@ final class TimerWheel<K, V> {
     }
   }
 
+  /**
+   * Evicts the expired entry. A wheel that holds other kinds of timer events overrides this method
+   * to handle them, so that the expiration wheel does not inspect the type of each event.
+   *
+   * @param node the entry in the cache
+   * @return if the timer event was consumed, otherwise it should be rescheduled
+   */
+  boolean fire(Node<K, V> node) {
+    return cache.evictEntry(node, RemovalCause.EXPIRED, nanos);
+  }
+
   /**
    * Schedules a timer event for the node.
    *
@@ -323,6 +335,21 @@ final class TimerWheel<K, V> {
     return Collections.unmodifiableMap(map);
   }
 
+  /**
+   * Returns an iterator roughly ordered by the expiration time. The wheels are evaluated in order,
+   * but the timers that fall within the bucket's range are not sorted. The iterator must only be
+   * used while holding the eviction lock, but it may be resumed after the lock was released and
+   * reacquired. In that case it is weakly consistent, where an entry that was rescheduled in the
+   * meantime may be skipped or observed again. If the last returned entry was descheduled or moved
+   * elsewhere, the traversal resumes from a neighbor that is still scheduled in the same bucket.
+   *
+   * @param ascending the direction
+   * @return an iterator over the scheduled entries in the desired order
+   */
+  public Iterator<Node<K, V>> iterator(boolean ascending) {
+    return new Traverser(ascending);
+  }
+
   static <K, V> Node<K, V> traverse(boolean ascending, Node<K, V> node) {
     return ascending ? node.getNextInVariableOrder() : node.getPreviousInVariableOrder();
   }
@@ -347,6 +374,127 @@ final class TimerWheel<K, V> {
     return builder.deleteCharAt(builder.length() - 1).toString();
   }
 
+  /**
+   * An iterator over the buckets that tolerates being resumed after the wheel was modified. The
+   * last returned node is in place if it is still adjacent to either of the neighbors that it had
+   * when it was returned. Otherwise the traversal resumes from the first of its following
+   * neighbor, its preceding neighbor, or the node itself that is still scheduled in the same
+   * bucket, and restarts at the bucket's head if none are.
+   */
+  final class Traverser implements Iterator<Node<K, V>> {
+    final boolean ascending;
+    final long time;
+
+    @Nullable Node<K, V> sentinel;
+    @Nullable Node<K, V> previous;
+    @Nullable Node<K, V> current;
+    @Nullable Node<K, V> following;
+    @Nullable Node<K, V> next;
+    int bucket;
+    int level;
+
+    Traverser(boolean ascending) {
+      this.ascending = ascending;
+      this.time = nanos;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null) {
+        next = computeNext();
+      }
+      return (next != null);
+    }
+
+    @Override
+    public Node<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      previous = current;
+      current = next;
+      following = traverse(ascending, current);
+      next = null;
+      return current;
+    }
+
+    /** Returns the next timer event, or null if there are no more. */
+    @Nullable Node<K, V> computeNext() {
+      for (;;) {
+        if ((sentinel == null) || (current == null)) {
+          if (!nextBucket()) {
+            return null;
+          }
+          previous = current = following = sentinel;
+        }
+
+        Node<K, V> node = isInPlace() ? traverse(ascending, current) : reanchor();
+        if (node == sentinel) {
+          sentinel = null;
+        } else if (node instanceof Sentinel) {
+          // The neighbors moved together into a different bucket, so this one is restarted
+          previous = current = following = sentinel;
+        } else {
+          return node;
+        }
+      }
+    }
+
+    /** Returns if the last returned node is still scheduled next to one of its neighbors. */
+    boolean isInPlace() {
+      if (current == sentinel) {
+        return true;
+      }
+      Node<K, V> node = traverse(ascending, current);
+      return (node != null)
+          && ((node == following) || (traverse(!ascending, current) == previous));
+    }
+
+    /** Returns the node to resume from after the last returned node's neighbors changed. */
+    Node<K, V> reanchor() {
+      if (isInBucket(following)) {
+        return following;
+      } else if (isInBucket(previous)) {
+        return traverse(ascending, previous);
+      } else if (isInBucket(current)) {
+        return traverse(ascending, current);
+      }
+      return traverse(ascending, sentinel);
+    }
+
+    /** Returns if the node is scheduled in the bucket that is being traversed. */
+    boolean isInBucket(@Nullable Node<K, V> node) {
+      if ((node == null) || (traverse(ascending, node) == null)) {
+        return false;
+      }
+      Node<K, V> end = node;
+      while (!(end instanceof Sentinel)) {
+        end = traverse(ascending, end);
+      }
+      return (end == sentinel);
+    }
+
+    /** Advances to the next bucket's sentinel, returning if there was one. */
+    boolean nextBucket() {
+      while (level < wheel.length) {
+        int index = ascending ? level : (wheel.length - 1 - level);
+        Node<K, V>[] buckets = wheel[index];
+        if (bucket < buckets.length) {
+          int ticks = (int) (time >>> SHIFT[index]);
+          int bucketMask = (buckets.length - 1);
+          int startBucket = (ticks & bucketMask) + (ascending ? 1 : 0);
+          int bucketOffset = ascending ? bucket : -bucket;
+          sentinel = buckets[(startBucket + bucketOffset) & bucketMask];
+          bucket++;
+          return true;
+        }
+        bucket = 0;
+        level++;
+      }
+      return false;
+    }
+  }
+
   /** A sentinel for the doubly-linked list in the bucket. */
   static final class Sentinel<K, V> extends Node<K, V> {
     Node<K, V> prev;
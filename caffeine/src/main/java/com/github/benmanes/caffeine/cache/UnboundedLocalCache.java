@@ -61,11 +61,13 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
   static final VarHandle REFRESHES;
 
   @Nullable final RemovalListener<K, V> removalListener;
+  @Nullable final RemovalBatcher<K, V> removalBatcher;
   final ConcurrentHashMap<K, V> data;
   final StatsCounter statsCounter;
   final boolean isRecordingStats;
   final Executor executor;
   final boolean isAsync;
+  final Ticker statsTicker;
   final Ticker ticker;
 
   @Nullable Set<K> keySet;
@@ -76,10 +78,14 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
   UnboundedLocalCache(Caffeine<? super K, ? super V> builder, boolean isAsync) {
     this.data = new ConcurrentHashMap<>(builder.getInitialCapacity());
     this.statsCounter = builder.getStatsCounterSupplier().get();
-    this.removalListener = builder.getRemovalListener(isAsync);
+    this.removalBatcher = builder.getRemovalBatcher(isAsync);
+    this.removalListener = (removalBatcher == null)
+        ? builder.getRemovalListener(isAsync)
+        : removalBatcher;
     this.isRecordingStats = builder.isRecordingStats();
     this.executor = builder.getExecutor();
     this.ticker = builder.getTicker();
+    this.statsTicker = builder.hasCoarseStatsTicker() ? builder.getStatsTicker() : ticker;
     this.isAsync = isAsync;
   }
 
@@ -177,10 +183,14 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
   }
 
   @Override
-  @SuppressWarnings("NullAway")
+  @SuppressWarnings({"NullAway", "unchecked"})
   public void notifyRemoval(@Nullable K key, @Nullable V value, RemovalCause cause) {
     if (!hasRemovalListener()) {
       return;
+    } else if (removalBatcher != null) {
+      removalBatcher.onRemoval(key, value, cause);
+      removalBatcher.schedule();
+      return;
     }
     Runnable task = () -> {
       try {
@@ -235,7 +245,7 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
 
   @Override
   public Ticker statsTicker() {
-    return ticker;
+    return statsTicker;
   }
 
   /* --------------- JDK8+ Map extensions --------------- */
@@ -915,6 +925,7 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
       proxy.isRecordingStats = cache.isRecordingStats;
       proxy.removalListener = cache.removalListener;
       proxy.ticker = cache.ticker;
+      proxy.statsTicker = cache.statsTicker;
       return proxy;
     }
   }
@@ -934,6 +945,34 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
     @Override public V getIfPresentQuietly(Object key) {
       return transformer.apply(cache.data.get(key));
     }
+    @Override public void forEach(long parallelismThreshold,
+        BiConsumer<? super K, ? super V> action) {
+      requireNonNull(action);
+      cache.data.forEach(parallelismThreshold, (key, value) -> {
+        V unwrapped = transformer.apply(value);
+        if (unwrapped != null) {
+          action.accept(key, unwrapped);
+        }
+      });
+    }
+    @Override public <U> @Nullable U search(long parallelismThreshold,
+        BiFunction<? super K, ? super V, ? extends @Nullable U> searchFunction) {
+      requireNonNull(searchFunction);
+      return cache.data.search(parallelismThreshold, (key, value) -> {
+        V unwrapped = transformer.apply(value);
+        return (unwrapped == null) ? null : searchFunction.apply(key, unwrapped);
+      });
+    }
+    @Override public <U> @Nullable U reduce(long parallelismThreshold,
+        BiFunction<? super K, ? super V, ? extends @Nullable U> mappingFunction,
+        BiFunction<? super U, ? super U, ? extends U> reducer) {
+      requireNonNull(mappingFunction);
+      requireNonNull(reducer);
+      return cache.data.reduce(parallelismThreshold, (key, value) -> {
+        V unwrapped = transformer.apply(value);
+        return (unwrapped == null) ? null : mappingFunction.apply(key, unwrapped);
+      }, reducer);
+    }
     @Override public Map<K, CompletableFuture<V>> refreshes() {
       var refreshes = cache.refreshes;
       if (refreshes == null) {
@@ -1060,6 +1099,7 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
       proxy.isRecordingStats = cache.isRecordingStats;
       proxy.removalListener = cache.removalListener;
       proxy.ticker = cache.ticker;
+      proxy.statsTicker = cache.statsTicker;
       proxy.async = true;
       return proxy;
     }
@@ -1116,6 +1156,7 @@ final class UnboundedLocalCache<K, V> implements LocalCache<K, V> {
       proxy.removalListener = cache.removalListener;
       proxy.cacheLoader = cacheLoader;
       proxy.ticker = cache.ticker;
+      proxy.statsTicker = cache.statsTicker;
       proxy.async = true;
       return proxy;
     }
@@ -56,6 +56,30 @@ public interface Weigher<K extends Object, V extends Object> {
     return self;
   }
 
+  /**
+   * Returns a weigher where the weight of an entry is the estimated number of bytes of heap memory
+   * retained by its key and value, so that {@link Caffeine#maximumWeight(long)} bounds the cache
+   * by a memory budget. The estimate traverses the objects reachable from the key and value and
+   * sizes each one by the layout of its class, which is introspected once and cached. Strings,
+   * arrays, boxed primitives, and the platform's collections and maps are estimated without
+   * reflection. An object whose fields are not accessible, such as one of a class in a module that
+   * is not open to this library, is counted by its shallow size, and enums and classes are not
+   * counted as they are shared by the application.
+   * <p>
+   * The estimate is approximate, as it assumes the typical HotSpot object layout and does not
+   * include the cache's own per-entry overhead. Weighing an entry has a cost proportional to the
+   * size of its object graph, which is paid when the entry is inserted or updated.
+   *
+   * @param <K> the type of keys
+   * @param <V> the type of values
+   * @return a weigher where an entry's weight is its estimated retained size in bytes
+   */
+  static <K, V> Weigher<K, V> memoryWeigher() {
+    @SuppressWarnings("unchecked")
+    Weigher<K, V> self = (Weigher<K, V>) MemoryWeigher.INSTANCE;
+    return self;
+  }
+
   /**
    * Returns a weigher that enforces that the weight is non-negative.
    *
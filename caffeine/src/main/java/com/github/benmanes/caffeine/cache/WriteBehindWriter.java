@@ -0,0 +1,387 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.requireArgument;
+import static com.github.benmanes.caffeine.cache.Caffeine.requireState;
+import static java.util.Objects.requireNonNull;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A writer that gives a cache "write-behind" semantics, where the writes are propagated to the
+ * system of record asynchronously and in batches. The writes to a key are coalesced while they are
+ * pending, so that a frequently updated entry, such as a counter or a user's session, is written
+ * once per flush rather than once per update.
+ * <p>
+ * A batch is flushed when the oldest pending write has waited for the flush interval, or earlier
+ * when the number of pending writes reaches the maximum batch size. The flushes are performed
+ * sequentially on the configured executor so that the writes to a key are applied in order. If the
+ * pending writes reach their maximum then the writing thread flushes a batch itself, which slows
+ * the producers down to the rate that the system of record can absorb.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   WriteBehindWriter<Key, Long> writer = WriteBehindWriter.newBuilder()
+ *       .flushInterval(Duration.ofSeconds(5))
+ *       .maximumBatchSize(500)
+ *       .build(counts -> database.saveAll(counts));
+ *   writer.compute(cache, key, (k, count) -> (count == null) ? 1L : count + 1L);
+ * }</pre>
+ * <p>
+ * The default coalescer keeps the latest value, which is correct when the writes are the entries'
+ * current values, as recorded by {@link #compute}. A combining coalescer, such as
+ * {@code Long::sum}, is only suitable when each {@link #write} records a delta that the system of
+ * record applies to its current value; pairing it with {@link #compute} would count the earlier
+ * updates again.
+ * <p>
+ * <b>Warning:</b> any exception thrown by the write action will <i>not</i> be propagated to the
+ * writing thread, only logged via a {@link Logger}. The failed batch is merged back into the
+ * pending writes and is retried by a subsequent flush.
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class WriteBehindWriter<K extends Object, V extends Object> {
+  static final Logger logger = System.getLogger(WriteBehindWriter.class.getName());
+  static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+  static final int DEFAULT_BATCH_SIZE = 1_000;
+
+  final Consumer<? super Map<K, V>> writeAction;
+  final BinaryOperator<V> coalescer;
+  final long maximumPendingWrites;
+  final long flushIntervalNanos;
+  final int maximumBatchSize;
+  final Scheduler scheduler;
+  final Executor executor;
+
+  final ConcurrentHashMap<K, V> pending;
+  final AtomicBoolean flushScheduled;
+  final AtomicBoolean timerScheduled;
+  final ReentrantLock flushLock;
+
+  WriteBehindWriter(Builder builder, Consumer<? super Map<K, V>> writeAction,
+      BinaryOperator<V> coalescer) {
+    this.writeAction = requireNonNull(writeAction);
+    this.coalescer = requireNonNull(coalescer);
+    this.maximumPendingWrites = builder.maximumPendingWrites;
+    this.flushIntervalNanos = builder.flushIntervalNanos;
+    this.maximumBatchSize = builder.maximumBatchSize;
+    this.scheduler = builder.scheduler;
+    this.executor = builder.executor;
+    this.pending = new ConcurrentHashMap<>();
+    this.flushScheduled = new AtomicBoolean();
+    this.timerScheduled = new AtomicBoolean();
+    this.flushLock = new ReentrantLock();
+  }
+
+  /**
+   * Returns a new builder for configuring a write-behind writer.
+   *
+   * @return a new builder with the default settings
+   */
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /**
+   * Records a write of the value to the system of record. If a write to the key is already pending
+   * then the values are coalesced.
+   * <p>
+   * This method may block to flush a batch if the maximum number of pending writes was reached, so
+   * it should not be called from within a computation on a cache. Use
+   * {@link #compute(Cache, Object, BiFunction)} to capture the result of a computation instead.
+   *
+   * @param key the key of the entry that was written
+   * @param value the value that was written
+   * @throws NullPointerException if the specified key or value is null
+   */
+  public void write(K key, V value) {
+    record(key, value);
+    afterWrite();
+  }
+
+  /**
+   * Attempts to compute a mapping in the cache, as if by {@code cache.asMap().compute}, and records
+   * the computed value as a write to the system of record. A removal, where the function returns
+   * {@code null}, is not propagated.
+   *
+   * @param cache the cache to update
+   * @param key the key with which the specified value is to be associated
+   * @param remappingFunction the function to compute a value
+   * @return the new value associated with the specified key, or null if none
+   * @throws NullPointerException if the specified key or remappingFunction is null
+   */
+  public @Nullable V compute(Cache<K, V> cache, K key,
+      BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    requireNonNull(remappingFunction);
+    V value = cache.asMap().compute(key, (k, oldValue) -> {
+      V newValue = remappingFunction.apply(k, oldValue);
+      if (newValue != null) {
+        record(k, newValue);
+      }
+      return newValue;
+    });
+    if (value != null) {
+      afterWrite();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the number of keys that have writes which are waiting to be flushed. The writes to a
+   * key are coalesced, so this is the number of writes that the next flushes will perform.
+   *
+   * @return the number of pending writes
+   */
+  public long pendingWrites() {
+    return pending.mappingCount();
+  }
+
+  /**
+   * Writes all of the pending writes to the system of record on the calling thread, blocking until
+   * any in-flight flush completes. If a batch fails then the remaining writes are left pending and
+   * the flush stops early.
+   */
+  public void flush() {
+    flush(Long.MAX_VALUE);
+  }
+
+  /** Writes up to the given number of batches, blocking until any in-flight flush completes. */
+  void flush(long maxBatches) {
+    flushLock.lock();
+    try {
+      for (long i = 0; (i < maxBatches) && !pending.isEmpty(); i++) {
+        var batch = nextBatch();
+        if (batch.isEmpty()) {
+          return;
+        }
+        try {
+          writeAction.accept(Collections.unmodifiableMap(batch));
+        } catch (Throwable t) {
+          logger.log(Level.WARNING, "Exception thrown by write-behind action", t);
+          batch.forEach((key, value) ->
+              pending.merge(key, value, (current, failed) -> coalescer.apply(failed, current)));
+          scheduleTimer();
+          return;
+        }
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /** Removes up to the maximum batch size of pending writes. */
+  Map<K, V> nextBatch() {
+    var batch = new LinkedHashMap<K, V>();
+    for (K key : pending.keySet()) {
+      V value = pending.remove(key);
+      if (value != null) {
+        batch.put(key, value);
+        if (batch.size() == maximumBatchSize) {
+          break;
+        }
+      }
+    }
+    return batch;
+  }
+
+  /** Adds the value to the pending writes, coalescing it with the key's pending write. */
+  void record(K key, V value) {
+    pending.merge(key, value, coalescer);
+  }
+
+  /** Schedules a flush based on the number of pending writes, or flushes if over the limit. */
+  void afterWrite() {
+    long pendingWrites = pending.mappingCount();
+    if (pendingWrites >= maximumPendingWrites) {
+      flush(/* maxBatches */ 1);
+    } else if (pendingWrites >= maximumBatchSize) {
+      scheduleFlush();
+    } else {
+      scheduleTimer();
+    }
+  }
+
+  /** Submits a task to flush the pending writes if one is not already in-flight. */
+  void scheduleFlush() {
+    if (!flushScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    Runnable task = () -> {
+      flushScheduled.set(false);
+      flush();
+    };
+    try {
+      executor.execute(task);
+    } catch (Throwable t) {
+      logger.log(Level.ERROR, "Exception thrown when submitting write-behind flush", t);
+      task.run();
+    }
+  }
+
+  /** Schedules a flush after the interval if one is not already pending. */
+  void scheduleTimer() {
+    if (pending.isEmpty() || !timerScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    Runnable task = () -> {
+      timerScheduled.set(false);
+      flush();
+    };
+    try {
+      scheduler.schedule(executor, task, flushIntervalNanos, TimeUnit.NANOSECONDS);
+    } catch (Throwable t) {
+      logger.log(Level.ERROR, "Exception thrown when scheduling write-behind flush", t);
+      timerScheduled.set(false);
+    }
+  }
+
+  /**
+   * A builder of {@link WriteBehindWriter} instances. The writer has a default flush interval of
+   * one second and batch size of one thousand writes, does not limit the number of pending writes,
+   * and flushes using the {@link ForkJoinPool#commonPool()} and the
+   * {@link Scheduler#systemScheduler()}.
+   */
+  public static final class Builder {
+    long flushIntervalNanos = DEFAULT_FLUSH_INTERVAL.toNanos();
+    long maximumPendingWrites = Long.MAX_VALUE;
+    int maximumBatchSize = DEFAULT_BATCH_SIZE;
+    Scheduler scheduler = Scheduler.systemScheduler();
+    Executor executor = ForkJoinPool.commonPool();
+
+    Builder() {}
+
+    /**
+     * Specifies the maximum duration that a write may be pending before it is flushed.
+     *
+     * @param duration the maximum duration that a write is delayed
+     * @return this {@code Builder} instance (for chaining)
+     * @throws IllegalArgumentException if {@code duration} is not positive
+     */
+    public Builder flushInterval(Duration duration) {
+      long nanos = Caffeine.saturatedToNanos(duration);
+      requireArgument(nanos > 0, "flush interval must be positive: %s", duration);
+      this.flushIntervalNanos = nanos;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of writes in a batch, where reaching this number of pending
+     * writes triggers a flush before the interval elapses.
+     *
+     * @param maximumBatchSize the maximum number of writes passed to the write action at once
+     * @return this {@code Builder} instance (for chaining)
+     * @throws IllegalArgumentException if {@code maximumBatchSize} is not positive
+     */
+    public Builder maximumBatchSize(int maximumBatchSize) {
+      requireArgument(maximumBatchSize > 0,
+          "maximum batch size must be positive: %s", maximumBatchSize);
+      this.maximumBatchSize = maximumBatchSize;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of pending writes, where the writing thread flushes the writes
+     * itself once it is reached. This bounds the memory used by the pending writes and applies
+     * backpressure when the system of record cannot keep up.
+     *
+     * @param maximumPendingWrites the maximum number of writes that may be pending
+     * @return this {@code Builder} instance (for chaining)
+     * @throws IllegalArgumentException if {@code maximumPendingWrites} is not positive
+     */
+    public Builder maximumPendingWrites(long maximumPendingWrites) {
+      requireArgument(maximumPendingWrites > 0,
+          "maximum pending writes must be positive: %s", maximumPendingWrites);
+      this.maximumPendingWrites = maximumPendingWrites;
+      return this;
+    }
+
+    /**
+     * Specifies the executor to use when flushing the writes.
+     *
+     * @param executor the executor to use for asynchronous flushes
+     * @return this {@code Builder} instance (for chaining)
+     * @throws NullPointerException if the specified executor is null
+     */
+    public Builder executor(Executor executor) {
+      this.executor = requireNonNull(executor);
+      return this;
+    }
+
+    /**
+     * Specifies the scheduler to use when the flush interval elapses.
+     *
+     * @param scheduler the scheduler that submits a flush to the executor
+     * @return this {@code Builder} instance (for chaining)
+     * @throws NullPointerException if the specified scheduler is null
+     */
+    public Builder scheduler(Scheduler scheduler) {
+      this.scheduler = requireNonNull(scheduler);
+      return this;
+    }
+
+    /**
+     * Builds a writer that passes the pending writes to the write action in batches, where a later
+     * write to a key replaces its pending value.
+     *
+     * @param writeAction the action that writes a batch to the system of record
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return a new writer having the requested features
+     * @throws IllegalStateException if the maximum pending writes is less than the batch size
+     */
+    public <K extends Object, V extends Object> WriteBehindWriter<K, V> build(
+        Consumer<? super Map<K, V>> writeAction) {
+      return build(writeAction, (older, newer) -> newer);
+    }
+
+    /**
+     * Builds a writer that passes the pending writes to the write action in batches, where a later
+     * write to a key is combined with its pending value by the coalescer.
+     *
+     * @param writeAction the action that writes a batch to the system of record
+     * @param coalescer the function that combines the pending value with a later write, which may
+     *        only combine the values (e.g. sum) when each write is a delta rather than a value
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return a new writer having the requested features
+     * @throws IllegalStateException if the maximum pending writes is less than the batch size
+     */
+    public <K extends Object, V extends Object> WriteBehindWriter<K, V> build(
+        Consumer<? super Map<K, V>> writeAction, BinaryOperator<V> coalescer) {
+      requireState(maximumPendingWrites >= maximumBatchSize,
+          "maximum pending writes (%s) must be at least the batch size (%s)",
+          maximumPendingWrites, maximumBatchSize);
+      return new WriteBehindWriter<>(this, writeAction, coalescer);
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.github.benmanes.caffeine.cache.stats;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.checkerframework.checker.index.qual.NonNegative;
@@ -45,6 +46,8 @@ import com.google.errorprone.annotations.Immutable;
  *       {@code loadSuccessCount} or {@code loadFailureCount} is incremented.
  *   <li>When an entry is evicted from the cache, {@code evictionCount} is incremented and the
  *       weight added to {@code evictionWeight}.
+ *   <li>When the stats counter records latencies, the duration of each load is also counted in a
+ *       histogram of the successful loads, the failed loads, or the refreshes.
  *   <li>No stats are modified when a cache entry is invalidated or manually removed.
  *   <li>No stats are modified by non-computing operations invoked on the
  *       {@linkplain Cache#asMap asMap} view of the cache.
@@ -72,10 +75,26 @@ public final class CacheStats {
   private final long evictionCount;
   private final long evictionWeight;
 
+  @SuppressWarnings("Immutable")
+  private final long @Nullable [] loadSuccessLatencies;
+  @SuppressWarnings("Immutable")
+  private final long @Nullable [] loadFailureLatencies;
+  @SuppressWarnings("Immutable")
+  private final long @Nullable [] refreshLatencies;
+
   private CacheStats(@NonNegative long hitCount, @NonNegative long missCount,
       @NonNegative long loadSuccessCount, @NonNegative long loadFailureCount,
       @NonNegative long totalLoadTime, @NonNegative long evictionCount,
       @NonNegative long evictionWeight) {
+    this(hitCount, missCount, loadSuccessCount, loadFailureCount, totalLoadTime,
+        evictionCount, evictionWeight, null, null, null);
+  }
+
+  private CacheStats(@NonNegative long hitCount, @NonNegative long missCount,
+      @NonNegative long loadSuccessCount, @NonNegative long loadFailureCount,
+      @NonNegative long totalLoadTime, @NonNegative long evictionCount,
+      @NonNegative long evictionWeight, long @Nullable [] loadSuccessLatencies,
+      long @Nullable [] loadFailureLatencies, long @Nullable [] refreshLatencies) {
     if ((hitCount < 0) || (missCount < 0) || (loadSuccessCount < 0) || (loadFailureCount < 0)
         || (totalLoadTime < 0) || (evictionCount < 0) || (evictionWeight < 0)) {
       throw new IllegalArgumentException();
@@ -87,6 +106,9 @@ public final class CacheStats {
     this.totalLoadTime = totalLoadTime;
     this.evictionCount = evictionCount;
     this.evictionWeight = evictionWeight;
+    this.loadSuccessLatencies = loadSuccessLatencies;
+    this.loadFailureLatencies = loadFailureLatencies;
+    this.refreshLatencies = refreshLatencies;
   }
 
   /**
@@ -111,6 +133,32 @@ public final class CacheStats {
         loadFailureCount, totalLoadTime, evictionCount, evictionWeight);
   }
 
+  /**
+   * Returns a copy of these statistics that includes the latency histograms, where each array
+   * holds the bucket counts of a {@link LatencyHistogram} snapshot.
+   */
+  CacheStats withLatencies(long @Nullable [] loadSuccessLatencies,
+      long @Nullable [] loadFailureLatencies, long @Nullable [] refreshLatencies) {
+    return new CacheStats(hitCount, missCount, loadSuccessCount, loadFailureCount,
+        totalLoadTime, evictionCount, evictionWeight, loadSuccessLatencies,
+        loadFailureLatencies, refreshLatencies);
+  }
+
+  /** Returns the bucket counts of the successful load latencies, or null if not recorded. */
+  long @Nullable [] loadSuccessLatencies() {
+    return loadSuccessLatencies;
+  }
+
+  /** Returns the bucket counts of the failed load latencies, or null if not recorded. */
+  long @Nullable [] loadFailureLatencies() {
+    return loadFailureLatencies;
+  }
+
+  /** Returns the bucket counts of the refresh latencies, or null if not recorded. */
+  long @Nullable [] refreshLatencies() {
+    return refreshLatencies;
+  }
+
   /**
    * Returns a statistics instance where no cache events have been recorded.
    *
@@ -267,6 +315,45 @@ public final class CacheStats {
     return (totalLoadCount == 0) ? 0.0 : (double) totalLoadTime / totalLoadCount;
   }
 
+  /**
+   * Returns the approximate number of nanoseconds within which the given percentage of the
+   * successful loads completed, or zero if the latencies were not recorded. The value is accurate
+   * to within a relative error of 12.5% and is rounded up.
+   *
+   * @param percentile the percentage of successful loads, between 0 and 1 inclusive
+   * @return the load latency at the percentile, in nanoseconds
+   * @throws IllegalArgumentException if the percentile is not between 0 and 1
+   */
+  public @NonNegative long loadSuccessLatency(double percentile) {
+    return LatencyHistogram.percentile(loadSuccessLatencies, percentile);
+  }
+
+  /**
+   * Returns the approximate number of nanoseconds within which the given percentage of the failed
+   * loads completed, or zero if the latencies were not recorded. The value is accurate to within
+   * a relative error of 12.5% and is rounded up.
+   *
+   * @param percentile the percentage of failed loads, between 0 and 1 inclusive
+   * @return the load latency at the percentile, in nanoseconds
+   * @throws IllegalArgumentException if the percentile is not between 0 and 1
+   */
+  public @NonNegative long loadFailureLatency(double percentile) {
+    return LatencyHistogram.percentile(loadFailureLatencies, percentile);
+  }
+
+  /**
+   * Returns the approximate number of nanoseconds within which the given percentage of the
+   * refreshes completed, whether successfully or not, or zero if the latencies were not recorded.
+   * The value is accurate to within a relative error of 12.5% and is rounded up.
+   *
+   * @param percentile the percentage of refreshes, between 0 and 1 inclusive
+   * @return the refresh latency at the percentile, in nanoseconds
+   * @throws IllegalArgumentException if the percentile is not between 0 and 1
+   */
+  public @NonNegative long refreshLatency(double percentile) {
+    return LatencyHistogram.percentile(refreshLatencies, percentile);
+  }
+
   /**
    * Returns the number of times an entry has been evicted. This count does not include manual
    * {@linkplain Cache#invalidate invalidations}.
@@ -290,20 +377,24 @@ public final class CacheStats {
   /**
    * Returns a new {@code CacheStats} representing the difference between this {@code CacheStats}
    * and {@code other}. Negative values, which aren't supported by {@code CacheStats} will be
-   * rounded up to zero.
+   * rounded up to zero. The latency histograms are subtracted bucket-wise, so that the percentiles
+   * describe the loads within the interval between the two snapshots.
    *
    * @param other the statistics to subtract with
    * @return the difference between this instance and {@code other}
    */
   public CacheStats minus(CacheStats other) {
-    return CacheStats.of(
+    return new CacheStats(
         Math.max(0L, saturatedSubtract(hitCount, other.hitCount)),
         Math.max(0L, saturatedSubtract(missCount, other.missCount)),
         Math.max(0L, saturatedSubtract(loadSuccessCount, other.loadSuccessCount)),
         Math.max(0L, saturatedSubtract(loadFailureCount, other.loadFailureCount)),
         Math.max(0L, saturatedSubtract(totalLoadTime, other.totalLoadTime)),
         Math.max(0L, saturatedSubtract(evictionCount, other.evictionCount)),
-        Math.max(0L, saturatedSubtract(evictionWeight, other.evictionWeight)));
+        Math.max(0L, saturatedSubtract(evictionWeight, other.evictionWeight)),
+        LatencyHistogram.minus(loadSuccessLatencies, other.loadSuccessLatencies),
+        LatencyHistogram.minus(loadFailureLatencies, other.loadFailureLatencies),
+        LatencyHistogram.minus(refreshLatencies, other.refreshLatencies));
   }
 
   /**
@@ -318,14 +409,17 @@ public final class CacheStats {
    * @return the sum of the statistics
    */
   public CacheStats plus(CacheStats other) {
-    return CacheStats.of(
+    return new CacheStats(
         saturatedAdd(hitCount, other.hitCount),
         saturatedAdd(missCount, other.missCount),
         saturatedAdd(loadSuccessCount, other.loadSuccessCount),
         saturatedAdd(loadFailureCount, other.loadFailureCount),
         saturatedAdd(totalLoadTime, other.totalLoadTime),
         saturatedAdd(evictionCount, other.evictionCount),
-        saturatedAdd(evictionWeight, other.evictionWeight));
+        saturatedAdd(evictionWeight, other.evictionWeight),
+        LatencyHistogram.plus(loadSuccessLatencies, other.loadSuccessLatencies),
+        LatencyHistogram.plus(loadFailureLatencies, other.loadFailureLatencies),
+        LatencyHistogram.plus(refreshLatencies, other.refreshLatencies));
   }
 
   /**
@@ -362,8 +456,9 @@ public final class CacheStats {
 
   @Override
   public int hashCode() {
-    return Objects.hash(hitCount, missCount, loadSuccessCount,
-        loadFailureCount, totalLoadTime, evictionCount, evictionWeight);
+    return Objects.hash(hitCount, missCount, loadSuccessCount, loadFailureCount, totalLoadTime,
+        evictionCount, evictionWeight, Arrays.hashCode(loadSuccessLatencies),
+        Arrays.hashCode(loadFailureLatencies), Arrays.hashCode(refreshLatencies));
   }
 
   @Override
@@ -380,7 +475,10 @@ public final class CacheStats {
         && loadFailureCount == other.loadFailureCount
         && totalLoadTime == other.totalLoadTime
         && evictionCount == other.evictionCount
-        && evictionWeight == other.evictionWeight;
+        && evictionWeight == other.evictionWeight
+        && Arrays.equals(loadSuccessLatencies, other.loadSuccessLatencies)
+        && Arrays.equals(loadFailureLatencies, other.loadFailureLatencies)
+        && Arrays.equals(refreshLatencies, other.refreshLatencies);
   }
 
   @Override
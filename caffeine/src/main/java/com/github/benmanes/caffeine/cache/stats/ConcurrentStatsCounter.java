@@ -19,11 +19,18 @@ import static java.util.Objects.requireNonNull;
 
 import java.util.concurrent.atomic.LongAdder;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 
 /**
  * A thread-safe {@link StatsCounter} implementation for use by {@link Cache} implementors.
+ * <p>
+ * The counter may optionally record the distribution of the load and refresh latencies in
+ * histograms, whose percentiles are available from the {@link CacheStats} snapshot. This may be
+ * enabled for a cache by supplying the counter to the builder, for example
+ * {@code Caffeine.newBuilder().recordStats(() -> new ConcurrentStatsCounter(true))}.
  *
  * @author ben.manes@gmail.com (Ben Manes)
  */
@@ -36,10 +43,33 @@ public final class ConcurrentStatsCounter implements StatsCounter {
   private final LongAdder evictionCount;
   private final LongAdder evictionWeight;
 
+  private final @Nullable LatencyHistogram loadSuccessLatencies;
+  private final @Nullable LatencyHistogram loadFailureLatencies;
+  private final @Nullable LatencyHistogram refreshLatencies;
+
   /**
    * Constructs an instance with all counts initialized to zero.
    */
   public ConcurrentStatsCounter() {
+    this(/* recordLatencies */ false);
+  }
+
+  /**
+   * Constructs an instance with all counts initialized to zero that, if specified, records the
+   * latencies of loads and refreshes into histograms.
+   *
+   * @param recordLatencies if the load and refresh latency histograms should be recorded
+   */
+  public ConcurrentStatsCounter(boolean recordLatencies) {
+    if (recordLatencies) {
+      loadSuccessLatencies = new LatencyHistogram();
+      loadFailureLatencies = new LatencyHistogram();
+      refreshLatencies = new LatencyHistogram();
+    } else {
+      loadSuccessLatencies = null;
+      loadFailureLatencies = null;
+      refreshLatencies = null;
+    }
     hitCount = new LongAdder();
     missCount = new LongAdder();
     loadSuccessCount = new LongAdder();
@@ -63,12 +93,36 @@ public final class ConcurrentStatsCounter implements StatsCounter {
   public void recordLoadSuccess(long loadTime) {
     loadSuccessCount.increment();
     totalLoadTime.add(loadTime);
+    if (loadSuccessLatencies != null) {
+      loadSuccessLatencies.record(loadTime);
+    }
   }
 
   @Override
   public void recordLoadFailure(long loadTime) {
     loadFailureCount.increment();
     totalLoadTime.add(loadTime);
+    if (loadFailureLatencies != null) {
+      loadFailureLatencies.record(loadTime);
+    }
+  }
+
+  @Override
+  public void recordRefreshSuccess(long loadTime) {
+    loadSuccessCount.increment();
+    totalLoadTime.add(loadTime);
+    if (refreshLatencies != null) {
+      refreshLatencies.record(loadTime);
+    }
+  }
+
+  @Override
+  public void recordRefreshFailure(long loadTime) {
+    loadFailureCount.increment();
+    totalLoadTime.add(loadTime);
+    if (refreshLatencies != null) {
+      refreshLatencies.record(loadTime);
+    }
   }
 
   @Override
@@ -80,7 +134,7 @@ public final class ConcurrentStatsCounter implements StatsCounter {
 
   @Override
   public CacheStats snapshot() {
-    return CacheStats.of(
+    var stats = CacheStats.of(
         negativeToMaxValue(hitCount.sum()),
         negativeToMaxValue(missCount.sum()),
         negativeToMaxValue(loadSuccessCount.sum()),
@@ -88,6 +142,12 @@ public final class ConcurrentStatsCounter implements StatsCounter {
         negativeToMaxValue(totalLoadTime.sum()),
         negativeToMaxValue(evictionCount.sum()),
         negativeToMaxValue(evictionWeight.sum()));
+    if ((loadSuccessLatencies == null) || (loadFailureLatencies == null)
+        || (refreshLatencies == null)) {
+      return stats;
+    }
+    return stats.withLatencies(loadSuccessLatencies.snapshot(),
+        loadFailureLatencies.snapshot(), refreshLatencies.snapshot());
   }
 
   /** Returns {@code value}, if non-negative. Otherwise, returns {@link Long#MAX_VALUE}. */
@@ -109,6 +169,12 @@ public final class ConcurrentStatsCounter implements StatsCounter {
     totalLoadTime.add(otherStats.totalLoadTime());
     evictionCount.add(otherStats.evictionCount());
     evictionWeight.add(otherStats.evictionWeight());
+    if ((loadSuccessLatencies != null) && (loadFailureLatencies != null)
+        && (refreshLatencies != null)) {
+      loadSuccessLatencies.incrementBy(otherStats.loadSuccessLatencies());
+      loadFailureLatencies.incrementBy(otherStats.loadFailureLatencies());
+      refreshLatencies.incrementBy(otherStats.refreshLatencies());
+    }
   }
 
   @Override
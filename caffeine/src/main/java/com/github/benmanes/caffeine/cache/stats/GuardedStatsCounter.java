@@ -74,6 +74,24 @@ final class GuardedStatsCounter implements StatsCounter {
     }
   }
 
+  @Override
+  public void recordRefreshSuccess(long loadTime) {
+    try {
+      delegate.recordRefreshSuccess(loadTime);
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Exception thrown by stats counter", t);
+    }
+  }
+
+  @Override
+  public void recordRefreshFailure(long loadTime) {
+    try {
+      delegate.recordRefreshFailure(loadTime);
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Exception thrown by stats counter", t);
+    }
+  }
+
   @Override
   public void recordEviction(int weight, RemovalCause cause) {
     requireNonNull(cause);
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A concurrent histogram of latencies that uses log-linear buckets. Each power of two is divided
+ * into a fixed number of linear sub-buckets so that the recorded value is resolved within a
+ * relative error of {@code 1 / SUB_BUCKETS}, while the full range of a {@code long} is covered by a
+ * small number of buckets.
+ * <p>
+ * The counts are striped by the recording thread so that concurrent writers usually increment
+ * different cache lines. A snapshot sums the stripes into a single array of bucket counts, which
+ * is the form retained by {@link CacheStats}.
+ */
+final class LatencyHistogram {
+  /** The number of bits used to resolve the linear sub-buckets within a power of two. */
+  static final int SUB_BUCKET_BITS = 3;
+  /** The number of linear sub-buckets within a power of two. */
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  /** The total number of buckets needed to represent any non-negative long. */
+  static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+  /** The maximum number of stripes. */
+  static final int MAXIMUM_STRIPES = 8;
+
+  final AtomicLongArray counts;
+  final int stripeMask;
+
+  LatencyHistogram() {
+    int stripes = Math.min(MAXIMUM_STRIPES, ceilingPowerOfTwo(
+        Runtime.getRuntime().availableProcessors()));
+    counts = new AtomicLongArray(stripes * BUCKETS);
+    stripeMask = stripes - 1;
+  }
+
+  /** Records the duration, in nanoseconds. */
+  void record(long duration) {
+    int stripe = mix((int) Thread.currentThread().getId()) & stripeMask;
+    counts.getAndIncrement((stripe * BUCKETS) + bucketIndex(Math.max(0L, duration)));
+  }
+
+  /** Returns the sum of the bucket counts across all of the stripes. */
+  long[] snapshot() {
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < counts.length(); i++) {
+      snapshot[i % BUCKETS] += counts.get(i);
+    }
+    return snapshot;
+  }
+
+  /** Adds the bucket counts from a snapshot. */
+  void incrementBy(long @Nullable [] buckets) {
+    if (buckets != null) {
+      for (int i = 0; i < buckets.length; i++) {
+        if (buckets[i] != 0) {
+          counts.getAndAdd(i, buckets[i]);
+        }
+      }
+    }
+  }
+
+  /** Returns the index of the bucket that the non-negative value is counted by. */
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return ((shift + 1) * SUB_BUCKETS) + subBucket;
+  }
+
+  /** Returns the largest value that is counted by the bucket. */
+  static long highestValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index / SUB_BUCKETS) - 1;
+    long lowest = (long) (SUB_BUCKETS + (index % SUB_BUCKETS)) << shift;
+    long highest = lowest + ((1L << shift) - 1);
+    return (highest < 0) ? Long.MAX_VALUE : highest;
+  }
+
+  /**
+   * Returns the smallest recorded value that is greater than or equal to the percentage of all of
+   * the recorded values, or zero if no values were recorded.
+   */
+  static long percentile(long @Nullable [] buckets, double percentile) {
+    if ((percentile < 0.0) || (percentile > 1.0)) {
+      throw new IllegalArgumentException("percentile must be between 0 and 1: " + percentile);
+    } else if (buckets == null) {
+      return 0L;
+    }
+
+    long total = 0L;
+    for (long count : buckets) {
+      total += count;
+    }
+    if (total == 0L) {
+      return 0L;
+    }
+
+    long rank = Math.max(1L, (long) Math.ceil(percentile * total));
+    long seen = 0L;
+    for (int i = 0; i < buckets.length; i++) {
+      seen += buckets[i];
+      if (seen >= rank) {
+        return highestValue(i);
+      }
+    }
+    return highestValue(buckets.length - 1);
+  }
+
+  /** Returns the bucket-wise sum, or null if neither has recorded latencies. */
+  static long @Nullable [] plus(long @Nullable [] a, long @Nullable [] b) {
+    if ((a == null) || (b == null)) {
+      return (a == null) ? b : a;
+    }
+    long[] sum = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      sum[i] = a[i] + b[i];
+      if (sum[i] < 0) {
+        sum[i] = Long.MAX_VALUE;
+      }
+    }
+    return sum;
+  }
+
+  /** Returns the bucket-wise difference, rounded up to zero, or null if unrecorded. */
+  static long @Nullable [] minus(long @Nullable [] a, long @Nullable [] b) {
+    if ((a == null) || (b == null)) {
+      return a;
+    }
+    long[] difference = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      difference[i] = Math.max(0L, a[i] - b[i]);
+    }
+    return difference;
+  }
+
+  /** Applies a supplemental hash function to spread the thread ids across the stripes. */
+  static int mix(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+  static int ceilingPowerOfTwo(int x) {
+    // From Hacker's Delight, Chapter 3, Harry S. Warren Jr.
+    return 1 << -Integer.numberOfLeadingZeros(x - 1);
+  }
+}
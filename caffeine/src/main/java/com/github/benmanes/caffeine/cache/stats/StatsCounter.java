@@ -20,6 +20,8 @@ import java.util.Map;
 import org.checkerframework.checker.index.qual.NonNegative;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 
 /**
@@ -70,6 +72,33 @@ public interface StatsCounter {
    */
   void recordLoadFailure(@NonNegative long loadTime);
 
+  /**
+   * Records the successful reload of an existing entry. This method should be called when an
+   * entry is refreshed (such as by {@link Caffeine#refreshAfterWrite} or {@link LoadingCache#refresh})
+   * and the reloading completes successfully. The default implementation records the reload as a
+   * successful load.
+   *
+   * @param loadTime the number of nanoseconds the cache spent computing or retrieving the new value
+   */
+  default void recordRefreshSuccess(@NonNegative long loadTime) {
+    // This method was added & implemented in version 3.0.6
+    recordLoadSuccess(loadTime);
+  }
+
+  /**
+   * Records the failed reload of an existing entry. This method should be called when an entry is
+   * refreshed (such as by {@link Caffeine#refreshAfterWrite} or {@link LoadingCache#refresh}), but
+   * an exception is thrown while reloading the entry or the reloading function returns null. The
+   * default implementation records the reload as a failed load.
+   *
+   * @param loadTime the number of nanoseconds the cache spent computing or retrieving the new value
+   *        prior to discovering the value doesn't exist or an exception being thrown
+   */
+  default void recordRefreshFailure(@NonNegative long loadTime) {
+    // This method was added & implemented in version 3.0.6
+    recordLoadFailure(loadTime);
+  }
+
   /**
    * Records the eviction of an entry from the cache. This should only been called when an entry is
    * evicted due to the cache's eviction strategy, and not as a result of manual
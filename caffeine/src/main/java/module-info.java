@@ -3,5 +3,6 @@ module com.github.benmanes.caffeine {
   exports com.github.benmanes.caffeine.cache.stats;
 
   requires static com.google.errorprone.annotations;
+  requires static jdk.jfr;
   requires static org.checkerframework.checker.qual;
 }
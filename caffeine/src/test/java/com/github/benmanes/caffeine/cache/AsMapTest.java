@@ -55,6 +55,7 @@ import com.github.benmanes.caffeine.cache.testing.CacheProvider;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Implementation;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Listener;
+import com.github.benmanes.caffeine.cache.testing.CacheSpec.Maximum;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Population;
 import com.github.benmanes.caffeine.cache.testing.CacheValidationListener;
 import com.github.benmanes.caffeine.cache.testing.CheckNoStats;
@@ -103,6 +104,21 @@ public final class AsMapTest {
         .hasSize(context.initialSize()).exclusively();
   }
 
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, incrementalClear = true,
+      population = { Population.EMPTY, Population.FULL }, maximumSize = Maximum.UNREACHABLE)
+  public void clear_incremental(Map<Int, Int> map, CacheContext context) {
+    int added = (2 * BoundedLocalCache.CLEAR_BATCH_SIZE) + 1;
+    for (int i = 1; i <= added; i++) {
+      map.put(intern(new Int(-i)), intern(new Int(i)));
+    }
+
+    map.clear();
+    assertThat(map).isExhaustivelyEmpty();
+    assertThat(context).removalNotifications().withCause(EXPLICIT)
+        .hasSize(context.initialSize() + added).exclusively();
+  }
+
   /* --------------- contains --------------- */
 
   @CheckNoStats
@@ -21,7 +21,9 @@ import static com.github.benmanes.caffeine.cache.BLCHeader.DrainStatusRef.PROCES
 import static com.github.benmanes.caffeine.cache.BLCHeader.DrainStatusRef.REQUIRED;
 import static com.github.benmanes.caffeine.cache.BoundedLocalCache.EXPIRE_WRITE_TOLERANCE;
 import static com.github.benmanes.caffeine.cache.BoundedLocalCache.PERCENT_MAIN_PROTECTED;
+import static com.github.benmanes.caffeine.cache.BoundedLocalCache.REFERENCE_DRAIN_MAX;
 import static com.github.benmanes.caffeine.cache.BoundedLocalCache.WRITE_BUFFER_MAX;
+import static com.github.benmanes.caffeine.cache.BoundedLocalCache.WRITE_BUFFER_RETRIES;
 import static com.github.benmanes.caffeine.cache.RemovalCause.COLLECTED;
 import static com.github.benmanes.caffeine.cache.RemovalCause.EXPIRED;
 import static com.github.benmanes.caffeine.cache.RemovalCause.EXPLICIT;
@@ -35,6 +37,7 @@ import static com.github.benmanes.caffeine.testing.Awaits.await;
 import static com.github.benmanes.caffeine.testing.MapSubject.assertThat;
 import static com.google.common.truth.Truth.assertThat;
 import static java.lang.Thread.State.BLOCKED;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -45,7 +48,9 @@ import static org.mockito.Mockito.when;
 import java.lang.Thread.State;
 import java.lang.ref.Reference;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -82,6 +87,7 @@ import com.github.benmanes.caffeine.cache.testing.CacheValidationListener;
 import com.github.benmanes.caffeine.testing.ConcurrentTestHarness;
 import com.github.benmanes.caffeine.testing.Int;
 import com.google.common.collect.Iterables;
+import com.google.common.testing.FakeTicker;
 import com.google.common.testing.GcFinalization;
 
 /**
@@ -173,6 +179,52 @@ public final class BoundedLocalCacheTest {
     await().untilAsserted(() -> assertThat(cache.drainStatus).isAnyOf(REQUIRED, IDLE));
   }
 
+  @Test
+  public void drainValueReferences_bounded() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .weakValues()
+        .build());
+    for (int i = 0; i <= REFERENCE_DRAIN_MAX; i++) {
+      cache.put(Int.valueOf(i), Int.valueOf(i));
+    }
+    for (var node : cache.data.values()) {
+      ((Reference<?>) node.getValueReference()).enqueue();
+    }
+
+    cache.cleanUp();
+    assertThat(cache.data).hasSize(1);
+    assertThat(cache.drainStatus).isEqualTo(REQUIRED);
+
+    cache.cleanUp();
+    assertThat(cache.data).isEmpty();
+    assertThat(cache.drainStatus).isEqualTo(IDLE);
+  }
+
+  @Test
+  public void drainKeyReferences_bounded() {
+    var cache = asBoundedLocalCache(Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .weakKeys()
+        .build());
+    var keys = new ArrayList<Int>();
+    for (int i = 0; i <= REFERENCE_DRAIN_MAX; i++) {
+      keys.add(Int.valueOf(i));
+      cache.put(keys.get(i), Int.valueOf(i));
+    }
+    for (var node : cache.data.values()) {
+      ((Reference<?>) node.getKeyReference()).enqueue();
+    }
+
+    cache.cleanUp();
+    assertThat(cache.data).hasSize(1);
+    assertThat(cache.drainStatus).isEqualTo(REQUIRED);
+
+    cache.cleanUp();
+    assertThat(cache.data).isEmpty();
+    assertThat(cache.drainStatus).isEqualTo(IDLE);
+  }
+
   @Test(dataProvider = "caches")
   @CacheSpec(compute = Compute.SYNC, implementation = Implementation.Caffeine,
       population = Population.FULL, maximumSize = Maximum.FULL,
@@ -211,6 +263,49 @@ public final class BoundedLocalCacheTest {
     assertThat(triggered[0]).isEqualTo(WRITE_BUFFER_MAX + 1);
   }
 
+  @Test
+  public void afterWrite_striped_sameKey() {
+    var cache = new BoundedLocalCache<Object, Object>(
+        Caffeine.newBuilder().stripedWriteBuffer(), /* loader */ null, /* async */ false) {
+      @Override void scheduleDrainBuffers() {}
+    };
+    assertThat(cache.writeBuffers).hasLength(BoundedLocalCache.WRITE_BUFFER_STRIPES);
+    assertThat(cache.writeBuffer).isSameInstanceAs(cache.writeBuffers[0]);
+
+    var order = new ArrayList<Integer>();
+    for (int i = 0; i < 10; i++) {
+      int task = i;
+      cache.afterWrite("a", () -> order.add(task));
+    }
+    int stripes = 0;
+    for (var buffer : cache.writeBuffers) {
+      stripes += buffer.isEmpty() ? 0 : 1;
+    }
+    assertThat(stripes).isEqualTo(1);
+    assertThat(cache.writeBufferSize()).isEqualTo(10);
+
+    cache.cleanUp();
+    assertThat(order).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9).inOrder();
+    assertThat(cache.writeBufferSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void afterWrite_striped_drainsAll() {
+    var cache = (BoundedLocalCache<Integer, Integer>) Caffeine.newBuilder()
+        .executor(task -> {}).stripedWriteBuffer().maximumSize(100)
+        .<Integer, Integer>build().asMap();
+    for (int i = 0; i < 1_000; i++) {
+      cache.put(i, i);
+      if ((i % 3) == 0) {
+        cache.remove(i);
+      }
+    }
+    cache.cleanUp();
+    assertThat(cache.writeBufferSize()).isEqualTo(0);
+    assertThat(cache.weightedSize()).isEqualTo(100);
+    assertThat(cache.estimatedSize()).isEqualTo(100);
+  }
+
   @Test(dataProvider = "caches")
   @CacheSpec(population = Population.EMPTY, executor = CacheExecutor.DISCARDING)
   public void afterWrite_drainFullWriteBuffer_discarded(
@@ -237,6 +332,77 @@ public final class BoundedLocalCacheTest {
     assertThat(triggered[0]).isEqualTo(WRITE_BUFFER_MAX + 1);
   }
 
+  /* --------------- Diagnostics --------------- */
+
+  @Test
+  public void diagnostics() {
+    Cache<Int, Int> cache = Caffeine.newBuilder()
+        .executor(CacheExecutor.DIRECT.create())
+        .maximumSize(100)
+        .build();
+    var diagnostics = cache.policy().diagnostics().orElseThrow();
+    assertThat(cache.policy().diagnostics().orElseThrow()).isSameInstanceAs(diagnostics);
+
+    for (int i = 0; i < 200; i++) {
+      cache.put(Int.valueOf(i), Int.valueOf(i));
+      cache.getIfPresent(Int.valueOf(i));
+    }
+    cache.cleanUp();
+
+    var localCache = asBoundedLocalCache(cache);
+    long maintenanceCount = diagnostics.maintenanceCount();
+    assertThat(maintenanceCount).isGreaterThan(0);
+    assertThat(diagnostics.maintenanceTime()).isAtLeast(Duration.ZERO);
+    assertThat(diagnostics.readBufferOffers()).isAtLeast(diagnostics.readBufferDrops());
+    assertThat(diagnostics.writeBufferRetries()).isEqualTo(0);
+    assertThat(diagnostics.synchronousDrains()).isEqualTo(0);
+    assertThat(diagnostics.windowWeightedSize().getAsLong()
+        + diagnostics.protectedWeightedSize().getAsLong()
+        + diagnostics.probationWeightedSize().getAsLong()).isEqualTo(localCache.weightedSize());
+    assertThat(diagnostics.climberStepSize().getAsDouble())
+        .isEqualTo(localCache.stepSize());
+    assertThat(diagnostics.climberAdjustment().getAsLong())
+        .isEqualTo(localCache.adjustment());
+    assertThat(diagnostics.sketchResetCount())
+        .isEqualTo(localCache.frequencySketch().resets);
+
+    // reading the metrics does not perform the maintenance work
+    diagnostics.readBufferOffers();
+    diagnostics.probationWeightedSize();
+    assertThat(diagnostics.maintenanceCount()).isEqualTo(maintenanceCount);
+  }
+
+  @Test
+  public void diagnostics_unbounded() {
+    Cache<Int, Int> cache = Caffeine.newBuilder()
+        .expireAfterAccess(Duration.ofMinutes(1))
+        .executor(CacheExecutor.DIRECT.create())
+        .build();
+    var diagnostics = cache.policy().diagnostics().orElseThrow();
+    assertThat(diagnostics.windowWeightedSize()).isEmpty();
+    assertThat(diagnostics.protectedWeightedSize()).isEmpty();
+    assertThat(diagnostics.probationWeightedSize()).isEmpty();
+    assertThat(diagnostics.climberStepSize()).isEmpty();
+    assertThat(diagnostics.climberAdjustment()).isEmpty();
+    assertThat(diagnostics.sketchResetCount()).isEqualTo(0);
+  }
+
+  @Test(dataProvider = "caches")
+  @CacheSpec(population = Population.EMPTY)
+  public void diagnostics_writeBufferBackpressure(
+      BoundedLocalCache<Int, Int> cache, CacheContext context) {
+    cache.drainStatus = PROCESSING_TO_IDLE;
+    for (int i = 0; i < WRITE_BUFFER_MAX; i++) {
+      cache.afterWrite(() -> {});
+    }
+    assertThat(cache.writeBufferRetries.sum()).isEqualTo(0);
+    assertThat(cache.synchronousDrains.sum()).isEqualTo(0);
+
+    cache.afterWrite(() -> {});
+    assertThat(cache.writeBufferRetries.sum()).isEqualTo(WRITE_BUFFER_RETRIES);
+    assertThat(cache.synchronousDrains.sum()).isEqualTo(1);
+  }
+
   /* --------------- Eviction --------------- */
 
   @Test
@@ -893,6 +1059,167 @@ public final class BoundedLocalCacheTest {
     checkDrainBlocks(cache, cache::clear);
   }
 
+  @Test
+  public void streamSnapshot_ordered() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .maximumSize(1_000)
+        .build();
+    for (int i = 0; i < 500; i++) {
+      cache.put(i, i);
+      cache.getIfPresent(i % 10);
+    }
+    var eviction = cache.policy().eviction().orElseThrow();
+    assertThat(eviction.coldest(stream -> stream.map(Map.Entry::getKey).collect(toList())))
+        .containsExactlyElementsIn(eviction.coldest(Integer.MAX_VALUE).keySet()).inOrder();
+    assertThat(eviction.hottest(stream -> stream.map(Map.Entry::getKey).collect(toList())))
+        .containsExactlyElementsIn(eviction.hottest(Integer.MAX_VALUE).keySet()).inOrder();
+  }
+
+  @Test
+  public void streamSnapshot_shortCircuits() {
+    var cache = (BoundedLocalCache<Integer, Integer>) Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .maximumSize(1_000)
+        .build().asMap();
+    for (int i = 0; i < 500; i++) {
+      cache.put(i, i);
+    }
+    var spliterator = new BoundedLocalCache.SnapshotSpliterator<>(
+        cache, cache.evictionOrder(/* hottest */ false), value -> value);
+    assertThat(spliterator.tryAdvance(entry -> {})).isTrue();
+    assertThat(spliterator.size).isEqualTo(BoundedLocalCache.SNAPSHOT_BATCH_SIZE);
+    assertThat(spliterator.exhausted).isFalse();
+    assertThat(cache.evictionLock.isLocked()).isFalse();
+  }
+
+  @Test
+  public void streamSnapshot_unlockedWhileConsumed() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .maximumSize(1_000)
+        .build();
+    var expected = new HashSet<Integer>();
+    for (int i = 0; i < 600; i++) {
+      cache.put(i, i);
+      expected.add(i);
+    }
+    cache.cleanUp();
+
+    var map = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    var emitted = new HashSet<Integer>();
+    var keys = cache.policy().eviction().orElseThrow().hottest(stream -> stream.map(entry -> {
+      assertThat(map.evictionLock.isHeldByCurrentThread()).isFalse();
+      int key = entry.getKey();
+      emitted.add(key);
+
+      // reorder the consumed entry and remove a not yet traversed neighbor, which may be the
+      // position that the next batch resumes from
+      cache.getIfPresent(key);
+      int victim = key - 1;
+      if ((victim % 5 == 0) && !emitted.contains(victim)) {
+        cache.invalidate(victim);
+        expected.remove(victim);
+      }
+      cache.cleanUp();
+      return key;
+    }).collect(toList()));
+
+    assertThat(keys).containsNoDuplicates();
+    assertThat(keys).containsExactlyElementsIn(expected);
+  }
+
+  @Test
+  public void streamSnapshot_unlockedWhileConsumed_reordered() {
+    var ticker = new FakeTicker();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofDays(1))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build();
+    for (int i = 0; i < 600; i++) {
+      cache.put(i, i);
+    }
+
+    var map = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    var expiration = cache.policy().expireAfterWrite().orElseThrow();
+    var keys = expiration.oldest(stream -> stream.map(entry -> {
+      assertThat(map.evictionLock.isHeldByCurrentThread()).isFalse();
+      int key = entry.getKey();
+
+      // move a not yet traversed entry to the tail, which may be the position that the next
+      // batch resumes from, so that it is observed once at its new position
+      ticker.advance(Duration.ofSeconds(2));
+      if ((key % 3 == 0) && (key + 1 < 600)) {
+        cache.put(key + 1, -(key + 1));
+      }
+      cache.cleanUp();
+      return key;
+    }).collect(toList()));
+
+    assertThat(keys).containsNoDuplicates();
+    assertThat(keys).hasSize(600);
+  }
+
+  @Test
+  public void streamSnapshot_metadata() {
+    var ticker = new FakeTicker();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .weigher((Integer key, Integer value) -> value)
+        .maximumWeight(1_000)
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build();
+    cache.put(1, 10);
+    ticker.advance(Duration.ofSeconds(10));
+    cache.put(2, 20);
+
+    var expiration = cache.policy().expireAfterWrite().orElseThrow();
+    var entries = expiration.oldest(stream -> stream.collect(toList()));
+    assertThat(entries).hasSize(2);
+
+    var oldest = entries.get(0);
+    assertThat(oldest.getKey()).isEqualTo(1);
+    assertThat(oldest.weight()).isEqualTo(10);
+    assertThat(oldest.snapshotAt()).isEqualTo(ticker.read());
+    assertThat(oldest.expiresAfter()).isEqualTo(Duration.ofSeconds(50));
+    assertThat(oldest.refreshableAfter()).isGreaterThan(Duration.ofDays(365));
+
+    var youngest = entries.get(1);
+    assertThat(youngest.getKey()).isEqualTo(2);
+    assertThat(youngest.weight()).isEqualTo(20);
+    assertThat(youngest.expiresAfter()).isEqualTo(Duration.ofMinutes(1));
+  }
+
+  @Test
+  public void streamSnapshot_variable() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfter(new Expiry<Integer, Integer>() {
+          @Override public long expireAfterCreate(Integer key, Integer value, long currentTime) {
+            return TimeUnit.MINUTES.toNanos(value);
+          }
+          @Override public long expireAfterUpdate(Integer key, Integer value,
+              long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+          @Override public long expireAfterRead(Integer key, Integer value,
+              long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .executor(Runnable::run)
+        .build();
+    for (int i = 1; i <= 500; i++) {
+      cache.put(i, i);
+    }
+    var expiration = cache.policy().expireVariably().orElseThrow();
+    assertThat(expiration.oldest(stream -> stream.map(Map.Entry::getKey).collect(toList())))
+        .containsExactlyElementsIn(expiration.oldest(Integer.MAX_VALUE).keySet()).inOrder();
+    assertThat(expiration.youngest(stream -> stream.findFirst().orElseThrow().getKey()))
+        .isEqualTo(expiration.youngest(1).keySet().iterator().next());
+  }
+
   @Test(dataProvider = "caches")
   @CacheSpec(compute = Compute.SYNC, population = Population.EMPTY, maximumSize = Maximum.FULL)
   public void drain_blocksOrderedMap(BoundedLocalCache<Int, Int> cache,
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@Test(singleThreaded = true)
+public final class CacheEventsTest {
+
+  @Test
+  public void disabledByDefault() {
+    assertThat(CacheEvents.ENABLED).isTrue();
+    assertThat(CacheEvents.beginMaintenance()).isNull();
+    assertThat(CacheEvents.beginWriteBufferBackpressure()).isNull();
+    assertThat(CacheEvents.beginLoad(CacheEvents.LOAD, 1)).isNull();
+  }
+
+  @Test
+  public void maintenance() throws IOException {
+    var events = record(List.of("Maintenance"), () -> {
+      LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+          .executor(Runnable::run)
+          .maximumSize(10)
+          .build(key -> key);
+      for (int i = 0; i < 100; i++) {
+        cache.get(i);
+      }
+      cache.cleanUp();
+    });
+    assertThat(events).isNotEmpty();
+    long evicted = events.stream().mapToLong(event -> event.getInt("evicted")).sum();
+    assertThat(evicted).isEqualTo(90);
+  }
+
+  @Test
+  public void load() throws IOException {
+    var events = record(List.of("Load"), () -> {
+      LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+          .executor(Runnable::run)
+          .build(key -> (key == 0) ? null : key);
+      cache.get(0);
+      cache.get(1);
+    });
+    assertThat(events).hasSize(2);
+    assertThat(events.stream().map(event -> event.getBoolean("successful")).collect(toList()))
+        .containsExactly(false, true);
+    assertThat(events.get(0).getString("operation")).isEqualTo(CacheEvents.LOAD);
+  }
+
+  /** Returns the events of the given types that were emitted by the current thread. */
+  private static List<RecordedEvent> record(List<String> names, Runnable workload)
+      throws IOException {
+    Path file = Files.createTempFile("caffeine", ".jfr");
+    try (var recording = new Recording()) {
+      for (String name : names) {
+        recording.enable("com.github.benmanes.caffeine." + name);
+      }
+      recording.start();
+      workload.run();
+      recording.stop();
+      recording.dump(file);
+      long threadId = Thread.currentThread().getId();
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(event -> event.getThread().getJavaThreadId() == threadId)
+          .collect(toList());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
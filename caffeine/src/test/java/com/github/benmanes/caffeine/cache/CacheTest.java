@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -42,7 +43,9 @@ import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.github.benmanes.caffeine.cache.testing.CacheContext;
 import com.github.benmanes.caffeine.cache.testing.CacheProvider;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec;
+import com.github.benmanes.caffeine.cache.testing.CacheSpec.Implementation;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Listener;
+import com.github.benmanes.caffeine.cache.testing.CacheSpec.Maximum;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec.Population;
 import com.github.benmanes.caffeine.cache.testing.CacheValidationListener;
 import com.github.benmanes.caffeine.cache.testing.CheckNoStats;
@@ -658,6 +661,21 @@ public final class CacheTest {
         .hasSize(context.initialSize()).exclusively();
   }
 
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine, incrementalClear = true,
+      population = { Population.EMPTY, Population.FULL }, maximumSize = Maximum.UNREACHABLE)
+  public void invalidateAll_incremental(Cache<Int, Int> cache, CacheContext context) {
+    int added = (2 * BoundedLocalCache.CLEAR_BATCH_SIZE) + 1;
+    for (int i = 1; i <= added; i++) {
+      cache.put(intern(new Int(-i)), intern(new Int(i)));
+    }
+
+    cache.invalidateAll();
+    assertThat(cache).isEmpty();
+    assertThat(context).removalNotifications().withCause(EXPLICIT)
+        .hasSize(context.initialSize() + added).exclusively();
+  }
+
   @CheckNoStats
   @Test(dataProvider = "caches")
   @CacheSpec(removalListener = { Listener.DEFAULT, Listener.REJECTING })
@@ -750,6 +768,67 @@ public final class CacheTest {
     assertThat(cache.policy().getIfPresentQuietly(context.lastKey())).isNotNull();
   }
 
+  /* --------------- Policy: bulk operations --------------- */
+
+  @CheckNoStats
+  @Test(dataProvider = "caches", expectedExceptions = NullPointerException.class)
+  @CacheSpec(implementation = Implementation.Caffeine,
+      removalListener = { Listener.DEFAULT, Listener.REJECTING })
+  public void forEach_null(Cache<Int, Int> cache, CacheContext context) {
+    cache.policy().forEach(1, null);
+  }
+
+  @CheckNoStats
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine,
+      removalListener = { Listener.DEFAULT, Listener.REJECTING })
+  public void forEach(Cache<Int, Int> cache, CacheContext context) {
+    for (long parallelismThreshold : new long[] { 1, Long.MAX_VALUE }) {
+      var entries = new ConcurrentHashMap<Int, Int>();
+      cache.policy().forEach(parallelismThreshold, (key, value) -> {
+        assertThat(entries.put(key, value)).isNull();
+      });
+      assertThat(entries).isEqualTo(context.original());
+    }
+  }
+
+  @CheckNoStats
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine,
+      removalListener = { Listener.DEFAULT, Listener.REJECTING })
+  public void search_absent(Cache<Int, Int> cache, CacheContext context) {
+    for (long parallelismThreshold : new long[] { 1, Long.MAX_VALUE }) {
+      Int found = cache.policy().search(parallelismThreshold,
+          (key, value) -> key.equals(context.absentKey()) ? value : null);
+      assertThat(found).isNull();
+    }
+  }
+
+  @CheckNoStats
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine,
+      population = { Population.SINGLETON, Population.PARTIAL, Population.FULL },
+      removalListener = { Listener.DEFAULT, Listener.REJECTING })
+  public void search_present(Cache<Int, Int> cache, CacheContext context) {
+    for (long parallelismThreshold : new long[] { 1, Long.MAX_VALUE }) {
+      Int found = cache.policy().search(parallelismThreshold,
+          (key, value) -> key.equals(context.middleKey()) ? value : null);
+      assertThat(found).isEqualTo(context.original().get(context.middleKey()));
+    }
+  }
+
+  @CheckNoStats
+  @Test(dataProvider = "caches")
+  @CacheSpec(implementation = Implementation.Caffeine,
+      removalListener = { Listener.DEFAULT, Listener.REJECTING })
+  public void reduce(Cache<Int, Int> cache, CacheContext context) {
+    Long expected = context.original().isEmpty() ? null : (long) context.original().size();
+    for (long parallelismThreshold : new long[] { 1, Long.MAX_VALUE }) {
+      Long count = cache.policy().reduce(parallelismThreshold, (key, value) -> 1L, Long::sum);
+      assertThat(count).isEqualTo(expected);
+    }
+  }
+
   /* --------------- Policy: refreshes --------------- */
 
   @CacheSpec
@@ -15,7 +15,12 @@
  */
 package com.github.benmanes.caffeine.cache;
 
+import static java.util.concurrent.TimeUnit.DAYS;
+
 import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import com.github.benmanes.caffeine.cache.testing.CacheGenerator;
 import com.github.benmanes.caffeine.cache.testing.CacheSpec;
@@ -43,9 +48,26 @@ public final class CaffeineMapTests extends TestCase {
         .flatMap(MapTestFactory::makeTests)
         .sorted(Comparator.comparing(TestSuite::getName))
         .forEach(suite::addTest);
+    intrusiveHashTableTests().forEach(suite::addTest);
     return suite;
   }
 
+  /** Returns the tests for caches that use an intrusive hash table, which is not a spec option. */
+  private static Stream<TestSuite> intrusiveHashTableTests() {
+    var builders = Map.<String, Supplier<Caffeine<Object, Object>>>of(
+        "intrusive, maximumSize", () -> Caffeine.newBuilder().maximumSize(Long.MAX_VALUE),
+        "intrusive, expireAfterWrite", () -> Caffeine.newBuilder().expireAfterWrite(1, DAYS),
+        "intrusive, expireAfterAccess, maximumWeight", () -> Caffeine.newBuilder()
+            .expireAfterAccess(1, DAYS).maximumWeight(Long.MAX_VALUE).weigher((k, v) -> 1));
+    return builders.entrySet().stream().sorted(Map.Entry.comparingByKey()).flatMap(entry -> {
+      Cache<String, String> cache = entry.getValue().get()
+          .executor(Runnable::run).intrusiveHashTable().build();
+      AsyncCache<String, String> asyncCache = entry.getValue().get()
+          .executor(Runnable::run).intrusiveHashTable().buildAsync();
+      return MapTestFactory.makeTests(entry.getKey(), cache, asyncCache);
+    });
+  }
+
   @CacheSpec(implementation = Implementation.Caffeine, population = Population.EMPTY,
       weigher = CacheWeigher.DEFAULT, removalListener = Listener.DEFAULT,
       evictionListener = Listener.DEFAULT, stats = Stats.ENABLED)
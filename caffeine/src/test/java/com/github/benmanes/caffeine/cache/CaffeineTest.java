@@ -20,7 +20,11 @@ import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static org.mockito.Mockito.verify;
 
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.mockito.Mock;
@@ -31,6 +35,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.google.common.collect.Range;
 import com.google.common.testing.FakeTicker;
 
 /**
@@ -641,6 +646,369 @@ public final class CaffeineTest {
     builder.build();
   }
 
+  /* --------------- coarseExpirationTicker --------------- */
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void coarseExpirationTicker_null() {
+    Caffeine.newBuilder().coarseExpirationTicker(null);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void coarseExpirationTicker_zero() {
+    Caffeine.newBuilder().coarseExpirationTicker(Duration.ZERO);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void coarseExpirationTicker_subMillisecond() {
+    Caffeine.newBuilder().coarseExpirationTicker(Duration.ofNanos(100));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void coarseExpirationTicker_twice() {
+    Caffeine.newBuilder()
+        .coarseExpirationTicker(Duration.ofMillis(1))
+        .coarseExpirationTicker(Duration.ofMillis(1));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void coarseExpirationTicker_ticker() {
+    Caffeine.newBuilder()
+        .ticker(Ticker.systemTicker())
+        .coarseExpirationTicker(Duration.ofMillis(1));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void ticker_coarseExpirationTicker() {
+    Caffeine.newBuilder()
+        .coarseExpirationTicker(Duration.ofMillis(1))
+        .ticker(Ticker.systemTicker());
+  }
+
+  @Test
+  public void coarseExpirationTicker_unused() {
+    var builder = Caffeine.newBuilder().coarseExpirationTicker(Duration.ofMillis(1));
+    assertThat(builder.getTicker()).isSameInstanceAs(Ticker.disabledTicker());
+
+    builder.recordStats();
+    assertThat(builder.getTicker()).isSameInstanceAs(Ticker.systemTicker());
+  }
+
+  @Test
+  public void coarseExpirationTicker() {
+    var builder = Caffeine.newBuilder()
+        .coarseExpirationTicker(Duration.ofMillis(1))
+        .expireAfterWrite(Duration.ofMinutes(1));
+    assertThat(builder.getTicker()).isSameInstanceAs(Ticker.coarseTicker(Duration.ofMillis(1)));
+
+    var cache = (BoundedLocalCache<?, ?>) builder.build().asMap();
+    assertThat(cache.expirationTicker()).isSameInstanceAs(builder.getTicker());
+  }
+
+  /* --------------- coarseStatsTicker --------------- */
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void coarseStatsTicker_negative() {
+    Caffeine.newBuilder().coarseStatsTicker(Duration.ofMillis(-1));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void coarseStatsTicker_subMillisecond() {
+    Caffeine.newBuilder().coarseStatsTicker(Duration.ofNanos(100));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void coarseStatsTicker_twice() {
+    Caffeine.newBuilder()
+        .coarseStatsTicker(Duration.ofMillis(1))
+        .coarseStatsTicker(Duration.ofMillis(1));
+  }
+
+  @Test
+  public void coarseStatsTicker() {
+    var ticker = Ticker.coarseTicker(Duration.ofMillis(1));
+    var builder = Caffeine.newBuilder().coarseStatsTicker(Duration.ofMillis(1)).recordStats();
+    assertThat(builder.getStatsTicker()).isSameInstanceAs(ticker);
+    assertThat(builder.getTicker()).isSameInstanceAs(Ticker.systemTicker());
+
+    var unbounded = (UnboundedLocalCache<?, ?>) builder.build().asMap();
+    assertThat(unbounded.statsTicker()).isSameInstanceAs(ticker);
+
+    var bounded = (BoundedLocalCache<?, ?>) builder.maximumSize(10).build().asMap();
+    assertThat(bounded.statsTicker()).isSameInstanceAs(ticker);
+  }
+
+  /* --------------- compactTimestamps --------------- */
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void compactTimestamps_twice() {
+    Caffeine.newBuilder().compactTimestamps().compactTimestamps();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void compactTimestamps_expiry() {
+    Caffeine.newBuilder().expireAfter(expiry).compactTimestamps();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void expireAfter_compactTimestamps() {
+    Caffeine.newBuilder().compactTimestamps().expireAfter(expiry);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void compactTimestamps_shortExpireAfterAccess() {
+    Caffeine.newBuilder().compactTimestamps().expireAfterAccess(Duration.ofSeconds(1)).build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void compactTimestamps_shortExpireAfterWrite() {
+    Caffeine.newBuilder().expireAfterWrite(Duration.ofSeconds(1)).compactTimestamps().build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void compactTimestamps_shortRefreshAfterWrite() {
+    Caffeine.newBuilder().refreshAfterWrite(Duration.ofSeconds(1)).compactTimestamps()
+        .build(key -> key);
+  }
+
+  @Test
+  public void compactTimestamps_minimumDuration() {
+    Caffeine.newBuilder().compactTimestamps()
+        .expireAfterWrite(Duration.ofNanos(Caffeine.MINIMUM_COMPACT_DURATION_NANOS)).build();
+  }
+
+  @Test
+  public void compactTimestamps_unused() {
+    var cache = Caffeine.newBuilder().compactTimestamps().maximumSize(10).build();
+    var nodeFactory = ((BoundedLocalCache<?, ?>) cache.asMap()).nodeFactory;
+    assertThat(nodeFactory.compactTimestamps()).isFalse();
+  }
+
+  @Test
+  public void compactTimestamps() {
+    var ticker = new FakeTicker();
+    var builder = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .ticker(ticker::read)
+        .compactTimestamps();
+    assertThat(builder.hasCompactTimestamps()).isTrue();
+
+    Cache<Integer, Integer> cache = builder.build();
+    var nodeFactory = ((BoundedLocalCache<?, ?>) cache.asMap()).nodeFactory;
+    assertThat(nodeFactory.compactTimestamps()).isTrue();
+
+    cache.put(1, 1);
+    ticker.advance(Duration.ofSeconds(58));
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    ticker.advance(Duration.ofSeconds(3));
+    assertThat(cache.getIfPresent(1)).isNull();
+  }
+
+  @Test
+  public void compactTimestamps_neverEarly() {
+    var ticker = new FakeTicker();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .ticker(ticker::read)
+        .compactTimestamps()
+        .build();
+
+    ticker.advance(Duration.ofMillis(500));
+    cache.put(1, 1);
+    ticker.advance(Duration.ofMinutes(1).minusNanos(1));
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    ticker.advance(Duration.ofNanos(1L << Node.COMPACT_TIME_SHIFT));
+    assertThat(cache.getIfPresent(1)).isNull();
+  }
+
+  @Test
+  public void compactTimestamps_largeTickerOrigin() {
+    var ticker = new FakeTicker().advance(Long.MAX_VALUE / 2);
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .ticker(ticker::read)
+        .compactTimestamps()
+        .build();
+    assertThat(((BoundedLocalCache<?, ?>) cache.asMap()).expirationTicker().read()).isEqualTo(0L);
+
+    cache.put(1, 1);
+    ticker.advance(Duration.ofSeconds(58));
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    assertThat(cache.policy().expireAfterWrite().orElseThrow()
+        .ageOf(1, TimeUnit.SECONDS).getAsLong()).isAtMost(58);
+    ticker.advance(Duration.ofSeconds(3));
+    assertThat(cache.getIfPresent(1)).isNull();
+  }
+
+  @Test
+  public void compactTimestamps_refreshAba() {
+    Integer original = 1_000;
+    Integer replaced = 2_000;
+    Integer reloaded = 3_000;
+    var ticker = new FakeTicker();
+    var reload = new CompletableFuture<Integer>();
+    var reloads = new AtomicInteger();
+    long refreshNanos = TimeUnit.MILLISECONDS.toNanos(100);
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .refreshAfter(new Refresher<Integer, Integer>() {
+          @Override public long refreshAfterCreate(Integer key, Integer value, long currentTime) {
+            return refreshNanos;
+          }
+          @Override public long refreshAfterUpdate(Integer key, Integer value,
+              long currentTime, long currentDuration) {
+            return refreshNanos;
+          }
+          @Override public long refreshAfterReload(Integer key, Integer value,
+              long currentTime, long currentDuration) {
+            return refreshNanos;
+          }
+        })
+        .executor(directExecutor())
+        .ticker(ticker::read)
+        .compactTimestamps()
+        .build(new CacheLoader<Integer, Integer>() {
+          @Override public Integer load(Integer key) {
+            throw new AssertionError();
+          }
+          @Override public CompletableFuture<Integer> asyncReload(
+              Integer key, Integer oldValue, Executor executor) {
+            reloads.incrementAndGet();
+            return reload;
+          }
+        });
+
+    ticker.advance(Duration.ofMillis(100));
+    cache.put(1, original);
+    ticker.advance(Duration.ofMillis(200));
+    cache.cleanUp();
+    assertThat(reloads.get()).isEqualTo(1);
+
+    // restores the original value within the compact write time's resolution
+    cache.put(1, replaced);
+    cache.put(1, original);
+    reload.complete(reloaded);
+    assertThat(cache.getIfPresent(1)).isSameInstanceAs(original);
+  }
+
+  @Test
+  public void compactTime() {
+    long[] times = { 0L, 1L, Duration.ofMinutes(5).toNanos(), -Duration.ofDays(1).toNanos() };
+    for (long time : times) {
+      long expanded = Node.expandTime(Node.compactTime(time));
+      assertThat(expanded & 1L).isEqualTo(time & 1L);
+      assertThat(expanded - time).isIn(Range.closedOpen(0L, 1L << 30));
+      assertThat(Node.compactTime(expanded)).isEqualTo(Node.compactTime(time));
+    }
+  }
+
+  @Test
+  public void compactTime_saturated() {
+    assertThat(Node.expandTime(Node.compactTime(Long.MAX_VALUE)))
+        .isEqualTo((Node.COMPACT_TIME_MAX << Node.COMPACT_TIME_SHIFT) | 1L);
+    assertThat(Node.expandTime(Node.compactTime(Long.MIN_VALUE)))
+        .isEqualTo(Node.COMPACT_TIME_MIN << Node.COMPACT_TIME_SHIFT);
+  }
+
+  /* --------------- intrusiveHashTable --------------- */
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void intrusiveHashTable_twice() {
+    Caffeine.newBuilder().intrusiveHashTable().intrusiveHashTable();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void intrusiveHashTable_weakKeys() {
+    Caffeine.newBuilder().intrusiveHashTable().weakKeys().build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void intrusiveHashTable_softValues() {
+    Caffeine.newBuilder().intrusiveHashTable().softValues().build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void intrusiveHashTable_compactTimestamps() {
+    Caffeine.newBuilder().intrusiveHashTable().compactTimestamps()
+        .expireAfterWrite(Duration.ofMinutes(1)).build();
+  }
+
+  @Test
+  public void intrusiveHashTable_unbounded() {
+    var cache = Caffeine.newBuilder().intrusiveHashTable().build();
+    assertThat(cache.asMap()).isInstanceOf(UnboundedLocalCache.class);
+  }
+
+  @Test
+  public void intrusiveHashTable() {
+    var builder = Caffeine.newBuilder().intrusiveHashTable().maximumSize(10);
+    assertThat(builder.hasIntrusiveHashTable()).isTrue();
+
+    var cache = (BoundedLocalCache<?, ?>) builder.build().asMap();
+    assertThat(cache.nodeFactory.intrusiveHashTable()).isTrue();
+    assertThat(cache.data).isInstanceOf(IntrusiveHashTable.class);
+  }
+
+  /* --------------- stripedWriteBuffer --------------- */
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void stripedWriteBuffer_twice() {
+    Caffeine.newBuilder().stripedWriteBuffer().stripedWriteBuffer();
+  }
+
+  @Test
+  public void stripedWriteBuffer_unbounded() {
+    var cache = Caffeine.newBuilder().stripedWriteBuffer().build();
+    assertThat(cache.asMap()).isInstanceOf(UnboundedLocalCache.class);
+  }
+
+  @Test
+  public void stripedWriteBuffer() {
+    var builder = Caffeine.newBuilder().stripedWriteBuffer().maximumSize(10);
+    assertThat(builder.hasStripedWriteBuffer()).isTrue();
+
+    var cache = (BoundedLocalCache<?, ?>) builder.build().asMap();
+    assertThat(cache.writeBuffers).isNotNull();
+  }
+
+  /* --------------- incrementalClear --------------- */
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void incrementalClear_twice() {
+    Caffeine.newBuilder().incrementalClear().incrementalClear();
+  }
+
+  @Test
+  public void incrementalClear() {
+    var builder = Caffeine.newBuilder().incrementalClear().maximumSize(10);
+    assertThat(builder.hasIncrementalClear()).isTrue();
+
+    var cache = (BoundedLocalCache<?, ?>) builder.build().asMap();
+    assertThat(cache.incrementalClear).isTrue();
+  }
+
+  /* --------------- tagger --------------- */
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void tagger_null() {
+    Caffeine.newBuilder().tagger(null);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void tagger_twice() {
+    Caffeine.newBuilder().tagger((k, v) -> Set.of()).tagger((k, v) -> Set.of());
+  }
+
+  @Test
+  public void tagger() {
+    Tagger<Object, Object> tagger = (k, v) -> Set.of(v);
+    var builder = Caffeine.newBuilder().tagger(tagger);
+    assertThat(builder.getTagger()).isSameInstanceAs(tagger);
+    assertThat(builder.isBounded()).isTrue();
+
+    var cache = (BoundedLocalCache<?, ?>) builder.build().asMap();
+    assertThat(cache.tagIndex.tagger).isSameInstanceAs(tagger);
+  }
+
   /* --------------- stats --------------- */
 
   @Test(expectedExceptions = NullPointerException.class)
@@ -701,6 +1069,33 @@ public final class CaffeineTest {
     builder.build();
   }
 
+  /* --------------- batchRemovalListener --------------- */
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void batchRemovalListener_null() {
+    Caffeine.newBuilder().batchRemovalListener(null);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void batchRemovalListener_twice() {
+    Caffeine.newBuilder().batchRemovalListener(removals -> {}).batchRemovalListener(removals -> {});
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void batchRemovalListener_removalListener() {
+    Caffeine.newBuilder().batchRemovalListener(removals -> {}).removalListener((k, v, c) -> {});
+  }
+
+  @Test
+  public void batchRemovalListener() {
+    BatchRemovalListener<Object, Object> batchRemovalListener = removals -> {};
+    var builder = Caffeine.newBuilder().batchRemovalListener(batchRemovalListener);
+    var removalListener = (RemovalBatcher<?, ?>) builder.getRemovalListener(false);
+    assertThat(removalListener.listener).isSameInstanceAs(batchRemovalListener);
+    assertThat(removalListener.executor).isNotNull();
+    builder.build();
+  }
+
   /* --------------- removalListener --------------- */
 
   @Test(expectedExceptions = NullPointerException.class)
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.testing.Awaits.await;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toList;
+
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+import com.google.common.testing.SerializableTester;
+
+public final class CoarseTickerTest {
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void coarseTicker_zero() {
+    Ticker.coarseTicker(Duration.ZERO);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void coarseTicker_subMillisecond() {
+    Ticker.coarseTicker(Duration.ofNanos(999_999));
+  }
+
+  @Test
+  public void coarseTicker_shared() {
+    var ticker = Ticker.coarseTicker(Duration.ofMillis(1));
+    assertThat(Ticker.coarseTicker(Duration.ofMillis(1))).isSameInstanceAs(ticker);
+    assertThat(Ticker.coarseTicker(Duration.ofMillis(2))).isSameInstanceAs(ticker);
+    assertThat(Ticker.coarseTicker(Duration.ofMillis(10))).isNotSameInstanceAs(ticker);
+  }
+
+  @Test
+  public void coarseTicker_normalized() {
+    assertThat(CoarseTicker.normalize(Duration.ofMillis(1).toNanos()))
+        .isEqualTo(Duration.ofMillis(1).toNanos());
+    assertThat(CoarseTicker.normalize(Duration.ofMillis(99).toNanos()))
+        .isEqualTo(Duration.ofMillis(10).toNanos());
+    assertThat(CoarseTicker.normalize(Duration.ofMillis(100).toNanos()))
+        .isEqualTo(Duration.ofMillis(100).toNanos());
+    assertThat(CoarseTicker.normalize(Duration.ofDays(1).toNanos()))
+        .isEqualTo(Duration.ofSeconds(1).toNanos());
+  }
+
+  @Test
+  public void coarseTicker_bounded() {
+    for (int millis = 1; millis < 5_000; millis += 7) {
+      Ticker.coarseTicker(Duration.ofMillis(millis));
+    }
+    assertThat(CoarseTicker.tickers.size()).isAtMost(CoarseTicker.RESOLUTIONS_NANOS.length);
+  }
+
+  @Test
+  public void coarseTicker_contextClassLoader() {
+    var loader = new ClassLoader() {};
+    var thread = Thread.currentThread();
+    var original = thread.getContextClassLoader();
+    thread.setContextClassLoader(loader);
+    try {
+      Ticker.coarseTicker(Duration.ofMillis(100));
+    } finally {
+      thread.setContextClassLoader(original);
+    }
+    var updaters = Thread.getAllStackTraces().keySet().stream()
+        .filter(t -> t.getName().startsWith("Caffeine-CoarseTicker-"))
+        .collect(toList());
+    assertThat(updaters).isNotEmpty();
+    for (var updater : updaters) {
+      assertThat(updater.getContextClassLoader()).isNull();
+    }
+  }
+
+  @Test
+  public void read() {
+    var ticker = Ticker.coarseTicker(Duration.ofMillis(1));
+    long start = ticker.read();
+    assertThat(start).isAtMost(System.nanoTime());
+    await().until(() -> ticker.read() > start);
+  }
+
+  @Test
+  public void serialize() {
+    var ticker = Ticker.coarseTicker(Duration.ofMillis(1));
+    assertThat(SerializableTester.reserialize(ticker)).isSameInstanceAs(ticker);
+  }
+}
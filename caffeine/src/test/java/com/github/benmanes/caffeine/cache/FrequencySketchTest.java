@@ -58,6 +58,34 @@ public final class FrequencySketchTest {
     assertThat(sketch.sampleSize).isEqualTo(10 * 2 * size);
   }
 
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void ensureCapacity_sampled_zero() {
+    new FrequencySketch<Integer>().ensureCapacity(512, 0);
+  }
+
+  @Test
+  public void ensureCapacity_sampled() {
+    var sketch = new FrequencySketch<Integer>();
+    sketch.ensureCapacity(512, 4);
+    assertThat(sketch.table).hasLength(512);
+    assertThat(sketch.sampleSize).isEqualTo(10 * 512 / 4);
+  }
+
+  @Test
+  public void reset_sampled() {
+    var sketch = new FrequencySketch<Integer>();
+    sketch.ensureCapacity(64, 8);
+    for (int i = 1; i < 20 * 64; i++) {
+      sketch.increment(i);
+      if (sketch.resets > 0) {
+        break;
+      }
+    }
+    assertThat(sketch.resets).isEqualTo(1);
+    assertThat(sketch.size).isAtMost(sketch.sampleSize / 2);
+    assertThat(sketch.sampleSize).isEqualTo(10 * 64 / 8);
+  }
+
   @Test(dataProvider = "sketch")
   public void increment_once(FrequencySketch<Integer> sketch) {
     sketch.increment(item);
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.testng.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.testing.FakeTicker;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(singleThreaded = true)
+@SuppressWarnings("FutureReturnValueIgnored")
+public final class HedgedAsyncCacheLoaderTest {
+  static final long DELAY = TimeUnit.MILLISECONDS.toNanos(10);
+
+  List<CompletableFuture<Integer>> attempts;
+  List<Runnable> scheduled;
+  Scheduler scheduler;
+  FakeTicker ticker;
+
+  @BeforeMethod
+  public void beforeMethod() {
+    attempts = new ArrayList<>();
+    scheduled = new ArrayList<>();
+    ticker = new FakeTicker();
+    scheduler = (executor, command, delay, unit) -> {
+      scheduled.add(command);
+      return new CompletableFuture<>();
+    };
+  }
+
+  AsyncCacheLoader<Integer, Integer> loader() {
+    return (key, executor) -> {
+      var future = new CompletableFuture<Integer>();
+      attempts.add(future);
+      return future;
+    };
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void hedged_negativeDelay() {
+    AsyncCacheLoader.hedged(loader(), Duration.ofMillis(-1));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void hedged_percentileTooLow() {
+    AsyncCacheLoader.hedged(loader(), 0.0, Duration.ZERO);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void hedged_percentileTooHigh() {
+    AsyncCacheLoader.hedged(loader(), 1.0, Duration.ZERO);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void hedged_negativeMinimumDelay() {
+    AsyncCacheLoader.hedged(loader(), 0.9, Duration.ofMillis(-1));
+  }
+
+  @Test
+  public void asyncLoad_primaryWins() throws Exception {
+    var hedged = new HedgedAsyncCacheLoader<>(loader(), DELAY, scheduler, ticker::read);
+    var future = hedged.asyncLoad(1, MoreExecutors.directExecutor());
+    assertThat(attempts).hasSize(1);
+
+    attempts.get(0).complete(1);
+    assertThat(future.join()).isEqualTo(1);
+
+    scheduled.forEach(Runnable::run);
+    assertThat(attempts).hasSize(1);
+  }
+
+  @Test
+  public void asyncLoad_hedgeWins() throws Exception {
+    var hedged = new HedgedAsyncCacheLoader<>(loader(), DELAY, scheduler, ticker::read);
+    var future = hedged.asyncLoad(1, MoreExecutors.directExecutor());
+    scheduled.forEach(Runnable::run);
+    assertThat(attempts).hasSize(2);
+
+    attempts.get(1).complete(2);
+    assertThat(future.join()).isEqualTo(2);
+    assertThat(attempts.get(0).isCancelled()).isTrue();
+  }
+
+  @Test
+  public void asyncLoad_oneFails() throws Exception {
+    var hedged = new HedgedAsyncCacheLoader<>(loader(), DELAY, scheduler, ticker::read);
+    var future = hedged.asyncLoad(1, MoreExecutors.directExecutor());
+    scheduled.forEach(Runnable::run);
+
+    attempts.get(0).completeExceptionally(new IllegalStateException());
+    assertThat(future.isDone()).isFalse();
+
+    attempts.get(1).complete(2);
+    assertThat(future.join()).isEqualTo(2);
+  }
+
+  @Test
+  public void asyncLoad_bothFail() throws Exception {
+    var hedged = new HedgedAsyncCacheLoader<>(loader(), DELAY, scheduler, ticker::read);
+    var future = hedged.asyncLoad(1, MoreExecutors.directExecutor());
+    scheduled.forEach(Runnable::run);
+
+    attempts.get(0).completeExceptionally(new IllegalStateException());
+    attempts.get(1).completeExceptionally(new IllegalArgumentException());
+    try {
+      future.join();
+      fail();
+    } catch (CompletionException e) {
+      assertThat(e).hasCauseThat().isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  public void asyncLoad_cancelled() throws Exception {
+    var hedged = new HedgedAsyncCacheLoader<>(loader(), DELAY, scheduler, ticker::read);
+    var future = hedged.asyncLoad(1, MoreExecutors.directExecutor());
+    future.cancel(false);
+
+    scheduled.forEach(Runnable::run);
+    assertThat(attempts).hasSize(1);
+    assertThat(attempts.get(0).isCancelled()).isTrue();
+  }
+
+  @Test
+  public void asyncLoad_percentile() throws Exception {
+    Executor executor = MoreExecutors.directExecutor();
+    var hedged = new HedgedAsyncCacheLoader<>(loader(), 0.5, DELAY, scheduler, ticker::read);
+    for (int i = 0; i < HedgedAsyncCacheLoader.SAMPLES; i++) {
+      var future = hedged.asyncLoad(i, executor);
+      ticker.advance(2 * DELAY);
+      attempts.get(i).complete(i);
+      assertThat(future.join()).isEqualTo(i);
+    }
+    assertThat(scheduled).isEmpty();
+    assertThat(hedged.delay).isEqualTo(2 * DELAY);
+
+    hedged.asyncLoad(-1, executor);
+    assertThat(scheduled).hasSize(1);
+  }
+
+  @Test
+  public void canBulkLoad_delegates() {
+    var cache = (LocalAsyncLoadingCache<Integer, Integer>) Caffeine.newBuilder()
+        .buildAsync(AsyncCacheLoader.hedged(loader(), Duration.ofMillis(10)));
+    assertThat(cache.canBulkLoad(cache.cacheLoader)).isFalse();
+
+    AsyncCacheLoader<Integer, Integer> bulk = AsyncCacheLoader.bulk(keys -> Map.of());
+    assertThat(cache.canBulkLoad(AsyncCacheLoader.hedged(bulk, Duration.ZERO))).isTrue();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.List;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.github.benmanes.caffeine.testing.Int;
+import com.google.common.testing.GcFinalization;
+
+public final class InternerTest {
+
+  @Test(dataProvider = "interners", expectedExceptions = NullPointerException.class)
+  public void intern_null(Interner<Int> interner) {
+    interner.intern(null);
+  }
+
+  @Test(dataProvider = "interners")
+  public void intern(Interner<Int> interner) {
+    var canonical = new Int(1);
+    var other = new Int(1);
+
+    assertThat(interner.intern(canonical)).isSameInstanceAs(canonical);
+    assertThat(interner.intern(other)).isSameInstanceAs(canonical);
+    assertThat(interner.intern(new Int(2))).isNotSameInstanceAs(canonical);
+  }
+
+  @Test
+  public void intern_weak_node() {
+    var interner = (WeakInterner<Int>) Interner.<Int>newWeakInterner();
+    var canonical = new Int(1);
+    interner.intern(canonical);
+
+    assertThat(interner.cache.nodeFactory).isInstanceOf(Interned.class);
+    var node = interner.cache.data.get(new References.LookupKeyEqualsReference<>(canonical));
+    assertThat(node).isInstanceOf(Interned.class);
+    assertThat(node.getKey()).isSameInstanceAs(canonical);
+    assertThat(node.getValue()).isEqualTo(Boolean.TRUE);
+    assertThat(node.isAlive()).isTrue();
+
+    node.retire();
+    assertThat(node.isRetired()).isTrue();
+    assertThat(node.getKey()).isNull();
+    node.die();
+    assertThat(node.isDead()).isTrue();
+  }
+
+  @Test
+  public void intern_weak_remove() {
+    var interner = (WeakInterner<Int>) Interner.<Int>newWeakInterner();
+    var canonical = new Int(1);
+    var reference = new WeakReference<>(canonical);
+
+    assertThat(interner.intern(canonical)).isSameInstanceAs(canonical);
+    canonical = null;
+
+    GcFinalization.awaitClear(reference);
+    interner.cache.cleanUp();
+    assertThat(interner.cache).isEmpty();
+
+    var other = new Int(1);
+    assertThat(interner.intern(other)).isSameInstanceAs(other);
+  }
+
+  @Test
+  public void intern_strong_retained() {
+    var interner = (StrongInterner<Int>) Interner.<Int>newStrongInterner();
+    var canonical = new Int(1);
+    interner.intern(canonical);
+    assertThat(interner.map).containsExactly(canonical, canonical);
+  }
+
+  @DataProvider(name = "interners")
+  public Iterator<Object[]> providesInterners() {
+    return List.of(
+        new Object[] { Interner.newStrongInterner() },
+        new Object[] { Interner.newWeakInterner() }).iterator();
+  }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.testing.Awaits.await;
+import static com.google.common.truth.Truth.assertThat;
+import static java.lang.Thread.State.WAITING;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.StreamSupport;
+
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public final class IntrusiveHashTableTest {
+  final NodeFactory<Integer, Integer> nodeFactory = newNodeFactory();
+
+  @Test
+  public void nodeFactory() {
+    assertThat(nodeFactory.intrusiveHashTable()).isTrue();
+
+    var cache = Caffeine.newBuilder().intrusiveHashTable().maximumSize(100).build();
+    assertThat(((BoundedLocalCache<?, ?>) cache.asMap()).data)
+        .isInstanceOf(IntrusiveHashTable.class);
+  }
+
+  @Test
+  public void resize() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    for (int i = 0; i < 10_000; i++) {
+      table.put(i, newNode(i));
+    }
+    assertThat(table.mappingCount()).isEqualTo(10_000);
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(table.get(i).getKey()).isEqualTo(i);
+    }
+    for (var segment : table.segments) {
+      assertThat(segment.resizes % 2).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void randomized() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    var expected = new HashMap<Object, Node<Integer, Integer>>();
+    var random = new Random(1_000);
+    for (int i = 0; i < 100_000; i++) {
+      int key = random.nextInt(1_000);
+      var node = newNode(key);
+      switch (random.nextInt(5)) {
+        case 0:
+          assertThat(table.put(key, node)).isSameInstanceAs(expected.put(key, node));
+          break;
+        case 1:
+          assertThat(table.remove(key)).isSameInstanceAs(expected.remove(key));
+          break;
+        case 2:
+          assertThat(table.putIfAbsent(key, node))
+              .isSameInstanceAs(expected.putIfAbsent(key, node));
+          break;
+        case 3:
+          assertThat(table.compute(key, (k, n) -> (n == null) ? node : null))
+              .isSameInstanceAs(expected.compute(key, (k, n) -> (n == null) ? node : null));
+          break;
+        default:
+          assertThat(table.computeIfPresent(key, (k, n) -> node))
+              .isSameInstanceAs(expected.computeIfPresent(key, (k, n) -> node));
+      }
+    }
+    assertThat(table).isEqualTo(expected);
+    assertThat(table.values()).containsExactlyElementsIn(expected.values());
+  }
+
+  @Test
+  public void iterator_remove() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    for (int i = 0; i < 100; i++) {
+      table.put(i, newNode(i));
+    }
+    for (var iterator = table.values().iterator(); iterator.hasNext();) {
+      if ((iterator.next().getKey() % 2) == 0) {
+        iterator.remove();
+      }
+    }
+    assertThat(table).hasSize(50);
+    assertThat(table.keySet()).doesNotContain(2);
+    assertThat(table.keySet()).contains(3);
+  }
+
+  @Test
+  public void spliterator_split() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    for (int i = 0; i < 1_000; i++) {
+      table.put(i, newNode(i));
+    }
+    var keys = new ArrayList<Object>();
+    var pending = new ArrayList<Spliterator<Node<Integer, Integer>>>();
+    pending.add(table.values().spliterator());
+    while (!pending.isEmpty()) {
+      var spliterator = pending.remove(pending.size() - 1);
+      var prefix = spliterator.trySplit();
+      if (prefix == null) {
+        spliterator.forEachRemaining(node -> keys.add(node.getKey()));
+      } else {
+        pending.add(prefix);
+        pending.add(spliterator);
+      }
+    }
+    assertThat(keys).containsNoDuplicates();
+    assertThat(keys).containsExactlyElementsIn(table.keySet());
+  }
+
+  @Test
+  public void spliterator_parallel() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    for (int i = 0; i < 10_000; i++) {
+      table.put(i, newNode(i));
+    }
+    var spliterator = table.values().spliterator();
+    assertThat(spliterator.estimateSize()).isEqualTo(10_000);
+    assertThat(spliterator.trySplit()).isNotNull();
+
+    var keys = StreamSupport.stream(table.entrySet().spliterator(), /* parallel */ true)
+        .map(Map.Entry::getKey).collect(toList());
+    assertThat(keys).containsNoDuplicates();
+    assertThat(keys).containsExactlyElementsIn(table.keySet());
+  }
+
+  @Test
+  public void clear() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    for (int i = 0; i < 100; i++) {
+      table.put(i, newNode(i));
+    }
+    table.clear();
+    assertThat(table).isEmpty();
+    assertThat(table.get(1)).isNull();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void compute_recursive() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    table.compute(1, (k, n) -> {
+      table.put(1, newNode(1));
+      return null;
+    });
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void computeReserved_recursive() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    table.computeReserved(1, (k, n) -> {
+      table.compute(1, (key, node) -> newNode(1));
+      return null;
+    });
+  }
+
+  @Test
+  public void compute_nested() {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    table.compute(-1, (k, n) -> {
+      for (int i = 0; i < 1_000; i++) {
+        table.put(i, newNode(i));
+      }
+      return newNode(-1);
+    });
+    assertThat(table).hasSize(1_001);
+    assertThat(table.get(-1).getKey()).isEqualTo(-1);
+  }
+
+  @Test
+  public void compute_segmentWaits() throws InterruptedException {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    int other = sameSegmentKey(table, 1);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var computing = new Thread(() -> table.compute(1, (k, n) -> {
+      started.countDown();
+      Uninterruptibles.awaitUninterruptibly(release);
+      return newNode(1);
+    }));
+    computing.start();
+    started.await();
+
+    var node = newNode(other);
+    var writer = new Thread(() -> table.put(other, node));
+    writer.start();
+    await().until(() -> writer.getState() == WAITING);
+    assertThat(table.get(other)).isNull();
+
+    release.countDown();
+    computing.join();
+    writer.join();
+    assertThat(table.get(1).getKey()).isEqualTo(1);
+    assertThat(table.get(other)).isSameInstanceAs(node);
+  }
+
+  @Test
+  public void computeReserved_otherKeyInSegment() throws InterruptedException {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    int other = sameSegmentKey(table, 1);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var computing = new Thread(() -> table.computeReserved(1, (k, n) -> {
+      started.countDown();
+      Uninterruptibles.awaitUninterruptibly(release);
+      return newNode(1);
+    }));
+    computing.start();
+    started.await();
+
+    assertThat(table.put(other, newNode(other))).isNull();
+    assertThat(table.compute(other, (k, n) -> null)).isNull();
+    assertThat(table.get(1)).isNull();
+
+    release.countDown();
+    computing.join();
+    assertThat(table.get(1).getKey()).isEqualTo(1);
+  }
+
+  @Test
+  public void computeReserved_sameKeyWaits() throws InterruptedException {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var computing = new Thread(() -> table.computeReserved(1, (k, n) -> {
+      started.countDown();
+      Uninterruptibles.awaitUninterruptibly(release);
+      return newNode(1);
+    }));
+    computing.start();
+    started.await();
+
+    var node = newNode(1);
+    var writer = new Thread(() -> table.put(1, node));
+    writer.start();
+    await().until(() -> writer.getState() == WAITING);
+    assertThat(table.get(1)).isNull();
+
+    release.countDown();
+    computing.join();
+    writer.join();
+    assertThat(table.get(1)).isSameInstanceAs(node);
+  }
+
+  @Test
+  public void read_duringResize() throws InterruptedException {
+    var table = new IntrusiveHashTable<Integer, Integer>(0);
+    for (int i = 0; i < 1_000; i++) {
+      table.put(i, newNode(i));
+    }
+
+    var done = new AtomicBoolean();
+    var failures = new ConcurrentLinkedQueue<Integer>();
+    var readers = new ArrayList<Thread>();
+    for (int i = 0; i < 4; i++) {
+      var reader = new Thread(() -> {
+        var random = new Random();
+        while (!done.get()) {
+          int key = random.nextInt(1_000);
+          if (table.get(key) == null) {
+            failures.add(key);
+          }
+        }
+      });
+      readers.add(reader);
+      reader.start();
+    }
+    for (int i = 1_000; i < 500_000; i++) {
+      table.put(i, newNode(i));
+    }
+    done.set(true);
+    for (var reader : readers) {
+      reader.join();
+    }
+    assertThat(failures).isEmpty();
+  }
+
+  /** Returns a different key that maps to the same segment as the given key. */
+  private static int sameSegmentKey(IntrusiveHashTable<Integer, Integer> table, int key) {
+    var segment = table.segmentFor(IntrusiveHashTable.spread(Integer.hashCode(key)));
+    for (int other = key + 1; ; other++) {
+      if (table.segmentFor(IntrusiveHashTable.spread(Integer.hashCode(other))) == segment) {
+        return other;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static NodeFactory<Integer, Integer> newNodeFactory() {
+    Caffeine<?, ?> builder = Caffeine.newBuilder().intrusiveHashTable().maximumSize(100);
+    return (NodeFactory<Integer, Integer>) NodeFactory.newFactory(builder, /* isAsync */ false);
+  }
+
+  private Node<Integer, Integer> newNode(int key) {
+    return nodeFactory.newNode(key, /* keyReferenceQueue */ null,
+        key, /* valueReferenceQueue */ null, /* weight */ 1, /* now */ 0L);
+  }
+}
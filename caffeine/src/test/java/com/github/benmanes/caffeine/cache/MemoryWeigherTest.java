@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.github.benmanes.caffeine.cache.MemoryWeigher.ARRAY_HEADER_SIZE;
+import static com.github.benmanes.caffeine.cache.MemoryWeigher.OBJECT_HEADER_SIZE;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.google.common.testing.SerializableTester;
+
+public final class MemoryWeigherTest {
+  final Weigher<Object, Object> weigher = Weigher.memoryWeigher();
+
+  @Test
+  public void weigh_primitiveArray() {
+    long expected = MemoryWeigher.align(ARRAY_HEADER_SIZE + 1_000);
+    assertThat(weigher.weigh(new byte[1_000], TimeUnit.SECONDS)).isEqualTo(expected);
+  }
+
+  @Test
+  public void weigh_string() {
+    int small = weigher.weigh("a", TimeUnit.SECONDS);
+    int large = weigher.weigh("a".repeat(1_000), TimeUnit.SECONDS);
+    int wide = weigher.weigh("λ".repeat(1_000), TimeUnit.SECONDS);
+    assertThat(large - small).isAtLeast(990);
+    assertThat(wide - large).isAtLeast(990);
+  }
+
+  @Test
+  public void weigh_boxed() {
+    int size = weigher.weigh(Long.valueOf(Long.MAX_VALUE), TimeUnit.SECONDS);
+    assertThat(size).isEqualTo(MemoryWeigher.align(OBJECT_HEADER_SIZE + 8));
+  }
+
+  @Test
+  public void weigh_shared() {
+    byte[] bytes = new byte[1_000];
+    int single = weigher.weigh(bytes, TimeUnit.SECONDS);
+    int twice = weigher.weigh(bytes, List.of(bytes, bytes));
+    assertThat(twice - single).isLessThan(100);
+  }
+
+  @Test
+  public void weigh_collections() {
+    var list = new ArrayList<byte[]>();
+    var map = new HashMap<Integer, byte[]>();
+    for (int i = 0; i < 10; i++) {
+      list.add(new byte[100]);
+      map.put(1_000 + i, new byte[100]);
+    }
+    assertThat(weigher.weigh(list, TimeUnit.SECONDS)).isAtLeast(10 * 100);
+    assertThat(weigher.weigh(map, TimeUnit.SECONDS)).isAtLeast(10 * 100);
+  }
+
+  @Test
+  public void weigh_userType() {
+    var shallow = new Holder(null, null);
+    var deep = new Holder(new byte[1_000], shallow);
+    int shallowSize = weigher.weigh(shallow, TimeUnit.SECONDS);
+    int deepSize = weigher.weigh(deep, TimeUnit.SECONDS);
+    assertThat(shallowSize).isEqualTo(
+        MemoryWeigher.align(OBJECT_HEADER_SIZE + 2 * MemoryWeigher.REFERENCE_SIZE));
+    assertThat(deepSize).isAtLeast((2 * shallowSize) + 1_000);
+  }
+
+  @Test
+  public void weigh_cycle() {
+    var holder = new Holder(null, null);
+    holder.next = holder;
+    assertThat(weigher.weigh(holder, holder)).isEqualTo(
+        MemoryWeigher.align(OBJECT_HEADER_SIZE + 2 * MemoryWeigher.REFERENCE_SIZE));
+  }
+
+  @Test
+  public void maximumWeight() {
+    Cache<Integer, byte[]> cache = Caffeine.newBuilder()
+        .maximumWeight(100 * 1_024)
+        .weigher(Weigher.memoryWeigher())
+        .executor(Runnable::run)
+        .build();
+    for (int i = 0; i < 1_000; i++) {
+      cache.put(i, new byte[1_024]);
+    }
+    cache.cleanUp();
+    assertThat(cache.estimatedSize()).isLessThan(100);
+  }
+
+  @Test
+  public void serialize() {
+    assertThat(SerializableTester.reserialize(weigher)).isSameInstanceAs(weigher);
+  }
+
+  static final class Holder {
+    final byte[] bytes;
+    Holder next;
+
+    Holder(byte[] bytes, Holder next) {
+      this.bytes = bytes;
+      this.next = next;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toList;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.testng.annotations.Test;
+
+import com.github.benmanes.caffeine.cache.Policy.Diagnostics;
+import com.google.common.testing.FakeTicker;
+
+public final class NearCacheTest {
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void nearCache_zero() {
+    Caffeine.newBuilder().nearCache(0);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void nearCache_twice() {
+    Caffeine.newBuilder().nearCache(1).nearCache(1);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void nearCache_unbounded() {
+    Caffeine.newBuilder().nearCache(1).build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void nearCache_weakKeys() {
+    Caffeine.newBuilder().nearCache(1).maximumSize(10).weakKeys().build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void nearCache_expiry() {
+    Caffeine.newBuilder()
+        .expireAfter(new Expiry<Object, Object>() {
+          @Override public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return Duration.ofMinutes(1).toNanos();
+          }
+          @Override public long expireAfterUpdate(Object key, Object value,
+              long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+          @Override public long expireAfterRead(Object key, Object value,
+              long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .nearCache(1)
+        .maximumSize(10)
+        .build();
+  }
+
+  @Test
+  public void getIfPresent_hot() {
+    Cache<Integer, Integer> cache = newHotCache();
+    var nearCache = ((BoundedLocalCache<Integer, Integer>) cache.asMap()).nearCache;
+    assertThat(nearCache.hotKeys).contains(1);
+
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    assertThat(Arrays.asList(nearCache.stripe().nodes)).contains(
+        ((BoundedLocalCache<Integer, Integer>) cache.asMap()).data.get(1));
+
+    Diagnostics diagnostics = cache.policy().diagnostics().orElseThrow();
+    long offers = diagnostics.readBufferOffers();
+    long hits = cache.stats().hitCount();
+    for (int i = 0; i < 32; i++) {
+      assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    }
+    assertThat(cache.stats().hitCount() - hits).isEqualTo(32);
+    assertThat(diagnostics.readBufferOffers() - offers).isEqualTo(2);
+  }
+
+  @Test
+  public void getIfPresent_updated() {
+    Cache<Integer, Integer> cache = newHotCache();
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+
+    cache.put(1, -1);
+    assertThat(cache.getIfPresent(1)).isEqualTo(-1);
+    assertThat(cache.get(1, key -> -key)).isEqualTo(-1);
+
+    cache.invalidate(1);
+    assertThat(cache.getIfPresent(1)).isNull();
+  }
+
+  @Test
+  public void getIfPresent_expired() {
+    var ticker = new FakeTicker();
+    Cache<Integer, Integer> cache = newHotCache(Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .ticker(ticker::read));
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    var node = localCache.data.get(1);
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    assertThat(Arrays.asList(localCache.nearCache.stripe().nodes)).contains(node);
+
+    ticker.advance(Duration.ofMinutes(2));
+    assertThat(cache.getIfPresent(1)).isNull();
+    assertThat(Arrays.asList(localCache.nearCache.stripe().nodes)).doesNotContain(node);
+  }
+
+  @Test
+  public void invalidate_hot() {
+    Cache<Integer, Integer> cache = newHotCache();
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    var node = localCache.data.get(1);
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    assertThat(retained(localCache.nearCache)).contains(node);
+
+    cache.invalidate(1);
+    assertThat(localCache.nearCache.hotKeys).doesNotContain(1);
+    assertThat(retained(localCache.nearCache)).doesNotContain(node);
+  }
+
+  @Test
+  public void invalidate_otherThread() throws InterruptedException {
+    Cache<Integer, Integer> cache = newHotCache();
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    var node = localCache.data.get(1);
+    var reader = new Thread(() -> cache.getIfPresent(1));
+    reader.start();
+    reader.join();
+    assertThat(retained(localCache.nearCache)).contains(node);
+
+    cache.invalidate(1);
+    assertThat(retained(localCache.nearCache)).doesNotContain(node);
+  }
+
+  @Test
+  public void invalidateAll_hot() {
+    Cache<Integer, Integer> cache = newHotCache();
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+
+    cache.invalidateAll();
+    cache.cleanUp();
+    assertThat(localCache.nearCache.hotKeys).isEmpty();
+    assertThat(retained(localCache.nearCache)).isEmpty();
+    assertThat(cache.getIfPresent(1)).isNull();
+  }
+
+  @Test
+  public void record_reset() {
+    Cache<Integer, Integer> cache = newHotCache();
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    assertThat(cache.getIfPresent(1)).isEqualTo(1);
+
+    localCache.evictionLock.lock();
+    try {
+      var node = localCache.data.get(1);
+      localCache.nearCache.record(node, 0, localCache.frequencySketch().resets + 1);
+      localCache.nearCache.publish();
+    } finally {
+      localCache.evictionLock.unlock();
+    }
+    assertThat(localCache.nearCache.hotKeys).isEmpty();
+    assertThat(retained(localCache.nearCache)).isEmpty();
+  }
+
+  /** Returns the entries that are held by any of the near cache's stripes. */
+  private static List<Node<Integer, Integer>> retained(NearCache<Integer, Integer> nearCache) {
+    return Arrays.stream(nearCache.stripes)
+        .flatMap(stripe -> Arrays.stream(stripe.nodes))
+        .filter(Objects::nonNull)
+        .collect(toList());
+  }
+
+  /** Returns a cache whose key 1 has a saturated popularity. */
+  private static Cache<Integer, Integer> newHotCache() {
+    return newHotCache(Caffeine.newBuilder());
+  }
+
+  /** Returns a cache, configured by the builder, whose key 1 has a saturated popularity. */
+  private static Cache<Integer, Integer> newHotCache(Caffeine<Object, Object> builder) {
+    Cache<Integer, Integer> cache = builder
+        .executor(Runnable::run)
+        .maximumSize(100)
+        .recordStats()
+        .nearCache(4)
+        .build();
+    for (int i = 0; i < 60; i++) {
+      cache.put(i, i);
+    }
+    for (int i = 0; i < 20; i++) {
+      cache.getIfPresent(1);
+      cache.cleanUp();
+    }
+    return cache;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.github.benmanes.caffeine.cache.Policy.NegativeResults;
+import com.google.common.testing.FakeTicker;
+
+public final class NegativeCacheTest {
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void cacheNegativeResults_zeroDuration() {
+    Caffeine.newBuilder().cacheNegativeResults(Duration.ZERO, 10);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void cacheNegativeResults_negativeSize() {
+    Caffeine.newBuilder().cacheNegativeResults(Duration.ofMinutes(1), -1);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void cacheNegativeResults_twice() {
+    Caffeine.newBuilder()
+        .cacheNegativeResults(Duration.ofMinutes(1), 10)
+        .cacheNegativeResults(Duration.ofMinutes(1), 10);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void cacheNegativeResults_nonLoading() {
+    Caffeine.newBuilder().cacheNegativeResults(Duration.ofMinutes(1), 10).build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void cacheNegativeResults_async() {
+    Caffeine.newBuilder().cacheNegativeResults(Duration.ofMinutes(1), 10).buildAsync(key -> key);
+  }
+
+  @Test
+  public void get_absent() {
+    var loads = new AtomicInteger();
+    var ticker = new FakeTicker();
+    LoadingCache<Integer, Integer> cache = newCache(ticker, loads);
+    NegativeResults<Integer> negatives = cache.policy().negativeResults().orElseThrow();
+
+    assertThat(cache.get(1)).isNull();
+    assertThat(cache.get(1)).isNull();
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(negatives.storeCount()).isEqualTo(1);
+    assertThat(negatives.hitCount()).isEqualTo(1);
+    assertThat(negatives.estimatedSize()).isEqualTo(1);
+    assertThat(cache.stats().requestCount()).isEqualTo(1);
+    assertThat(cache.estimatedSize()).isEqualTo(0);
+
+    ticker.advance(1, TimeUnit.MINUTES);
+    assertThat(cache.get(1)).isNull();
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void get_present() {
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = newCache(new FakeTicker(), loads);
+    assertThat(cache.get(2)).isEqualTo(2);
+    assertThat(cache.get(2)).isEqualTo(2);
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(cache.policy().negativeResults().orElseThrow().storeCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void get_putAfterAbsent() {
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = newCache(new FakeTicker(), loads);
+    NegativeResults<Integer> negatives = cache.policy().negativeResults().orElseThrow();
+    assertThat(cache.get(1)).isNull();
+
+    cache.put(1, 10);
+    assertThat(cache.get(1)).isEqualTo(10);
+    assertThat(negatives.estimatedSize()).isEqualTo(0);
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void invalidate() {
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = newCache(new FakeTicker(), loads);
+    cache.get(1);
+    cache.get(3);
+
+    cache.invalidate(1);
+    cache.get(1);
+    assertThat(loads.get()).isEqualTo(3);
+
+    cache.invalidateAll();
+    cache.get(1);
+    cache.get(3);
+    assertThat(loads.get()).isEqualTo(5);
+  }
+
+  @Test
+  public void getAll_bulk() {
+    var batches = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .cacheNegativeResults(Duration.ofMinutes(1), 10)
+        .executor(Runnable::run)
+        .build(new CacheLoader<Integer, Integer>() {
+          @Override public Integer load(Integer key) {
+            throw new UnsupportedOperationException();
+          }
+          @Override public Map<Integer, Integer> loadAll(Set<? extends Integer> keys) {
+            batches.incrementAndGet();
+            var result = new HashMap<Integer, Integer>();
+            for (Integer key : keys) {
+              if ((key % 2) == 0) {
+                result.put(key, key);
+              }
+            }
+            return result;
+          }
+        });
+    assertThat(cache.getAll(List.of(1, 2, 3))).containsExactly(2, 2);
+    assertThat(cache.getAll(List.of(1, 2, 3))).containsExactly(2, 2);
+    assertThat(batches.get()).isEqualTo(1);
+    assertThat(cache.policy().negativeResults().orElseThrow().storeCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void disabled() {
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder().build(key -> null);
+    assertThat(cache.policy().negativeResults()).isEmpty();
+  }
+
+  private static LoadingCache<Integer, Integer> newCache(FakeTicker ticker, AtomicInteger loads) {
+    return Caffeine.newBuilder()
+        .cacheNegativeResults(Duration.ofMinutes(1), 10)
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .recordStats()
+        .build(key -> {
+          loads.incrementAndGet();
+          return ((key % 2) == 0) ? key : null;
+        });
+  }
+}
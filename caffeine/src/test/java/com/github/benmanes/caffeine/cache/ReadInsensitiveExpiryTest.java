@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.testing.FakeTicker;
+
+public final class ReadInsensitiveExpiryTest {
+
+  @Test
+  public void creating() {
+    Expiry<Integer, Integer> expiry = Expiry.creating((key, value) -> Duration.ofSeconds(value));
+    assertThat(expiry.isReadSensitive()).isFalse();
+    assertThat(expiry.expireAfterCreate(1, 2, 0)).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+    assertThat(expiry.expireAfterUpdate(1, 2, 0, 3)).isEqualTo(3);
+    assertThat(expiry.expireAfterRead(1, 2, 0, 3)).isEqualTo(3);
+  }
+
+  @Test
+  public void writing() {
+    Expiry<Integer, Integer> expiry = Expiry.writing((key, value) -> Duration.ofSeconds(value));
+    assertThat(expiry.isReadSensitive()).isFalse();
+    assertThat(expiry.expireAfterCreate(1, 2, 0)).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+    assertThat(expiry.expireAfterUpdate(1, 2, 0, 3)).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+    assertThat(expiry.expireAfterRead(1, 2, 0, 3)).isEqualTo(3);
+  }
+
+  @Test
+  public void writing_saturated() {
+    Expiry<Integer, Integer> expiry =
+        Expiry.writing((key, value) -> Duration.ofSeconds(Long.MAX_VALUE));
+    assertThat(expiry.expireAfterCreate(1, 2, 0)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void getIfPresent_noCallback() {
+    var reads = new AtomicInteger();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfter(new Expiry<Integer, Integer>() {
+          @Override public long expireAfterCreate(Integer key, Integer value, long currentTime) {
+            return TimeUnit.MINUTES.toNanos(1);
+          }
+          @Override public long expireAfterUpdate(Integer key, Integer value,
+              long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+          @Override public long expireAfterRead(Integer key, Integer value,
+              long currentTime, long currentDuration) {
+            reads.incrementAndGet();
+            return currentDuration;
+          }
+          @Override public boolean isReadSensitive() {
+            return false;
+          }
+        })
+        .executor(Runnable::run)
+        .build();
+    cache.put(1, 1);
+    for (int i = 0; i < 10; i++) {
+      assertThat(cache.getIfPresent(1)).isEqualTo(1);
+      assertThat(cache.get(1, key -> -key)).isEqualTo(1);
+    }
+    cache.asMap().putIfAbsent(1, 2);
+    assertThat(reads.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void replace_rescheduled() {
+    var ticker = new FakeTicker();
+    Cache<Integer, Integer> cache = newCache(ticker);
+    cache.put(1, 1);
+    cache.asMap().replace(1, 10);
+
+    ticker.advance(5, TimeUnit.MINUTES);
+    cache.cleanUp();
+    assertThat(cache.getIfPresent(1)).isEqualTo(10);
+
+    ticker.advance(10, TimeUnit.MINUTES);
+    cache.cleanUp();
+    assertThat(cache.estimatedSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void setExpiresAfter_rescheduled() {
+    var ticker = new FakeTicker();
+    Cache<Integer, Integer> cache = newCache(ticker);
+    cache.put(1, 10);
+    cache.policy().expireVariably().orElseThrow().setExpiresAfter(1, Duration.ofSeconds(1));
+
+    ticker.advance(1, TimeUnit.MINUTES);
+    cache.cleanUp();
+    assertThat(cache.estimatedSize()).isEqualTo(0);
+  }
+
+  /** Returns a cache whose entries expire the value's minutes after they were written. */
+  private static Cache<Integer, Integer> newCache(FakeTicker ticker) {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .expireAfter(Expiry.writing((Integer key, Integer value) -> Duration.ofMinutes(value)))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build();
+    assertThat(((BoundedLocalCache<?, ?>) cache.asMap()).readInsensitiveExpiry).isTrue();
+    return cache;
+  }
+}
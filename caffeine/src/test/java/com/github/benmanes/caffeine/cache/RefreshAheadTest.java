@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.testing.FakeTicker;
+
+public final class RefreshAheadTest {
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void refreshAhead_nullWindow() {
+    Caffeine.newBuilder().refreshAhead(null, 1, 1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void refreshAhead_zeroWindow() {
+    Caffeine.newBuilder().refreshAhead(Duration.ZERO, 1, 1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void refreshAhead_frequencyTooLow() {
+    Caffeine.newBuilder().refreshAhead(Duration.ofSeconds(1), 0, 1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void refreshAhead_frequencyTooHigh() {
+    Caffeine.newBuilder().refreshAhead(Duration.ofSeconds(1), 16, 1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void refreshAhead_zeroRate() {
+    Caffeine.newBuilder().refreshAhead(Duration.ofSeconds(1), 1, 0);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void refreshAhead_twice() {
+    Caffeine.newBuilder()
+        .refreshAhead(Duration.ofSeconds(1), 1, 1)
+        .refreshAhead(Duration.ofSeconds(1), 1, 1);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void refreshAhead_nonLoading() {
+    Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .refreshAhead(Duration.ofSeconds(1), 1, 1)
+        .maximumSize(10)
+        .build();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void refreshAhead_noMaximum() {
+    Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .refreshAhead(Duration.ofSeconds(1), 1, 1)
+        .build(key -> key);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void refreshAhead_noExpireAfterWrite() {
+    Caffeine.newBuilder()
+        .refreshAhead(Duration.ofSeconds(1), 1, 1)
+        .maximumSize(10)
+        .build(key -> key);
+  }
+
+  @Test
+  public void refreshAhead_popular() {
+    var ticker = new FakeTicker();
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = newCache(ticker, loads, /* rate */ 10);
+    cache.get(1);
+    cache.get(2);
+    readRepeatedly(cache, 1);
+
+    ticker.advance(45, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(loads.get()).isEqualTo(2);
+
+    ticker.advance(10, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(loads.get()).isEqualTo(3);
+    assertThat(cache.asMap()).containsExactly(1, 301, 2, 202);
+
+    ticker.advance(10, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(cache.asMap()).containsExactly(1, 301);
+  }
+
+  @Test
+  public void refreshAhead_rateLimited() {
+    var ticker = new FakeTicker();
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = newCache(ticker, loads, /* rate */ 1);
+    cache.get(1);
+    cache.get(2);
+    readRepeatedly(cache, 1);
+    readRepeatedly(cache, 2);
+
+    ticker.advance(55, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(loads.get()).isEqualTo(3);
+    assertThat(cache.asMap()).containsExactly(1, 301, 2, 202);
+
+    ticker.advance(1, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(loads.get()).isEqualTo(4);
+    assertThat(cache.asMap()).containsExactly(1, 301, 2, 402);
+  }
+
+  @Test
+  public void refreshAhead_coldEntriesAhead() {
+    var ticker = new FakeTicker();
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .refreshAhead(Duration.ofSeconds(10), /* minimumFrequency */ 3, /* rate */ 1_000)
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .maximumSize(100)
+        .build(key -> key + (100 * loads.incrementAndGet()));
+    for (int i = 0; i < RefreshAhead.SCAN_LIMIT + 10; i++) {
+      cache.get(i);
+    }
+    int hot = -1;
+    cache.get(hot);
+    readRepeatedly(cache, hot);
+    int loaded = loads.get();
+
+    ticker.advance(55, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(loads.get()).isEqualTo(loaded);
+
+    cache.cleanUp();
+    assertThat(loads.get()).isEqualTo(loaded + 1);
+  }
+
+  @Test
+  public void refreshAhead_toString() {
+    var builder = Caffeine.newBuilder().refreshAhead(Duration.ofNanos(10), 1, 1);
+    assertThat(builder.toString()).contains("refreshAhead=10ns");
+  }
+
+  private static LoadingCache<Integer, Integer> newCache(
+      FakeTicker ticker, AtomicInteger loads, int rate) {
+    return Caffeine.newBuilder()
+        .refreshAhead(Duration.ofSeconds(10), /* minimumFrequency */ 3, rate)
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .maximumSize(2)
+        .build(key -> key + (100 * loads.incrementAndGet()));
+  }
+
+  private static void readRepeatedly(LoadingCache<Integer, Integer> cache, int key) {
+    for (int i = 0; i < 5; i++) {
+      cache.getIfPresent(key);
+    }
+    cache.cleanUp();
+  }
+}
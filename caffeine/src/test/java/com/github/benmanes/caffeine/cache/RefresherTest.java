@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.testing.FakeTicker;
+
+public final class RefresherTest {
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void refreshAfter_null() {
+    Caffeine.newBuilder().refreshAfter(null);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void refreshAfter_twice() {
+    var refresher = new RecordingRefresher();
+    Caffeine.newBuilder().refreshAfter(refresher).refreshAfter(refresher);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void refreshAfter_refreshAfterWrite() {
+    Caffeine.newBuilder().refreshAfter(new RecordingRefresher())
+        .refreshAfterWrite(Duration.ofMinutes(1));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void refreshAfter_nonLoading() {
+    Caffeine.newBuilder().refreshAfter(new RecordingRefresher()).build();
+  }
+
+  @Test
+  public void refreshAfter_proactive() {
+    var ticker = new FakeTicker();
+    var loads = new AtomicInteger();
+    var refresher = new RecordingRefresher();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .refreshAfter(refresher)
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build(key -> key + (100 * loads.incrementAndGet()));
+    cache.get(1);
+    cache.get(60);
+    assertThat(refresher.events).containsExactly("create:1", "create:60");
+
+    ticker.advance(5, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(cache.asMap()).containsExactly(1, 301, 60, 260);
+    assertThat(refresher.events).containsExactly(
+        "create:1", "create:60", "reload:1").inOrder();
+
+    ticker.advance(60, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(cache.getIfPresent(60)).isNotEqualTo(260);
+    assertThat(refresher.events).contains("reload:60");
+  }
+
+  @Test
+  public void refreshAfter_update() {
+    var ticker = new FakeTicker();
+    var refresher = new RecordingRefresher();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .refreshAfter(refresher)
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build(key -> -key);
+    cache.put(1, 1);
+    cache.put(1, 2);
+    cache.cleanUp();
+    assertThat(refresher.events).containsExactly("create:1", "update:1").inOrder();
+  }
+
+  @Test
+  public void refreshAfter_removed() {
+    var ticker = new FakeTicker();
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .refreshAfter(new RecordingRefresher())
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build(key -> {
+          loads.incrementAndGet();
+          return key;
+        });
+    cache.get(1);
+    cache.invalidate(1);
+
+    ticker.advance(5, TimeUnit.SECONDS);
+    cache.cleanUp();
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(cache.asMap()).isEmpty();
+
+    var scheduler = ((BoundedLocalCache<?, ?>) cache.asMap()).refreshScheduler;
+    assertThat(scheduler.timers).isEmpty();
+  }
+
+  @Test
+  public void refreshAfter_setMaximum() {
+    var ticker = new FakeTicker();
+    var loads = new AtomicInteger();
+    LoadingCache<Integer, Integer> cache = Caffeine.newBuilder()
+        .refreshAfter(new RecordingRefresher())
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .maximumSize(100)
+        .build(key -> key + (100 * loads.incrementAndGet()));
+    cache.get(1);
+
+    var scheduler = ((BoundedLocalCache<?, ?>) cache.asMap()).refreshScheduler;
+    assertThat(scheduler.timerWheel).isInstanceOf(RefreshScheduler.RefreshWheel.class);
+
+    ticker.advance(5, TimeUnit.SECONDS);
+    cache.policy().eviction().orElseThrow().setMaximum(50);
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(cache.asMap()).containsExactly(1, 201);
+  }
+
+  /** Refreshes every second for each key below 10, and every minute for larger keys. */
+  static final class RecordingRefresher implements Refresher<Integer, Integer> {
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public long refreshAfterCreate(Integer key, Integer value, long currentTime) {
+      events.add("create:" + key);
+      return durationOf(key);
+    }
+    @Override
+    public long refreshAfterUpdate(Integer key, Integer value,
+        long currentTime, long currentDuration) {
+      events.add("update:" + key);
+      return durationOf(key);
+    }
+    @Override
+    public long refreshAfterReload(Integer key, Integer value,
+        long currentTime, long currentDuration) {
+      events.add("reload:" + key);
+      return durationOf(key);
+    }
+    long durationOf(int key) {
+      return (key < 10) ? TimeUnit.SECONDS.toNanos(1) : TimeUnit.MINUTES.toNanos(1);
+    }
+  }
+}
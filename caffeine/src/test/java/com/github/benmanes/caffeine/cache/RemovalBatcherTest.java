@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toList;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.annotations.Test;
+
+import com.github.benmanes.caffeine.cache.BatchRemovalListener.Removal;
+import com.google.common.testing.SerializableTester;
+
+public final class RemovalBatcherTest {
+
+  @Test
+  public void eviction_singleBatch() {
+    var batches = new ArrayList<List<Removal<Integer, Integer>>>();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .batchRemovalListener(batches::add)
+        .executor(Runnable::run)
+        .maximumSize(10)
+        .build();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, i);
+    }
+    assertThat(batches).isEmpty();
+
+    cache.policy().eviction().orElseThrow().setMaximum(0);
+    assertThat(batches).hasSize(1);
+    assertThat(batches.get(0)).hasSize(10);
+    assertThat(batches.get(0).stream().map(Removal::getCause).distinct().collect(toList()))
+        .containsExactly(RemovalCause.SIZE);
+  }
+
+  @Test
+  public void invalidate_ordered() {
+    var removals = new ArrayList<Removal<Integer, Integer>>();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .batchRemovalListener(removals::addAll)
+        .executor(Runnable::run)
+        .build();
+    cache.put(1, 1);
+    cache.put(1, 2);
+    cache.invalidate(1);
+
+    assertThat(removals.stream().map(Removal::getValue).collect(toList()))
+        .containsExactly(1, 2).inOrder();
+    assertThat(removals.stream().map(Removal::getCause).collect(toList()))
+        .containsExactly(RemovalCause.REPLACED, RemovalCause.EXPLICIT).inOrder();
+  }
+
+  @Test
+  public void invalidateAll_bounded() {
+    var removals = new ArrayList<Removal<Integer, Integer>>();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .batchRemovalListener(removals::addAll)
+        .executor(Runnable::run)
+        .maximumSize(100)
+        .build();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, i);
+    }
+    cache.invalidateAll();
+
+    assertThat(removals).hasSize(10);
+    assertThat(removals.stream().map(Removal::getCause).distinct().collect(toList()))
+        .containsExactly(RemovalCause.EXPLICIT);
+  }
+
+  @Test
+  public void invalidateAll_incremental() {
+    var removals = new ArrayList<Removal<Integer, Integer>>();
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .batchRemovalListener(removals::addAll)
+        .executor(Runnable::run)
+        .incrementalClear()
+        .maximumSize(100)
+        .build();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, i);
+    }
+    cache.invalidateAll();
+    assertThat(removals).hasSize(10);
+  }
+
+  @Test
+  public void run_bounded() {
+    var batches = new ArrayList<List<Removal<Integer, Integer>>>();
+    var batcher = new RemovalBatcher<Integer, Integer>(batches::add).bind(task -> {}, false);
+    for (int i = 0; i < (2 * RemovalBatcher.MAX_BATCH_SIZE) + 1; i++) {
+      batcher.onRemoval(i, i, RemovalCause.EXPLICIT);
+    }
+    batcher.run();
+    assertThat(batches.stream().map(List::size).collect(toList())).containsExactly(
+        RemovalBatcher.MAX_BATCH_SIZE, RemovalBatcher.MAX_BATCH_SIZE, 1).inOrder();
+  }
+
+  @Test
+  public void run_listenerFails() {
+    var batches = new ArrayList<List<Removal<Integer, Integer>>>();
+    var batcher = new RemovalBatcher<Integer, Integer>(removals -> {
+      batches.add(removals);
+      throw new IllegalStateException();
+    }).bind(Runnable::run, false);
+    batcher.onRemoval(1, 1, RemovalCause.EXPLICIT);
+    batcher.schedule();
+    batcher.onRemoval(2, 2, RemovalCause.EXPLICIT);
+    batcher.schedule();
+
+    assertThat(batches).hasSize(2);
+    assertThat(batcher.scheduled.get()).isFalse();
+  }
+
+  @Test
+  public void async_incomplete() {
+    var removals = new ArrayList<Removal<Integer, Object>>();
+    var batcher = new RemovalBatcher<Integer, Object>(removals::addAll).bind(Runnable::run, true);
+    var future = new CompletableFuture<Integer>();
+    batcher.onRemoval(1, future, RemovalCause.EXPLICIT);
+    batcher.schedule();
+    assertThat(removals).isEmpty();
+
+    future.complete(2);
+    assertThat(removals).hasSize(1);
+    assertThat(removals.get(0).getValue()).isEqualTo(2);
+  }
+
+  @Test
+  public void serialize() {
+    BatchRemovalListener<Integer, Integer> listener =
+        (BatchRemovalListener<Integer, Integer> & Serializable) removals -> {};
+    var batcher = new RemovalBatcher<>(listener).bind(Runnable::run, false);
+    var copy = SerializableTester.reserialize(batcher);
+    assertThat(copy.executor).isNull();
+    assertThat(copy.pending).isEmpty();
+  }
+}
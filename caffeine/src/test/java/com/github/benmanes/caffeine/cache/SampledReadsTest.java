@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.testng.annotations.Test;
+
+import com.github.benmanes.caffeine.cache.Policy.Diagnostics;
+import com.google.common.testing.SerializableTester;
+
+public final class SampledReadsTest {
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void sampleReads_zero() {
+    Caffeine.newBuilder().sampleReads(0);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void sampleReads_twice() {
+    Caffeine.newBuilder().sampleReads(2).sampleReads(2);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void sampleReads_unbounded() {
+    Caffeine.newBuilder().sampleReads(2).build();
+  }
+
+  @Test
+  public void getIfPresent_unsampled() {
+    Cache<Integer, Integer> cache = newCache(Integer.MAX_VALUE);
+    Diagnostics diagnostics = cache.policy().diagnostics().orElseThrow();
+    long offers = diagnostics.readBufferOffers();
+    for (int i = 0; i < 100; i++) {
+      assertThat(cache.getIfPresent(1)).isEqualTo(1);
+    }
+    assertThat(cache.stats().hitCount()).isEqualTo(100);
+    assertThat(diagnostics.readBufferOffers()).isEqualTo(offers);
+  }
+
+  @Test
+  public void onAccess_unweighted() {
+    Cache<Integer, Integer> cache = newCache(4);
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    int frequency = localCache.frequencySketch().frequency(1);
+    int hits = localCache.hitsInSample();
+
+    localCache.evictionLock.lock();
+    try {
+      localCache.onAccess(localCache.data.get(1));
+    } finally {
+      localCache.evictionLock.unlock();
+    }
+    assertThat(localCache.frequencySketch().frequency(1)).isEqualTo(frequency + 1);
+    assertThat(localCache.hitsInSample()).isEqualTo(hits + 1);
+  }
+
+  @Test
+  public void put_unsampled() {
+    Cache<Integer, Integer> cache = newCache(Integer.MAX_VALUE);
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    cache.put(1_000, 1_000);
+    cache.cleanUp();
+    assertThat(localCache.frequencySketch().frequency(1_000)).isEqualTo(0);
+  }
+
+  @Test
+  public void put_sampled() {
+    Cache<Integer, Integer> cache = newCache(1);
+    var localCache = (BoundedLocalCache<Integer, Integer>) cache.asMap();
+    cache.put(1_000, 1_000);
+    cache.cleanUp();
+    assertThat(localCache.frequencySketch().frequency(1_000)).isEqualTo(1);
+  }
+
+  @Test
+  public void sampleSize_scaled() {
+    var unsampled = (BoundedLocalCache<Integer, Integer>) newCache(1).asMap();
+    var sampled = (BoundedLocalCache<Integer, Integer>) newCache(4).asMap();
+    assertThat(sampled.frequencySketch().sampleSize)
+        .isEqualTo(unsampled.frequencySketch().sampleSize / 4);
+  }
+
+  @Test
+  public void serialize() {
+    Cache<Integer, Integer> cache = newCache(4);
+    var copy = (BoundedLocalCache<?, ?>) SerializableTester.reserialize(cache).asMap();
+    assertThat(copy.readSampleRate).isEqualTo(4);
+  }
+
+  /** Returns a cache whose frequency sketch is initialized. */
+  private static Cache<Integer, Integer> newCache(int rate) {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .maximumSize(100)
+        .sampleReads(rate)
+        .recordStats()
+        .build();
+    for (int i = 0; i < 60; i++) {
+      cache.put(i, i);
+    }
+    cache.cleanUp();
+    return cache;
+  }
+}
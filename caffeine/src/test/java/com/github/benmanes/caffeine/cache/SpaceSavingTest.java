@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+public final class SpaceSavingTest {
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void construct_zero() {
+    new SpaceSaving(0);
+  }
+
+  @Test
+  public void publish_empty() {
+    var tracker = new SpaceSaving(4);
+    tracker.publish();
+    assertThat(tracker.snapshot).isSameInstanceAs(SpaceSaving.EMPTY);
+  }
+
+  @Test
+  public void publish_unmodified() {
+    var tracker = new SpaceSaving(4);
+    tracker.record(1, 0);
+    tracker.publish();
+
+    var snapshot = tracker.snapshot;
+    tracker.publish();
+    assertThat(tracker.snapshot).isSameInstanceAs(snapshot);
+  }
+
+  @Test
+  public void record_ordered() {
+    var tracker = new SpaceSaving(4);
+    for (int i = 1; i <= 4; i++) {
+      for (int j = 0; j < i; j++) {
+        tracker.record(i, 0);
+      }
+    }
+    tracker.publish();
+    assertThat(tracker.snapshot.elements).asList().containsExactly(4, 3, 2, 1).inOrder();
+    assertThat(tracker.snapshot.counts).asList().containsExactly(4L, 3L, 2L, 1L).inOrder();
+  }
+
+  @Test
+  public void record_replacesMinimum() {
+    var tracker = new SpaceSaving(2);
+    tracker.record(1, 0);
+    tracker.record(1, 0);
+    tracker.record(2, 0);
+    tracker.record(3, 0);
+    tracker.publish();
+
+    assertThat(tracker.index.get(1)).isAtLeast(0);
+    assertThat(tracker.index.get(2)).isEqualTo(-1);
+    assertThat(tracker.index.get(3)).isAtLeast(0);
+    assertThat(tracker.snapshot.counts).asList().containsExactly(2L, 2L);
+  }
+
+  @Test
+  public void record_indexed() {
+    var tracker = new SpaceSaving(16);
+    var random = new Random(1_000);
+    for (int i = 0; i < 100_000; i++) {
+      tracker.record(random.nextInt(100), 0);
+    }
+    int monitored = 0;
+    for (int key = 0; key < 100; key++) {
+      int slot = tracker.index.get(key);
+      if (slot >= 0) {
+        assertThat(tracker.elements[slot]).isEqualTo(key);
+        monitored++;
+      }
+    }
+    assertThat(monitored).isEqualTo(16);
+  }
+
+  @Test
+  public void record_aged() {
+    var tracker = new SpaceSaving(2);
+    for (int i = 0; i < 10; i++) {
+      tracker.record(1, 0);
+    }
+    tracker.record(2, 1);
+    tracker.publish();
+    assertThat(tracker.snapshot.elements).asList().containsExactly(1, 2).inOrder();
+    assertThat(tracker.snapshot.counts).asList().containsExactly(5L, 1L).inOrder();
+  }
+
+  @Test
+  public void record_skewed() {
+    var tracker = new SpaceSaving(50);
+    var random = new Random(1_000);
+    var frequencies = new long[1_000];
+    for (int i = 0; i < 100_000; i++) {
+      // A skewed distribution where the smallest keys are the most popular
+      int key = (int) Math.floor(Math.pow(random.nextDouble(), 4) * frequencies.length);
+      frequencies[key]++;
+      tracker.record(key, 0);
+    }
+    tracker.publish();
+
+    assertThat(Arrays.asList(tracker.snapshot.elements).subList(0, 4))
+        .containsExactly(0, 1, 2, 3).inOrder();
+    for (int i = 0; i < tracker.snapshot.elements.length; i++) {
+      int key = (Integer) tracker.snapshot.elements[i];
+      assertThat(tracker.snapshot.counts[i]).isAtLeast(frequencies[key]);
+    }
+  }
+
+  @Test
+  public void heavyHitters_policy() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .recordHeavyHitters(4)
+        .maximumSize(60)
+        .build();
+    for (int i = 0; i < 50; i++) {
+      cache.put(i, i);
+    }
+    for (int i = 0; i < 50; i++) {
+      cache.getIfPresent(1);
+      cache.getIfPresent(2);
+      cache.getIfPresent(i);
+    }
+    cache.cleanUp();
+
+    var heavyHitters = cache.policy().heavyHitters().orElseThrow();
+    assertThat(heavyHitters.capacity()).isEqualTo(4);
+    assertThat(heavyHitters.hottest(0)).isEmpty();
+    assertThat(heavyHitters.hottest(2).keySet()).containsExactly(1, 2);
+    assertThat(heavyHitters.hottest(10)).hasSize(4);
+  }
+
+  @Test
+  public void heavyHitters_disabled() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder().maximumSize(100).build();
+    assertThat(cache.policy().heavyHitters()).isEmpty();
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void heavyHitters_unbounded() {
+    Caffeine.newBuilder().recordHeavyHitters(10).build();
+  }
+}
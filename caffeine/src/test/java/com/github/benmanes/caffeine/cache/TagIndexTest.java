@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.annotations.Test;
+
+import com.google.common.testing.FakeTicker;
+
+public final class TagIndexTest {
+
+  @Test
+  public void tags_disabled() {
+    Cache<Integer, Integer> cache = Caffeine.newBuilder().maximumSize(100).build();
+    assertThat(cache.policy().tags()).isEmpty();
+  }
+
+  @Test
+  public void tags_unbounded() {
+    Cache<Integer, String> cache = Caffeine.newBuilder()
+        .<Integer, String>tagger((key, value) -> Set.of(value))
+        .build();
+    assertThat(cache.asMap()).isInstanceOf(BoundedLocalCache.class);
+    assertThat(cache.policy().tags()).isPresent();
+  }
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void invalidate_null() {
+    newCache().policy().tags().orElseThrow().invalidate(null);
+  }
+
+  @Test
+  public void keys() {
+    var cache = newCache();
+    cache.put(1, "a");
+    cache.put(2, "a");
+    cache.put(3, "b");
+
+    var tags = cache.policy().tags().orElseThrow();
+    assertThat(tags.keys("a")).containsExactly(1, 2);
+    assertThat(tags.keys("b")).containsExactly(3);
+    assertThat(tags.keys("c")).isEmpty();
+  }
+
+  @Test
+  public void invalidate() {
+    var removed = new ArrayList<Integer>();
+    Cache<Integer, String> cache = Caffeine.newBuilder()
+        .<Integer, String>tagger((key, value) -> Set.of(value))
+        .removalListener((Integer key, String value, RemovalCause cause) -> removed.add(key))
+        .executor(Runnable::run)
+        .build();
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, ((i % 2) == 0) ? "even" : "odd");
+    }
+
+    cache.policy().tags().orElseThrow().invalidate("even");
+    assertThat(cache.estimatedSize()).isEqualTo(50);
+    assertThat(removed).hasSize(50);
+    assertThat(cache.asMap().keySet().stream().allMatch(key -> (key % 2) == 1)).isTrue();
+    assertThat(index(cache).members).doesNotContainKey("even");
+  }
+
+  @Test
+  public void update_retagged() {
+    var cache = newCache();
+    cache.put(1, "a");
+    cache.put(1, "b");
+
+    var tags = cache.policy().tags().orElseThrow();
+    assertThat(tags.keys("a")).isEmpty();
+    assertThat(tags.keys("b")).containsExactly(1);
+
+    tags.invalidate("a");
+    assertThat(cache.getIfPresent(1)).isEqualTo("b");
+    tags.invalidate("b");
+    assertThat(cache.getIfPresent(1)).isNull();
+  }
+
+  @Test
+  public void removal_unindexed() {
+    var cache = newCache();
+    cache.put(1, "a");
+    cache.put(2, "a");
+    cache.invalidate(1);
+    cache.asMap().remove(2, "a");
+    cache.cleanUp();
+
+    assertThat(index(cache).members).isEmpty();
+    assertThat(index(cache).tagsByNode).isEmpty();
+  }
+
+  @Test
+  public void eviction_unindexed() {
+    Cache<Integer, String> cache = Caffeine.newBuilder()
+        .<Integer, String>tagger((key, value) -> Set.of(value))
+        .executor(Runnable::run)
+        .maximumSize(10)
+        .build();
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, "a");
+    }
+    cache.cleanUp();
+
+    assertThat(index(cache).members("a")).hasSize(10);
+    assertThat(index(cache).tagsByNode).hasSize(10);
+  }
+
+  @Test
+  public void expiration_unindexed() {
+    var ticker = new FakeTicker();
+    Cache<Integer, String> cache = Caffeine.newBuilder()
+        .<Integer, String>tagger((key, value) -> Set.of(value))
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .executor(Runnable::run)
+        .ticker(ticker::read)
+        .build();
+    cache.put(1, "a");
+    ticker.advance(Duration.ofMinutes(2));
+    cache.cleanUp();
+
+    assertThat(index(cache).members).isEmpty();
+  }
+
+  @Test
+  public void tagger_throws() {
+    Cache<Integer, String> cache = Caffeine.newBuilder()
+        .<Integer, String>tagger((key, value) -> { throw new IllegalStateException(); })
+        .executor(Runnable::run)
+        .build();
+    cache.put(1, "a");
+    cache.cleanUp();
+
+    assertThat(cache.getIfPresent(1)).isEqualTo("a");
+    assertThat(index(cache).members).isEmpty();
+  }
+
+  @Test
+  public void async() {
+    var future = new CompletableFuture<String>();
+    AsyncCache<Integer, String> cache = Caffeine.newBuilder()
+        .<Integer, String>tagger((key, value) -> Set.of(value))
+        .executor(Runnable::run)
+        .buildAsync();
+    cache.put(1, future);
+
+    var tags = cache.synchronous().policy().tags().orElseThrow();
+    assertThat(tags.keys("a")).isEmpty();
+
+    future.complete("a");
+    assertThat(tags.keys("a")).containsExactly(1);
+
+    tags.invalidate("a");
+    assertThat(cache.getIfPresent(1)).isNull();
+  }
+
+  private static Cache<Integer, String> newCache() {
+    return Caffeine.newBuilder()
+        .<Integer, String>tagger((key, value) -> Set.of(value))
+        .executor(Runnable::run)
+        .build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static TagIndex<Integer, String> index(Cache<Integer, String> cache) {
+    return ((BoundedLocalCache<Integer, String>) cache.asMap()).tagIndex;
+  }
+}
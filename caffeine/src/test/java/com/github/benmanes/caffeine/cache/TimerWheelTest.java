@@ -427,6 +427,91 @@ public final class TimerWheelTest {
     return scenarios.iterator();
   }
 
+  @Test(dataProvider = "clock")
+  public void iterator(long clock) {
+    timerWheel.nanos = clock;
+    for (int i = 0; i < 21; i++) {
+      timerWheel.schedule(new Timer(clock + TimeUnit.SECONDS.toNanos(2L << i)));
+    }
+
+    for (boolean ascending : new boolean[] { true, false }) {
+      var keys = new ArrayList<Long>();
+      timerWheel.iterator(ascending).forEachRemaining(node -> keys.add(node.getKey()));
+      assertThat(keys).isEqualTo(snapshot(ascending, Integer.MAX_VALUE, Function.identity()));
+    }
+  }
+
+  @Test(dataProvider = "clock")
+  public void iterator_resumed(long clock) {
+    timerWheel.nanos = clock;
+    var timers = new ArrayList<Timer>();
+    for (int i = 0; i < 3; i++) {
+      var timer = new Timer(clock + TimeUnit.SECONDS.toNanos(5) + i);
+      timerWheel.schedule(timer);
+      timers.add(timer);
+    }
+    var later = new Timer(clock + TimeUnit.HOURS.toNanos(2));
+    timerWheel.schedule(later);
+
+    var iterator = timerWheel.iterator(/* ascending */ true);
+    assertThat(iterator.next()).isSameInstanceAs(timers.get(0));
+
+    // The current position moves into a bucket that will be visited later
+    timers.get(0).setVariableTime(clock + TimeUnit.DAYS.toNanos(2));
+    timerWheel.reschedule(timers.get(0));
+
+    var keys = new ArrayList<Long>();
+    iterator.forEachRemaining(node -> keys.add(node.getKey()));
+    assertThat(keys).containsAtLeast(later.getKey(), timers.get(0).getKey(),
+        timers.get(1).getKey(), timers.get(2).getKey());
+  }
+
+  @Test(dataProvider = "clock")
+  public void iterator_descheduled(long clock) {
+    timerWheel.nanos = clock;
+    var timers = new ArrayList<Timer>();
+    for (int i = 0; i < 5; i++) {
+      var timer = new Timer(clock + TimeUnit.SECONDS.toNanos(5) + i);
+      timerWheel.schedule(timer);
+      timers.add(timer);
+    }
+    var later = new Timer(clock + TimeUnit.HOURS.toNanos(2));
+    timerWheel.schedule(later);
+
+    var iterator = timerWheel.iterator(/* ascending */ true);
+    assertThat(iterator.next()).isSameInstanceAs(timers.get(0));
+    assertThat(iterator.next()).isSameInstanceAs(timers.get(1));
+
+    // The current position and its following neighbor are removed between batches
+    timerWheel.deschedule(timers.get(1));
+    timerWheel.deschedule(timers.get(2));
+
+    var keys = new ArrayList<Long>();
+    iterator.forEachRemaining(node -> keys.add(node.getKey()));
+    assertThat(keys).containsExactly(timers.get(3).getKey(),
+        timers.get(4).getKey(), later.getKey()).inOrder();
+  }
+
+  @Test(dataProvider = "clock")
+  public void iterator_descheduledFirst(long clock) {
+    timerWheel.nanos = clock;
+    var timers = new ArrayList<Timer>();
+    for (int i = 0; i < 3; i++) {
+      var timer = new Timer(clock + TimeUnit.SECONDS.toNanos(5) + i);
+      timerWheel.schedule(timer);
+      timers.add(timer);
+    }
+
+    var iterator = timerWheel.iterator(/* ascending */ false);
+    assertThat(iterator.next()).isSameInstanceAs(timers.get(2));
+    timerWheel.deschedule(timers.get(2));
+
+    var keys = new ArrayList<Long>();
+    iterator.forEachRemaining(node -> keys.add(node.getKey()));
+    assertThat(keys).containsExactly(
+        timers.get(1).getKey(), timers.get(0).getKey()).inOrder();
+  }
+
   private static final class Timer extends Node<Long, Long> {
     Node<Long, Long> prev;
     Node<Long, Long> next;
@@ -49,5 +49,6 @@ public final class UnboundedLocalCacheTest {
     assertThat(cache.policy().expireAfterWrite()).isEmpty();
     assertThat(cache.policy().expireAfterAccess()).isEmpty();
     assertThat(cache.policy().refreshAfterWrite()).isEmpty();
+    assertThat(cache.policy().diagnostics()).isEmpty();
   }
 }
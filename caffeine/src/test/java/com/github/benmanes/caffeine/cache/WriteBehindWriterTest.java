@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 The Caffeine Authors. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.benmanes.caffeine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+public final class WriteBehindWriterTest {
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void flushInterval_zero() {
+    WriteBehindWriter.newBuilder().flushInterval(Duration.ZERO);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void maximumBatchSize_zero() {
+    WriteBehindWriter.newBuilder().maximumBatchSize(0);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void maximumPendingWrites_belowBatchSize() {
+    WriteBehindWriter.newBuilder()
+        .maximumBatchSize(10)
+        .maximumPendingWrites(5)
+        .build(batch -> {});
+  }
+
+  @Test
+  public void write_coalesced() {
+    var timers = new ArrayList<Runnable>();
+    var batches = new ArrayList<Map<Integer, Integer>>();
+    WriteBehindWriter<Integer, Integer> writer = WriteBehindWriter.newBuilder()
+        .scheduler((executor, command, delay, unit) -> {
+          timers.add(command);
+          return CompletableFuture.completedFuture(null);
+        })
+        .executor(Runnable::run)
+        .build(batches::add, Integer::sum);
+    writer.write(1, 1);
+    writer.write(1, 2);
+    writer.write(2, 3);
+    assertThat(writer.pendingWrites()).isEqualTo(2);
+    assertThat(timers).hasSize(1);
+    assertThat(batches).isEmpty();
+
+    timers.get(0).run();
+    assertThat(writer.pendingWrites()).isEqualTo(0);
+    assertThat(batches).containsExactly(Map.of(1, 3, 2, 3));
+  }
+
+  @Test
+  public void write_batchSize() {
+    var batches = new ArrayList<Map<Integer, Integer>>();
+    WriteBehindWriter<Integer, Integer> writer = WriteBehindWriter.newBuilder()
+        .scheduler(Scheduler.disabledScheduler())
+        .executor(Runnable::run)
+        .maximumBatchSize(3)
+        .build(batches::add);
+    for (int i = 0; i < 3; i++) {
+      writer.write(i, i);
+    }
+    assertThat(batches).containsExactly(Map.of(0, 0, 1, 1, 2, 2));
+    assertThat(writer.pendingWrites()).isEqualTo(0);
+  }
+
+  @Test
+  public void write_backpressure() {
+    var tasks = new ArrayList<Runnable>();
+    var batches = new ArrayList<Map<Integer, Integer>>();
+    WriteBehindWriter<Integer, Integer> writer = WriteBehindWriter.newBuilder()
+        .scheduler(Scheduler.disabledScheduler())
+        .maximumPendingWrites(4)
+        .maximumBatchSize(2)
+        .executor(tasks::add)
+        .build(batches::add);
+    for (int i = 0; i < 4; i++) {
+      writer.write(i, i);
+    }
+    assertThat(tasks).hasSize(1);
+    assertThat(batches).hasSize(1);
+    assertThat(writer.pendingWrites()).isEqualTo(2);
+  }
+
+  @Test
+  public void compute() {
+    var batches = new ArrayList<Map<Integer, Integer>>();
+    WriteBehindWriter<Integer, Integer> writer = WriteBehindWriter.newBuilder()
+        .scheduler(Scheduler.disabledScheduler())
+        .build(batches::add);
+    Cache<Integer, Integer> cache = Caffeine.newBuilder().build();
+
+    for (int i = 0; i < 5; i++) {
+      writer.compute(cache, 1, (key, count) -> (count == null) ? 1 : count + 1);
+    }
+    writer.compute(cache, 2, (key, value) -> null);
+    assertThat(cache.asMap()).containsExactly(1, 5);
+    assertThat(writer.pendingWrites()).isEqualTo(1);
+
+    writer.flush();
+    assertThat(batches).containsExactly(Map.of(1, 5));
+  }
+
+  @Test
+  public void flush_failure() {
+    var fail = new AtomicBoolean(true);
+    var batches = new ArrayList<Map<Integer, List<Integer>>>();
+    WriteBehindWriter<Integer, List<Integer>> writer = WriteBehindWriter.newBuilder()
+        .scheduler(Scheduler.disabledScheduler())
+        .build(batch -> {
+          if (fail.get()) {
+            throw new IllegalStateException();
+          }
+          batches.add(batch);
+        }, (older, newer) -> {
+          var combined = new ArrayList<>(older);
+          combined.addAll(newer);
+          return combined;
+        });
+    writer.write(1, List.of(1));
+    writer.flush();
+    assertThat(writer.pendingWrites()).isEqualTo(1);
+
+    writer.write(1, List.of(2));
+    fail.set(false);
+    writer.flush();
+    assertThat(batches).containsExactly(Map.of(1, List.of(1, 2)));
+  }
+}
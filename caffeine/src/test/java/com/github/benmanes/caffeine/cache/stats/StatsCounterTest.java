@@ -28,6 +28,7 @@ import org.testng.annotations.Test;
 
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.testing.ConcurrentTestHarness;
+import com.google.common.collect.Range;
 
 /**
  * @author ben.manes@gmail.com (Ben Manes)
@@ -67,6 +68,58 @@ public final class StatsCounterTest {
     assertThat(counter.snapshot()).isEqualTo(CacheStats.of(2, 2, 2, 2, 4, 2, 20));
   }
 
+  @Test
+  public void enabled_refresh() {
+    var counter = new ConcurrentStatsCounter();
+    counter.recordRefreshSuccess(1);
+    counter.recordRefreshFailure(1);
+    assertThat(counter.snapshot()).isEqualTo(CacheStats.of(0, 0, 1, 1, 2, 0, 0));
+  }
+
+  @Test
+  public void enabled_latencies() {
+    var counter = new ConcurrentStatsCounter(/* recordLatencies */ true);
+    for (int i = 1; i <= 100; i++) {
+      counter.recordLoadSuccess(i);
+    }
+    counter.recordLoadFailure(1_000);
+    counter.recordRefreshSuccess(50_000);
+    counter.recordRefreshFailure(50_000);
+
+    var stats = counter.snapshot();
+    assertThat(stats.loadSuccessCount()).isEqualTo(101);
+    assertThat(stats.loadFailureCount()).isEqualTo(2);
+    assertThat(stats.loadSuccessLatency(0.0)).isEqualTo(1);
+    assertThat(stats.loadSuccessLatency(0.5)).isIn(Range.closed(50L, 56L));
+    assertThat(stats.loadSuccessLatency(1.0)).isIn(Range.closed(100L, 112L));
+    assertThat(stats.loadFailureLatency(0.99)).isIn(Range.closed(1_000L, 1_125L));
+    assertThat(stats.refreshLatency(0.5)).isIn(Range.closed(50_000L, 56_250L));
+
+    counter.incrementBy(counter);
+    var doubled = counter.snapshot();
+    assertThat(doubled.loadSuccessLatency(0.5)).isEqualTo(stats.loadSuccessLatency(0.5));
+    assertThat(doubled.minus(stats)).isEqualTo(stats);
+    assertThat(stats.plus(stats)).isEqualTo(doubled);
+  }
+
+  @Test
+  public void disabled_latencies() {
+    var counter = new ConcurrentStatsCounter();
+    counter.recordLoadSuccess(100);
+    counter.recordLoadFailure(100);
+    counter.recordRefreshSuccess(100);
+
+    var stats = counter.snapshot();
+    assertThat(stats.loadSuccessLatency(0.5)).isEqualTo(0L);
+    assertThat(stats.loadFailureLatency(0.5)).isEqualTo(0L);
+    assertThat(stats.refreshLatency(0.5)).isEqualTo(0L);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void latency_invalidPercentile() {
+    new ConcurrentStatsCounter(/* recordLatencies */ true).snapshot().loadSuccessLatency(1.5);
+  }
+
   @Test
   public void concurrent() {
     var counter = new ConcurrentStatsCounter();
@@ -109,6 +162,8 @@ public final class StatsCounterTest {
     doThrow(NullPointerException.class).when(statsCounter).recordEviction(anyInt(), any());
     doThrow(NullPointerException.class).when(statsCounter).recordLoadSuccess(anyLong());
     doThrow(NullPointerException.class).when(statsCounter).recordLoadFailure(anyLong());
+    doThrow(NullPointerException.class).when(statsCounter).recordRefreshSuccess(anyLong());
+    doThrow(NullPointerException.class).when(statsCounter).recordRefreshFailure(anyLong());
 
     var guarded = StatsCounter.guardedStatsCounter(statsCounter);
     guarded.recordHits(1);
@@ -116,6 +171,8 @@ public final class StatsCounterTest {
     guarded.recordEviction(10, RemovalCause.SIZE);
     guarded.recordLoadSuccess(1);
     guarded.recordLoadFailure(1);
+    guarded.recordRefreshSuccess(1);
+    guarded.recordRefreshFailure(1);
     assertThat(guarded.snapshot()).isEqualTo(CacheStats.empty());
 
     verify(statsCounter).recordHits(1);
@@ -123,6 +180,8 @@ public final class StatsCounterTest {
     verify(statsCounter).recordEviction(10, RemovalCause.SIZE);
     verify(statsCounter).recordLoadSuccess(1);
     verify(statsCounter).recordLoadFailure(1);
+    verify(statsCounter).recordRefreshSuccess(1);
+    verify(statsCounter).recordRefreshFailure(1);
   }
 
   @Test
@@ -104,6 +104,7 @@ public final class CacheContext {
   final Stats stats;
 
   final boolean isAsyncLoading;
+  final boolean incrementalClear;
 
   CacheBuilder<Object, Object> guava;
   Caffeine<Object, Object> caffeine;
@@ -155,6 +156,7 @@ public final class CacheContext {
     this.compute = compute;
     this.expiryType = expiryType;
     this.expiryTime = cacheSpec.expiryTime();
+    this.incrementalClear = cacheSpec.incrementalClear();
     this.expiry = expiryType.createExpiry(expiryTime);
   }
 
@@ -421,6 +423,10 @@ public final class CacheContext {
     return expiryTime;
   }
 
+  public boolean isIncrementalClear() {
+    return incrementalClear;
+  }
+
   public Expire expireAfterAccess() {
     return afterAccess;
   }
@@ -503,6 +509,7 @@ public final class CacheContext {
         .add("evictionListener", evictionListenerType)
         .add("initialCapacity", initialCapacity)
         .add("stats", stats)
+        .add("incrementalClear", incrementalClear)
         .add("implementation", implementation)
         .toString();
   }
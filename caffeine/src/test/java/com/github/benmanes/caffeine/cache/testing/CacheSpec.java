@@ -136,6 +136,11 @@ public @interface CacheSpec {
     DISABLED
   }
 
+  /* --------------- Clear --------------- */
+
+  /** Indicates that the cache discards its entries in batches when cleared. */
+  boolean incrementalClear() default false;
+
   /* --------------- Maximum size --------------- */
 
   /** The maximum size, each resulting in a new combination. */
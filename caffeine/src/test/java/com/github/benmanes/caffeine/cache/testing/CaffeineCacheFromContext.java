@@ -52,6 +52,9 @@ public final class CaffeineCacheFromContext {
     if (context.isRecordingStats()) {
       builder.recordStats();
     }
+    if (context.isIncrementalClear()) {
+      builder.incrementalClear();
+    }
     if (context.maximum() != Maximum.DISABLED) {
       if (context.weigher() == CacheWeigher.DEFAULT) {
         builder.maximumSize(context.maximum().max());
@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.google.common.collect.testing.ConcurrentMapTestSuiteBuilder;
@@ -60,6 +62,17 @@ public final class MapTestFactory {
     return tests.stream();
   }
 
+  /** Returns a test suite for the cache and, if not null, its asynchronous counterpart. */
+  public static Stream<TestSuite> makeTests(String name, Cache<String, String> cache,
+      @Nullable AsyncCache<String, String> asyncCache) {
+    var tests = new ArrayList<TestSuite>(2);
+    tests.add(newTestSuite("Cache[" + name + "]", synchronousGenerator(cache)));
+    if (asyncCache != null) {
+      tests.add(newTestSuite("AsyncCache[" + name + "]", asynchronousGenerator(asyncCache)));
+    }
+    return tests.stream();
+  }
+
   /** Returns a test suite. */
   private static TestSuite newTestSuite(String name, TestMapGenerator<?, ?> generator) {
     return ConcurrentMapTestSuiteBuilder
@@ -42,7 +42,7 @@ public final class CaffeinePolicy implements Policy {
 
   public CaffeinePolicy(Config config, Set<Characteristic> characteristics) {
     policyStats = new PolicyStats(name());
-    BasicSettings settings = new BasicSettings(config);
+    CaffeineSettings settings = new CaffeineSettings(config);
     Caffeine<Long, AccessEvent> builder = Caffeine.newBuilder()
         .removalListener((Long key, AccessEvent value, RemovalCause cause) ->
             policyStats.recordEviction())
@@ -54,6 +54,9 @@ public final class CaffeinePolicy implements Policy {
       builder.maximumSize(settings.maximumSize());
       builder.initialCapacity(Ints.saturatedCast(settings.maximumSize()));
     }
+    if (settings.readSampleRate() > 1) {
+      builder.sampleReads(settings.readSampleRate());
+    }
     cache = builder.build();
   }
 
@@ -75,4 +78,13 @@ public final class CaffeinePolicy implements Policy {
   public PolicyStats stats() {
     return policyStats;
   }
+
+  static final class CaffeineSettings extends BasicSettings {
+    public CaffeineSettings(Config config) {
+      super(config);
+    }
+    public int readSampleRate() {
+      return config().getInt("caffeine.read-sample-rate");
+    }
+  }
 }